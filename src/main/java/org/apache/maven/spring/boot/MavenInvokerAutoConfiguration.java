@@ -1,6 +1,7 @@
 package org.apache.maven.spring.boot;
 
 import java.io.File;
+import java.util.stream.Collectors;
 
 import org.apache.maven.shared.invoker.DefaultInvoker;
 import org.apache.maven.shared.invoker.InvocationOutputHandler;
@@ -9,15 +10,43 @@ import org.apache.maven.shared.invoker.InvokerLogger;
 import org.apache.maven.shared.invoker.PrintStreamHandler;
 import org.apache.maven.shared.invoker.SystemOutHandler;
 import org.apache.maven.shared.invoker.SystemOutLogger;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
 import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.MavenResourceListener;
+import org.apache.maven.spring.boot.ext.cds.CdsArchiveInterceptor;
+import org.apache.maven.spring.boot.ext.cds.CdsArchiveManager;
+import org.apache.maven.spring.boot.ext.container.ForkAdmissionController;
+import org.apache.maven.spring.boot.ext.container.ForkAdmissionInterceptor;
+import org.apache.maven.spring.boot.ext.identify.ArtifactIdentifier;
+import org.apache.maven.spring.boot.ext.installation.InstallationRoutingInterceptor;
+import org.apache.maven.spring.boot.ext.installation.InstallationSelector;
+import org.apache.maven.spring.boot.ext.installation.MavenInstallationRegistry;
+import org.apache.maven.spring.boot.ext.model.EffectiveModelReader;
+import org.apache.maven.spring.boot.ext.offline.DependencyPrewarmer;
+import org.apache.maven.spring.boot.ext.offline.OfflineInterceptor;
+import org.apache.maven.spring.boot.ext.offline.ProjectFingerprinter;
+import org.apache.maven.spring.boot.ext.offline.WarmFingerprints;
+import org.apache.maven.spring.boot.ext.queue.DurableInvocationQueue;
+import org.apache.maven.spring.boot.ext.reactor.AdaptiveThreadsInterceptor;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryCleaner;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryIndex;
+import org.apache.maven.spring.boot.ext.repository.RepositoryLock;
+import org.apache.maven.spring.boot.ext.repository.RepositoryLockInterceptor;
+import org.apache.maven.spring.boot.ext.retry.RetryInterceptor;
+import org.apache.maven.spring.boot.ext.retry.TransientFailureClassifier;
+import org.apache.maven.spring.boot.ext.trace.InvocationTracer;
+import org.apache.maven.spring.boot.ext.trace.SpanExporter;
+import org.apache.maven.spring.boot.ext.trace.TracingInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.StringUtils;
 
-@Configuration
+@Configuration(proxyBeanMethods = false)
 @ConditionalOnClass({ DefaultInvoker.class })
 @EnableConfigurationProperties({ MavenInvokerProperties.class })
 public class MavenInvokerAutoConfiguration {
@@ -50,18 +79,9 @@ public class MavenInvokerAutoConfiguration {
 		// Sets the handler used to capture the error output from the Maven build.
 		invoker.setErrorHandler(errorHandler);
 		// Sets the path to the base directory of the local repository to use for the
-		// Maven invocation.
-		if (StringUtils.hasText(properties.getLocalRepository())) {
-			File localRepositoryDirectory = new File(properties.getLocalRepository());
-			if (localRepositoryDirectory.exists() && localRepositoryDirectory.isDirectory()) {
-				invoker.setLocalRepositoryDirectory(localRepositoryDirectory);
-			} else {
-				localRepositoryDirectory.mkdir();
-				invoker.setLocalRepositoryDirectory(localRepositoryDirectory);
-			}
-		} else {
-			invoker.setLocalRepositoryDirectory(MavenInvokerProperties.defaultUserLocalRepository);
-		}
+		// Maven invocation. Nothing is probed here, the directory is created by the first
+		// request that uses it (see MavenInvokerProperties#newRequest).
+		invoker.setLocalRepositoryDirectory(properties.resolveLocalRepository());
 		// Sets the logger used by this invoker to output diagnostic messages.
 		invoker.setLogger(invokerLogger);
 		//
@@ -79,10 +99,180 @@ public class MavenInvokerAutoConfiguration {
 		return invoker;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "auto-threads", havingValue = "true")
+	public AdaptiveThreadsInterceptor adaptiveThreadsInterceptor(MavenInvokerProperties properties) {
+		return new AdaptiveThreadsInterceptor(properties.getPomFilename());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "admission.enabled", havingValue = "true")
+	public ForkAdmissionController forkAdmissionController(MavenInvokerProperties properties) {
+		return new ForkAdmissionController(properties.getAdmission());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "admission.enabled", havingValue = "true")
+	public ForkAdmissionInterceptor forkAdmissionInterceptor(ForkAdmissionController forkAdmissionController) {
+		return new ForkAdmissionInterceptor(forkAdmissionController);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "cds.enabled", havingValue = "true")
+	public CdsArchiveManager cdsArchiveManager(Invoker mavenInvoker, MavenInvokerProperties properties) {
+		return new CdsArchiveManager(mavenInvoker, properties);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "cds.enabled", havingValue = "true")
+	public CdsArchiveInterceptor cdsArchiveInterceptor(CdsArchiveManager cdsArchiveManager) {
+		return new CdsArchiveInterceptor(cdsArchiveManager);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "index.enabled", havingValue = "true")
+	public LocalRepositoryIndex localRepositoryIndex(MavenInvokerProperties properties) {
+		return new LocalRepositoryIndex(properties);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ArtifactIdentifier artifactIdentifier(ObjectProvider<LocalRepositoryIndex> localRepositoryIndex) {
+		return new ArtifactIdentifier(localRepositoryIndex.getIfAvailable(), 0);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "tracing.enabled", havingValue = "true")
+	public InvocationTracer invocationTracer(ObjectProvider<SpanExporter> exporters) {
+		return new InvocationTracer(exporters.orderedStream().collect(Collectors.toList()));
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "tracing.enabled", havingValue = "true")
+	public TracingInterceptor tracingInterceptor(InvocationTracer invocationTracer) {
+		return new TracingInterceptor(invocationTracer);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "retry.enabled", havingValue = "true")
+	public TransientFailureClassifier transientFailureClassifier(MavenInvokerProperties properties) {
+		return new TransientFailureClassifier(properties.getRetry().getTransientPatterns(),
+				properties.getRetry().getPermanentPatterns());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "retry.enabled", havingValue = "true")
+	public RetryInterceptor retryInterceptor(MavenInvokerProperties properties,
+			TransientFailureClassifier transientFailureClassifier) {
+		return new RetryInterceptor(properties.getRetry(), transientFailureClassifier);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "routing.enabled", havingValue = "true")
+	public MavenInstallationRegistry mavenInstallationRegistry(MavenInvokerProperties properties) {
+		return new MavenInstallationRegistry(properties.getRouting());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "routing.enabled", havingValue = "true")
+	public InstallationRoutingInterceptor installationRoutingInterceptor(MavenInstallationRegistry mavenInstallationRegistry,
+			ObjectProvider<InstallationSelector> selectors, MavenInvokerProperties properties) {
+		return new InstallationRoutingInterceptor(mavenInstallationRegistry,
+				selectors.orderedStream().collect(Collectors.toList()), properties.getPomFilename());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "cleanup.enabled", havingValue = "true")
+	public RepositoryLock repositoryLock(MavenInvokerProperties properties) {
+		return new RepositoryLock(properties.resolveLocalRepository());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "cleanup.enabled", havingValue = "true")
+	public RepositoryLockInterceptor repositoryLockInterceptor(RepositoryLock repositoryLock) {
+		return new RepositoryLockInterceptor(repositoryLock);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "cleanup.enabled", havingValue = "true")
+	public LocalRepositoryCleaner localRepositoryCleaner(MavenInvokerProperties properties, RepositoryLock repositoryLock,
+			ObjectProvider<LocalRepositoryIndex> localRepositoryIndex, MavenInvokerTemplate mavenInvokerTemplate) {
+		LocalRepositoryCleaner cleaner = new LocalRepositoryCleaner(properties.getCleanup(), repositoryLock,
+				localRepositoryIndex.getIfAvailable());
+		cleaner.setArtifactLocks(mavenInvokerTemplate.getArtifactLocks());
+		if (properties.getCleanup().getSchedule() != null) {
+			cleaner.schedule(properties.getCleanup().getSchedule());
+		}
+		return cleaner;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "prewarm.enabled", havingValue = "true")
+	public WarmFingerprints warmFingerprints(MavenInvokerProperties properties) {
+		File directory = StringUtils.hasText(properties.getPrewarm().getDirectory())
+				? new File(properties.getPrewarm().getDirectory())
+				: new File(properties.resolveLocalRepository().getParentFile(), "invoker-prewarm");
+		return new WarmFingerprints(directory, properties.getPrewarm().getExpireAfter());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "prewarm.enabled", havingValue = "true")
+	public ProjectFingerprinter projectFingerprinter(MavenInvokerProperties properties) {
+		return new ProjectFingerprinter(new EffectiveModelReader(properties));
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "prewarm.enabled", havingValue = "true")
+	public DependencyPrewarmer dependencyPrewarmer(ProjectFingerprinter projectFingerprinter,
+			WarmFingerprints warmFingerprints, MavenInvokerProperties properties) {
+		return new DependencyPrewarmer(projectFingerprinter, warmFingerprints, properties.getPrewarm().getGoals());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "prewarm.enabled", havingValue = "true")
+	public OfflineInterceptor offlineInterceptor(ProjectFingerprinter projectFingerprinter,
+			WarmFingerprints warmFingerprints, MavenInvokerProperties properties) {
+		return new OfflineInterceptor(projectFingerprinter, warmFingerprints, properties.resolveLocalRepository());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = MavenInvokerProperties.PREFIX, name = "queue.enabled", havingValue = "true")
+	public DurableInvocationQueue durableInvocationQueue(MavenInvokerTemplate mavenInvokerTemplate,
+			MavenInvokerProperties properties) {
+		File directory = StringUtils.hasText(properties.getQueue().getDirectory())
+				? new File(properties.getQueue().getDirectory())
+				: new File(properties.resolveLocalRepository().getParentFile(), "invoker-queue");
+		return new DurableInvocationQueue(mavenInvokerTemplate, properties.getQueue(), directory);
+	}
+
 	@Bean
 	public MavenInvokerTemplate mavenInvokerTemplate(InvocationOutputHandler outputHandler,
-			InvocationOutputHandler errorHandler, Invoker mavenInvoker, MavenInvokerProperties invokerProperties) {
-		return new MavenInvokerTemplate(outputHandler, errorHandler, mavenInvoker, invokerProperties);
+			InvocationOutputHandler errorHandler, Invoker mavenInvoker, MavenInvokerProperties invokerProperties,
+			ObjectProvider<MavenInvocationInterceptor> interceptors, ObjectProvider<MavenResourceListener> listeners,
+			ArtifactIdentifier artifactIdentifier, ObjectProvider<InvocationTracer> invocationTracer,
+			ObjectProvider<MavenInstallationRegistry> mavenInstallationRegistry,
+			ObjectProvider<DependencyPrewarmer> dependencyPrewarmer) {
+		MavenInvokerTemplate template = new MavenInvokerTemplate(outputHandler, errorHandler, mavenInvoker, invokerProperties);
+		template.setInterceptors(interceptors.orderedStream().collect(Collectors.toList()));
+		template.setListeners(listeners.orderedStream().collect(Collectors.toList()));
+		template.setArtifactIdentifier(artifactIdentifier);
+		template.setTracer(invocationTracer.getIfAvailable());
+		template.setInstallations(mavenInstallationRegistry.getIfAvailable());
+		template.setPrewarmer(dependencyPrewarmer.getIfAvailable());
+		return template;
 	}
 
 }
@@ -16,7 +16,11 @@
 package org.apache.maven.spring.boot;
 
 import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -27,6 +31,7 @@ import org.apache.maven.shared.invoker.InvocationRequest.CheckSumPolicy;
 import org.apache.maven.shared.invoker.InvocationRequest.ReactorFailureBehavior;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Maven Invoker 参数配置
@@ -37,6 +42,10 @@ import org.springframework.util.StringUtils;
 public class MavenInvokerProperties {
 
 	public static final String PREFIX = "maven.invoker";
+	/**
+	 * The {@code aggregate-threads} value that leaves the thread count to the adaptive threads interceptor.
+	 */
+	public static final String AUTO_THREADS = "auto";
 	
 	String DEFAULT_LOCAL_REPO_ID = "local";
 
@@ -204,6 +213,11 @@ public class MavenInvokerProperties {
 	 * note: available since Maven3
 	 */
 	private int threads = 1;
+	/**
+	 * Derive the thread count per request from the reactor's maximum parallel width, the available
+	 * CPUs and the number of builds already running, instead of using {@code threads}.
+	 */
+	private boolean autoThreads = false;
 	/**
 	 * Indicates whether Maven should enforce an update check for plugins and
 	 * snapshots. By default, no update check is performed. <code>true</code> if
@@ -216,6 +230,85 @@ public class MavenInvokerProperties {
 	 * settings from the default location.
 	 */
 	private String userSettings;
+	/**
+	 * Reactor graph planner settings, used by {@code MavenInvokerTemplate#executeReactor}.
+	 */
+	private Reactor reactor = new Reactor();
+	/**
+	 * Memory-aware admission control for Maven forks.
+	 */
+	private Admission admission = new Admission();
+	/**
+	 * Class-data-sharing archive for faster Maven fork startup.
+	 */
+	private Cds cds = new Cds();
+	/**
+	 * In-process dependency resolution.
+	 */
+	private Resolver resolver = new Resolver();
+	/**
+	 * Catalog of the local repository for GAV, groupId prefix and SHA-1 lookups.
+	 */
+	private Index index = new Index();
+	/**
+	 * In-process checksum generation for installed and staged artifacts.
+	 */
+	private Checksum checksum = new Checksum();
+	/**
+	 * How {@code MavenInvokerTemplate#install} places artifacts in the local repository.
+	 */
+	private Install install = new Install();
+	/**
+	 * Resumable in-process deploys of large artifacts.
+	 */
+	private Deploy deploy = new Deploy();
+	/**
+	 * Bulk pushes of the local repository to a remote one.
+	 */
+	private Migration migration = new Migration();
+	/**
+	 * How long calls queued behind a running fork on the same basedir wait for further calls to
+	 * merge with; 0 disables coalescing. Calls on an idle basedir never wait.
+	 */
+	private Duration coalesceWindow = Duration.ZERO;
+	/**
+	 * Thread count of the Maven process building the projects of {@code MavenInvokerTemplate#executeAll};
+	 * {@code auto} leaves it to the adaptive threads interceptor.
+	 */
+	private String aggregateThreads = "1C";
+	/**
+	 * Number of in-process lock stripes guarding installs of the same coordinates; writers in
+	 * other processes are excluded by file locks below {@code .locks} in the local repository.
+	 */
+	private int lockStripes = 64;
+	/**
+	 * Spans of template operations, their queue wait, reactor modules and mojos.
+	 */
+	private Tracing tracing = new Tracing();
+	/**
+	 * Re-runs of builds that failed for a transient reason, resuming at the failed module.
+	 */
+	private Retry retry = new Retry();
+	/**
+	 * Test runs split over concurrent surefire forks.
+	 */
+	private Sharding sharding = new Sharding();
+	/**
+	 * Several Maven installations side by side, each with its own fork pool.
+	 */
+	private Routing routing = new Routing();
+	/**
+	 * Durable queue of template work.
+	 */
+	private Queue queue = new Queue();
+	/**
+	 * Garbage collection of the local repository.
+	 */
+	private Cleanup cleanup = new Cleanup();
+	/**
+	 * Offline builds of projects whose dependencies were resolved before.
+	 */
+	private Prewarm prewarm = new Prewarm();
 
 	public boolean isAlsoMake() {
 		return alsoMake;
@@ -433,6 +526,14 @@ public class MavenInvokerProperties {
 		this.threads = threads;
 	}
 
+	public boolean isAutoThreads() {
+		return autoThreads;
+	}
+
+	public void setAutoThreads(boolean autoThreads) {
+		this.autoThreads = autoThreads;
+	}
+
 	public boolean isUpdateSnapshots() {
 		return updateSnapshots;
 	}
@@ -449,6 +550,166 @@ public class MavenInvokerProperties {
 		this.userSettings = userSettings;
 	}
 
+	public Reactor getReactor() {
+		return reactor;
+	}
+
+	public void setReactor(Reactor reactor) {
+		this.reactor = reactor;
+	}
+
+	public Admission getAdmission() {
+		return admission;
+	}
+
+	public void setAdmission(Admission admission) {
+		this.admission = admission;
+	}
+
+	public Cds getCds() {
+		return cds;
+	}
+
+	public void setCds(Cds cds) {
+		this.cds = cds;
+	}
+
+	public Resolver getResolver() {
+		return resolver;
+	}
+
+	public void setResolver(Resolver resolver) {
+		this.resolver = resolver;
+	}
+
+	public Index getIndex() {
+		return index;
+	}
+
+	public void setIndex(Index index) {
+		this.index = index;
+	}
+
+	public Checksum getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(Checksum checksum) {
+		this.checksum = checksum;
+	}
+
+	public Install getInstall() {
+		return install;
+	}
+
+	public void setInstall(Install install) {
+		this.install = install;
+	}
+
+	public Deploy getDeploy() {
+		return deploy;
+	}
+
+	public void setDeploy(Deploy deploy) {
+		this.deploy = deploy;
+	}
+
+	public Duration getCoalesceWindow() {
+		return coalesceWindow;
+	}
+
+	public void setCoalesceWindow(Duration coalesceWindow) {
+		this.coalesceWindow = coalesceWindow;
+	}
+
+	public String getAggregateThreads() {
+		return aggregateThreads;
+	}
+
+	public void setAggregateThreads(String aggregateThreads) {
+		this.aggregateThreads = aggregateThreads;
+	}
+
+	public int getLockStripes() {
+		return lockStripes;
+	}
+
+	public void setLockStripes(int lockStripes) {
+		this.lockStripes = lockStripes;
+	}
+
+	public Migration getMigration() {
+		return migration;
+	}
+
+	public void setMigration(Migration migration) {
+		this.migration = migration;
+	}
+
+	public Tracing getTracing() {
+		return tracing;
+	}
+
+	public void setTracing(Tracing tracing) {
+		this.tracing = tracing;
+	}
+
+	public Retry getRetry() {
+		return retry;
+	}
+
+	public void setRetry(Retry retry) {
+		this.retry = retry;
+	}
+
+	public Sharding getSharding() {
+		return sharding;
+	}
+
+	public void setSharding(Sharding sharding) {
+		this.sharding = sharding;
+	}
+
+	public Routing getRouting() {
+		return routing;
+	}
+
+	public void setRouting(Routing routing) {
+		this.routing = routing;
+	}
+
+	public Queue getQueue() {
+		return queue;
+	}
+
+	public void setQueue(Queue queue) {
+		this.queue = queue;
+	}
+
+	public Cleanup getCleanup() {
+		return cleanup;
+	}
+
+	public void setCleanup(Cleanup cleanup) {
+		this.cleanup = cleanup;
+	}
+
+	public Prewarm getPrewarm() {
+		return prewarm;
+	}
+
+	public void setPrewarm(Prewarm prewarm) {
+		this.prewarm = prewarm;
+	}
+
+	/**
+	 * @return the configured local repository, or {@code ~/.m2/repository}, without touching the file system
+	 */
+	public File resolveLocalRepository() {
+		return StringUtils.hasText(this.getLocalRepository()) ? new File(this.getLocalRepository())
+				: defaultUserLocalRepository;
+	}
+
 	public InvocationRequest newRequest() {
 
 		InvocationRequest request = new DefaultInvocationRequest();
@@ -473,12 +734,10 @@ public class MavenInvokerProperties {
 		// Sets the path to the base directory of the local repository to use for the Maven invocation.
 		if (StringUtils.hasText(this.getLocalRepository())) {
 			File localRepositoryDirectory = new File(this.getLocalRepository());
-			if (localRepositoryDirectory.exists() && localRepositoryDirectory.isDirectory()) {
-				request.setLocalRepositoryDirectory(localRepositoryDirectory);
-			} else {
-				localRepositoryDirectory.mkdir();
-				request.setLocalRepositoryDirectory(localRepositoryDirectory);
+			if (!localRepositoryDirectory.isDirectory()) {
+				localRepositoryDirectory.mkdirs();
 			}
+			request.setLocalRepositoryDirectory(localRepositoryDirectory);
 		} else {
 			request.setLocalRepositoryDirectory(defaultUserLocalRepository);
 		}
@@ -500,7 +759,10 @@ public class MavenInvokerProperties {
 		request.setShellEnvironmentInherited(this.isShellEnvironmentInherited());
 		request.setShowErrors(this.isShowErrors());
 		request.setShowVersion(this.isShowVersion());
-		request.setThreads(String.valueOf(this.getThreads()));
+		// Left unset in auto mode, the AdaptiveThreadsInterceptor computes it per request. Equivalent of -T or --threads
+		if (!this.isAutoThreads()) {
+			request.setThreads(String.valueOf(this.getThreads()));
+		}
 		request.setUpdateSnapshots(this.isUpdateSnapshots());
 		// Sets the path to the user settings for the Maven invocation. Equivalent of -s and --settings
 		if (StringUtils.hasText(this.getUserSettings())) {
@@ -509,5 +771,1001 @@ public class MavenInvokerProperties {
 
 		return request;
 	}
-	
+
+	public static class Reactor {
+
+		/**
+		 * The maximum number of Maven forks used to build independent parts of a reactor at the same
+		 * time. Values below 1 mean the number of available processors.
+		 */
+		private int maxForks = 0;
+
+		public int getMaxForks() {
+			return maxForks;
+		}
+
+		public void setMaxForks(int maxForks) {
+			this.maxForks = maxForks;
+		}
+
+	}
+
+	public static class Admission {
+
+		/**
+		 * Whether forks are only started while the container memory budget holds.
+		 */
+		private boolean enabled = false;
+		/**
+		 * The memory budget of a single Maven fork; its heap is capped at {@code heapRatio} of it.
+		 */
+		private DataSize forkMemory = DataSize.ofGigabytes(1);
+		/**
+		 * Memory of the container kept for this application itself and never handed to forks.
+		 */
+		private DataSize reservedMemory = DataSize.ofMegabytes(512);
+		/**
+		 * The share of the fork memory given to the fork's heap through {@code -Xmx}.
+		 */
+		private double heapRatio = 0.75;
+		/**
+		 * The maximum number of concurrent forks. Values below 1 mean the number of available CPUs.
+		 */
+		private int maxForks = 0;
+		/**
+		 * Container memory working set (usage without reclaimable page cache), as a share of its
+		 * limit, above which concurrency backs off.
+		 */
+		private double memoryPressureThreshold = 0.9;
+		/**
+		 * Load average, per available CPU, above which concurrency backs off.
+		 */
+		private double loadPressureFactor = 1.5;
+		/**
+		 * How long a request waits for admission before it fails.
+		 */
+		private Duration timeout = Duration.ofMinutes(30);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public DataSize getForkMemory() {
+			return forkMemory;
+		}
+
+		public void setForkMemory(DataSize forkMemory) {
+			this.forkMemory = forkMemory;
+		}
+
+		public DataSize getReservedMemory() {
+			return reservedMemory;
+		}
+
+		public void setReservedMemory(DataSize reservedMemory) {
+			this.reservedMemory = reservedMemory;
+		}
+
+		public double getHeapRatio() {
+			return heapRatio;
+		}
+
+		public void setHeapRatio(double heapRatio) {
+			this.heapRatio = heapRatio;
+		}
+
+		public int getMaxForks() {
+			return maxForks;
+		}
+
+		public void setMaxForks(int maxForks) {
+			this.maxForks = maxForks;
+		}
+
+		public double getMemoryPressureThreshold() {
+			return memoryPressureThreshold;
+		}
+
+		public void setMemoryPressureThreshold(double memoryPressureThreshold) {
+			this.memoryPressureThreshold = memoryPressureThreshold;
+		}
+
+		public double getLoadPressureFactor() {
+			return loadPressureFactor;
+		}
+
+		public void setLoadPressureFactor(double loadPressureFactor) {
+			this.loadPressureFactor = loadPressureFactor;
+		}
+
+		public Duration getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+	}
+
+	public static class Cds {
+
+		/**
+		 * Whether forks use a class-data-sharing archive of the Maven installation (JDK 13+).
+		 */
+		private boolean enabled = false;
+		/**
+		 * Directory holding the archives, {@code ~/.m2/cds} by default.
+		 */
+		private String archiveDirectory;
+		/**
+		 * Whether a missing archive is generated in the background on the first invocation.
+		 */
+		private boolean generateOnFirstUse = true;
+		/**
+		 * Whether forks also run with {@code -XX:TieredStopAtLevel=1}, trading peak performance of long
+		 * builds for faster startup.
+		 */
+		private boolean fastStartup = false;
+		/**
+		 * The goals of the warm-up build whose loaded classes go into the archive.
+		 */
+		private List<String> warmUpGoals = new ArrayList<String>(Arrays.asList("validate"));
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getArchiveDirectory() {
+			return archiveDirectory;
+		}
+
+		public void setArchiveDirectory(String archiveDirectory) {
+			this.archiveDirectory = archiveDirectory;
+		}
+
+		public boolean isGenerateOnFirstUse() {
+			return generateOnFirstUse;
+		}
+
+		public void setGenerateOnFirstUse(boolean generateOnFirstUse) {
+			this.generateOnFirstUse = generateOnFirstUse;
+		}
+
+		public boolean isFastStartup() {
+			return fastStartup;
+		}
+
+		public void setFastStartup(boolean fastStartup) {
+			this.fastStartup = fastStartup;
+		}
+
+		public List<String> getWarmUpGoals() {
+			return warmUpGoals;
+		}
+
+		public void setWarmUpGoals(List<String> warmUpGoals) {
+			this.warmUpGoals = warmUpGoals;
+		}
+
+	}
+
+	public static class Resolver {
+
+		/**
+		 * Whether resolved dependency graphs are cached on disk.
+		 */
+		private boolean cacheEnabled = true;
+		/**
+		 * Directory of the resolution cache, {@code invoker-resolution-cache} next to the local
+		 * repository by default.
+		 */
+		private String cacheDirectory;
+
+		public boolean isCacheEnabled() {
+			return cacheEnabled;
+		}
+
+		public void setCacheEnabled(boolean cacheEnabled) {
+			this.cacheEnabled = cacheEnabled;
+		}
+
+		public String getCacheDirectory() {
+			return cacheDirectory;
+		}
+
+		public void setCacheDirectory(String cacheDirectory) {
+			this.cacheDirectory = cacheDirectory;
+		}
+
+	}
+
+	public static class Index {
+
+		/**
+		 * Whether the local repository index is maintained.
+		 */
+		private boolean enabled = false;
+		/**
+		 * Directory of the persisted index, {@code invoker-index} next to the local repository by default.
+		 */
+		private String directory;
+		/**
+		 * Whether artifacts without a {@code .sha1} file are hashed while indexing, so that they
+		 * can be found by content.
+		 */
+		private boolean hashMissing = true;
+		/**
+		 * Number of threads scanning the repository, the number of CPUs if not positive.
+		 */
+		private int parallelism = 0;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public boolean isHashMissing() {
+			return hashMissing;
+		}
+
+		public void setHashMissing(boolean hashMissing) {
+			this.hashMissing = hashMissing;
+		}
+
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+	}
+
+	public static class Checksum {
+
+		/**
+		 * Digest algorithms computed in one pass, each written as a sidecar file.
+		 */
+		private List<String> algorithms = new ArrayList<String>(Arrays.asList("MD5", "SHA-1", "SHA-256", "SHA-512"));
+		/**
+		 * File size from which the algorithms hash in parallel.
+		 */
+		private DataSize parallelThreshold = DataSize.ofMegabytes(16);
+
+		public List<String> getAlgorithms() {
+			return algorithms;
+		}
+
+		public void setAlgorithms(List<String> algorithms) {
+			this.algorithms = algorithms;
+		}
+
+		public DataSize getParallelThreshold() {
+			return parallelThreshold;
+		}
+
+		public void setParallelThreshold(DataSize parallelThreshold) {
+			this.parallelThreshold = parallelThreshold;
+		}
+
+	}
+
+	public static class Install {
+
+		public enum Placement {
+
+			/**
+			 * Fork {@code install:install-file}, which copies the file.
+			 */
+			FORK,
+			/**
+			 * Hardlink, then reflink, then copy, whichever works first.
+			 */
+			AUTO,
+			HARDLINK,
+			/**
+			 * Copy-on-write clone, on file systems supporting it.
+			 */
+			REFLINK,
+			/**
+			 * Move the source file into the repository, it is gone afterwards.
+			 */
+			MOVE,
+			COPY
+
+		}
+
+		/**
+		 * How artifacts are placed; anything but {@code fork} installs in-process, falling back to
+		 * a copy when the chosen placement is not possible.
+		 */
+		private Placement placement = Placement.FORK;
+
+		public Placement getPlacement() {
+			return placement;
+		}
+
+		public void setPlacement(Placement placement) {
+			this.placement = placement;
+		}
+
+	}
+
+	public static class Deploy {
+
+		/**
+		 * Whether release artifacts from {@code resumable-threshold} on are uploaded in-process
+		 * with a progress journal instead of forking {@code deploy:deploy-file}.
+		 */
+		private boolean resumable = false;
+		/**
+		 * Artifact size from which the in-process upload is used.
+		 */
+		private DataSize resumableThreshold = DataSize.ofMegabytes(100);
+		/**
+		 * Whether the repository accepts ranged {@code PUT}s ({@code Content-Range} chunks answered
+		 * with {@code 308 Resume Incomplete}), which lets an upload continue mid-file. Without
+		 * them an interrupted file is uploaded again, but completed files are not.
+		 */
+		private boolean chunked = false;
+		/**
+		 * Size of the ranged upload chunks.
+		 */
+		private DataSize chunkSize = DataSize.ofMegabytes(32);
+		/**
+		 * Whether the uploaded size and (if the repository reports it) SHA-1 are checked.
+		 */
+		private boolean verify = true;
+		/**
+		 * Directory of the upload journals, {@code invoker-deploy-journal} next to the local
+		 * repository by default.
+		 */
+		private String journalDirectory;
+		/**
+		 * Credentials by repository id.
+		 */
+		private Map<String, Server> servers = new HashMap<String, Server>();
+
+		public boolean isResumable() {
+			return resumable;
+		}
+
+		public void setResumable(boolean resumable) {
+			this.resumable = resumable;
+		}
+
+		public DataSize getResumableThreshold() {
+			return resumableThreshold;
+		}
+
+		public void setResumableThreshold(DataSize resumableThreshold) {
+			this.resumableThreshold = resumableThreshold;
+		}
+
+		public boolean isChunked() {
+			return chunked;
+		}
+
+		public void setChunked(boolean chunked) {
+			this.chunked = chunked;
+		}
+
+		public DataSize getChunkSize() {
+			return chunkSize;
+		}
+
+		public void setChunkSize(DataSize chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		public boolean isVerify() {
+			return verify;
+		}
+
+		public void setVerify(boolean verify) {
+			this.verify = verify;
+		}
+
+		public String getJournalDirectory() {
+			return journalDirectory;
+		}
+
+		public void setJournalDirectory(String journalDirectory) {
+			this.journalDirectory = journalDirectory;
+		}
+
+		public Map<String, Server> getServers() {
+			return servers;
+		}
+
+		public void setServers(Map<String, Server> servers) {
+			this.servers = servers;
+		}
+
+	}
+
+	public static class Server {
+
+		private String username;
+		private String password;
+
+		public String getUsername() {
+			return username;
+		}
+
+		public void setUsername(String username) {
+			this.username = username;
+		}
+
+		public String getPassword() {
+			return password;
+		}
+
+		public void setPassword(String password) {
+			this.password = password;
+		}
+
+	}
+
+	public static class Migration {
+
+		/**
+		 * Number of version directories migrated at once.
+		 */
+		private int workers = 4;
+		/**
+		 * Maximum number of concurrent uploads to one repository host.
+		 */
+		private int maxConnectionsPerHost = 4;
+		/**
+		 * Directory of the migration manifests, {@code invoker-migration} next to the local
+		 * repository by default.
+		 */
+		private String manifestDirectory;
+
+		public int getWorkers() {
+			return workers;
+		}
+
+		public void setWorkers(int workers) {
+			this.workers = workers;
+		}
+
+		public int getMaxConnectionsPerHost() {
+			return maxConnectionsPerHost;
+		}
+
+		public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+			this.maxConnectionsPerHost = maxConnectionsPerHost;
+		}
+
+		public String getManifestDirectory() {
+			return manifestDirectory;
+		}
+
+		public void setManifestDirectory(String manifestDirectory) {
+			this.manifestDirectory = manifestDirectory;
+		}
+
+	}
+
+	public static class Tracing {
+
+		/**
+		 * Whether install, deploy and execute operations and their forks are traced.
+		 */
+		private boolean enabled = false;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+	}
+
+	public static class Retry {
+
+		/**
+		 * Whether failed builds are re-run when their failure looks transient.
+		 */
+		private boolean enabled = false;
+		/**
+		 * Re-runs after the first attempt.
+		 */
+		private int maxRetries = 2;
+		/**
+		 * Pause before the first re-run, multiplied by {@code multiplier} for every further one.
+		 */
+		private Duration backoff = Duration.ofSeconds(5);
+		private double multiplier = 2.0;
+		private Duration maxBackoff = Duration.ofMinutes(1);
+		/**
+		 * Whether re-runs resume the reactor ({@code -rf}) at the module that failed.
+		 */
+		private boolean resume = true;
+		/**
+		 * Regular expressions, one of which an error line must contain for a failure to be retried.
+		 */
+		private List<String> transientPatterns = new ArrayList<String>(Arrays.asList(
+				"Could not transfer (artifact|metadata)", "Connection reset", "Connection refused",
+				"(Read|Connect) timed out", "Remote host terminated the handshake", "Premature end of Content-Length",
+				"status code: 5\\d\\d", "\\b50[234] ", "No route to host", "Unknown host"));
+		/**
+		 * Regular expressions that make an error line permanent even if it matches a transient
+		 * pattern, client errors of the repository manager for instance: a re-run gets the same 401,
+		 * 403 or 404.
+		 */
+		private List<String> permanentPatterns = new ArrayList<String>(Arrays.asList(
+				"status code: 4\\d\\d", "Return code is: 4\\d\\d", "\\b4\\d\\d (Bad Request|Unauthorized|Forbidden|Not Found|Gone)\\b",
+				"\\(4\\d\\d\\)", "Authori[sz]ation failed", "Not authorized", "Access denied"));
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxRetries() {
+			return maxRetries;
+		}
+
+		public void setMaxRetries(int maxRetries) {
+			this.maxRetries = maxRetries;
+		}
+
+		public Duration getBackoff() {
+			return backoff;
+		}
+
+		public void setBackoff(Duration backoff) {
+			this.backoff = backoff;
+		}
+
+		public double getMultiplier() {
+			return multiplier;
+		}
+
+		public void setMultiplier(double multiplier) {
+			this.multiplier = multiplier;
+		}
+
+		public Duration getMaxBackoff() {
+			return maxBackoff;
+		}
+
+		public void setMaxBackoff(Duration maxBackoff) {
+			this.maxBackoff = maxBackoff;
+		}
+
+		public boolean isResume() {
+			return resume;
+		}
+
+		public void setResume(boolean resume) {
+			this.resume = resume;
+		}
+
+		public List<String> getTransientPatterns() {
+			return transientPatterns;
+		}
+
+		public void setTransientPatterns(List<String> transientPatterns) {
+			this.transientPatterns = transientPatterns;
+		}
+
+		public List<String> getPermanentPatterns() {
+			return permanentPatterns;
+		}
+
+		public void setPermanentPatterns(List<String> permanentPatterns) {
+			this.permanentPatterns = permanentPatterns;
+		}
+
+	}
+
+	public static class Sharding {
+
+		/**
+		 * Directory of the recorded test class durations, {@code invoker-test-durations} next to
+		 * the local repository by default.
+		 */
+		private String durationDirectory;
+
+		public String getDurationDirectory() {
+			return durationDirectory;
+		}
+
+		public void setDurationDirectory(String durationDirectory) {
+			this.durationDirectory = durationDirectory;
+		}
+
+	}
+
+	public static class Routing {
+
+		/**
+		 * Whether requests are routed over the registered installations.
+		 */
+		private boolean enabled = false;
+		/**
+		 * The installation of requests no other rule routes, the configured {@code maven-home} if unset.
+		 */
+		private String defaultInstallation;
+		/**
+		 * Maven installations by name.
+		 */
+		private Map<String, Installation> installations = new LinkedHashMap<String, Installation>();
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDefaultInstallation() {
+			return defaultInstallation;
+		}
+
+		public void setDefaultInstallation(String defaultInstallation) {
+			this.defaultInstallation = defaultInstallation;
+		}
+
+		public Map<String, Installation> getInstallations() {
+			return installations;
+		}
+
+		public void setInstallations(Map<String, Installation> installations) {
+			this.installations = installations;
+		}
+
+	}
+
+	public static class Installation {
+
+		private String mavenHome;
+		/**
+		 * The executable, {@code bin/mvn} of the home by default.
+		 */
+		private String mavenExecutable;
+		/**
+		 * The Maven version, read from {@code lib/maven-core-*.jar} if unset.
+		 */
+		private String version;
+		/**
+		 * Forks of this installation that may run at the same time, unlimited if not positive.
+		 */
+		private int maxConcurrent = 0;
+		/**
+		 * Local repository of this installation's builds, the shared one if unset.
+		 */
+		private String localRepository;
+		/**
+		 * Options added to the {@code MAVEN_OPTS} of this installation's builds.
+		 */
+		private String mavenOpts;
+
+		public String getMavenHome() {
+			return mavenHome;
+		}
+
+		public void setMavenHome(String mavenHome) {
+			this.mavenHome = mavenHome;
+		}
+
+		public String getMavenExecutable() {
+			return mavenExecutable;
+		}
+
+		public void setMavenExecutable(String mavenExecutable) {
+			this.mavenExecutable = mavenExecutable;
+		}
+
+		public String getVersion() {
+			return version;
+		}
+
+		public void setVersion(String version) {
+			this.version = version;
+		}
+
+		public int getMaxConcurrent() {
+			return maxConcurrent;
+		}
+
+		public void setMaxConcurrent(int maxConcurrent) {
+			this.maxConcurrent = maxConcurrent;
+		}
+
+		public String getLocalRepository() {
+			return localRepository;
+		}
+
+		public void setLocalRepository(String localRepository) {
+			this.localRepository = localRepository;
+		}
+
+		public String getMavenOpts() {
+			return mavenOpts;
+		}
+
+		public void setMavenOpts(String mavenOpts) {
+			this.mavenOpts = mavenOpts;
+		}
+
+	}
+
+	public static class Queue {
+
+		/**
+		 * Whether install, deploy and execute work can be queued durably.
+		 */
+		private boolean enabled = false;
+		/**
+		 * Directory of the queue journal, {@code invoker-queue} next to the local repository by default.
+		 */
+		private String directory;
+		/**
+		 * Workers running queued invocations.
+		 */
+		private int workers = 2;
+		/**
+		 * Interval at which appended journal records are forced to disk together.
+		 */
+		private Duration syncInterval = Duration.ofMillis(10);
+		/**
+		 * Records after which the journal is rewritten with only the pending invocations.
+		 */
+		private int compactThreshold = 10000;
+		/**
+		 * Starts after which an invocation that keeps throwing, instead of producing a build
+		 * result, is recorded as completed and no longer run again.
+		 */
+		private int maxAttempts = 3;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public int getWorkers() {
+			return workers;
+		}
+
+		public void setWorkers(int workers) {
+			this.workers = workers;
+		}
+
+		public Duration getSyncInterval() {
+			return syncInterval;
+		}
+
+		public void setSyncInterval(Duration syncInterval) {
+			this.syncInterval = syncInterval;
+		}
+
+		public int getCompactThreshold() {
+			return compactThreshold;
+		}
+
+		public void setCompactThreshold(int compactThreshold) {
+			this.compactThreshold = compactThreshold;
+		}
+
+		public int getMaxAttempts() {
+			return maxAttempts;
+		}
+
+		public void setMaxAttempts(int maxAttempts) {
+			this.maxAttempts = maxAttempts;
+		}
+
+	}
+
+	public static class Cleanup {
+
+		/**
+		 * Whether the local repository can be cleaned, which also makes every fork hold a shared
+		 * lock on it while running.
+		 */
+		private boolean enabled = false;
+		/**
+		 * Interval of the scheduled cleanup, none if not set.
+		 */
+		private Duration schedule;
+		/**
+		 * Timestamped builds kept of each snapshot version, all if not positive.
+		 */
+		private int keepSnapshots = 3;
+		/**
+		 * Age after which versions nobody read or wrote are removed, never if not set.
+		 */
+		private Duration unusedFor;
+		/**
+		 * Size above which the least recently used versions are removed, unlimited if not set.
+		 */
+		private DataSize maxSize;
+		/**
+		 * Age after which {@code *.lastUpdated} files and partial downloads are removed.
+		 */
+		private Duration leftoverAge = Duration.ofHours(1);
+		/**
+		 * Deletions per batch; forks waiting for the repository start between batches.
+		 */
+		private int batchSize = 500;
+		/**
+		 * Number of threads scanning and deleting, the number of CPUs if not positive.
+		 */
+		private int parallelism = 0;
+		/**
+		 * Maximum time to wait for running forks before a batch is skipped.
+		 */
+		private Duration lockTimeout = Duration.ofMinutes(10);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getSchedule() {
+			return schedule;
+		}
+
+		public void setSchedule(Duration schedule) {
+			this.schedule = schedule;
+		}
+
+		public int getKeepSnapshots() {
+			return keepSnapshots;
+		}
+
+		public void setKeepSnapshots(int keepSnapshots) {
+			this.keepSnapshots = keepSnapshots;
+		}
+
+		public Duration getUnusedFor() {
+			return unusedFor;
+		}
+
+		public void setUnusedFor(Duration unusedFor) {
+			this.unusedFor = unusedFor;
+		}
+
+		public DataSize getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public Duration getLeftoverAge() {
+			return leftoverAge;
+		}
+
+		public void setLeftoverAge(Duration leftoverAge) {
+			this.leftoverAge = leftoverAge;
+		}
+
+		public int getBatchSize() {
+			return batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public int getParallelism() {
+			return parallelism;
+		}
+
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		public Duration getLockTimeout() {
+			return lockTimeout;
+		}
+
+		public void setLockTimeout(Duration lockTimeout) {
+			this.lockTimeout = lockTimeout;
+		}
+
+	}
+
+	public static class Prewarm {
+
+		/**
+		 * Whether projects can be pre-warmed and builds of warm projects run offline.
+		 */
+		private boolean enabled = false;
+		/**
+		 * Directory of the warm project fingerprints, {@code invoker-prewarm} next to the local
+		 * repository by default.
+		 */
+		private String directory;
+		/**
+		 * Goals resolving everything a build of the project needs.
+		 */
+		private List<String> goals = new ArrayList<String>(Arrays.asList("dependency:go-offline"));
+		/**
+		 * Time after which a warm project is resolved online again, to pick up new snapshots.
+		 */
+		private Duration expireAfter = Duration.ofDays(1);
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public List<String> getGoals() {
+			return goals;
+		}
+
+		public void setGoals(List<String> goals) {
+			this.goals = goals;
+		}
+
+		public Duration getExpireAfter() {
+			return expireAfter;
+		}
+
+		public void setExpireAfter(Duration expireAfter) {
+			this.expireAfter = expireAfter;
+		}
+
+	}
+
 }
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext;
+
+/**
+ * Lower-case hexadecimal encoding, for digests and checksums.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public abstract class Hex {
+
+	private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+	public static String encode(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = DIGITS[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = DIGITS[bytes[i] & 0xF];
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * @throws NumberFormatException if the string is not hexadecimal
+	 */
+	public static byte[] decode(String hex) {
+		byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+		}
+		return bytes;
+	}
+
+}
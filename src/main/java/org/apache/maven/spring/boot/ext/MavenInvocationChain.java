@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext;
+
+import java.util.List;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+
+/**
+ * The remaining {@link MavenInvocationInterceptor}s of one invocation, ending with the {@link Invoker}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MavenInvocationChain {
+
+	private final List<MavenInvocationInterceptor> interceptors;
+	private final Invoker invoker;
+	private int position = 0;
+
+	public MavenInvocationChain(List<MavenInvocationInterceptor> interceptors, Invoker invoker) {
+		this.interceptors = interceptors;
+		this.invoker = invoker;
+	}
+
+	public InvocationResult proceed(InvocationRequest request) throws MavenInvocationException {
+		if (position < interceptors.size()) {
+			MavenInvocationInterceptor interceptor = interceptors.get(position++);
+			try {
+				return interceptor.intercept(request, this);
+			} finally {
+				position--;
+			}
+		}
+		return invoker.execute(request);
+	}
+
+}
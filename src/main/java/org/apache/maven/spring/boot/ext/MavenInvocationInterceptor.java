@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+
+/**
+ * Callback around every Maven fork started by {@link MavenInvokerTemplate}. Interceptors may adjust
+ * the request before calling {@link MavenInvocationChain#proceed(InvocationRequest)}, wrap the call,
+ * or inspect the result. Beans of this type are applied in {@link org.springframework.core.Ordered} order.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface MavenInvocationInterceptor {
+
+	InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain) throws MavenInvocationException;
+
+}
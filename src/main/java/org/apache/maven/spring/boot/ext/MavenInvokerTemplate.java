@@ -19,33 +19,94 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelBuildingException;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.shared.invoker.InvocationOutputHandler;
 import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationRequest.ReactorFailureBehavior;
 import org.apache.maven.shared.invoker.InvocationResult;
 import org.apache.maven.shared.invoker.Invoker;
 import org.apache.maven.shared.invoker.MavenInvocationException;
 import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Install.Placement;
+import org.apache.maven.spring.boot.ext.aggregate.ProjectAggregator;
+import org.apache.maven.spring.boot.ext.checksum.ChecksumGenerator;
+import org.apache.maven.spring.boot.ext.coalesce.GoalCoalescer;
+import org.apache.maven.spring.boot.ext.deploy.RemoteDeployer;
+import org.apache.maven.spring.boot.ext.event.BuildEventListener;
+import org.apache.maven.spring.boot.ext.event.BuildEventParser;
+import org.apache.maven.spring.boot.ext.identify.ArtifactIdentifier;
+import org.apache.maven.spring.boot.ext.identify.Identification;
+import org.apache.maven.spring.boot.ext.install.LocalInstaller;
+import org.apache.maven.spring.boot.ext.installation.InstallationRoutingInterceptor;
+import org.apache.maven.spring.boot.ext.installation.MavenInstallation;
+import org.apache.maven.spring.boot.ext.installation.MavenInstallationRegistry;
+import org.apache.maven.spring.boot.ext.migrate.MigrationReport;
+import org.apache.maven.spring.boot.ext.migrate.RepositoryMigration;
+import org.apache.maven.spring.boot.ext.model.EffectiveModelReader;
+import org.apache.maven.spring.boot.ext.offline.DependencyPrewarmer;
+import org.apache.maven.spring.boot.ext.offline.PrewarmResult;
+import org.apache.maven.spring.boot.ext.reactor.ParallelReactorExecutor;
+import org.apache.maven.spring.boot.ext.repository.ArtifactLocks;
+import org.apache.maven.spring.boot.ext.repository.RepositoryFiles;
+import org.apache.maven.spring.boot.ext.resolve.DependencyGraph;
+import org.apache.maven.spring.boot.ext.resolve.DependencyGraphResolver;
+import org.apache.maven.spring.boot.ext.reactor.ReactorBuildResult;
+import org.apache.maven.spring.boot.ext.reactor.ReactorGraph;
+import org.apache.maven.spring.boot.ext.sharding.ShardedTestExecutor;
+import org.apache.maven.spring.boot.ext.sharding.ShardedTestResult;
+import org.apache.maven.spring.boot.ext.sharding.TestDurationStore;
+import org.apache.maven.spring.boot.ext.trace.InvocationSpan;
+import org.apache.maven.spring.boot.ext.trace.InvocationTracer;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.util.function.SingletonSupplier;
 
 /**
  *	 基于Maven Invoker的Maven build实现，依赖于本机环境中的Maven环境
  * 	@author ： <a href="https://github.com/hiwepy">hiwepy</a>
  */
-public class MavenInvokerTemplate {
+public class MavenInvokerTemplate implements DisposableBean {
 
 	private InvocationOutputHandler outputHandler;
 	private InvocationOutputHandler errorHandler;
 	private Invoker mavenInvoker;
 	private MavenInvokerProperties properties;
 	private MavenXpp3Reader modelReader = new MavenXpp3Reader();
+	private SingletonSupplier<EffectiveModelReader> effectiveModelReader;
+	private SingletonSupplier<DependencyGraphResolver> dependencyGraphResolver;
+	private volatile SingletonSupplier<ArtifactIdentifier> artifactIdentifier;
+	private ChecksumGenerator checksumGenerator;
+	private SingletonSupplier<ArtifactLocks> artifactLocks;
+	private final ConcurrentMap<File, ArtifactLocks> routedLocks = new ConcurrentHashMap<File, ArtifactLocks>();
+	private SingletonSupplier<LocalInstaller> localInstaller;
+	private SingletonSupplier<RemoteDeployer> remoteDeployer;
+	private SingletonSupplier<RepositoryMigration> repositoryMigration;
+	private GoalCoalescer goalCoalescer;
+	private ProjectAggregator projectAggregator;
+	private SingletonSupplier<ShardedTestExecutor> shardedTestExecutor;
+	private InvocationTracer tracer;
+	private MavenInstallationRegistry installations;
+	private DependencyPrewarmer prewarmer;
+	private List<MavenInvocationInterceptor> interceptors = Collections.emptyList();
+	private List<MavenResourceListener> listeners = Collections.emptyList();
 	
 	public MavenInvokerTemplate(InvocationOutputHandler outputHandler, InvocationOutputHandler errorHandler,
 			Invoker mavenInvoker, MavenInvokerProperties invokerProperties) {
@@ -53,6 +114,65 @@ public class MavenInvokerTemplate {
 		this.errorHandler = errorHandler;
 		this.mavenInvoker = mavenInvoker;
 		this.properties = invokerProperties;
+		// collaborators that set up resolvers or resolve paths are created on first use, not at startup
+		this.effectiveModelReader = SingletonSupplier.of(() -> new EffectiveModelReader(invokerProperties));
+		this.dependencyGraphResolver = SingletonSupplier.of(() -> new DependencyGraphResolver(invokerProperties));
+		this.artifactIdentifier = SingletonSupplier.of(() -> new ArtifactIdentifier(null, 0));
+		this.checksumGenerator = new ChecksumGenerator(invokerProperties.getChecksum());
+		this.artifactLocks = SingletonSupplier.of(() -> new ArtifactLocks(invokerProperties.resolveLocalRepository(),
+				invokerProperties.getLockStripes()));
+		this.localInstaller = SingletonSupplier.of(() -> new LocalInstaller(invokerProperties, artifactLocks.obtain()));
+		this.remoteDeployer = SingletonSupplier.of(() -> new RemoteDeployer(invokerProperties, checksumGenerator));
+		this.repositoryMigration = SingletonSupplier.of(() -> new RepositoryMigration(invokerProperties, remoteDeployer.obtain()));
+		this.goalCoalescer = new GoalCoalescer(invokerProperties.getCoalesceWindow());
+		this.projectAggregator = new ProjectAggregator(invokerProperties.getPomFilename());
+		this.shardedTestExecutor = SingletonSupplier.of(() -> new ShardedTestExecutor(new TestDurationStore(
+				StringUtils.hasText(invokerProperties.getSharding().getDurationDirectory())
+						? new File(invokerProperties.getSharding().getDurationDirectory())
+						: new File(invokerProperties.resolveLocalRepository().getParentFile(), "invoker-test-durations"))));
+	}
+	
+	/**
+	 * @return the locks installs take on the local repository, to be shared with anything else
+	 *         writing there in this JVM
+	 */
+	public ArtifactLocks getArtifactLocks() {
+		return artifactLocks.obtain();
+	}
+
+	public void setInterceptors(List<MavenInvocationInterceptor> interceptors) {
+		this.interceptors = interceptors == null ? Collections.<MavenInvocationInterceptor>emptyList()
+				: new ArrayList<MavenInvocationInterceptor>(interceptors);
+	}
+
+	public List<MavenInvocationInterceptor> getInterceptors() {
+		return Collections.unmodifiableList(interceptors);
+	}
+
+	/**
+	 * Trace install, deploy and execute operations, {@code null} to stop tracing.
+	 */
+	public void setTracer(InvocationTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	/**
+	 * The installations {@link #execute(String, File, String...)} can name, {@code null} if there are none.
+	 */
+	public void setInstallations(MavenInstallationRegistry installations) {
+		this.installations = installations;
+	}
+
+	/**
+	 * The pre-warmer behind {@link #prewarm(File)}, {@code null} if pre-warming is disabled.
+	 */
+	public void setPrewarmer(DependencyPrewarmer prewarmer) {
+		this.prewarmer = prewarmer;
+	}
+
+	public void setListeners(List<MavenResourceListener> listeners) {
+		this.listeners = listeners == null ? Collections.<MavenResourceListener>emptyList()
+				: new ArrayList<MavenResourceListener>(listeners);
 	}
 	
 	public InvocationResult install(String filepath, String coordinates) throws MavenInvocationException {
@@ -61,18 +181,73 @@ public class MavenInvokerTemplate {
 	}
 	
 	public InvocationResult install(MavenResource resource) throws MavenInvocationException {
+		return traced("maven install", "maven.coordinates", resource.toString(), () -> doInstall(resource));
+	}
+
+	/**
+	 * Installs of the same coordinates, here or in other processes, run one at a time; see
+	 * {@link ArtifactLocks}. The local repository is the one the install request is routed to, so
+	 * the locks, the files, the checksums and the listeners all see the same one.
+	 */
+	private InvocationResult doInstall(MavenResource resource) throws MavenInvocationException {
 		
 		InvocationRequest request = properties.newRequest();
 		request.setErrorHandler(errorHandler);
 		request.setOutputHandler(outputHandler);
 
-		request.setGoals(Arrays.asList("install:install-file", "-Dfile=" + resource.getFilepath(), "-DgroupId=" + resource.getGroupId(),
+		// checksums are written in-process after the install, in one pass instead of one per algorithm
+		List<String> goals = new ArrayList<String>(Arrays.asList("install:install-file", "-Dfile=" + resource.getFilepath(), "-DgroupId=" + resource.getGroupId(),
 				"-DartifactId=" + resource.getArtifactId(), "-Dversion=" + resource.getVersion(), "-Dpackaging=" + resource.getExtension(),
-				"-DgeneratePom=" + resource.isGeneratePom(), "-DcreateChecksum=" + resource.isCreateChecksum()));
+				"-DgeneratePom=" + resource.isGeneratePom(), "-DcreateChecksum=false"));
+		if (StringUtils.hasLength(resource.getClassifier())) {
+			goals.add("-Dclassifier=" + resource.getClassifier());
+		}
+		request.setGoals(goals);
 
-		return mavenInvoker.execute(request);
+		File repository = localRepository(request);
+		ArtifactLocks locks = artifactLocks(repository);
+		InvocationResult result;
+		try (ArtifactLocks.Lock lock = locks.lockVersion(resource)) {
+			result = doLockedInstall(resource, request, repository, locks);
+		} catch (IOException e) {
+			throw new MavenInvocationException("Unable to install " + resource, e);
+		}
+		if (result.getExitCode() == 0) {
+			for (MavenResourceListener listener : listeners) {
+				listener.installed(resource, repository);
+			}
+		}
+		return result;
 		
 	}
+
+	private InvocationResult doLockedInstall(MavenResource resource, InvocationRequest request, File repository,
+			ArtifactLocks locks) throws IOException, MavenInvocationException {
+		InvocationResult result;
+		if (properties.getInstall().getPlacement() != Placement.FORK) {
+			result = localInstaller.obtain().install(resource, repository, locks);
+		} else {
+			// the fork rewrites maven-metadata-local.xml somewhere along the way
+			try (ArtifactLocks.Lock lock = locks.lockArtifact(resource)) {
+				result = invoke(request);
+			}
+		}
+		if (result.getExitCode() == 0 && resource.isCreateChecksum()) {
+			writeInstalledChecksums(resource, repository);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the locks of a local repository, {@link #getArtifactLocks()} for the configured one
+	 */
+	private ArtifactLocks artifactLocks(File repository) {
+		if (repository.getAbsoluteFile().equals(properties.resolveLocalRepository().getAbsoluteFile())) {
+			return artifactLocks.obtain();
+		}
+		return routedLocks.computeIfAbsent(repository.getAbsoluteFile(),
+				directory -> new ArtifactLocks(directory, properties.getLockStripes()));
+	}
 	
 	public InvocationResult deploy(String filepath, String coordinates, String repositoryUrl, String repositoryId) throws MavenInvocationException {
 		Assert.notNull(coordinates, "coordinates must not be null");
@@ -83,34 +258,302 @@ public class MavenInvokerTemplate {
 	}
 
 	public InvocationResult deploy(MavenResource resource) throws MavenInvocationException {
+		return traced("maven deploy", "maven.coordinates", resource.toString(), () -> doDeploy(resource));
+	}
 
-		InvocationRequest request = properties.newRequest();
-		request.setErrorHandler(errorHandler);
-		request.setOutputHandler(outputHandler);
+	private InvocationResult doDeploy(MavenResource resource) throws MavenInvocationException {
 
-		request.setGoals(Arrays.asList("deploy:deploy-file", "-DgroupId=" + resource.getGroupId(),
-				"-DartifactId=" + resource.getArtifactId(), "-Dversion=" + resource.getVersion(),
-				"-Dpackaging=" + resource.getExtension(), "-Dfile=" + resource.getFilepath(),
-				"-Durl=" + resource.getRepositoryUrl(), "-DrepositoryId=" + resource.getRepositoryId()));
-		
-		return mavenInvoker.execute(request);
+		InvocationResult result;
+		if (remoteDeployer.obtain().accepts(resource)) {
+			try {
+				result = remoteDeployer.obtain().deploy(resource);
+			} catch (IOException e) {
+				throw new MavenInvocationException("Unable to deploy " + resource + ", the next attempt resumes the upload", e);
+			}
+		} else {
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(errorHandler);
+			request.setOutputHandler(outputHandler);
+
+			request.setGoals(Arrays.asList("deploy:deploy-file", "-DgroupId=" + resource.getGroupId(),
+					"-DartifactId=" + resource.getArtifactId(), "-Dversion=" + resource.getVersion(),
+					"-Dpackaging=" + resource.getExtension(), "-Dfile=" + resource.getFilepath(),
+					"-Durl=" + resource.getRepositoryUrl(), "-DrepositoryId=" + resource.getRepositoryId()));
+			
+			result = invoke(request);
+		}
+		if (result.getExitCode() == 0) {
+			for (MavenResourceListener listener : listeners) {
+				listener.deployed(resource);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Push a local repository subtree to a remote repository in-process, see {@link RepositoryMigration}.
+	 * Reruns skip what earlier runs pushed.
+	 */
+	public MigrationReport migrate(File directory, String repositoryUrl, String repositoryId)
+			throws IOException, InterruptedException {
+		return repositoryMigration.obtain().migrate(directory, repositoryUrl, repositoryId);
 	}
 	
+	/**
+	 * Run goals on a project. With a {@code coalesce-window} set, calls on the same basedir that
+	 * queue up behind a running fork share one fork, see {@link GoalCoalescer}.
+	 */
 	public InvocationResult execute(File basedir, String... goals) throws MavenInvocationException {
+		return traced("maven execute", "maven.goals", String.join(" ", goals), () -> {
+			if (properties.getCoalesceWindow() != null && !properties.getCoalesceWindow().isZero()) {
+				return goalCoalescer.execute(basedir, Arrays.asList(goals), this::doExecute);
+			}
+			return doExecute(basedir, Arrays.asList(goals));
+		});
+	}
+
+	/**
+	 * Queue goals on a project without waiting for them. Calls on the same basedir run one after
+	 * the other in submission order, and with a {@code coalesce-window} set the calls queued behind
+	 * a running fork are merged into one, so {@code clean}, {@code compile} and {@code test} submitted
+	 * back to back take two forks instead of three.
+	 */
+	public CompletableFuture<InvocationResult> executeAsync(File basedir, String... goals) {
+		return goalCoalescer.submit(basedir, Arrays.asList(goals), this::doExecute);
+	}
+
+	private InvocationResult doExecute(File basedir, List<String> goals) throws MavenInvocationException {
 
 		InvocationRequest request = properties.newRequest();
 		request.setErrorHandler(errorHandler);
 		request.setOutputHandler(outputHandler);
 
 		request.setBaseDirectory(basedir);
-		request.setGoals(Arrays.asList(goals));
+		request.setGoals(goals);
 
-		return mavenInvoker.execute(request);
+		return invoke(request);
+	}
+
+	/**
+	 * Run goals on a project, reporting its progress as {@link org.apache.maven.spring.boot.ext.event.BuildEvent}s
+	 * while the output still goes to the output handler.
+	 */
+	public InvocationResult execute(File basedir, BuildEventListener listener, String... goals)
+			throws MavenInvocationException {
+
+		return traced("maven execute", "maven.goals", String.join(" ", goals), () -> {
+
+			BuildEventParser parser = new BuildEventParser(listener);
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(line -> {
+				parser.consumeLine(line);
+				errorHandler.consumeLine(line);
+			});
+			request.setOutputHandler(line -> {
+				parser.consumeLine(line);
+				outputHandler.consumeLine(line);
+			});
+
+			request.setBaseDirectory(basedir);
+			request.setGoals(Arrays.asList(goals));
+
+			return invoke(request);
+		});
+	}
+
+	/**
+	 * Run goals on a project with a registered Maven installation.
+	 */
+	public InvocationResult execute(String installation, File basedir, String... goals) throws MavenInvocationException {
+		MavenInstallation mavenInstallation = installations == null ? null : installations.get(installation);
+		if (mavenInstallation == null) {
+			throw new MavenInvocationException("Unknown Maven installation " + installation);
+		}
+		return traced("maven execute", "maven.goals", String.join(" ", goals), () -> {
+
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(errorHandler);
+			request.setOutputHandler(outputHandler);
+
+			request.setBaseDirectory(basedir);
+			request.setGoals(Arrays.asList(goals));
+			request.setMavenHome(mavenInstallation.getHome());
+
+			return invoke(request);
+		});
 	}
 
 	public InvocationResult execute(String basedir, String... goals) throws MavenInvocationException {
 		return this.execute(new File(basedir), goals);
 	}
+
+	/**
+	 * Build many unrelated projects, running those with the same goals as modules of one
+	 * {@code --fail-at-end} reactor instead of one Maven process each, see {@link ProjectAggregator}.
+	 *
+	 * @param projects the goals to run per project directory
+	 * @return the result per project directory, in the order given
+	 */
+	public Map<File, InvocationResult> executeAll(Map<File, List<String>> projects) throws MavenInvocationException {
+		return projectAggregator.execute(projects, (basedir, pomFile, goals, output) -> {
+
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(errorHandler);
+			request.setOutputHandler(output == null ? outputHandler : line -> {
+				output.consumeLine(line);
+				outputHandler.consumeLine(line);
+			});
+
+			request.setBaseDirectory(basedir);
+			request.setPomFileName(pomFile);
+			request.setGoals(goals);
+			if (output != null) {
+				request.setReactorFailureBehavior(ReactorFailureBehavior.FailAtEnd);
+				request.setProjects(null);
+				request.setResumeFrom(null);
+				request.setAlsoMake(false);
+				request.setAlsoMakeDependents(false);
+				request.setRecursive(true);
+				request.setThreads(MavenInvokerProperties.AUTO_THREADS.equalsIgnoreCase(properties.getAggregateThreads())
+						? null : properties.getAggregateThreads());
+			}
+
+			return invoke(request);
+		});
+	}
+
+	/**
+	 * Run the tests of a single-module project in up to {@code shards} concurrent surefire forks,
+	 * balanced by the durations of earlier runs, see {@link ShardedTestExecutor}.
+	 */
+	public ShardedTestResult executeTestShards(File basedir, int shards) throws MavenInvocationException {
+		return shardedTestExecutor.obtain().execute(basedir, shards, goals -> {
+
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(errorHandler);
+			request.setOutputHandler(outputHandler);
+
+			request.setBaseDirectory(basedir);
+			request.setGoals(goals);
+
+			return invoke(request);
+		});
+	}
+
+	/**
+	 * Resolve the project's dependencies once per fingerprint of its effective POMs; later builds
+	 * of the same fingerprint run offline, see {@link DependencyPrewarmer}.
+	 */
+	public PrewarmResult prewarm(File basedir) throws MavenInvocationException {
+		Assert.state(prewarmer != null, "Pre-warming is disabled, set maven.invoker.prewarm.enabled");
+		InvocationRequest template = properties.newRequest();
+		template.setBaseDirectory(basedir);
+		return prewarmer.prewarm(basedir, template.getPomFileName(), template.getProfiles(),
+				localRepository(template), goals -> {
+
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(errorHandler);
+			request.setOutputHandler(outputHandler);
+
+			request.setBaseDirectory(basedir);
+			request.setGoals(goals);
+			request.setOffline(false);
+
+			return invoke(request);
+		});
+	}
+
+	/**
+	 * The local repository a request resolves into, after installation routing if it is enabled.
+	 */
+	private File localRepository(InvocationRequest request) throws MavenInvocationException {
+		for (MavenInvocationInterceptor interceptor : interceptors) {
+			if (interceptor instanceof InstallationRoutingInterceptor) {
+				return ((InstallationRoutingInterceptor) interceptor).localRepository(request,
+						properties.resolveLocalRepository());
+			}
+		}
+		return request.getLocalRepositoryDirectory(properties.resolveLocalRepository());
+	}
+
+	/**
+	 * Build a multi-module project over several forks, up to {@code reactor.max-forks} at a time.
+	 * When the goals install, the reactor is built in {@link ReactorGraph#stages() stages}: each unit
+	 * is a {@code -pl <projects>} fork that takes its upstream modules from the local repository, so
+	 * modules sharing a {@code core} still build in parallel once it is installed. Other goals leave
+	 * nothing for the next fork to pick up, so each {@link ReactorGraph#partition() unit} is then a
+	 * {@code -pl <projects> -am} fork that only holds modules sharing no upstream with other units.
+	 */
+	public ReactorBuildResult executeReactor(File basedir, String... goals) throws MavenInvocationException {
+
+		ReactorGraph graph;
+		try {
+			graph = ReactorGraph.read(basedir, properties.getPomFilename(), properties.getProfiles());
+		} catch (IOException e) {
+			throw new MavenInvocationException("Unable to read the reactor of " + basedir, e);
+		}
+
+		int maxForks = properties.getReactor().getMaxForks() > 0 ? properties.getReactor().getMaxForks()
+				: Runtime.getRuntime().availableProcessors();
+		boolean failFast = properties.getReactorFailureBehavior() == ReactorFailureBehavior.FailFast;
+
+		boolean installs = Arrays.asList(goals).contains("install") || Arrays.asList(goals).contains("deploy");
+		ParallelReactorExecutor.UnitInvoker invoker = unit -> {
+
+			InvocationRequest request = properties.newRequest();
+			request.setErrorHandler(errorHandler);
+			request.setOutputHandler(outputHandler);
+
+			request.setBaseDirectory(basedir);
+			request.setGoals(Arrays.asList(goals));
+			request.setProjects(unit.getProjects());
+			request.setAlsoMake(!installs);
+			if (installs) {
+				// dependants belong to later stages
+				request.setAlsoMakeDependents(false);
+			}
+
+			return invoke(request);
+		};
+		ParallelReactorExecutor executor = new ParallelReactorExecutor(maxForks, failFast);
+		return installs ? executor.executeStages(graph.stages(), invoker) : executor.execute(graph.partition(), invoker);
+	}
+	
+	/**
+	 * Run an operation in a span of the tracer, if there is one.
+	 */
+	private InvocationResult traced(String name, String attribute, String value, Operation operation)
+			throws MavenInvocationException {
+		if (tracer == null) {
+			return operation.run();
+		}
+		InvocationSpan span = tracer.start(name).setAttribute(attribute, value);
+		try {
+			InvocationResult result = operation.run();
+			span.setAttribute("maven.exit_code", result.getExitCode());
+			span.setError(result.getExitCode() != 0);
+			return result;
+		} catch (MavenInvocationException | RuntimeException e) {
+			span.setError(true);
+			throw e;
+		} finally {
+			tracer.finish(span);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Operation {
+
+		InvocationResult run() throws MavenInvocationException;
+
+	}
+
+	/**
+	 * Run the request through the configured {@link MavenInvocationInterceptor}s and fork Maven.
+	 */
+	protected InvocationResult invoke(InvocationRequest request) throws MavenInvocationException {
+		return new MavenInvocationChain(interceptors, mavenInvoker).proceed(request);
+	}
 	
 	public Model readModel(File file) throws XmlPullParserException, IOException {
 		try (
@@ -128,5 +571,92 @@ public class MavenInvokerTemplate {
 		} 
 		throw new IOException("Not a maven project, unable to parse version information.");
 	}
-	
+
+	/**
+	 * Build the effective model of a POM in-process, see {@link EffectiveModelReader}.
+	 * 
+	 * @param pom the POM file, or a project directory holding one
+	 */
+	public Model readEffectiveModel(File pom) throws IOException, ModelBuildingException {
+		return effectiveModelReader.obtain().read(pom);
+	}
+
+	/**
+	 * In-process equivalent of {@code help:evaluate -Dexpression=<expression>}.
+	 * 
+	 * @param pom the POM file, or a project directory holding one
+	 * @return the value, or {@code null} if the expression does not resolve
+	 */
+	public String evaluate(File pom, String expression) throws IOException, ModelBuildingException {
+		return effectiveModelReader.obtain().evaluate(pom, expression);
+	}
+
+	/**
+	 * Resolve the dependency graph of a POM in-process, an alternative to forking {@code dependency:tree}.
+	 * 
+	 * @param pom the POM file, or a project directory holding one
+	 */
+	public DependencyGraph resolveDependencies(File pom)
+			throws IOException, ModelBuildingException, DependencyResolutionException {
+		return dependencyGraphResolver.obtain().resolve(effectiveModelReader.obtain().read(pom));
+	}
+
+	/**
+	 * Resolve an artifact and its transitive dependencies in-process.
+	 */
+	public DependencyGraph resolveDependencies(MavenResource resource) throws DependencyResolutionException {
+		return dependencyGraphResolver.obtain().resolve(resource);
+	}
+
+	/**
+	 * Compute the configured checksums of a file in one pass and write them next to it, for
+	 * instance to stage an artifact before an upload.
+	 */
+	public Map<String, String> generateChecksums(File file) throws IOException {
+		return checksumGenerator.generate(file);
+	}
+
+	/**
+	 * Write the checksum sidecars next to the installed artifact and its POM.
+	 */
+	private void writeInstalledChecksums(MavenResource resource, File repository) throws MavenInvocationException {
+		File installed = new File(repository, resource.getRepositoryPath());
+		try {
+			checksumGenerator.generate(installed);
+			File pom = new File(installed.getParentFile(), RepositoryFiles.pomName(resource));
+			if (pom.isFile() && !installed.equals(pom)) {
+				checksumGenerator.generate(pom);
+			}
+		} catch (IOException e) {
+			throw new MavenInvocationException("Unable to write the checksums of " + installed, e);
+		}
+	}
+
+	/**
+	 * Propose coordinates for a jar of unknown origin, see {@link ArtifactIdentifier}.
+	 */
+	public Identification identify(File file) {
+		return artifactIdentifier.obtain().identify(file);
+	}
+
+	/**
+	 * Identify a batch of jars in parallel, handing each result to the consumer as it completes.
+	 */
+	public void identifyAll(Iterable<File> files, Consumer<Identification> consumer) {
+		artifactIdentifier.obtain().identifyAll(files, consumer);
+	}
+
+	public void setArtifactIdentifier(ArtifactIdentifier artifactIdentifier) {
+		this.artifactIdentifier = SingletonSupplier.of(artifactIdentifier);
+	}
+
+	public EffectiveModelReader getEffectiveModelReader() {
+		return effectiveModelReader.obtain();
+	}
+
+	@Override
+	public void destroy() {
+		checksumGenerator.close();
+	}
+
 }
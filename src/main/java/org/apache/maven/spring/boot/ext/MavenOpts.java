@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.springframework.util.StringUtils;
+
+/**
+ * Helpers for the {@code MAVEN_OPTS} of an {@link InvocationRequest}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public abstract class MavenOpts {
+
+	/**
+	 * The options the fork will effectively see: the request's own value, or the inherited
+	 * {@code MAVEN_OPTS} environment variable when the request sets none.
+	 */
+	public static String effective(InvocationRequest request) {
+		if (StringUtils.hasText(request.getMavenOpts())) {
+			return request.getMavenOpts();
+		}
+		if (request.getShellEnvironments() != null && request.getShellEnvironments().containsKey("MAVEN_OPTS")) {
+			return request.getShellEnvironments().get("MAVEN_OPTS");
+		}
+		return request.isShellEnvironmentInherited() ? System.getenv("MAVEN_OPTS") : null;
+	}
+
+	/**
+	 * @return {@code true} if the effective options already contain an option starting with the prefix
+	 */
+	public static boolean contains(InvocationRequest request, String prefix) {
+		String opts = effective(request);
+		if (!StringUtils.hasText(opts)) {
+			return false;
+		}
+		for (String opt : opts.trim().split("\\s+")) {
+			if (opt.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Append options to the effective {@code MAVEN_OPTS} of the request.
+	 */
+	public static void append(InvocationRequest request, String... options) {
+		StringBuilder opts = new StringBuilder();
+		String current = effective(request);
+		if (StringUtils.hasText(current)) {
+			opts.append(current.trim());
+		}
+		for (String option : options) {
+			if (StringUtils.hasText(option)) {
+				if (opts.length() > 0) {
+					opts.append(' ');
+				}
+				opts.append(option);
+			}
+		}
+		request.setMavenOpts(opts.toString());
+	}
+
+}
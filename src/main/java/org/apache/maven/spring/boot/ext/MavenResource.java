@@ -160,6 +160,13 @@ public class MavenResource {
 				String.format("%s-%s.%s", artifactId, version, extension);
 	}
 
+	/**
+	 * @return the path of the artifact relative to a repository root, with {@code /} separators
+	 */
+	public String getRepositoryPath() {
+		return groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + getFilename();
+	}
+
 	public String getFilepath() {
 		return filepath;
 	}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext;
+
+import java.io.File;
+
+/**
+ * Notified by {@link MavenInvokerTemplate} after an artifact was installed or deployed successfully.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface MavenResourceListener {
+
+	default void installed(MavenResource resource) {
+	}
+
+	/**
+	 * @param localRepository the repository the install went to, an installation's own one when
+	 *                        the install was routed to it
+	 */
+	default void installed(MavenResource resource, File localRepository) {
+		installed(resource);
+	}
+
+	default void deployed(MavenResource resource) {
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.aggregate;
+
+import java.io.File;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Status;
+
+/**
+ * The share of one project in an aggregated build, taken from the reactor summary.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AggregatedProjectResult implements InvocationResult {
+
+	private final File basedir;
+	private final Status status;
+	private final long durationMillis;
+	private final InvocationResult aggregate;
+
+	AggregatedProjectResult(File basedir, Status status, long durationMillis, InvocationResult aggregate) {
+		this.basedir = basedir;
+		this.status = status;
+		this.durationMillis = durationMillis;
+		this.aggregate = aggregate;
+	}
+
+	public File getBasedir() {
+		return basedir;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the build time of this project as reported by Maven, {@code -1} if it did not run
+	 */
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	/**
+	 * @return the result of the Maven process that built this project along with the others
+	 */
+	public InvocationResult getAggregate() {
+		return aggregate;
+	}
+
+	@Override
+	public CommandLineException getExecutionException() {
+		return aggregate.getExecutionException();
+	}
+
+	@Override
+	public int getExitCode() {
+		return status == Status.SUCCESS ? 0 : Math.max(1, aggregate.getExitCode());
+	}
+
+}
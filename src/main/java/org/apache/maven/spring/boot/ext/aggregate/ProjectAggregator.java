@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.aggregate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.event.BuildEvent;
+import org.apache.maven.spring.boot.ext.event.BuildEventParser;
+import org.apache.maven.spring.boot.ext.event.BuildEventSummary;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Builds many unrelated projects in as few Maven processes as possible. Projects asking for the
+ * same goals are listed as modules of a temporary aggregator POM and built by one process; a
+ * {@link BuildEventParser} reads how each of them did from the reactor summary. Projects that cannot share a reactor
+ * (unreadable POMs, duplicate ids or names) and groups of one are built on their own, as are all
+ * projects of an aggregated build that ended without a reactor summary.
+ * <p>
+ * Projects that are reactors themselves (with {@code <modules>}, in a profile or not) are always
+ * built on their own: in the aggregated summary their own line only covers the parent POM, which
+ * reports {@code SUCCESS} even when their modules failed under {@code --fail-at-end}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ProjectAggregator {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ProjectAggregator.class);
+
+	/**
+	 * Forks Maven once.
+	 */
+	@FunctionalInterface
+	public interface Build {
+
+		/**
+		 * @param basedir the project (or aggregator) directory
+		 * @param pomFile the POM file name in that directory
+		 * @param goals   the goals to run
+		 * @param output  receives the output of an aggregated build, {@code null} for a single project
+		 */
+		InvocationResult execute(File basedir, String pomFile, List<String> goals, InvocationOutputHandler output)
+				throws MavenInvocationException;
+
+	}
+
+	private final String pomFilename;
+	private final MavenXpp3Reader reader = new MavenXpp3Reader();
+
+	public ProjectAggregator(String pomFilename) {
+		this.pomFilename = StringUtils.hasText(pomFilename) ? pomFilename : "pom.xml";
+	}
+
+	/**
+	 * @param projects the goals to run per project directory
+	 * @return the result per project directory, in the order given
+	 */
+	public Map<File, InvocationResult> execute(Map<File, List<String>> projects, Build build)
+			throws MavenInvocationException {
+		Map<List<String>, List<File>> groups = new LinkedHashMap<List<String>, List<File>>();
+		Map<File, InvocationResult> results = new LinkedHashMap<File, InvocationResult>();
+		for (Map.Entry<File, List<String>> project : projects.entrySet()) {
+			// keeps the caller's order, the results are filled in below
+			results.put(project.getKey(), null);
+			groups.computeIfAbsent(project.getValue(), goals -> new ArrayList<File>()).add(project.getKey());
+		}
+		for (Map.Entry<List<String>, List<File>> group : groups.entrySet()) {
+			List<File> single = new ArrayList<File>();
+			Map<File, String> members = admit(group.getValue(), single);
+			if (members.size() > 1) {
+				results.putAll(aggregate(members, group.getKey(), build, single));
+			} else {
+				single.addAll(members.keySet());
+			}
+			for (File basedir : single) {
+				results.put(basedir, build.execute(basedir, pomFilename, group.getKey(), null));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @return the projects that can share a reactor, keyed to the name Maven reports them by
+	 */
+	private Map<File, String> admit(Iterable<File> basedirs, List<File> single) {
+		Map<File, String> members = new LinkedHashMap<File, String>();
+		Set<String> ids = new HashSet<String>();
+		Set<String> names = new HashSet<String>();
+		for (File basedir : basedirs) {
+			Model model;
+			try (InputStream input = Files.newInputStream(new File(basedir, pomFilename).toPath())) {
+				model = reader.read(input);
+			} catch (IOException | XmlPullParserException e) {
+				LOG.debug("Unable to read the POM of {}, building it on its own", basedir, e);
+				single.add(basedir);
+				continue;
+			}
+			if (isReactor(model)) {
+				LOG.debug("{} has modules of its own, building it on its own", basedir);
+				single.add(basedir);
+				continue;
+			}
+			String groupId = model.getGroupId() != null ? model.getGroupId()
+					: model.getParent() != null ? model.getParent().getGroupId() : null;
+			String name = StringUtils.hasText(model.getName()) ? model.getName().trim() : model.getArtifactId();
+			if (!ids.add(groupId + ':' + model.getArtifactId()) || !names.add(name)) {
+				single.add(basedir);
+			} else {
+				members.put(basedir, name);
+			}
+		}
+		return members;
+	}
+
+	private static boolean isReactor(Model model) {
+		if (!model.getModules().isEmpty()) {
+			return true;
+		}
+		for (Profile profile : model.getProfiles()) {
+			if (!profile.getModules().isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Map<File, InvocationResult> aggregate(Map<File, String> members, List<String> goals, Build build,
+			List<File> single) throws MavenInvocationException {
+		File directory = null;
+		try {
+			directory = Files.createTempDirectory("maven-aggregate").toFile().getCanonicalFile();
+			Files.write(new File(directory, "pom.xml").toPath(), aggregatorPom(directory, members.keySet())
+					.getBytes(StandardCharsets.UTF_8));
+		} catch (IOException | IllegalArgumentException e) {
+			// modules on another file system root cannot be referenced relatively
+			LOG.debug("Unable to write an aggregator for {}, building them one by one", members.keySet(), e);
+			delete(directory);
+			single.addAll(members.keySet());
+			return new LinkedHashMap<File, InvocationResult>();
+		}
+		try {
+			LOG.debug("Building {} projects in one Maven process: {}", members.size(), members.keySet());
+			BuildEventSummary summary = new BuildEventSummary();
+			InvocationResult aggregate = build.execute(directory, "pom.xml", goals, new BuildEventParser(summary));
+
+			Map<File, InvocationResult> results = new LinkedHashMap<File, InvocationResult>();
+			for (Map.Entry<File, String> member : members.entrySet()) {
+				BuildEvent module = summary.getModule(member.getValue());
+				if (module == null) {
+					single.add(member.getKey());
+				} else {
+					results.put(member.getKey(), new AggregatedProjectResult(member.getKey(), module.getStatus(),
+							module.getDurationMillis(), aggregate));
+				}
+			}
+			return results;
+		} finally {
+			delete(directory);
+		}
+	}
+
+	private String aggregatorPom(File directory, Iterable<File> basedirs) throws IOException {
+		StringBuilder pom = new StringBuilder("<project><modelVersion>4.0.0</modelVersion>")
+				.append("<groupId>org.apache.maven.spring.boot</groupId><artifactId>")
+				.append(directory.getName()).append("</artifactId><version>1</version><packaging>pom</packaging><modules>");
+		for (File basedir : basedirs) {
+			String module = directory.toPath().relativize(basedir.getCanonicalFile().toPath()).toString();
+			if (!"pom.xml".equals(pomFilename)) {
+				module = module + File.separator + pomFilename;
+			}
+			pom.append("<module>").append(module.replace("&", "&amp;").replace("<", "&lt;")).append("</module>");
+		}
+		return pom.append("</modules></project>").toString();
+	}
+
+	private static void delete(File directory) {
+		if (directory != null) {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+}
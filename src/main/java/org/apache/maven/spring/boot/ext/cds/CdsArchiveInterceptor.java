@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.cds;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.springframework.core.Ordered;
+
+/**
+ * Points every fork at the class-data-sharing archive of its Maven installation.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CdsArchiveInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	/**
+	 * Runs late, once the Maven installation and JDK of the request are settled.
+	 */
+	public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+	private final CdsArchiveManager archiveManager;
+
+	public CdsArchiveInterceptor(CdsArchiveManager archiveManager) {
+		this.archiveManager = archiveManager;
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		archiveManager.apply(request);
+		return chain.proceed(request);
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.cds;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.Invoker;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Cds;
+import org.apache.maven.spring.boot.ext.Hex;
+import org.apache.maven.spring.boot.ext.MavenOpts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.StringUtils;
+
+/**
+ * Maintains a dynamic class-data-sharing archive of Maven's own classes for each pair of Maven
+ * installation and JDK, so that forks map the pre-parsed classes instead of loading them cold.
+ * Archives are generated with {@code -XX:ArchiveClassesAtExit} (JDK 13+) by a small warm-up build
+ * and named after a hash of both installations, so any change to either one invalidates them.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CdsArchiveManager implements DisposableBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(CdsArchiveManager.class);
+	private static final Pattern JAVA_VERSION = Pattern.compile("JAVA_VERSION=\"(1\\.)?(\\d+)");
+	private static final int MIN_JAVA_VERSION = 13;
+
+	private final Invoker mavenInvoker;
+	private final MavenInvokerProperties properties;
+	private final Cds cds;
+	private final ConcurrentMap<String, ArchiveKey> keys = new ConcurrentHashMap<String, ArchiveKey>();
+	private final ConcurrentMap<String, Boolean> generating = new ConcurrentHashMap<String, Boolean>();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "maven-cds-warmup");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public CdsArchiveManager(Invoker mavenInvoker, MavenInvokerProperties properties) {
+		this.mavenInvoker = mavenInvoker;
+		this.properties = properties;
+		this.cds = properties.getCds();
+	}
+
+	/**
+	 * Add the archive (and the optional fast startup flags) to the request's {@code MAVEN_OPTS}. If
+	 * there is no archive yet and {@code generate-on-first-use} is set, one is generated in the
+	 * background for the forks that follow.
+	 */
+	public void apply(InvocationRequest request) {
+		ArchiveKey key = keyFor(request.getMavenHome(), request.getJavaHome());
+		if (key == null) {
+			return;
+		}
+		if (key.archive.isFile()) {
+			MavenOpts.append(request, "-XX:SharedArchiveFile=" + key.archive.getAbsolutePath(), "-Xshare:auto");
+		} else if (cds.isGenerateOnFirstUse() && generating.putIfAbsent(key.hash, Boolean.TRUE) == null) {
+			executor.execute(() -> {
+				try {
+					generate(key);
+				} finally {
+					generating.remove(key.hash);
+				}
+			});
+		}
+		if (cds.isFastStartup() && !MavenOpts.contains(request, "-XX:TieredStopAtLevel")) {
+			MavenOpts.append(request, "-XX:TieredStopAtLevel=1");
+		}
+	}
+
+	/**
+	 * Generate the archive of the configured Maven installation and JDK now, unless it exists.
+	 *
+	 * @return the archive, or {@code null} if it cannot be generated for this installation
+	 */
+	public File warmUp() {
+		ArchiveKey key = keyFor(null, null);
+		if (key == null) {
+			return null;
+		}
+		synchronized (this) {
+			if (!key.archive.isFile()) {
+				generate(key);
+			}
+		}
+		return key.archive.isFile() ? key.archive : null;
+	}
+
+	private synchronized void generate(ArchiveKey key) {
+		if (key.archive.isFile()) {
+			return;
+		}
+		File project = null;
+		File temp = new File(key.archive.getParentFile(), key.archive.getName() + ".tmp");
+		try {
+			Files.createDirectories(key.archive.getParentFile().toPath());
+			project = Files.createTempDirectory("maven-cds-warmup").toFile();
+			Files.write(new File(project, "pom.xml").toPath(), ("<project><modelVersion>4.0.0</modelVersion>"
+					+ "<groupId>warmup</groupId><artifactId>warmup</artifactId><version>1</version></project>")
+							.getBytes(StandardCharsets.UTF_8));
+
+			InvocationRequest request = properties.newRequest();
+			request.setBaseDirectory(project);
+			request.setPomFileName("pom.xml");
+			request.setGoals(cds.getWarmUpGoals());
+			request.setBatchMode(true);
+			request.setOffline(true);
+			request.setProjects(null);
+			request.setResumeFrom(null);
+			request.setOutputHandler(line -> { });
+			request.setErrorHandler(line -> { });
+			if (key.mavenHome != null) {
+				request.setMavenHome(key.mavenHome);
+			}
+			if (key.javaHome != null) {
+				request.setJavaHome(key.javaHome);
+			}
+			MavenOpts.append(request, "-XX:ArchiveClassesAtExit=" + temp.getAbsolutePath());
+
+			InvocationResult result = mavenInvoker.execute(request);
+			if (result.getExitCode() != 0 || !temp.isFile()) {
+				LOG.warn("Maven CDS warm-up exited with {}, no archive generated", result.getExitCode());
+				return;
+			}
+			Files.move(temp.toPath(), key.archive.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			LOG.info("Generated Maven CDS archive {}", key.archive);
+			purgeStale(key);
+		} catch (IOException | MavenInvocationException e) {
+			LOG.warn("Unable to generate the Maven CDS archive {}", key.archive, e);
+		} finally {
+			temp.delete();
+			if (project != null) {
+				new File(project, "pom.xml").delete();
+				project.delete();
+			}
+		}
+	}
+
+	/**
+	 * Remove archives of earlier Maven or JDK installations at the same locations.
+	 */
+	private void purgeStale(ArchiveKey current) {
+		File[] archives = current.archive.getParentFile().listFiles((dir, name) -> name.startsWith(current.prefix)
+				&& name.endsWith(".jsa") && !name.equals(current.archive.getName()));
+		if (archives != null) {
+			for (File archive : archives) {
+				archive.delete();
+			}
+		}
+	}
+
+	ArchiveKey keyFor(File requestMavenHome, File requestJavaHome) {
+		File mavenHome = requestMavenHome != null ? requestMavenHome : mavenHome();
+		File javaHome = requestJavaHome != null ? requestJavaHome : javaHome();
+		if (mavenHome == null || javaHome == null) {
+			return null;
+		}
+		String id = mavenHome.getAbsolutePath() + File.pathSeparator + javaHome.getAbsolutePath();
+		List<File> jars = jarsOf(mavenHome);
+		File release = new File(javaHome, "release");
+		// a jar replaced in place leaves the directory's modification time alone, so stamp every jar
+		long stamp = release.length() * 31 + release.lastModified();
+		for (File jar : jars) {
+			stamp = stamp * 31 + jar.getName().hashCode();
+			stamp = stamp * 31 + jar.length();
+			stamp = stamp * 31 + jar.lastModified();
+		}
+		ArchiveKey key = keys.get(id);
+		if (key == null || key.stamp != stamp) {
+			key = computeKey(mavenHome, requestMavenHome, javaHome, requestJavaHome, jars, stamp);
+			if (key == null) {
+				return null;
+			}
+			keys.put(id, key);
+		}
+		return key;
+	}
+
+	/**
+	 * @return the jars of the installation's {@code lib} and {@code boot} directories, in a stable order
+	 */
+	private static List<File> jarsOf(File mavenHome) {
+		List<File> jars = new ArrayList<File>();
+		for (String dir : new String[] { "lib", "boot" }) {
+			File[] files = new File(mavenHome, dir).listFiles((d, name) -> name.endsWith(".jar"));
+			if (files != null) {
+				Arrays.sort(files);
+				jars.addAll(Arrays.asList(files));
+			}
+		}
+		return jars;
+	}
+
+	private ArchiveKey computeKey(File mavenHome, File requestMavenHome, File javaHome, File requestJavaHome,
+			List<File> jars, long stamp) {
+		try {
+			String release = new String(Files.readAllBytes(new File(javaHome, "release").toPath()), StandardCharsets.UTF_8);
+			Matcher matcher = JAVA_VERSION.matcher(release);
+			if (!matcher.find() || Integer.parseInt(matcher.group(2)) < MIN_JAVA_VERSION) {
+				LOG.debug("Dynamic CDS archives need JDK {}+, skipping {}", MIN_JAVA_VERSION, javaHome);
+				return null;
+			}
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(release.getBytes(StandardCharsets.UTF_8));
+			digest.update(javaHome.getCanonicalPath().getBytes(StandardCharsets.UTF_8));
+			digest.update(mavenHome.getCanonicalPath().getBytes(StandardCharsets.UTF_8));
+			for (File jar : jars) {
+				digest.update((jar.getName() + ':' + jar.length() + ':' + jar.lastModified()).getBytes(StandardCharsets.UTF_8));
+			}
+			String hash = Hex.encode(digest.digest()).substring(0, 16);
+			String prefix = "maven-" + Integer.toHexString(
+					(mavenHome.getCanonicalPath() + javaHome.getCanonicalPath()).hashCode()) + "-";
+			File archive = new File(archiveDirectory(), prefix + hash + ".jsa");
+			return new ArchiveKey(hash, prefix, archive, stamp, requestMavenHome, requestJavaHome);
+		} catch (IOException | NumberFormatException | NoSuchAlgorithmException e) {
+			LOG.debug("Unable to fingerprint {} and {}", mavenHome, javaHome, e);
+			return null;
+		}
+	}
+
+	private File archiveDirectory() {
+		if (StringUtils.hasText(cds.getArchiveDirectory())) {
+			return new File(cds.getArchiveDirectory());
+		}
+		return new File(System.getProperty("user.home"), ".m2" + File.separator + "cds");
+	}
+
+	/**
+	 * The Maven installation the invoker falls back to, see {@code DefaultInvoker#findMavenExecutable}.
+	 */
+	private File mavenHome() {
+		if (StringUtils.hasText(properties.getMavenHome())) {
+			return new File(properties.getMavenHome());
+		}
+		for (String candidate : Arrays.asList(System.getProperty("maven.home"), System.getenv("MAVEN_HOME"),
+				System.getenv("M2_HOME"))) {
+			if (StringUtils.hasText(candidate)) {
+				return new File(candidate);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The JDK the {@code mvn} script will pick: the configured one, {@code JAVA_HOME}, or ours.
+	 */
+	private File javaHome() {
+		if (StringUtils.hasText(properties.getJavaHome())) {
+			return new File(properties.getJavaHome());
+		}
+		if (StringUtils.hasText(System.getenv("JAVA_HOME"))) {
+			return new File(System.getenv("JAVA_HOME"));
+		}
+		return new File(System.getProperty("java.home"));
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	static class ArchiveKey {
+
+		final String hash;
+		final String prefix;
+		final File archive;
+		final long stamp;
+		final File mavenHome;
+		final File javaHome;
+
+		ArchiveKey(String hash, String prefix, File archive, long stamp, File mavenHome, File javaHome) {
+			this.hash = hash;
+			this.prefix = prefix;
+			this.archive = archive;
+			this.stamp = stamp;
+			this.mavenHome = mavenHome;
+			this.javaHome = javaHome;
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.checksum;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties.Checksum;
+import org.apache.maven.spring.boot.ext.Hex;
+
+/**
+ * Computes several checksums of a file in a single pass. The file is memory-mapped window by
+ * window and every window is fed to all digests before the next one is mapped; above the
+ * parallel threshold the digests of a window are updated concurrently, one core per algorithm,
+ * so a multi-GB archive is read once and hashed at the speed of the slowest algorithm. The
+ * threads for that are started on first use and stopped by {@link #close()}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ChecksumGenerator implements Closeable {
+
+	private static final int WINDOW = 64 * 1024 * 1024;
+
+	private final Checksum checksum;
+	private volatile ExecutorService executor;
+
+	public ChecksumGenerator(Checksum checksum) {
+		this.checksum = checksum;
+	}
+
+	/**
+	 * @return the lower case hex checksums keyed by algorithm, in the configured order
+	 */
+	public Map<String, String> compute(File file) throws IOException {
+		List<MessageDigest> digests = digests();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			boolean parallel = digests.size() > 1 && size >= checksum.getParallelThreshold().toBytes();
+			for (long position = 0; position < size; position += WINDOW) {
+				ByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW, size - position));
+				if (parallel) {
+					update(digests, window);
+				} else {
+					for (MessageDigest digest : digests) {
+						digest.update(window.duplicate());
+					}
+				}
+			}
+		}
+		Map<String, String> checksums = new LinkedHashMap<String, String>();
+		for (MessageDigest digest : digests) {
+			checksums.put(digest.getAlgorithm(), Hex.encode(digest.digest()));
+		}
+		return checksums;
+	}
+
+	/**
+	 * @return the checksums of a small in-memory content such as a POM
+	 */
+	public Map<String, String> compute(byte[] content) {
+		Map<String, String> checksums = new LinkedHashMap<String, String>();
+		for (MessageDigest digest : digests()) {
+			checksums.put(digest.getAlgorithm(), Hex.encode(digest.digest(content)));
+		}
+		return checksums;
+	}
+
+	private List<MessageDigest> digests() {
+		List<MessageDigest> digests = new ArrayList<MessageDigest>();
+		for (String algorithm : checksum.getAlgorithms()) {
+			try {
+				digests.add(MessageDigest.getInstance(algorithm));
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm, e);
+			}
+		}
+		return digests;
+	}
+
+	private void update(List<MessageDigest> digests, ByteBuffer window) throws IOException {
+		List<Future<?>> updates = new ArrayList<Future<?>>(digests.size());
+		for (MessageDigest digest : digests) {
+			ByteBuffer view = window.duplicate();
+			updates.add(executor().submit((Callable<Void>) () -> {
+				digest.update(view);
+				return null;
+			}));
+		}
+		try {
+			for (Future<?> update : updates) {
+				update.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while hashing", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Hashing failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Compute the checksums of the file and write them next to it as {@code .md5}, {@code .sha1},
+	 * {@code .sha256} and so on.
+	 */
+	public Map<String, String> generate(File file) throws IOException {
+		Map<String, String> checksums = compute(file);
+		write(file, checksums);
+		return checksums;
+	}
+
+	/**
+	 * Write checksum sidecar files next to the file, each one atomically.
+	 */
+	public static void write(File file, Map<String, String> checksums) throws IOException {
+		for (Map.Entry<String, String> entry : checksums.entrySet()) {
+			File sidecar = new File(file.getPath() + "." + extension(entry.getKey()));
+			File temp = new File(sidecar.getPath() + ".tmp");
+			Files.write(temp.toPath(), entry.getValue().getBytes(StandardCharsets.US_ASCII));
+			Files.move(temp.toPath(), sidecar.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+	}
+
+	/**
+	 * @return the sidecar extension of an algorithm as used by Maven repositories, {@code SHA-256} to {@code sha256}
+	 */
+	public static String extension(String algorithm) {
+		return algorithm.replace("-", "").toLowerCase();
+	}
+
+	private ExecutorService executor() {
+		if (executor == null) {
+			synchronized (this) {
+				if (executor == null) {
+					int threads = Math.min(checksum.getAlgorithms().size(), Runtime.getRuntime().availableProcessors());
+					executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+						Thread thread = new Thread(runnable, "maven-checksum");
+						thread.setDaemon(true);
+						return thread;
+					});
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Stop the hashing threads. A later parallel computation starts new ones.
+	 */
+	@Override
+	public synchronized void close() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.coalesce;
+
+import java.util.List;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+
+/**
+ * One caller's view of an invocation that may have run the goals of several callers.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CoalescedInvocationResult implements InvocationResult {
+
+	private final InvocationResult result;
+	private final List<String> goals;
+	private final List<String> invokedGoals;
+
+	CoalescedInvocationResult(InvocationResult result, List<String> goals, List<String> invokedGoals) {
+		this.result = result;
+		this.goals = goals;
+		this.invokedGoals = invokedGoals;
+	}
+
+	/**
+	 * @return the goals this caller asked for
+	 */
+	public List<String> getGoals() {
+		return goals;
+	}
+
+	/**
+	 * @return the goals of the fork that produced this result, more than {@link #getGoals()} if it was merged
+	 */
+	public List<String> getInvokedGoals() {
+		return invokedGoals;
+	}
+
+	public boolean isMerged() {
+		return invokedGoals.size() > goals.size();
+	}
+
+	public InvocationResult getResult() {
+		return result;
+	}
+
+	@Override
+	public CommandLineException getExecutionException() {
+		return result.getExecutionException();
+	}
+
+	@Override
+	public int getExitCode() {
+		return result.getExitCode();
+	}
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.coalesce;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs {@code execute} calls on the same basedir one fork at a time, in arrival order, and merges
+ * the calls that queue up behind a running fork into one fork with the concatenated goals, saving
+ * a JVM start and a reactor build per merged call. Only calls whose arguments are all goals or
+ * single-argument {@code -D}/{@code -P} options, with the same options in the same order, are
+ * merged; any other option such as {@code -pl a} takes a value the goals would be mistaken for,
+ * so such a call always forks on its own, still in its turn on the basedir.
+ * <p>
+ * A call that finds nothing running on its basedir forks at once, it never waits for the window.
+ * The window only opens when a call has to queue: it stays open for at least {@code window}, and
+ * for as long as the fork ahead of it runs. A caller issuing {@code clean}, {@code compile} and
+ * {@code test} back to back must therefore {@link #submit} them without waiting in between; blocking
+ * {@link #execute} calls of a single caller can never merge.
+ * <p>
+ * A merged fork that fails cannot tell whose goals broke it, and its goals may have had side
+ * effects already, so nothing is run again: every call of the batch gets the failed result, with
+ * {@link CoalescedInvocationResult#isMerged()} set.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class GoalCoalescer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(GoalCoalescer.class);
+
+	/**
+	 * Forks Maven for a list of goals.
+	 */
+	@FunctionalInterface
+	public interface GoalExecutor {
+
+		InvocationResult execute(File basedir, List<String> goals) throws MavenInvocationException;
+
+	}
+
+	private final Duration window;
+	private final boolean merging;
+	private final ConcurrentMap<String, Lane> lanes = new ConcurrentHashMap<String, Lane>();
+	private final ExecutorService forks = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "maven-coalescer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * @param window how long a queued batch stays open at least, {@code null} or zero to never merge
+	 */
+	public GoalCoalescer(Duration window) {
+		this.merging = window != null && !window.isZero() && !window.isNegative();
+		this.window = merging ? window : Duration.ZERO;
+	}
+
+	/**
+	 * Run the goals and wait for their result.
+	 */
+	public InvocationResult execute(File basedir, List<String> goals, GoalExecutor executor)
+			throws MavenInvocationException {
+		try {
+			return submit(basedir, goals, executor).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MavenInvocationException("Interrupted while waiting for a coalesced Maven invocation", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof MavenInvocationException) {
+				throw (MavenInvocationException) e.getCause();
+			}
+			throw new MavenInvocationException("Coalesced Maven invocation failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Queue the goals behind the earlier calls on the same basedir, without waiting for them.
+	 */
+	public CompletableFuture<InvocationResult> submit(File basedir, List<String> goals, GoalExecutor executor) {
+		String key = key(basedir);
+		Call call = new Call(goals);
+		while (true) {
+			Lane lane = lanes.computeIfAbsent(key, k -> new Lane());
+			synchronized (lane) {
+				if (lane.removed) {
+					continue;
+				}
+				if (!lane.running) {
+					lane.running = true;
+					Batch batch = new Batch(0);
+					batch.calls.add(call);
+					forks.execute(() -> drain(key, lane, basedir, batch, executor));
+				} else {
+					Batch last = lane.queue.peekLast();
+					if (merging && last != null && !last.closed && call.options != null
+							&& call.options.equals(last.calls.get(0).options)) {
+						last.calls.add(call);
+					} else {
+						last = new Batch(System.nanoTime() + window.toNanos());
+						last.calls.add(call);
+						lane.queue.addLast(last);
+					}
+				}
+				return call.result;
+			}
+		}
+	}
+
+	private void drain(String key, Lane lane, File basedir, Batch first, GoalExecutor executor) {
+		Batch batch = first;
+		while (true) {
+			run(basedir, batch.calls, executor);
+			Batch next;
+			synchronized (lane) {
+				next = lane.queue.peekFirst();
+				if (next == null) {
+					lane.running = false;
+					lane.removed = true;
+					lanes.remove(key, lane);
+					return;
+				}
+			}
+			long wait = next.deadline - System.nanoTime();
+			if (wait > 0) {
+				try {
+					Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			synchronized (lane) {
+				next.closed = true;
+				lane.queue.pollFirst();
+			}
+			batch = next;
+		}
+	}
+
+	private void run(File basedir, List<Call> calls, GoalExecutor executor) {
+		List<String> goals = calls.size() > 1 ? merge(calls) : calls.get(0).goals;
+		if (calls.size() > 1) {
+			LOG.debug("Coalesced {} invocations on {} into {}", calls.size(), basedir, goals);
+		}
+		try {
+			InvocationResult result = executor.execute(basedir, goals);
+			if (result.getExitCode() != 0 && calls.size() > 1) {
+				LOG.debug("Coalesced invocation {} on {} failed, reported to all {} callers", goals, basedir, calls.size());
+			}
+			for (Call call : calls) {
+				call.result.complete(new CoalescedInvocationResult(result, call.goals, goals));
+			}
+		} catch (MavenInvocationException | RuntimeException e) {
+			for (Call call : calls) {
+				call.result.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * The goals of all calls in order, followed by the options they share.
+	 */
+	static List<String> merge(List<Call> calls) {
+		List<String> merged = new ArrayList<String>();
+		for (Call call : calls) {
+			for (String goal : call.goals) {
+				if (!goal.startsWith("-")) {
+					merged.add(goal);
+				}
+			}
+		}
+		for (String goal : calls.get(0).goals) {
+			if (goal.startsWith("-")) {
+				merged.add(goal);
+			}
+		}
+		return merged;
+	}
+
+	private static String key(File basedir) {
+		try {
+			return basedir.getCanonicalPath();
+		} catch (IOException e) {
+			return basedir.getAbsolutePath();
+		}
+	}
+
+	/**
+	 * @return the options in order, or {@code null} if an argument is an option that may take a value
+	 */
+	static List<String> optionsOf(List<String> goals) {
+		List<String> options = new ArrayList<String>();
+		for (String goal : goals) {
+			if (goal.startsWith("-")) {
+				if (goal.length() <= 2 || !(goal.startsWith("-D") || goal.startsWith("-P"))) {
+					return null;
+				}
+				options.add(goal);
+			}
+		}
+		return options;
+	}
+
+	/**
+	 * The forks of one basedir; guarded by its own monitor.
+	 */
+	private static class Lane {
+
+		private final Deque<Batch> queue = new ArrayDeque<Batch>();
+		private boolean running;
+		private boolean removed;
+
+	}
+
+	private static class Batch {
+
+		private final List<Call> calls = new ArrayList<Call>();
+		private final long deadline;
+		private boolean closed;
+
+		Batch(long deadline) {
+			this.deadline = deadline;
+		}
+
+	}
+
+	static class Call {
+
+		private final List<String> goals;
+		private final List<String> options;
+		private final CompletableFuture<InvocationResult> result = new CompletableFuture<InvocationResult>();
+
+		Call(List<String> goals) {
+			this.goals = goals;
+			this.options = optionsOf(goals);
+		}
+
+	}
+
+}
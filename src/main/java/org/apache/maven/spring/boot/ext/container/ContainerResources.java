@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.container;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads the resource limits of the container the starter runs in from the Linux cgroup
+ * file system (v2 unified hierarchy first, then v1), falling back to what the JVM reports.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public abstract class ContainerResources {
+
+	static Path cgroupRoot = Paths.get("/sys/fs/cgroup");
+	static Path meminfo = Paths.get("/proc/meminfo");
+
+	/**
+	 * @return the number of CPUs this process may use, honouring the cgroup CPU quota
+	 */
+	public static int availableCpus() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		double quota = cpuQuota();
+		if (quota > 0) {
+			return Math.max(1, Math.min(processors, (int) Math.ceil(quota)));
+		}
+		return processors;
+	}
+
+	/**
+	 * @return the cgroup CPU quota in CPUs, or {@code -1} if there is none
+	 */
+	public static double cpuQuota() {
+		try {
+			// cgroup v2: "<quota> <period>" or "max <period>"
+			String max = read(cgroupRoot.resolve("cpu.max"));
+			if (max != null) {
+				String[] parts = max.split("\\s+");
+				if (parts.length == 2 && !"max".equals(parts[0])) {
+					return Double.parseDouble(parts[0]) / Double.parseDouble(parts[1]);
+				}
+				return -1;
+			}
+			// cgroup v1
+			for (String controller : new String[] { "cpu", "cpu,cpuacct" }) {
+				String quota = read(cgroupRoot.resolve(controller).resolve("cpu.cfs_quota_us"));
+				String period = read(cgroupRoot.resolve(controller).resolve("cpu.cfs_period_us"));
+				if (quota != null && period != null) {
+					long q = Long.parseLong(quota);
+					return q > 0 ? (double) q / Long.parseLong(period) : -1;
+				}
+			}
+		} catch (NumberFormatException e) {
+			// unexpected content, treat as unlimited
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the memory limit of the container in bytes, or the physical memory of the host if the
+	 *         cgroup sets none
+	 */
+	public static long memoryLimit() {
+		long limit = cgroupValue("memory.max", "memory.limit_in_bytes");
+		return limit > 0 ? limit : physicalMemory();
+	}
+
+	/**
+	 * @return the memory currently charged to the container in bytes, including the page cache,
+	 *         or the used physical memory of the host if no cgroup is available
+	 */
+	public static long memoryUsage() {
+		long usage = cgroupValue("memory.current", "memory.usage_in_bytes");
+		if (usage >= 0) {
+			return usage;
+		}
+		java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			com.sun.management.OperatingSystemMXBean sun = (com.sun.management.OperatingSystemMXBean) os;
+			return sun.getTotalPhysicalMemorySize() - sun.getFreePhysicalMemorySize();
+		}
+		return -1;
+	}
+
+	/**
+	 * The memory that cannot be reclaimed: the usage minus the inactive file pages of the cgroup,
+	 * or {@code MemTotal - MemAvailable} of the host without a cgroup. Unlike
+	 * {@link #memoryUsage()} it does not creep towards the limit as the page cache fills up.
+	 *
+	 * @return the working set in bytes, or {@code -1} if not available
+	 */
+	public static long memoryWorkingSet() {
+		long usage = cgroupValue("memory.current", "memory.usage_in_bytes");
+		if (usage >= 0) {
+			String stat = read(cgroupRoot.resolve("memory.stat"));
+			if (stat == null) {
+				stat = read(cgroupRoot.resolve("memory").resolve("memory.stat"));
+			}
+			return workingSet(usage, stat);
+		}
+		String info = read(meminfo);
+		long total = statValue(info, "MemTotal:");
+		long available = statValue(info, "MemAvailable:");
+		if (total > 0 && available >= 0) {
+			// meminfo is in kB
+			return (total - available) * 1024;
+		}
+		return memoryUsage();
+	}
+
+	/**
+	 * @param usage      {@code memory.current} (v2) or {@code memory.usage_in_bytes} (v1)
+	 * @param memoryStat the content of the cgroup's {@code memory.stat}, may be {@code null}
+	 * @return the usage without the inactive file pages, which the kernel reclaims before it has to
+	 */
+	public static long workingSet(long usage, String memoryStat) {
+		long inactive = statValue(memoryStat, "total_inactive_file");
+		if (inactive < 0) {
+			inactive = statValue(memoryStat, "inactive_file");
+		}
+		return inactive > 0 ? Math.max(0, usage - inactive) : usage;
+	}
+
+	/**
+	 * @return the number following the key at the start of a line, or {@code -1}
+	 */
+	static long statValue(String content, String key) {
+		if (content == null) {
+			return -1;
+		}
+		for (String line : content.split("\n")) {
+			if (line.startsWith(key) && line.length() > key.length() && Character.isWhitespace(line.charAt(key.length()))) {
+				String[] parts = line.substring(key.length()).trim().split("\\s+");
+				try {
+					return Long.parseLong(parts[0]);
+				} catch (NumberFormatException e) {
+					return -1;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the system load average of the last minute, or a negative value if not available
+	 */
+	public static double loadAverage() {
+		return ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+	}
+
+	static long physicalMemory() {
+		java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) os).getTotalPhysicalMemorySize();
+		}
+		return Runtime.getRuntime().maxMemory();
+	}
+
+	/**
+	 * @return the value of the v2 file, else of the v1 memory controller file, or {@code -1} if
+	 *         neither exists or the value means unlimited
+	 */
+	static long cgroupValue(String v2, String v1) {
+		String value = read(cgroupRoot.resolve(v2));
+		if (value == null) {
+			value = read(cgroupRoot.resolve("memory").resolve(v1));
+		}
+		if (value == null || "max".equals(value)) {
+			return -1;
+		}
+		try {
+			long bytes = Long.parseLong(value);
+			// cgroup v1 reports "unlimited" as a page-aligned Long.MAX_VALUE
+			return bytes >= (1L << 60) ? -1 : bytes;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	static String read(Path path) {
+		if (!Files.isReadable(path)) {
+			return null;
+		}
+		try {
+			return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII).trim();
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+
+}
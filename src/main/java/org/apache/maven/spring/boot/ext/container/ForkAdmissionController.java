@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.container;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Admission;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admits Maven forks only while the container's memory budget holds. The static capacity is
+ * {@code (memory limit - reserved memory) / fork memory}; on top of that the effective limit is
+ * halved whenever the memory working set (page cache excluded) or the load average crosses its
+ * threshold and grows back by one fork for every fork that completes without pressure. The
+ * cgroup files behind the capacity are read on the first fork, not at startup.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ForkAdmissionController {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ForkAdmissionController.class);
+	private static final long RECHECK_MILLIS = 500;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private final Admission admission;
+	private int capacity;
+	private int limit;
+	private int admitted;
+
+	public ForkAdmissionController(Admission admission) {
+		this.admission = admission;
+	}
+
+	/**
+	 * @return the static capacity, computed on first use; the caller holds the lock
+	 */
+	private int capacity() {
+		if (capacity == 0) {
+			long budget = ContainerResources.memoryLimit() - admission.getReservedMemory().toBytes();
+			int byMemory = (int) Math.max(1, budget / Math.max(1, admission.getForkMemory().toBytes()));
+			int byCpu = admission.getMaxForks() > 0 ? admission.getMaxForks() : ContainerResources.availableCpus();
+			capacity = Math.max(1, Math.min(byMemory, byCpu));
+			limit = capacity;
+			LOG.info("Maven fork admission capacity: {} ({} per fork)", capacity, admission.getForkMemory());
+		}
+		return capacity;
+	}
+
+	/**
+	 * Block until a fork may start.
+	 *
+	 * @throws MavenInvocationException if no slot frees up within the admission timeout
+	 */
+	public void acquire() throws MavenInvocationException {
+		long deadline = System.nanoTime() + admission.getTimeout().toNanos();
+		lock.lock();
+		try {
+			capacity();
+			while (true) {
+				boolean pressure = underPressure();
+				if (pressure && admitted > 0 && limit > 1) {
+					limit = Math.max(1, Math.min(limit, admitted) / 2);
+					LOG.debug("Resource pressure, fork limit reduced to {}", limit);
+				}
+				// a single fork is always admitted, otherwise pressure from elsewhere would starve us
+				if (admitted == 0 || (admitted < limit && !pressure)) {
+					admitted++;
+					return;
+				}
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					throw new MavenInvocationException("Timed out after " + admission.getTimeout()
+							+ " waiting for a Maven fork slot (" + admitted + " running, limit " + limit + ")");
+				}
+				released.await(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(RECHECK_MILLIS)), TimeUnit.NANOSECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MavenInvocationException("Interrupted while waiting for a Maven fork slot", e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void release() {
+		lock.lock();
+		try {
+			admitted--;
+			if (limit < capacity() && !underPressure()) {
+				limit++;
+			}
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	boolean underPressure() {
+		return underPressure(ContainerResources.memoryWorkingSet(), ContainerResources.memoryLimit(),
+				ContainerResources.loadAverage(), ContainerResources.availableCpus());
+	}
+
+	/**
+	 * @param workingSet  the memory that cannot be reclaimed, see {@link ContainerResources#memoryWorkingSet()}
+	 * @param memoryLimit the memory limit
+	 * @param load        the load average, negative if unknown
+	 * @param cpus        the available CPUs
+	 * @return {@code true} if the working set or the load crosses its threshold
+	 */
+	public boolean underPressure(long workingSet, long memoryLimit, double load, int cpus) {
+		if (workingSet > 0 && workingSet > memoryLimit * admission.getMemoryPressureThreshold()) {
+			return true;
+		}
+		return load > 0 && load > cpus * admission.getLoadPressureFactor();
+	}
+
+	/**
+	 * @return the {@code -Xmx} option matching the per-fork memory budget
+	 */
+	public String heapOption() {
+		long heap = (long) (admission.getForkMemory().toBytes() * admission.getHeapRatio());
+		return "-Xmx" + Math.max(64, heap / (1024 * 1024)) + "m";
+	}
+
+	public int getCapacity() {
+		lock.lock();
+		try {
+			return capacity();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getLimit() {
+		lock.lock();
+		try {
+			capacity();
+			return limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int getAdmitted() {
+		lock.lock();
+		try {
+			return admitted;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
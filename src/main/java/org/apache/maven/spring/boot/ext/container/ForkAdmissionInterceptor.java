@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.container;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.MavenOpts;
+import org.springframework.core.Ordered;
+
+/**
+ * Holds every fork back until the {@link ForkAdmissionController} admits it, and caps its heap
+ * with an {@code -Xmx} fitting the per-fork budget unless {@code MAVEN_OPTS} already sets one.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ForkAdmissionInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
+	private final ForkAdmissionController controller;
+
+	public ForkAdmissionInterceptor(ForkAdmissionController controller) {
+		this.controller = controller;
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		if (!MavenOpts.contains(request, "-Xmx")) {
+			MavenOpts.append(request, controller.heapOption());
+		}
+		controller.acquire();
+		try {
+			return chain.proceed(request);
+		} finally {
+			controller.release();
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.deploy;
+
+import java.net.URL;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+
+/**
+ * The outcome of an in-process deploy. Failures are thrown, so the exit code is always 0.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RemoteDeployResult implements InvocationResult {
+
+	private final URL url;
+	private final long size;
+	private final long bytesSent;
+
+	RemoteDeployResult(URL url, long size, long bytesSent) {
+		this.url = url;
+		this.size = size;
+		this.bytesSent = bytesSent;
+	}
+
+	public URL getUrl() {
+		return url;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the artifact bytes sent by this deploy, less than the size if it resumed an earlier one
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	@Override
+	public CommandLineException getExecutionException() {
+		return null;
+	}
+
+	@Override
+	public int getExitCode() {
+		return 0;
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.deploy;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Deploy;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Server;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.checksum.ChecksumGenerator;
+import org.apache.maven.spring.boot.ext.repository.RepositoryFiles;
+import org.springframework.util.StringUtils;
+
+/**
+ * Deploys a release artifact to an HTTP repository in-process: the artifact through the
+ * {@link ResumableUploader}, then its checksums, its POM and the updated
+ * {@code maven-metadata.xml}, the same files {@code deploy:deploy-file} uploads. The checksums
+ * are computed in one pass before the upload.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RemoteDeployer {
+
+	private final Deploy deploy;
+	private final ChecksumGenerator checksumGenerator;
+	private final ResumableUploader uploader;
+	private final ConcurrentMap<String, Object> metadataLocks = new ConcurrentHashMap<String, Object>();
+
+	public RemoteDeployer(MavenInvokerProperties properties, ChecksumGenerator checksumGenerator) {
+		this.deploy = properties.getDeploy();
+		this.checksumGenerator = checksumGenerator;
+		File journalDirectory = StringUtils.hasText(deploy.getJournalDirectory()) ? new File(deploy.getJournalDirectory())
+				: new File(properties.resolveLocalRepository().getParentFile(), "invoker-deploy-journal");
+		this.uploader = new ResumableUploader(deploy, journalDirectory);
+	}
+
+	/**
+	 * @return whether the resource is deployed in-process rather than by forking Maven
+	 */
+	public boolean accepts(MavenResource resource) {
+		return deploy.isResumable() && !resource.getVersion().endsWith("-SNAPSHOT")
+				&& StringUtils.hasText(resource.getRepositoryUrl()) && resource.getRepositoryUrl().startsWith("http")
+				&& new File(resource.getFilepath()).length() >= deploy.getResumableThreshold().toBytes();
+	}
+
+	public RemoteDeployResult deploy(MavenResource resource) throws IOException {
+		RemoteDeployResult result = upload(resource);
+		File file = new File(resource.getFilepath());
+		if (!"pom".equals(resource.getExtension())) {
+			byte[] pom = RepositoryFiles.pom(resource, file);
+			if (pom != null) {
+				URL pomUrl = new URL(result.getUrl(), RepositoryFiles.pomName(resource));
+				uploader.put(pomUrl, pom, authorization(resource.getRepositoryId()));
+				putChecksums(pomUrl, checksumGenerator.compute(pom), authorization(resource.getRepositoryId()));
+			}
+		}
+		updateMetadata(resource);
+		uploader.forget(result.getUrl(), file);
+		return result;
+	}
+
+	/**
+	 * Upload the artifact file with its checksums and its {@code .asc} signature if there is one,
+	 * but neither a POM nor metadata.
+	 */
+	public RemoteDeployResult upload(MavenResource resource) throws IOException {
+		File file = new File(resource.getFilepath());
+		if (!file.isFile()) {
+			throw new IOException("No such file " + file);
+		}
+		String authorization = authorization(resource.getRepositoryId());
+		URL url = new URL(baseUrl(resource) + resource.getRepositoryPath());
+
+		Map<String, String> checksums = checksumGenerator.compute(file);
+		long sent = uploader.upload(url, file, authorization, checksums.get("SHA-1"));
+		putChecksums(url, checksums, authorization);
+		File signature = new File(file.getPath() + ".asc");
+		if (signature.isFile()) {
+			uploader.put(new URL(url + ".asc"), Files.readAllBytes(signature.toPath()), authorization);
+		}
+		return new RemoteDeployResult(url, file.length(), sent);
+	}
+
+	/**
+	 * Add the resource's version to the remote {@code maven-metadata.xml}. Updates of the same
+	 * artifact are serialized, as the metadata is read, merged and written back.
+	 */
+	public void updateMetadata(MavenResource resource) throws IOException {
+		String authorization = authorization(resource.getRepositoryId());
+		URL metadataUrl = new URL(baseUrl(resource) + resource.getGroupId().replace('.', '/') + "/"
+				+ resource.getArtifactId() + "/maven-metadata.xml");
+		synchronized (metadataLocks.computeIfAbsent(metadataUrl.toString(), key -> new Object())) {
+			byte[] current = uploader.get(metadataUrl, authorization);
+			Metadata metadata = RepositoryFiles.readMetadata(resource,
+					current == null ? null : new ByteArrayInputStream(current));
+			byte[] updated = RepositoryFiles.writeMetadata(RepositoryFiles.addVersion(metadata, resource));
+			uploader.put(metadataUrl, updated, authorization);
+			putChecksums(metadataUrl, checksumGenerator.compute(updated), authorization);
+		}
+	}
+
+	/**
+	 * Forget the upload progress of the resource's file.
+	 */
+	public void forget(MavenResource resource) throws IOException {
+		uploader.forget(new URL(baseUrl(resource) + resource.getRepositoryPath()), new File(resource.getFilepath()));
+	}
+
+	private static String baseUrl(MavenResource resource) {
+		return resource.getRepositoryUrl().endsWith("/") ? resource.getRepositoryUrl() : resource.getRepositoryUrl() + "/";
+	}
+
+	private void putChecksums(URL url, Map<String, String> checksums, String authorization) throws IOException {
+		for (Map.Entry<String, String> checksum : checksums.entrySet()) {
+			uploader.put(new URL(url + "." + ChecksumGenerator.extension(checksum.getKey())),
+					checksum.getValue().getBytes(StandardCharsets.US_ASCII), authorization);
+		}
+	}
+
+	private String authorization(String repositoryId) {
+		Server server = repositoryId == null ? null : deploy.getServers().get(repositoryId);
+		if (server == null || !StringUtils.hasText(server.getUsername())) {
+			return null;
+		}
+		String credentials = server.getUsername() + ":" + (server.getPassword() == null ? "" : server.getPassword());
+		return "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
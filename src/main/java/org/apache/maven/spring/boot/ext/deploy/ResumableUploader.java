@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.deploy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties.Deploy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Uploads files to an HTTP repository with {@code PUT}, streaming them from disk. With
+ * {@code chunked} set, a file goes up in {@code Content-Range} chunks; the repository answers
+ * {@code 308} with the {@code Range} it holds until the last chunk, and is asked for that range
+ * (an empty {@code PUT} with {@code Content-Range: bytes *}{@code /<size>}) when an upload
+ * resumes. The acknowledged offset is kept in an {@link UploadJournal}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ResumableUploader {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ResumableUploader.class);
+	private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+	private static final int RESUME_INCOMPLETE = 308;
+	private static final int CONNECT_TIMEOUT = 30 * 1000;
+	private static final int READ_TIMEOUT = 10 * 60 * 1000;
+
+	private final Deploy deploy;
+	private final File journalDirectory;
+
+	public ResumableUploader(Deploy deploy, File journalDirectory) {
+		this.deploy = deploy;
+		this.journalDirectory = journalDirectory;
+	}
+
+	/**
+	 * Upload the file, continuing an earlier attempt if its journal says so.
+	 *
+	 * @param authorization the {@code Authorization} header, or {@code null}
+	 * @param sha1          the SHA-1 of the file, checked against the one the repository reports
+	 * @return the number of bytes sent by this call
+	 */
+	public long upload(URL url, File file, String authorization, String sha1) throws IOException {
+		UploadJournal journal = UploadJournal.open(journalDirectory, url, file);
+		if (journal.isComplete()) {
+			LOG.debug("{} was uploaded before, skipping", url);
+			return 0;
+		}
+		long size = file.length();
+		long sent = 0;
+		if (deploy.isChunked()) {
+			long offset = journal.getOffset() > 0 ? probe(url, size, authorization, journal.getOffset()) : 0;
+			if (offset > 0) {
+				LOG.info("Resuming the upload of {} at {} of {} bytes", url, offset, size);
+			}
+			while (offset < size) {
+				long length = Math.min(deploy.getChunkSize().toBytes(), size - offset);
+				HttpURLConnection connection = open(url, "PUT", authorization);
+				connection.setRequestProperty("Content-Range", "bytes " + offset + "-" + (offset + length - 1) + "/" + size);
+				int status = send(connection, file, offset, length);
+				// only what the repository acknowledged counts as sent
+				if (status == RESUME_INCOMPLETE) {
+					long committed = committed(connection);
+					long next = committed >= 0 ? committed : offset + length;
+					sent += Math.max(0, next - offset);
+					offset = next;
+				} else if (isSuccess(status) && offset + length == size) {
+					sent += length;
+					offset = size;
+				} else if (isSuccess(status)) {
+					// the repository stored the chunk as the whole file, it does not do ranges
+					LOG.warn("{} does not accept ranged uploads, uploading it whole", url);
+					sent += put(url, file, size, authorization);
+					offset = size;
+				} else {
+					throw new IOException("Upload of " + url + " failed with HTTP " + status + " at offset " + offset);
+				}
+				journal.setOffset(offset);
+			}
+		} else {
+			sent = put(url, file, size, authorization);
+		}
+		if (deploy.isVerify()) {
+			try {
+				verify(url, size, sha1, authorization);
+			} catch (IOException e) {
+				journal.delete();
+				throw e;
+			}
+		}
+		journal.complete();
+		return sent;
+	}
+
+	/**
+	 * Forget the progress of an upload, once everything that belongs to it is in the repository.
+	 */
+	public void forget(URL url, File file) throws IOException {
+		UploadJournal.open(journalDirectory, url, file).delete();
+	}
+
+	/**
+	 * A {@code 2xx} answer to the empty ranged {@code PUT} only means the upload is complete if the
+	 * repository then reports the full size: one without range support stores the empty body as a
+	 * zero-byte file and answers {@code 2xx} as well, so the upload starts over in that case.
+	 *
+	 * @return the offset the repository holds, the journal's one if it cannot tell
+	 */
+	private long probe(URL url, long size, String authorization, long journalOffset) throws IOException {
+		HttpURLConnection connection = open(url, "PUT", authorization);
+		connection.setRequestProperty("Content-Range", "bytes */" + size);
+		connection.setFixedLengthStreamingMode(0);
+		connection.getOutputStream().close();
+		int status = connection.getResponseCode();
+		drain(connection);
+		if (status == RESUME_INCOMPLETE) {
+			return Math.max(0, committed(connection));
+		}
+		if (isSuccess(status)) {
+			return remoteLength(url, authorization) == size ? size : 0;
+		}
+		return journalOffset;
+	}
+
+	/**
+	 * @return the {@code Content-Length} the repository reports for the file, {@code -1} if unknown
+	 */
+	private long remoteLength(URL url, String authorization) throws IOException {
+		HttpURLConnection connection = open(url, "HEAD", authorization);
+		int status = connection.getResponseCode();
+		drain(connection);
+		return isSuccess(status) ? connection.getContentLengthLong() : -1;
+	}
+
+	private long put(URL url, File file, long size, String authorization) throws IOException {
+		HttpURLConnection connection = open(url, "PUT", authorization);
+		int status = send(connection, file, 0, size);
+		if (!isSuccess(status)) {
+			throw new IOException("Upload of " + url + " failed with HTTP " + status);
+		}
+		return size;
+	}
+
+	/**
+	 * Upload a small in-memory content such as a POM or a checksum.
+	 */
+	public void put(URL url, byte[] content, String authorization) throws IOException {
+		HttpURLConnection connection = open(url, "PUT", authorization);
+		connection.setFixedLengthStreamingMode(content.length);
+		try (OutputStream output = connection.getOutputStream()) {
+			output.write(content);
+		}
+		int status = connection.getResponseCode();
+		drain(connection);
+		if (!isSuccess(status)) {
+			throw new IOException("Upload of " + url + " failed with HTTP " + status);
+		}
+	}
+
+	/**
+	 * @return the content, or {@code null} if there is none
+	 */
+	public byte[] get(URL url, String authorization) throws IOException {
+		HttpURLConnection connection = open(url, "GET", authorization);
+		int status = connection.getResponseCode();
+		if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+			drain(connection);
+			return null;
+		}
+		if (!isSuccess(status)) {
+			drain(connection);
+			throw new IOException("Download of " + url + " failed with HTTP " + status);
+		}
+		try (InputStream input = connection.getInputStream()) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = input.read(buffer)) > 0) {
+				output.write(buffer, 0, read);
+			}
+			return output.toByteArray();
+		}
+	}
+
+	private void verify(URL url, long size, String sha1, String authorization) throws IOException {
+		HttpURLConnection connection = open(url, "HEAD", authorization);
+		int status = connection.getResponseCode();
+		drain(connection);
+		if (!isSuccess(status)) {
+			throw new IOException("Uploaded " + url + " cannot be verified, HTTP " + status);
+		}
+		long length = connection.getContentLengthLong();
+		if (length >= 0 && length != size) {
+			throw new IOException("Uploaded " + url + " has " + length + " bytes, expected " + size);
+		}
+		String remote = connection.getHeaderField("X-Checksum-Sha1");
+		if (remote != null && sha1 != null && !remote.equalsIgnoreCase(sha1)) {
+			throw new IOException("Uploaded " + url + " has SHA-1 " + remote + ", expected " + sha1);
+		}
+	}
+
+	private static int send(HttpURLConnection connection, File file, long offset, long length) throws IOException {
+		connection.setRequestProperty("Content-Type", "application/octet-stream");
+		connection.setFixedLengthStreamingMode(length);
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				OutputStream output = connection.getOutputStream()) {
+			WritableByteChannel target = Channels.newChannel(output);
+			long position = offset;
+			long end = offset + length;
+			while (position < end) {
+				position += channel.transferTo(position, end - position, target);
+			}
+		}
+		int status = connection.getResponseCode();
+		drain(connection);
+		return status;
+	}
+
+	/**
+	 * @return the offset after the {@code Range} of a {@code 308}, 0 if it holds nothing, -1 if unknown
+	 */
+	private static long committed(HttpURLConnection connection) {
+		String range = connection.getHeaderField("Range");
+		if (range == null) {
+			return 0;
+		}
+		Matcher matcher = RANGE.matcher(range);
+		return matcher.find() ? Long.parseLong(matcher.group(2)) + 1 : -1;
+	}
+
+	private static HttpURLConnection open(URL url, String method, String authorization) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod(method);
+		connection.setInstanceFollowRedirects(false);
+		connection.setConnectTimeout(CONNECT_TIMEOUT);
+		connection.setReadTimeout(READ_TIMEOUT);
+		connection.setDoOutput("PUT".equals(method));
+		if (authorization != null) {
+			connection.setRequestProperty("Authorization", authorization);
+		}
+		return connection;
+	}
+
+	private static void drain(HttpURLConnection connection) {
+		try (InputStream input = connection.getResponseCode() < 400 ? connection.getInputStream()
+				: connection.getErrorStream()) {
+			if (input != null) {
+				byte[] buffer = new byte[8192];
+				while (input.read(buffer) > 0) {
+					// keep the connection reusable
+				}
+			}
+		} catch (IOException e) {
+			// nothing to drain
+		}
+	}
+
+	private static boolean isSuccess(int status) {
+		return status >= 200 && status < 300;
+	}
+
+}
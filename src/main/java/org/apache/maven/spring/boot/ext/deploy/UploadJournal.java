@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.deploy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * The persisted progress of one file upload, so that a restarted service continues where it
+ * stopped. A journal only applies while the file keeps its size and modification time.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+class UploadJournal {
+
+	private final File file;
+	private final Properties properties = new Properties();
+
+	private UploadJournal(File file) {
+		this.file = file;
+	}
+
+	static UploadJournal open(File directory, URL url, File source) throws IOException {
+		String key = DigestUtils.md5DigestAsHex((url + "\n" + source.getAbsolutePath()).getBytes(StandardCharsets.UTF_8));
+		UploadJournal journal = new UploadJournal(new File(directory, key + ".journal"));
+		if (journal.file.isFile()) {
+			try (InputStream input = Files.newInputStream(journal.file.toPath())) {
+				journal.properties.load(input);
+			}
+			if (!String.valueOf(source.length()).equals(journal.properties.getProperty("size"))
+					|| !String.valueOf(source.lastModified()).equals(journal.properties.getProperty("lastModified"))) {
+				journal.properties.clear();
+			}
+		}
+		journal.properties.setProperty("url", url.toString());
+		journal.properties.setProperty("file", source.getAbsolutePath());
+		journal.properties.setProperty("size", String.valueOf(source.length()));
+		journal.properties.setProperty("lastModified", String.valueOf(source.lastModified()));
+		return journal;
+	}
+
+	/**
+	 * @return the number of bytes the repository acknowledged
+	 */
+	long getOffset() {
+		return Long.parseLong(properties.getProperty("offset", "0"));
+	}
+
+	void setOffset(long offset) throws IOException {
+		properties.setProperty("offset", String.valueOf(offset));
+		save();
+	}
+
+	boolean isComplete() {
+		return Boolean.parseBoolean(properties.getProperty("complete"));
+	}
+
+	void complete() throws IOException {
+		properties.setProperty("complete", "true");
+		save();
+	}
+
+	void delete() {
+		file.delete();
+	}
+
+	private void save() throws IOException {
+		Files.createDirectories(file.getParentFile().toPath());
+		File temp = new File(file.getPath() + ".tmp");
+		try (OutputStream output = Files.newOutputStream(temp.toPath())) {
+			properties.store(output, null);
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+}
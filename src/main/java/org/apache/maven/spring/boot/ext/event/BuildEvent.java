@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.event;
+
+/**
+ * A typed fact read from Maven's console output. Which properties are set depends on the
+ * {@link Type}; the others are {@code null} or {@code -1}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BuildEvent {
+
+	public enum Type {
+		/** {@code module}, {@code artifactId}; {@code index} and {@code total} in a reactor. */
+		MODULE_STARTED,
+		/** {@code module}, {@code status}, {@code durationMillis} if it ran. */
+		MODULE_FINISHED,
+		/** {@code artifactId}, {@code mojo} as {@code plugin:version:goal (execution)}. */
+		MOJO_STARTED,
+		/** As {@link #MOJO_STARTED}, plus {@code durationMillis} measured on the output stream. */
+		MOJO_FINISHED,
+		/** {@code repository}, {@code message} holding the URL, {@code bytes}. */
+		DOWNLOADED,
+		/** {@code testsRun}, {@code failures}, {@code errors}, {@code skipped}; {@code message} holds the test class of a per-class line. */
+		TESTS,
+		/** {@code message}. */
+		WARNING,
+		/** {@code message}. */
+		ERROR,
+		/** {@code status}, {@code durationMillis}. */
+		BUILD_FINISHED
+	}
+
+	public enum Status {
+		SUCCESS, FAILURE, SKIPPED
+	}
+
+	private final Type type;
+	private String module;
+	private String artifactId;
+	private String mojo;
+	private String repository;
+	private String message;
+	private Status status;
+	private long durationMillis = -1;
+	private long bytes = -1;
+	private int index = -1;
+	private int total = -1;
+	private int testsRun = -1;
+	private int failures = -1;
+	private int errors = -1;
+	private int skipped = -1;
+
+	BuildEvent(Type type) {
+		this.type = type;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the module's display name, its {@code <name>} or else its artifactId
+	 */
+	public String getModule() {
+		return module;
+	}
+
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	public String getMojo() {
+		return mojo;
+	}
+
+	public String getRepository() {
+		return repository;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public int getTestsRun() {
+		return testsRun;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	public int getErrors() {
+		return errors;
+	}
+
+	public int getSkipped() {
+		return skipped;
+	}
+
+	BuildEvent module(String module) {
+		this.module = module;
+		return this;
+	}
+
+	BuildEvent artifactId(String artifactId) {
+		this.artifactId = artifactId;
+		return this;
+	}
+
+	BuildEvent mojo(String mojo) {
+		this.mojo = mojo;
+		return this;
+	}
+
+	BuildEvent repository(String repository) {
+		this.repository = repository;
+		return this;
+	}
+
+	BuildEvent message(String message) {
+		this.message = message;
+		return this;
+	}
+
+	BuildEvent status(Status status) {
+		this.status = status;
+		return this;
+	}
+
+	BuildEvent duration(long durationMillis) {
+		this.durationMillis = durationMillis;
+		return this;
+	}
+
+	BuildEvent bytes(long bytes) {
+		this.bytes = bytes;
+		return this;
+	}
+
+	BuildEvent position(int index, int total) {
+		this.index = index;
+		this.total = total;
+		return this;
+	}
+
+	BuildEvent tests(int testsRun, int failures, int errors, int skipped) {
+		this.testsRun = testsRun;
+		this.failures = failures;
+		this.errors = errors;
+		this.skipped = skipped;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(type.name());
+		append(builder, "module", module);
+		append(builder, "artifactId", artifactId);
+		append(builder, "mojo", mojo);
+		append(builder, "status", status);
+		append(builder, "durationMillis", durationMillis < 0 ? null : durationMillis);
+		append(builder, "bytes", bytes < 0 ? null : bytes);
+		append(builder, "testsRun", testsRun < 0 ? null : testsRun);
+		append(builder, "message", message);
+		return builder.toString();
+	}
+
+	private static void append(StringBuilder builder, String name, Object value) {
+		if (value != null) {
+			builder.append(' ').append(name).append('=').append(value);
+		}
+	}
+
+}
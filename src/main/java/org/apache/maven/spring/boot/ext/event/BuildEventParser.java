@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Status;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Type;
+
+/**
+ * An output handler turning Maven's console output into {@link BuildEvent}s as it streams by.
+ * Lines are dispatched on their level prefix and a literal marker before any regular expression
+ * runs, and nothing is kept per line, so memory stays constant however long the output gets; the
+ * only state is the modules and mojos currently running.
+ * <p>
+ * Mojo durations are measured between the lines announcing them, there is no other source.
+ * Module results come from the reactor summary, or from the build result for single projects.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BuildEventParser implements InvocationOutputHandler {
+
+	private static final String INFO = "[INFO] ";
+	private static final String WARNING = "[WARNING] ";
+	private static final String ERROR = "[ERROR] ";
+
+	private static final Pattern ANSI = Pattern.compile("\u001B\\[[;\\d]*m");
+	private static final Pattern PROJECT_HEADER = Pattern.compile("^-+< (.+?):(.+?) >-+$");
+	private static final Pattern BUILDING = Pattern.compile("^Building (.+?)(?:\\s+\\[(\\d+)/(\\d+)\\])?\\s*$");
+	private static final Pattern MOJO = Pattern.compile("^--- (.+?) \\((.+?)\\) @ (.+?) ---$");
+	private static final Pattern DOWNLOADED = Pattern
+			.compile("^Downloaded(?: from (\\S+))?: (\\S+) \\(([\\d.,]+) (B|kB|KB|MB|GB)(?: at [^)]*)?\\)$");
+	private static final Pattern TESTS = Pattern.compile(
+			"^Tests run: (\\d+), Failures: (\\d+), Errors: (\\d+), Skipped: (\\d+)(?:, Time elapsed: .*? (?:-|<<<.*?) in (\\S+))?.*$");
+	private static final Pattern SUMMARY_LINE = Pattern
+			.compile("^(.+?) \\.+ (SUCCESS|FAILURE|SKIPPED)(?: \\[\\s*([\\d:.]+) (s|min|h)\\])?\\s*$");
+	private static final Pattern TOTAL_TIME = Pattern.compile("^Total time:\\s+([\\d:.]+) (s|min|h).*$");
+
+	private final List<BuildEventListener> listeners;
+	private final Map<String, Long> modules = new LinkedHashMap<String, Long>();
+	private final Map<String, RunningMojo> mojos = new LinkedHashMap<String, RunningMojo>();
+	private String artifactId;
+	private boolean inSummary;
+	private Status buildStatus;
+
+	public BuildEventParser(BuildEventListener... listeners) {
+		this.listeners = new ArrayList<BuildEventListener>(Arrays.asList(listeners));
+	}
+
+	@Override
+	public synchronized void consumeLine(String line) {
+		if (line == null || line.isEmpty()) {
+			return;
+		}
+		if (line.indexOf('\u001B') >= 0) {
+			line = ANSI.matcher(line).replaceAll("");
+		}
+		if (line.startsWith(INFO)) {
+			info(line.substring(INFO.length()));
+		} else if (line.startsWith(WARNING)) {
+			String message = line.substring(WARNING.length());
+			if (!tests(message) && !message.trim().isEmpty()) {
+				emit(new BuildEvent(Type.WARNING).message(message));
+			}
+		} else if (line.startsWith(ERROR)) {
+			String message = line.substring(ERROR.length());
+			if (!tests(message) && !message.trim().isEmpty()) {
+				emit(new BuildEvent(Type.ERROR).message(message));
+			}
+		}
+	}
+
+	private void info(String message) {
+		if (message.startsWith("---")) {
+			if (message.startsWith("--- ")) {
+				mojo(message);
+			} else {
+				Matcher matcher = PROJECT_HEADER.matcher(message);
+				if (matcher.matches()) {
+					artifactId = matcher.group(2);
+				}
+			}
+		} else if (message.startsWith("Building ") && (artifactId != null || message.indexOf(':') < 0)) {
+			Matcher matcher = BUILDING.matcher(message);
+			if (matcher.matches()) {
+				String module = stripVersion(matcher.group(1));
+				modules.put(module, System.nanoTime());
+				BuildEvent event = new BuildEvent(Type.MODULE_STARTED).module(module).artifactId(artifactId);
+				if (matcher.group(2) != null) {
+					event.position(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+				}
+				artifactId = null;
+				emit(event);
+			}
+		} else if (message.startsWith("Downloaded")) {
+			Matcher matcher = DOWNLOADED.matcher(message);
+			if (matcher.matches()) {
+				emit(new BuildEvent(Type.DOWNLOADED).repository(matcher.group(1)).message(matcher.group(2))
+						.bytes(bytes(matcher.group(3), matcher.group(4))));
+			}
+		} else if (message.startsWith("Tests run: ")) {
+			tests(message);
+		} else if (message.startsWith("Reactor Summary")) {
+			inSummary = true;
+		} else if (message.startsWith("BUILD ")) {
+			inSummary = false;
+			buildStatus = message.startsWith("BUILD SUCCESS") ? Status.SUCCESS : Status.FAILURE;
+		} else if (message.startsWith("Total time:") && buildStatus != null) {
+			finishBuild(message);
+		} else if (inSummary && message.indexOf(" .") > 0) {
+			Matcher matcher = SUMMARY_LINE.matcher(message);
+			if (matcher.matches()) {
+				String module = matcher.group(1);
+				if (modules.remove(module) == null) {
+					module = stripVersion(module);
+					modules.remove(module);
+				}
+				finishMojos(null);
+				emit(new BuildEvent(Type.MODULE_FINISHED).module(module).status(Status.valueOf(matcher.group(2)))
+						.duration(matcher.group(3) == null ? -1 : millis(matcher.group(3), matcher.group(4))));
+			}
+		}
+	}
+
+	private void mojo(String message) {
+		Matcher matcher = MOJO.matcher(message);
+		if (!matcher.matches()) {
+			return;
+		}
+		String module = matcher.group(3);
+		finishMojos(module);
+		String mojo = matcher.group(1) + " (" + matcher.group(2) + ")";
+		mojos.put(module, new RunningMojo(mojo, System.nanoTime()));
+		emit(new BuildEvent(Type.MOJO_STARTED).artifactId(module).mojo(mojo));
+	}
+
+	private boolean tests(String message) {
+		if (!message.startsWith("Tests run: ")) {
+			return false;
+		}
+		Matcher matcher = TESTS.matcher(message);
+		if (matcher.matches()) {
+			emit(new BuildEvent(Type.TESTS).message(matcher.group(5)).tests(Integer.parseInt(matcher.group(1)),
+					Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4))));
+		}
+		return true;
+	}
+
+	private void finishBuild(String message) {
+		finishMojos(null);
+		long now = System.nanoTime();
+		// single projects print no reactor summary
+		for (Map.Entry<String, Long> module : modules.entrySet()) {
+			emit(new BuildEvent(Type.MODULE_FINISHED).module(module.getKey()).status(buildStatus)
+					.duration((now - module.getValue()) / 1000000));
+		}
+		modules.clear();
+		Matcher matcher = TOTAL_TIME.matcher(message);
+		emit(new BuildEvent(Type.BUILD_FINISHED).status(buildStatus)
+				.duration(matcher.matches() ? millis(matcher.group(1), matcher.group(2)) : -1));
+		buildStatus = null;
+	}
+
+	/**
+	 * @param module the module whose running mojo has ended, {@code null} for all of them
+	 */
+	private void finishMojos(String module) {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<String, RunningMojo>> iterator = mojos.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<String, RunningMojo> entry = iterator.next();
+			if (module == null || module.equals(entry.getKey())) {
+				iterator.remove();
+				emit(new BuildEvent(Type.MOJO_FINISHED).artifactId(entry.getKey()).mojo(entry.getValue().mojo)
+						.duration((now - entry.getValue().startNanos) / 1000000));
+			}
+		}
+	}
+
+	private void emit(BuildEvent event) {
+		for (BuildEventListener listener : listeners) {
+			listener.onEvent(event);
+		}
+	}
+
+	/**
+	 * "name 1.0" to "name", the reactor shows versions next to names.
+	 */
+	private static String stripVersion(String name) {
+		int space = name.lastIndexOf(' ');
+		return space > 0 && Character.isDigit(name.charAt(space + 1)) ? name.substring(0, space) : name;
+	}
+
+	/**
+	 * Maven prints kB, MB and GB in powers of 1000 and, before 3.5, KB in powers of 1024.
+	 */
+	static long bytes(String amount, String unit) {
+		double value = Double.parseDouble(amount.replace(",", ""));
+		switch (unit) {
+		case "KB":
+			return Math.round(value * 1024);
+		case "kB":
+			return Math.round(value * 1000);
+		case "MB":
+			return Math.round(value * 1000 * 1000);
+		case "GB":
+			return Math.round(value * 1000 * 1000 * 1000);
+		default:
+			return Math.round(value);
+		}
+	}
+
+	/**
+	 * @param time {@code 1.234} seconds, or {@code mm:ss} / {@code hh:mm} for minutes and hours
+	 */
+	static long millis(String time, String unit) {
+		if ("s".equals(unit)) {
+			return Math.round(Double.parseDouble(time) * 1000);
+		}
+		String[] parts = time.split(":");
+		long major = Long.parseLong(parts[0]);
+		double minor = parts.length > 1 ? Double.parseDouble(parts[1]) : 0;
+		return "min".equals(unit) ? Math.round((major * 60 + minor) * 1000) : Math.round((major * 60 + minor) * 60000);
+	}
+
+	private static class RunningMojo {
+
+		private final String mojo;
+		private final long startNanos;
+
+		RunningMojo(String mojo, long startNanos) {
+			this.mojo = mojo;
+			this.startNanos = startNanos;
+		}
+
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Status;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Type;
+
+/**
+ * Aggregates the events of a build: module results, download and test totals, warning and error
+ * counts, the slowest mojos and the first errors. Memory is bounded by the number of modules.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BuildEventSummary implements BuildEventListener {
+
+	private static final int SLOWEST_MOJOS = 10;
+	private static final int FIRST_ERRORS = 20;
+
+	private final Map<String, BuildEvent> modules = new LinkedHashMap<String, BuildEvent>();
+	private final List<BuildEvent> slowestMojos = new ArrayList<BuildEvent>();
+	private final List<String> firstErrors = new ArrayList<String>();
+	private Status status;
+	private long durationMillis = -1;
+	private int downloads;
+	private long downloadedBytes;
+	private int testsRun;
+	private int testFailures;
+	private int testErrors;
+	private int testsSkipped;
+	private int warnings;
+	private int errors;
+
+	@Override
+	public synchronized void onEvent(BuildEvent event) {
+		switch (event.getType()) {
+		case MODULE_FINISHED:
+			modules.put(event.getModule(), event);
+			break;
+		case MOJO_FINISHED:
+			slowest(event);
+			break;
+		case DOWNLOADED:
+			downloads++;
+			downloadedBytes += event.getBytes();
+			break;
+		case TESTS:
+			// per-class lines are repeated by the module's totals
+			if (event.getMessage() == null) {
+				testsRun += event.getTestsRun();
+				testFailures += event.getFailures();
+				testErrors += event.getErrors();
+				testsSkipped += event.getSkipped();
+			}
+			break;
+		case WARNING:
+			warnings++;
+			break;
+		case ERROR:
+			errors++;
+			if (firstErrors.size() < FIRST_ERRORS) {
+				firstErrors.add(event.getMessage());
+			}
+			break;
+		case BUILD_FINISHED:
+			status = event.getStatus();
+			durationMillis = event.getDurationMillis();
+			break;
+		default:
+			break;
+		}
+	}
+
+	private void slowest(BuildEvent event) {
+		int index = slowestMojos.size();
+		while (index > 0 && slowestMojos.get(index - 1).getDurationMillis() < event.getDurationMillis()) {
+			index--;
+		}
+		if (index < SLOWEST_MOJOS) {
+			slowestMojos.add(index, event);
+			if (slowestMojos.size() > SLOWEST_MOJOS) {
+				slowestMojos.remove(SLOWEST_MOJOS);
+			}
+		}
+	}
+
+	/**
+	 * @return the {@link Type#MODULE_FINISHED} events by module name, in reactor order
+	 */
+	public synchronized Map<String, BuildEvent> getModules() {
+		return Collections.unmodifiableMap(new LinkedHashMap<String, BuildEvent>(modules));
+	}
+
+	/**
+	 * @return the module's {@link Type#MODULE_FINISHED} event, or {@code null} if it did not finish
+	 */
+	public synchronized BuildEvent getModule(String name) {
+		return modules.get(name);
+	}
+
+	/**
+	 * @return up to ten {@link Type#MOJO_FINISHED} events, slowest first
+	 */
+	public synchronized List<BuildEvent> getSlowestMojos() {
+		return new ArrayList<BuildEvent>(slowestMojos);
+	}
+
+	/**
+	 * @return up to twenty error messages, in order
+	 */
+	public synchronized List<String> getFirstErrors() {
+		return new ArrayList<String>(firstErrors);
+	}
+
+	/**
+	 * @return the build result, {@code null} until the build finished
+	 */
+	public synchronized Status getStatus() {
+		return status;
+	}
+
+	public synchronized long getDurationMillis() {
+		return durationMillis;
+	}
+
+	public synchronized int getDownloads() {
+		return downloads;
+	}
+
+	public synchronized long getDownloadedBytes() {
+		return downloadedBytes;
+	}
+
+	public synchronized int getTestsRun() {
+		return testsRun;
+	}
+
+	public synchronized int getTestFailures() {
+		return testFailures;
+	}
+
+	public synchronized int getTestErrors() {
+		return testErrors;
+	}
+
+	public synchronized int getTestsSkipped() {
+		return testsSkipped;
+	}
+
+	public synchronized int getWarnings() {
+		return warnings;
+	}
+
+	public synchronized int getErrors() {
+		return errors;
+	}
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.identify;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.identify.Identification.Source;
+import org.apache.maven.spring.boot.ext.repository.LocalArtifact;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryIndex;
+import org.apache.maven.spring.boot.ext.repository.RepositoryFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Proposes Maven coordinates for jars of unknown origin. The embedded {@code pom.properties} is
+ * tried first, then the SHA-1 of the file is looked up in the {@link LocalRepositoryIndex} (if
+ * there is one), and the manifest's {@code Implementation-*} attributes are the last resort.
+ * The file is only hashed when the first step fails.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ArtifactIdentifier {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ArtifactIdentifier.class);
+	private static final Pattern POM_PROPERTIES = Pattern.compile("META-INF/maven/[^/]+/[^/]+/pom\\.properties");
+
+	private final LocalRepositoryIndex index;
+	private final int parallelism;
+
+	/**
+	 * @param index       the local repository index, or {@code null} to skip SHA-1 lookups
+	 * @param parallelism the number of files identified at once, the number of CPUs if not positive
+	 */
+	public ArtifactIdentifier(LocalRepositoryIndex index, int parallelism) {
+		this.index = index;
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	public Identification identify(File file) {
+		String sha1 = null;
+		try (JarFile jar = new JarFile(file, false)) {
+			MavenResource resource = fromPomProperties(file, jar);
+			if (resource != null) {
+				return new Identification(file, resource, Source.POM_PROPERTIES, null, null);
+			}
+			if (index != null) {
+				sha1 = RepositoryFiles.sha1(file);
+				resource = fromIndex(file, sha1);
+				if (resource != null) {
+					return new Identification(file, resource, Source.REPOSITORY_INDEX, sha1, null);
+				}
+			}
+			resource = fromManifest(file, jar.getManifest());
+			if (resource != null) {
+				return new Identification(file, resource, Source.MANIFEST, sha1, null);
+			}
+			return new Identification(file, null, Source.NONE, sha1, "No pom.properties, index entry or manifest coordinates");
+		} catch (IOException e) {
+			LOG.debug("Unable to read {}", file, e);
+			return new Identification(file, null, Source.NONE, sha1, "Unreadable: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Identify a stream of files in parallel. Files are pulled from the iterable only as workers
+	 * free up, so lazily produced batches are never held in memory as a whole. The consumer is
+	 * called one result at a time, in completion order, and once for every file: a file whose
+	 * identification fails unexpectedly gets an unidentified result carrying the exception.
+	 */
+	public void identifyAll(Iterable<File> files, Consumer<Identification> consumer) {
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "maven-identify");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Semaphore inFlight = new Semaphore(parallelism * 2);
+		try {
+			for (File file : files) {
+				inFlight.acquire();
+				executor.execute(() -> {
+					try {
+						Identification identification;
+						try {
+							identification = identify(file);
+						} catch (RuntimeException e) {
+							LOG.debug("Unable to identify {}", file, e);
+							identification = new Identification(file, null, Source.NONE, null,
+									"Failed: " + e, e);
+						}
+						synchronized (consumer) {
+							consumer.accept(identification);
+						}
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Shaded jars embed the {@code pom.properties} of every bundled library, so with more than
+	 * one the artifact whose id the file name starts with wins.
+	 */
+	MavenResource fromPomProperties(File file, JarFile jar) throws IOException {
+		List<Properties> candidates = new ArrayList<Properties>();
+		Enumeration<? extends ZipEntry> entries = jar.entries();
+		while (entries.hasMoreElements()) {
+			ZipEntry entry = entries.nextElement();
+			if (POM_PROPERTIES.matcher(entry.getName()).matches()) {
+				Properties properties = new Properties();
+				try (InputStream input = jar.getInputStream(entry)) {
+					properties.load(input);
+				}
+				if (StringUtils.hasText(properties.getProperty("groupId"))
+						&& StringUtils.hasText(properties.getProperty("artifactId"))
+						&& StringUtils.hasText(properties.getProperty("version"))) {
+					candidates.add(properties);
+				}
+			}
+		}
+		Properties match = null;
+		for (Properties candidate : candidates) {
+			if (file.getName().startsWith(candidate.getProperty("artifactId") + "-")
+					&& (match == null || candidate.getProperty("artifactId").length() > match.getProperty("artifactId").length())) {
+				match = candidate;
+			}
+		}
+		if (match == null && candidates.size() == 1) {
+			match = candidates.get(0);
+		}
+		if (match == null) {
+			return null;
+		}
+		String version = match.getProperty("version").trim();
+		return new MavenResource.Builder().filepath(file.getAbsolutePath()).groupId(match.getProperty("groupId").trim())
+				.artifactId(match.getProperty("artifactId").trim()).version(version)
+				.classifier(classifierOf(file, match.getProperty("artifactId").trim(), version))
+				.extension(extensionOf(file)).build();
+	}
+
+	MavenResource fromIndex(File file, String sha1) {
+		if (sha1 == null) {
+			return null;
+		}
+		LocalArtifact match = null;
+		for (LocalArtifact artifact : index.findBySha1(sha1)) {
+			if (artifact.getExtension().equals(extensionOf(file))
+					&& (match == null || match.getClassifier().length() > artifact.getClassifier().length())) {
+				match = artifact;
+			}
+		}
+		if (match == null) {
+			return null;
+		}
+		return new MavenResource.Builder().filepath(file.getAbsolutePath()).groupId(match.getGroupId())
+				.artifactId(match.getArtifactId()).version(match.getVersion()).classifier(match.getClassifier())
+				.extension(match.getExtension()).build();
+	}
+
+	/**
+	 * Manifests carry no artifactId, it is taken from the file name when that ends with the
+	 * version, from the title otherwise. The POM has to be generated on install.
+	 */
+	MavenResource fromManifest(File file, Manifest manifest) {
+		if (manifest == null) {
+			return null;
+		}
+		Attributes attributes = manifest.getMainAttributes();
+		String version = first(attributes, "Implementation-Version", "Bundle-Version");
+		String groupId = first(attributes, "Implementation-Vendor-Id");
+		String symbolicName = first(attributes, "Bundle-SymbolicName", "Automatic-Module-Name");
+		if (symbolicName != null) {
+			// directives follow the name, as in "org.acme.lib;singleton:=true"
+			int directives = symbolicName.indexOf(';');
+			symbolicName = (directives >= 0 ? symbolicName.substring(0, directives) : symbolicName).trim();
+			if (symbolicName.isEmpty() || symbolicName.endsWith(".")) {
+				symbolicName = null;
+			}
+		}
+		if (groupId == null && symbolicName != null && symbolicName.lastIndexOf('.') > 0) {
+			groupId = symbolicName.substring(0, symbolicName.lastIndexOf('.'));
+		}
+		if (groupId == null || version == null) {
+			return null;
+		}
+		String baseName = baseNameOf(file);
+		String artifactId;
+		if (baseName.endsWith("-" + version)) {
+			artifactId = baseName.substring(0, baseName.length() - version.length() - 1);
+		} else if (first(attributes, "Implementation-Title") != null) {
+			artifactId = first(attributes, "Implementation-Title").toLowerCase().replaceAll("[^a-z0-9._-]+", "-");
+		} else if (symbolicName != null) {
+			artifactId = symbolicName.substring(symbolicName.lastIndexOf('.') + 1);
+		} else {
+			return null;
+		}
+		return new MavenResource.Builder().filepath(file.getAbsolutePath()).groupId(groupId).artifactId(artifactId)
+				.version(version).extension(extensionOf(file)).generatePom(true).build();
+	}
+
+	private static String first(Attributes attributes, String... names) {
+		for (String name : names) {
+			String value = attributes.getValue(name);
+			if (StringUtils.hasText(value)) {
+				return value.trim();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the classifier in a {@code <artifactId>-<version>-<classifier>.<extension>} file name, or empty
+	 */
+	private static String classifierOf(File file, String artifactId, String version) {
+		String prefix = artifactId + "-" + version + "-";
+		String baseName = baseNameOf(file);
+		if (baseName.startsWith(prefix)) {
+			return baseName.substring(prefix.length());
+		}
+		return "";
+	}
+
+	/**
+	 * @return the file name without its extension, the whole name if it has none
+	 */
+	private static String baseNameOf(File file) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		return dot > 0 ? name.substring(0, dot) : name;
+	}
+
+	private static String extensionOf(File file) {
+		String name = file.getName();
+		int dot = name.lastIndexOf('.');
+		return dot > 0 ? name.substring(dot + 1) : "jar";
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.identify;
+
+import java.io.File;
+
+import org.apache.maven.spring.boot.ext.MavenResource;
+
+/**
+ * The outcome of identifying a file: the proposed coordinates and where they came from.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class Identification {
+
+	public enum Source {
+
+		/**
+		 * The {@code META-INF/maven/<groupId>/<artifactId>/pom.properties} embedded by Maven.
+		 */
+		POM_PROPERTIES,
+		/**
+		 * An artifact of the local repository with the same SHA-1.
+		 */
+		REPOSITORY_INDEX,
+		/**
+		 * The {@code Implementation-*} (or {@code Bundle-*}) attributes of the manifest, least reliable.
+		 */
+		MANIFEST,
+		/**
+		 * Nothing matched, the coordinates have to be given by hand.
+		 */
+		NONE
+
+	}
+
+	private final File file;
+	private final MavenResource resource;
+	private final Source source;
+	private final String sha1;
+	private final String message;
+	private final Throwable cause;
+
+	Identification(File file, MavenResource resource, Source source, String sha1, String message) {
+		this(file, resource, source, sha1, message, null);
+	}
+
+	Identification(File file, MavenResource resource, Source source, String sha1, String message, Throwable cause) {
+		this.file = file;
+		this.resource = resource;
+		this.source = source;
+		this.sha1 = sha1;
+		this.message = message;
+		this.cause = cause;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the proposed resource, ready for {@code MavenInvokerTemplate#install}, or {@code null}
+	 */
+	public MavenResource getResource() {
+		return resource;
+	}
+
+	public Source getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the SHA-1 of the file, or {@code null} if identification did not need it
+	 */
+	public String getSha1() {
+		return sha1;
+	}
+
+	/**
+	 * @return why the file could not be identified, or {@code null}
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @return the exception that stopped identification, or {@code null}
+	 */
+	public Throwable getCause() {
+		return cause;
+	}
+
+	public boolean isIdentified() {
+		return resource != null;
+	}
+
+	@Override
+	public String toString() {
+		return file.getName() + " -> " + (resource != null ? resource + " (" + source + ")" : message);
+	}
+
+}
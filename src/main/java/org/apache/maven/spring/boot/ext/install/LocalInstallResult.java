@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.install;
+
+import java.io.File;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Install.Placement;
+
+/**
+ * The outcome of an install that placed the artifact in-process instead of forking Maven.
+ * Failures are thrown, so the exit code is always 0.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalInstallResult implements InvocationResult {
+
+	private final File file;
+	private final Placement placement;
+
+	LocalInstallResult(File file, Placement placement) {
+		this.file = file;
+		this.placement = placement;
+	}
+
+	/**
+	 * @return the artifact in the local repository
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return how the artifact got there, never {@link Placement#AUTO}
+	 */
+	public Placement getPlacement() {
+		return placement;
+	}
+
+	@Override
+	public CommandLineException getExecutionException() {
+		return null;
+	}
+
+	@Override
+	public int getExitCode() {
+		return 0;
+	}
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Install.Placement;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.repository.ArtifactLocks;
+import org.apache.maven.spring.boot.ext.repository.RepositoryFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Installs an artifact into the local repository without forking Maven, placing the file with a
+ * hardlink, a reflink (copy-on-write clone), an atomic move or a {@code transferTo} copy. Links
+ * and moves cost no data I/O, which matters for multi-GB artifacts on the repository's file
+ * system. A POM (embedded or generated), {@code maven-metadata-local.xml} and
+ * {@code _remote.repositories} are written like {@code install:install-file} does.
+ * <p>
+ * A hardlinked artifact shares its content with the source file, so the source must not be
+ * modified in place afterwards.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalInstaller {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LocalInstaller.class);
+	private static final boolean MAC = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("mac");
+	private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+
+	private final MavenInvokerProperties properties;
+	private final ArtifactLocks locks;
+
+	public LocalInstaller(MavenInvokerProperties properties, ArtifactLocks locks) {
+		this.properties = properties;
+		this.locks = locks;
+	}
+
+	/**
+	 * Install the resource. The caller holds its version lock, see {@link ArtifactLocks#lockVersion}.
+	 */
+	public LocalInstallResult install(MavenResource resource) throws IOException {
+		return install(resource, properties.resolveLocalRepository(), locks);
+	}
+
+	/**
+	 * Install the resource into another local repository, such as the own one of the installation
+	 * an install is routed to.
+	 *
+	 * @param locks the locks of that repository, whose version lock the caller holds
+	 */
+	public LocalInstallResult install(MavenResource resource, File localRepository, ArtifactLocks locks)
+			throws IOException {
+		File source = new File(resource.getFilepath());
+		if (!source.isFile()) {
+			throw new IOException("No such file " + source);
+		}
+		File target = new File(localRepository, resource.getRepositoryPath());
+		Files.createDirectories(target.getParentFile().toPath());
+		Placement placement = place(source.toPath(), target.toPath(), properties.getInstall().getPlacement());
+		LOG.debug("Installed {} to {} by {}", resource, target, placement);
+
+		File pom = new File(target.getParentFile(), RepositoryFiles.pomName(resource));
+		if (!"pom".equals(resource.getExtension())) {
+			writePom(resource, target, pom);
+		}
+		writeMetadata(resource, target.getParentFile().getParentFile(), locks);
+		writeRemoteRepositories(target.getParentFile(), pom.isFile() ? new String[] { target.getName(), pom.getName() }
+				: new String[] { target.getName() });
+		return new LocalInstallResult(target, placement);
+	}
+
+	/**
+	 * Place the file under a temporary name in the target directory and rename it into place,
+	 * so readers never see a partial artifact.
+	 */
+	Placement place(Path source, Path target, Placement placement) throws IOException {
+		Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+		try {
+			Placement used = placeTemp(source, temp, placement);
+			move(temp, target);
+			return used;
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private Placement placeTemp(Path source, Path temp, Placement placement) throws IOException {
+		switch (placement) {
+		case MOVE:
+			try {
+				Files.move(source, temp, StandardCopyOption.ATOMIC_MOVE);
+				return Placement.MOVE;
+			} catch (AtomicMoveNotSupportedException e) {
+				// another file system, copy and then drop the source like a move would
+				copy(source, temp);
+				Files.delete(source);
+				return Placement.COPY;
+			}
+		case HARDLINK:
+			if (link(source, temp)) {
+				return Placement.HARDLINK;
+			}
+			break;
+		case REFLINK:
+			if (reflink(source, temp)) {
+				return Placement.REFLINK;
+			}
+			break;
+		case AUTO:
+			if (link(source, temp)) {
+				return Placement.HARDLINK;
+			}
+			if (reflink(source, temp)) {
+				return Placement.REFLINK;
+			}
+			break;
+		default:
+			break;
+		}
+		copy(source, temp);
+		return Placement.COPY;
+	}
+
+	private static boolean link(Path source, Path temp) {
+		try {
+			Files.createLink(temp, source);
+			return true;
+		} catch (IOException | UnsupportedOperationException e) {
+			// another file system, or links are not supported there
+			LOG.debug("Unable to hardlink {}: {}", source, e.toString());
+			return false;
+		}
+	}
+
+	/**
+	 * There is no Java API for copy-on-write clones, {@code cp} makes them on Btrfs, XFS, ZFS
+	 * (Linux) and APFS (macOS) and fails everywhere else.
+	 */
+	private static boolean reflink(Path source, Path temp) {
+		if (WINDOWS) {
+			return false;
+		}
+		ProcessBuilder builder = MAC ? new ProcessBuilder("cp", "-c", source.toString(), temp.toString())
+				: new ProcessBuilder("cp", "--reflink=always", source.toString(), temp.toString());
+		builder.redirectErrorStream(true).redirectOutput(new File("/dev/null"));
+		try {
+			Process process = builder.start();
+			if (process.waitFor(1, TimeUnit.MINUTES) && process.exitValue() == 0) {
+				return true;
+			}
+			process.destroyForcibly();
+		} catch (IOException e) {
+			LOG.debug("Unable to reflink {}: {}", source, e.toString());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			Files.deleteIfExists(temp);
+		} catch (IOException e) {
+			LOG.debug("Unable to delete {}", temp, e);
+		}
+		return false;
+	}
+
+	private static void copy(Path source, Path temp) throws IOException {
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = in.size();
+			long position = 0;
+			while (position < size) {
+				position += in.transferTo(position, size - position, out);
+			}
+		}
+		Files.setLastModifiedTime(temp, Files.getLastModifiedTime(source));
+	}
+
+	private static void move(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private void writePom(MavenResource resource, File target, File pom) throws IOException {
+		byte[] content = RepositoryFiles.pom(resource, target);
+		if (content != null) {
+			write(pom.toPath(), content);
+		}
+	}
+
+	/**
+	 * Add the version to {@code <artifactId>/maven-metadata-local.xml}, which installs of other
+	 * versions update too.
+	 */
+	private void writeMetadata(MavenResource resource, File artifactDirectory, ArtifactLocks locks) throws IOException {
+		File file = new File(artifactDirectory, "maven-metadata-local.xml");
+		try (ArtifactLocks.Lock lock = locks.lockArtifact(resource)) {
+			Metadata metadata;
+			try (InputStream input = file.isFile() ? Files.newInputStream(file.toPath()) : null) {
+				metadata = RepositoryFiles.readMetadata(resource, input);
+			}
+			write(file.toPath(), RepositoryFiles.writeMetadata(RepositoryFiles.addVersion(metadata, resource)));
+		}
+	}
+
+	private static void write(Path file, byte[] content) throws IOException {
+		Path temp = file.resolveSibling("." + file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+		Files.write(temp, content);
+		move(temp, file);
+	}
+
+	/**
+	 * Mark the files as locally installed for Maven's enhanced local repository manager. The
+	 * caller holds the version lock.
+	 */
+	private void writeRemoteRepositories(File versionDirectory, String... names) throws IOException {
+		File file = new File(versionDirectory, "_remote.repositories");
+		StringBuilder content = new StringBuilder();
+		if (file.isFile()) {
+			for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+				boolean replaced = false;
+				for (String name : names) {
+					replaced |= line.startsWith(name + ">");
+				}
+				if (!replaced) {
+					content.append(line).append('\n');
+				}
+			}
+		} else {
+			content.append("#NOTE: This is a Maven Resolver internal implementation file, its format can be changed without prior notice.\n");
+		}
+		for (String name : names) {
+			content.append(name).append(">=\n");
+		}
+		Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+}
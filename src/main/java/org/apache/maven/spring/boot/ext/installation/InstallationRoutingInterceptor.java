@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.installation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.MavenOpts;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+/**
+ * Routes every fork to one of the registered Maven installations and holds it back while that
+ * installation's forks are all taken. The first rule that names an installation wins:
+ * <ol>
+ * <li>a Maven home already set on the request,</li>
+ * <li>the {@link InstallationSelector}s,</li>
+ * <li>the version in the project's {@code .mvn/wrapper/maven-wrapper.properties},</li>
+ * <li>the {@code <prerequisites><maven>} of the project POM, a minimum version,</li>
+ * <li>the default installation.</li>
+ * </ol>
+ * Requests no rule routes keep the invoker's installation. Running before fork admission, a
+ * request waiting for its installation holds no global fork slot.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InstallationRoutingInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	private static final Logger LOG = LoggerFactory.getLogger(InstallationRoutingInterceptor.class);
+	private static final Pattern WRAPPER_VERSION = Pattern.compile("apache-maven-(\\d[^/]*?)-bin\\.(?:zip|tar\\.gz)");
+
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 75;
+
+	private final MavenInstallationRegistry registry;
+	private final List<InstallationSelector> selectors;
+	private final String pomFilename;
+
+	public InstallationRoutingInterceptor(MavenInstallationRegistry registry, List<InstallationSelector> selectors,
+			String pomFilename) {
+		this.registry = registry;
+		this.selectors = new ArrayList<InstallationSelector>(selectors);
+		this.pomFilename = StringUtils.hasText(pomFilename) ? pomFilename : "pom.xml";
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		MavenInstallation installation = route(request);
+		if (installation == null) {
+			return chain.proceed(request);
+		}
+		File home = request.getMavenHome();
+		File executable = request.getMavenExecutable();
+		File localRepository = request.getLocalRepositoryDirectory(null);
+		String mavenOpts = request.getMavenOpts();
+
+		request.setMavenHome(installation.getHome());
+		if (installation.getExecutable() != null) {
+			request.setMavenExecutable(installation.getExecutable());
+		}
+		if (installation.getLocalRepository() != null) {
+			request.setLocalRepositoryDirectory(installation.getLocalRepository());
+		}
+		if (StringUtils.hasText(installation.getMavenOpts())) {
+			MavenOpts.append(request, installation.getMavenOpts());
+		}
+		installation.acquire();
+		long start = System.nanoTime();
+		try {
+			return chain.proceed(request);
+		} finally {
+			installation.release(start);
+			// a retry routes the request afresh
+			request.setMavenHome(home);
+			request.setMavenExecutable(executable);
+			request.setLocalRepositoryDirectory(localRepository);
+			request.setMavenOpts(mavenOpts);
+		}
+	}
+
+	/**
+	 * @return the local repository the request resolves into once routed, the request's own if the
+	 *         installation it is routed to does not have one
+	 */
+	public File localRepository(InvocationRequest request, File defaultLocalRepository)
+			throws MavenInvocationException {
+		MavenInstallation installation = route(request);
+		if (installation != null && installation.getLocalRepository() != null) {
+			return installation.getLocalRepository();
+		}
+		return request.getLocalRepositoryDirectory(defaultLocalRepository);
+	}
+
+	MavenInstallation route(InvocationRequest request) throws MavenInvocationException {
+		if (request.getMavenHome() != null) {
+			return registry.findByHome(request.getMavenHome());
+		}
+		for (InstallationSelector selector : selectors) {
+			String name = selector.select(request);
+			if (name != null) {
+				MavenInstallation installation = registry.get(name);
+				if (installation == null) {
+					throw new MavenInvocationException("Unknown Maven installation " + name + " selected by " + selector);
+				}
+				return installation;
+			}
+		}
+		File basedir = request.getBaseDirectory();
+		if (basedir != null) {
+			String wrapperVersion = wrapperVersion(basedir);
+			if (wrapperVersion != null) {
+				MavenInstallation installation = registry.findByVersion(wrapperVersion);
+				if (installation != null) {
+					return installation;
+				}
+				LOG.debug("The Maven wrapper of {} asks for {}, which is not registered", basedir, wrapperVersion);
+			}
+			String prerequisite = prerequisite(request.getPomFile() != null ? request.getPomFile()
+					: new File(basedir, request.getPomFileName() != null ? request.getPomFileName() : pomFilename));
+			if (prerequisite != null) {
+				MavenInstallation installation = registry.findAtLeast(prerequisite);
+				if (installation != null) {
+					return installation;
+				}
+				LOG.debug("{} requires Maven {}, no registered installation is recent enough", basedir, prerequisite);
+			}
+		}
+		return registry.getDefault();
+	}
+
+	static String wrapperVersion(File basedir) {
+		File file = new File(basedir, ".mvn" + File.separator + "wrapper" + File.separator + "maven-wrapper.properties");
+		if (!file.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream input = Files.newInputStream(file.toPath())) {
+			properties.load(input);
+		} catch (IOException e) {
+			return null;
+		}
+		String url = properties.getProperty("distributionUrl");
+		Matcher matcher = url == null ? null : WRAPPER_VERSION.matcher(url);
+		return matcher != null && matcher.find() ? matcher.group(1) : null;
+	}
+
+	private static String prerequisite(File pom) {
+		if (!pom.isFile()) {
+			return null;
+		}
+		try (InputStream input = Files.newInputStream(pom.toPath())) {
+			Model model = new MavenXpp3Reader().read(input, false);
+			return model.getPrerequisites() != null && StringUtils.hasText(model.getPrerequisites().getMaven())
+					? model.getPrerequisites().getMaven().trim() : null;
+		} catch (IOException | XmlPullParserException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.installation;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+
+/**
+ * Picks the installation of a request before the wrapper and prerequisites rules apply. Beans of
+ * this type are asked in {@link org.springframework.core.Ordered} order.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface InstallationSelector {
+
+	/**
+	 * @return the name of a registered installation, or {@code null} to leave the choice to the next rule
+	 */
+	String select(InvocationRequest request);
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.installation;
+
+import java.io.File;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Installation;
+import org.springframework.util.StringUtils;
+
+/**
+ * A registered Maven installation with its own pool of forks and usage counters.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MavenInstallation {
+
+	private static final Pattern MAVEN_CORE = Pattern.compile("^maven-core-(\\d[\\w.-]*)\\.jar$");
+
+	private final String name;
+	private final File home;
+	private final File executable;
+	private final String version;
+	private final File localRepository;
+	private final String mavenOpts;
+	private final int limit;
+	private final Semaphore permits;
+	private final AtomicInteger running = new AtomicInteger();
+	private final AtomicInteger waiting = new AtomicInteger();
+	private final AtomicLong invocations = new AtomicLong();
+	private final AtomicLong busyNanos = new AtomicLong();
+
+	MavenInstallation(String name, Installation installation) {
+		this.name = name;
+		this.home = StringUtils.hasText(installation.getMavenHome()) ? new File(installation.getMavenHome()).getAbsoluteFile() : null;
+		this.executable = StringUtils.hasText(installation.getMavenExecutable()) ? new File(installation.getMavenExecutable()) : null;
+		this.version = StringUtils.hasText(installation.getVersion()) ? installation.getVersion() : detectVersion(home);
+		this.localRepository = StringUtils.hasText(installation.getLocalRepository()) ? new File(installation.getLocalRepository()) : null;
+		this.mavenOpts = installation.getMavenOpts();
+		this.limit = installation.getMaxConcurrent();
+		this.permits = limit > 0 ? new Semaphore(limit, true) : null;
+	}
+
+	/**
+	 * @return the version of {@code lib/maven-core-*.jar}, or {@code null}
+	 */
+	static String detectVersion(File home) {
+		File[] jars = home == null ? null : new File(home, "lib").listFiles((dir, file) -> file.startsWith("maven-core-"));
+		if (jars != null) {
+			for (File jar : jars) {
+				Matcher matcher = MAVEN_CORE.matcher(jar.getName());
+				if (matcher.matches()) {
+					return matcher.group(1);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Take a fork slot of this installation, waiting for one if all are taken.
+	 */
+	void acquire() throws MavenInvocationException {
+		if (permits != null) {
+			waiting.incrementAndGet();
+			try {
+				permits.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MavenInvocationException("Interrupted while waiting for a fork of Maven installation " + name, e);
+			} finally {
+				waiting.decrementAndGet();
+			}
+		}
+		running.incrementAndGet();
+		invocations.incrementAndGet();
+	}
+
+	void release(long startNanos) {
+		busyNanos.addAndGet(System.nanoTime() - startNanos);
+		running.decrementAndGet();
+		if (permits != null) {
+			permits.release();
+		}
+	}
+
+	/**
+	 * @return {@code true} if this installation is the given version or, for a version like {@code 3.8}, one of its releases
+	 */
+	boolean isVersion(String wanted) {
+		return version != null && (version.equals(wanted) || version.startsWith(wanted + '.'));
+	}
+
+	/**
+	 * @return {@code true} if this installation is at least the given version
+	 */
+	boolean isAtLeast(String minimum) {
+		return version != null && new ComparableVersion(version).compareTo(new ComparableVersion(minimum)) >= 0;
+	}
+
+	ComparableVersion comparableVersion() {
+		return new ComparableVersion(version == null ? "0" : version);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public File getHome() {
+		return home;
+	}
+
+	public File getExecutable() {
+		return executable;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public File getLocalRepository() {
+		return localRepository;
+	}
+
+	public String getMavenOpts() {
+		return mavenOpts;
+	}
+
+	/**
+	 * @return the fork limit, {@code 0} if unlimited
+	 */
+	public int getLimit() {
+		return Math.max(0, limit);
+	}
+
+	public int getRunning() {
+		return running.get();
+	}
+
+	/**
+	 * @return the requests waiting for a fork slot of this installation
+	 */
+	public int getWaiting() {
+		return waiting.get();
+	}
+
+	public long getInvocations() {
+		return invocations.get();
+	}
+
+	/**
+	 * @return the time forks of this installation took, summed up
+	 */
+	public long getBusyMillis() {
+		return busyNanos.get() / 1000000;
+	}
+
+	/**
+	 * @return the share of the fork slots in use, {@code 0} for unlimited installations
+	 */
+	public double getUtilization() {
+		return limit > 0 ? (double) running.get() / limit : 0;
+	}
+
+	@Override
+	public String toString() {
+		return name + (version != null ? " (" + version + ")" : "");
+	}
+
+}
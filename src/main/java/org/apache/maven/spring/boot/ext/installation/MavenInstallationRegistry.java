@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.installation;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties.Installation;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Routing;
+import org.springframework.util.StringUtils;
+
+/**
+ * The Maven installations of {@code maven.invoker.routing.installations}, looked up by name,
+ * home directory or version.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MavenInstallationRegistry {
+
+	private final Map<String, MavenInstallation> installations = new LinkedHashMap<String, MavenInstallation>();
+	private final MavenInstallation defaultInstallation;
+
+	public MavenInstallationRegistry(Routing routing) {
+		for (Map.Entry<String, Installation> entry : routing.getInstallations().entrySet()) {
+			installations.put(entry.getKey(), new MavenInstallation(entry.getKey(), entry.getValue()));
+		}
+		if (StringUtils.hasText(routing.getDefaultInstallation())) {
+			defaultInstallation = installations.get(routing.getDefaultInstallation());
+			if (defaultInstallation == null) {
+				throw new IllegalArgumentException("Unknown default Maven installation " + routing.getDefaultInstallation()
+						+ ", registered are " + installations.keySet());
+			}
+		} else {
+			defaultInstallation = null;
+		}
+	}
+
+	/**
+	 * @return the installation, or {@code null} if none has that name
+	 */
+	public MavenInstallation get(String name) {
+		return installations.get(name);
+	}
+
+	public Collection<MavenInstallation> getInstallations() {
+		return Collections.unmodifiableCollection(installations.values());
+	}
+
+	/**
+	 * @return the default installation, or {@code null} if there is none
+	 */
+	public MavenInstallation getDefault() {
+		return defaultInstallation;
+	}
+
+	/**
+	 * @return the installation at that home directory, or {@code null}
+	 */
+	public MavenInstallation findByHome(File home) {
+		File absolute = home.getAbsoluteFile();
+		for (MavenInstallation installation : installations.values()) {
+			if (absolute.equals(installation.getHome())) {
+				return installation;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param version an exact version, or a version prefix like {@code 3.8}
+	 * @return the installation of that exact version, else the latest matching the prefix, or {@code null}
+	 */
+	public MavenInstallation findByVersion(String version) {
+		MavenInstallation best = null;
+		for (MavenInstallation installation : installations.values()) {
+			if (version.equals(installation.getVersion())) {
+				return installation;
+			}
+			if (installation.isVersion(version)
+					&& (best == null || installation.comparableVersion().compareTo(best.comparableVersion()) > 0)) {
+				best = installation;
+			}
+		}
+		if (best == null) {
+			// 3.8.4 wanted, 3.8.6 registered: same minor release
+			int minor = version.indexOf('.', version.indexOf('.') + 1);
+			if (minor > 0) {
+				return findByVersion(version.substring(0, minor));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return the default installation if it is at least that version, else the oldest one that
+	 *         is, or {@code null}
+	 */
+	public MavenInstallation findAtLeast(String minimum) {
+		if (defaultInstallation != null && defaultInstallation.isAtLeast(minimum)) {
+			return defaultInstallation;
+		}
+		List<MavenInstallation> candidates = new ArrayList<MavenInstallation>();
+		for (MavenInstallation installation : installations.values()) {
+			if (installation.isAtLeast(minimum)) {
+				candidates.add(installation);
+			}
+		}
+		return candidates.stream().min(Comparator.comparing(MavenInstallation::comparableVersion)).orElse(null);
+	}
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.migrate;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The append-only record of what a migration pushed to one repository: a line per file
+ * ({@code F <path> <size> <last modified>}) and per metadata update ({@code M <groupId:artifactId:version>}).
+ * A file changed since it was pushed does not match its line and is pushed again.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+class MigrationManifest implements AutoCloseable {
+
+	private final Set<String> entries = ConcurrentHashMap.newKeySet();
+	private final Writer writer;
+
+	MigrationManifest(File file) throws IOException {
+		Files.createDirectories(file.getParentFile().toPath());
+		if (file.isFile()) {
+			// a line cut short by a crash simply never matches
+			entries.addAll(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+		}
+		this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8));
+	}
+
+	static String file(String path, File file) {
+		return "F " + path + " " + file.length() + " " + file.lastModified();
+	}
+
+	static String metadata(String groupId, String artifactId, String version) {
+		return "M " + groupId + ":" + artifactId + ":" + version;
+	}
+
+	boolean contains(String entry) {
+		return entries.contains(entry);
+	}
+
+	synchronized void record(String entry) throws IOException {
+		if (entries.add(entry)) {
+			writer.write(entry);
+			writer.write('\n');
+			writer.flush();
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+}
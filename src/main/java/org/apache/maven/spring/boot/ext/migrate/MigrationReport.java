@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.migrate;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of a {@link RepositoryMigration} run. Failed files are retried by the next run.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MigrationReport {
+
+	private final AtomicInteger pushed = new AtomicInteger();
+	private final AtomicInteger skipped = new AtomicInteger();
+	private final AtomicLong bytesSent = new AtomicLong();
+	private final Map<String, String> failures = new ConcurrentSkipListMap<String, String>();
+
+	void pushed(long bytes) {
+		pushed.incrementAndGet();
+		bytesSent.addAndGet(bytes);
+	}
+
+	void skipped() {
+		skipped.incrementAndGet();
+	}
+
+	void failed(String path, Exception e) {
+		failures.put(path, String.valueOf(e.getMessage()));
+	}
+
+	/**
+	 * @return the number of files uploaded by this run
+	 */
+	public int getPushed() {
+		return pushed.get();
+	}
+
+	/**
+	 * @return the number of files the manifest records as pushed by an earlier run, and snapshots
+	 */
+	public int getSkipped() {
+		return skipped.get();
+	}
+
+	public long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	/**
+	 * @return the error of every file or metadata update that failed, by repository path
+	 */
+	public Map<String, String> getFailures() {
+		return Collections.unmodifiableMap(failures);
+	}
+
+	public boolean isSuccess() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "pushed " + getPushed() + ", skipped " + getSkipped() + ", failed " + failures.size() + ", "
+				+ getBytesSent() + " bytes sent";
+	}
+
+}
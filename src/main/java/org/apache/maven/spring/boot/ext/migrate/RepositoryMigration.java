@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.migrate;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Migration;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.deploy.RemoteDeployer;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryScanner;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryScanner.ArtifactFile;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryScanner.VersionDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Pushes a local repository, or a subtree of one, to a remote HTTP repository in-process. Every
+ * version directory becomes a task: its artifacts (classifiers and the POM included) are uploaded
+ * through the {@link RemoteDeployer}, then the remote {@code maven-metadata.xml} is updated.
+ * Tasks run on a worker pool while a per-host semaphore caps the concurrent uploads to one
+ * server. What was pushed is recorded in a {@link MigrationManifest} so that a rerun skips it.
+ * <p>
+ * Snapshots are skipped, as deploying them needs timestamped versions.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RepositoryMigration {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RepositoryMigration.class);
+
+	private final MavenInvokerProperties properties;
+	private final Migration migration;
+	private final RemoteDeployer remoteDeployer;
+	private final ConcurrentMap<String, Semaphore> hosts = new ConcurrentHashMap<String, Semaphore>();
+
+	public RepositoryMigration(MavenInvokerProperties properties, RemoteDeployer remoteDeployer) {
+		this.properties = properties;
+		this.migration = properties.getMigration();
+		this.remoteDeployer = remoteDeployer;
+	}
+
+	/**
+	 * @param directory     the local repository or a group, artifact or version directory below it
+	 * @param repositoryUrl the remote repository
+	 * @param repositoryId  the id of the credentials in {@code deploy.servers}, or {@code null}
+	 */
+	public MigrationReport migrate(File directory, String repositoryUrl, String repositoryId)
+			throws IOException, InterruptedException {
+		File repository = properties.resolveLocalRepository().getAbsoluteFile();
+		File root = directory.getAbsoluteFile();
+		if (!root.toPath().startsWith(repository.toPath())) {
+			throw new IllegalArgumentException(directory + " is not inside the local repository " + repository);
+		}
+		List<VersionDirectory> versions = Collections.synchronizedList(new ArrayList<VersionDirectory>());
+		LocalRepositoryScanner scanner = new LocalRepositoryScanner(0);
+		try {
+			scanner.scan(repository, root, versions::add);
+		} finally {
+			scanner.shutdown();
+		}
+		LOG.info("Migrating {} versions from {} to {}", versions.size(), root, repositoryUrl);
+
+		MigrationReport report = new MigrationReport();
+		Semaphore host = hosts.computeIfAbsent(new URL(repositoryUrl).getAuthority(),
+				authority -> new Semaphore(migration.getMaxConnectionsPerHost()));
+		ExecutorService executor = Executors.newFixedThreadPool(migration.getWorkers(), runnable -> {
+			Thread thread = new Thread(runnable, "maven-migration");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try (MigrationManifest manifest = new MigrationManifest(manifestFile(repositoryUrl))) {
+			for (VersionDirectory version : versions) {
+				executor.execute(() -> migrate(version, repositoryUrl, repositoryId, manifest, host, report));
+			}
+			executor.shutdown();
+			while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+				LOG.info("Migration to {}: {}", repositoryUrl, report);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		LOG.info("Migration to {} done: {}", repositoryUrl, report);
+		return report;
+	}
+
+	private void migrate(VersionDirectory version, String repositoryUrl, String repositoryId,
+			MigrationManifest manifest, Semaphore host, MigrationReport report) {
+		if (version.getVersion().endsWith("-SNAPSHOT")) {
+			for (int i = 0; i < version.getFiles().size(); i++) {
+				report.skipped();
+			}
+			return;
+		}
+		MavenResource last = null;
+		boolean complete = true;
+		for (ArtifactFile file : version.getFiles()) {
+			MavenResource resource = new MavenResource.Builder().filepath(file.getFile().getAbsolutePath())
+					.groupId(version.getGroupId()).artifactId(version.getArtifactId()).version(file.getVersion())
+					.classifier(file.getClassifier()).extension(file.getExtension()).repositoryUrl(repositoryUrl)
+					.repositoryId(repositoryId).build();
+			last = resource;
+			String entry = MigrationManifest.file(resource.getRepositoryPath(), file.getFile());
+			if (manifest.contains(entry)) {
+				report.skipped();
+				continue;
+			}
+			try {
+				host.acquire();
+				try {
+					report.pushed(remoteDeployer.upload(resource).getBytesSent());
+				} finally {
+					host.release();
+				}
+				remoteDeployer.forget(resource);
+				manifest.record(entry);
+			} catch (IOException e) {
+				complete = false;
+				report.failed(resource.getRepositoryPath(), e);
+				LOG.warn("Unable to push {}: {}", resource.getRepositoryPath(), e.getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		String entry = MigrationManifest.metadata(version.getGroupId(), version.getArtifactId(), version.getVersion());
+		if (last == null || !complete || manifest.contains(entry)) {
+			return;
+		}
+		try {
+			host.acquire();
+			try {
+				remoteDeployer.updateMetadata(last);
+			} finally {
+				host.release();
+			}
+			manifest.record(entry);
+		} catch (IOException e) {
+			report.failed(version.getGroupId().replace('.', '/') + "/" + version.getArtifactId() + "/maven-metadata.xml", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private File manifestFile(String repositoryUrl) {
+		File directory = StringUtils.hasText(migration.getManifestDirectory()) ? new File(migration.getManifestDirectory())
+				: new File(properties.resolveLocalRepository().getParentFile(), "invoker-migration");
+		String name = DigestUtils.md5DigestAsHex(repositoryUrl.getBytes(StandardCharsets.UTF_8));
+		return new File(directory, name + ".manifest");
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.model.building.ModelCache;
+
+/**
+ * A thread-safe {@link ModelCache} shared by all model builds, so that parent and imported POMs
+ * resolved from the local repository are read and parsed only once. Snapshots are not cached,
+ * a snapshot re-installed into the local repository is read again.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ConcurrentModelCache implements ModelCache {
+
+	private final ConcurrentMap<String, Object> entries = new ConcurrentHashMap<String, Object>();
+
+	@Override
+	public void put(String groupId, String artifactId, String version, String tag, Object data) {
+		if (!isSnapshot(version)) {
+			entries.put(key(groupId, artifactId, version, tag), data);
+		}
+	}
+
+	@Override
+	public Object get(String groupId, String artifactId, String version, String tag) {
+		return isSnapshot(version) ? null : entries.get(key(groupId, artifactId, version, tag));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	private static boolean isSnapshot(String version) {
+		return version != null && version.endsWith("SNAPSHOT");
+	}
+
+	private static String key(String groupId, String artifactId, String version, String tag) {
+		return groupId + ':' + artifactId + ':' + version + ':' + tag;
+	}
+
+}
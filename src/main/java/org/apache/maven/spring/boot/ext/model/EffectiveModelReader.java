@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.DefaultModelBuilderFactory;
+import org.apache.maven.model.building.DefaultModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.util.StringUtils;
+
+/**
+ * Builds effective POMs in-process with maven-model-builder: parent inheritance, property
+ * interpolation, profile activation (including the configured {@code profiles}) and
+ * dependencyManagement, without forking {@code help:evaluate}.
+ * <p>
+ * Parent and imported POMs outside the project are read from the local repository and kept in a
+ * shared {@link ConcurrentModelCache}. Effective models are cached as well and reused for as long
+ * as none of the POM files they were built from has changed, parents and imports resolved from the
+ * local repository included, which makes repeated queries over a multi-module tree a map lookup.
+ * Returned models are shared and must not be modified.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class EffectiveModelReader {
+
+	private volatile ModelBuilder modelBuilder;
+	private final ConcurrentModelCache modelCache = new ConcurrentModelCache();
+	private final ConcurrentMap<String, CachedModel> models = new ConcurrentHashMap<String, CachedModel>();
+	private final MavenInvokerProperties properties;
+
+	public EffectiveModelReader(MavenInvokerProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * The model builder is only wired up when the first POM is read, not at startup.
+	 */
+	private ModelBuilder builder() {
+		ModelBuilder builder = modelBuilder;
+		if (builder == null) {
+			synchronized (this) {
+				builder = modelBuilder;
+				if (builder == null) {
+					builder = new DefaultModelBuilderFactory().newInstance();
+					modelBuilder = builder;
+				}
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * @param pom the POM file, or a project directory holding one
+	 * @return the effective model
+	 */
+	public Model read(File pom) throws IOException, ModelBuildingException {
+		File pomFile = pomFile(pom);
+		String key = pomFile.getPath() + '|' + properties.getProfiles() + '|' + properties.getProperties();
+		CachedModel cached = models.get(key);
+		if (cached != null && cached.isCurrent()) {
+			return cached.model;
+		}
+		LocalRepositoryModelResolver resolver = new LocalRepositoryModelResolver(properties.resolveLocalRepository());
+		ModelBuildingResult result = builder().build(newRequest(pomFile, resolver));
+		cached = new CachedModel(result, resolver.getResolved());
+		models.put(key, cached);
+		return cached.model;
+	}
+
+	/**
+	 * Evaluate an expression the way {@code help:evaluate -Dexpression=...} does, e.g.
+	 * {@code project.version}, {@code project.build.finalName}, {@code project.properties.foo} or a
+	 * plain property name.
+	 *
+	 * @return the value, or {@code null} if the expression does not resolve
+	 */
+	public String evaluate(File pom, String expression) throws IOException, ModelBuildingException {
+		Model model = read(pom);
+		String path = expression.trim();
+		if (path.startsWith("${") && path.endsWith("}")) {
+			path = path.substring(2, path.length() - 1);
+		}
+		if (path.startsWith("project.") || path.startsWith("pom.")) {
+			path = path.substring(path.indexOf('.') + 1);
+			if (path.startsWith("properties.")) {
+				return model.getProperties().getProperty(path.substring("properties.".length()));
+			}
+			try {
+				Object value = new BeanWrapperImpl(model).getPropertyValue(path);
+				return value == null ? null : String.valueOf(value);
+			} catch (BeansException e) {
+				return null;
+			}
+		}
+		String value = model.getProperties().getProperty(path);
+		if (value == null && properties.getProperties() != null) {
+			value = properties.getProperties().getProperty(path);
+		}
+		return value != null ? value : System.getProperty(path);
+	}
+
+	/**
+	 * Forget all cached models, e.g. after the local repository was cleaned.
+	 */
+	public void clear() {
+		models.clear();
+		modelCache.clear();
+	}
+
+	private ModelBuildingRequest newRequest(File pomFile, LocalRepositoryModelResolver resolver) {
+		ModelBuildingRequest request = new DefaultModelBuildingRequest();
+		request.setPomFile(pomFile);
+		request.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
+		request.setProcessPlugins(false);
+		request.setTwoPhaseBuilding(false);
+		request.setLocationTracking(false);
+		request.setModelCache(modelCache);
+		request.setModelResolver(resolver);
+
+		List<String> active = new ArrayList<String>();
+		List<String> inactive = new ArrayList<String>();
+		if (properties.getProfiles() != null) {
+			for (String profile : properties.getProfiles()) {
+				for (String id : StringUtils.commaDelimitedListToStringArray(profile)) {
+					id = id.trim();
+					if (id.startsWith("!") || id.startsWith("-")) {
+						inactive.add(id.substring(1));
+					} else if (id.startsWith("+")) {
+						active.add(id.substring(1));
+					} else if (!id.isEmpty()) {
+						active.add(id);
+					}
+				}
+			}
+		}
+		request.setActiveProfileIds(active);
+		request.setInactiveProfileIds(inactive);
+
+		Properties systemProperties = new Properties();
+		for (Map.Entry<String, String> env : System.getenv().entrySet()) {
+			systemProperties.setProperty("env." + env.getKey(), env.getValue());
+		}
+		systemProperties.putAll(System.getProperties());
+		request.setSystemProperties(systemProperties);
+		request.setUserProperties(properties.getProperties() != null ? properties.getProperties() : new Properties());
+		return request;
+	}
+
+	private File pomFile(File pom) throws IOException {
+		File file = pom;
+		if (file.isDirectory()) {
+			file = new File(file, StringUtils.hasText(properties.getPomFilename()) ? properties.getPomFilename() : "pom.xml");
+		}
+		if (!file.isFile()) {
+			throw new IOException("POM not found: " + file);
+		}
+		return file.getCanonicalFile();
+	}
+
+	private static class CachedModel {
+
+		private final Model model;
+		private final Map<File, Long> sources;
+
+		/**
+		 * @param resolved the POM files the build resolved from the local repository, whose raw
+		 *                 models carry no file; releases served from the model cache are not among
+		 *                 them, they never change
+		 */
+		CachedModel(ModelBuildingResult result, Collection<File> resolved) {
+			this.model = result.getEffectiveModel();
+			Map<File, Long> files = new LinkedHashMap<File, Long>();
+			for (String id : result.getModelIds()) {
+				Model raw = result.getRawModel(id);
+				if (raw != null && raw.getPomFile() != null) {
+					files.put(raw.getPomFile(), raw.getPomFile().lastModified());
+				}
+			}
+			for (File pom : resolved) {
+				files.put(pom, pom.lastModified());
+			}
+			this.sources = Collections.unmodifiableMap(files);
+		}
+
+		boolean isCurrent() {
+			for (Map.Entry<File, Long> source : sources.entrySet()) {
+				if (source.getKey().lastModified() != source.getValue()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.model;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelSource;
+import org.apache.maven.model.resolution.ModelResolver;
+import org.apache.maven.model.resolution.UnresolvableModelException;
+
+/**
+ * Resolves parent and imported POMs from the local repository only. Remote repositories declared
+ * by the POMs are ignored; a POM that was never downloaded cannot be resolved in-process. The
+ * files it resolved are kept, so that models built from them can tell when one was re-installed.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalRepositoryModelResolver implements ModelResolver {
+
+	private final File localRepository;
+	private final Set<File> resolved = ConcurrentHashMap.newKeySet();
+
+	public LocalRepositoryModelResolver(File localRepository) {
+		this.localRepository = localRepository;
+	}
+
+	@Override
+	public ModelSource resolveModel(String groupId, String artifactId, String version)
+			throws UnresolvableModelException {
+		File pom = new File(localRepository, groupId.replace('.', File.separatorChar) + File.separator + artifactId
+				+ File.separator + version + File.separator + artifactId + "-" + version + ".pom");
+		if (!pom.isFile()) {
+			throw new UnresolvableModelException("POM not found in local repository " + localRepository, groupId,
+					artifactId, version);
+		}
+		resolved.add(pom);
+		return new FileModelSource(pom);
+	}
+
+	/**
+	 * @return the POM files resolved so far, by this resolver and its copies
+	 */
+	public Set<File> getResolved() {
+		return resolved;
+	}
+
+	@Override
+	public ModelSource resolveModel(Parent parent) throws UnresolvableModelException {
+		return resolveModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+	}
+
+	@Override
+	public ModelSource resolveModel(Dependency dependency) throws UnresolvableModelException {
+		return resolveModel(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion());
+	}
+
+	@Override
+	public void addRepository(Repository repository) {
+		// local repository only
+	}
+
+	@Override
+	public void addRepository(Repository repository, boolean replace) {
+		// local repository only
+	}
+
+	@Override
+	public ModelResolver newCopy() {
+		return this;
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.offline;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves everything a project's build needs ({@code dependency:go-offline} by default) once per
+ * project fingerprint and records the fingerprint as warm, after which the
+ * {@link OfflineInterceptor} runs the project's builds offline.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DependencyPrewarmer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DependencyPrewarmer.class);
+
+	/**
+	 * Runs the resolving goals on the project.
+	 */
+	public interface Fork {
+
+		InvocationResult execute(List<String> goals) throws MavenInvocationException;
+
+	}
+
+	private final ProjectFingerprinter fingerprinter;
+	private final WarmFingerprints fingerprints;
+	private final List<String> goals;
+	private final ConcurrentMap<String, Object> running = new ConcurrentHashMap<String, Object>();
+
+	public DependencyPrewarmer(ProjectFingerprinter fingerprinter, WarmFingerprints fingerprints, List<String> goals) {
+		this.fingerprinter = fingerprinter;
+		this.fingerprints = fingerprints;
+		this.goals = goals;
+	}
+
+	/**
+	 * Resolve the project's dependencies unless its fingerprint is warm. Concurrent calls for the
+	 * same fingerprint resolve once.
+	 *
+	 * @param localRepository the local repository the fork resolves into, after installation routing
+	 */
+	public PrewarmResult prewarm(File basedir, String pomFileName, List<String> profiles, File localRepository,
+			Fork fork) throws MavenInvocationException {
+		String fingerprint = fingerprinter.fingerprint(basedir, pomFileName, profiles, localRepository);
+		if (fingerprint == null) {
+			// the parents may not be local yet, resolving them makes the project fingerprintable
+			InvocationResult result = fork.execute(goals);
+			fingerprint = fingerprinter.fingerprint(basedir, pomFileName, profiles, localRepository);
+			if (result.getExitCode() != 0 || fingerprint == null) {
+				return new PrewarmResult(fingerprint, false, result);
+			}
+			fingerprints.markWarm(fingerprint, basedir);
+			return new PrewarmResult(fingerprint, true, result);
+		}
+		synchronized (running.computeIfAbsent(fingerprint, key -> new Object())) {
+			try {
+				if (fingerprints.isWarm(fingerprint)) {
+					return new PrewarmResult(fingerprint, true, null);
+				}
+				long start = System.currentTimeMillis();
+				InvocationResult result = fork.execute(goals);
+				if (result.getExitCode() != 0) {
+					LOG.warn("Pre-warming {} failed with exit code {}", basedir, result.getExitCode());
+					return new PrewarmResult(fingerprint, false, result);
+				}
+				fingerprints.markWarm(fingerprint, basedir);
+				LOG.info("Pre-warmed {} ({}) in {} ms", basedir, fingerprint.substring(0, 12),
+						System.currentTimeMillis() - start);
+				return new PrewarmResult(fingerprint, true, result);
+			} finally {
+				running.remove(fingerprint);
+			}
+		}
+	}
+
+}
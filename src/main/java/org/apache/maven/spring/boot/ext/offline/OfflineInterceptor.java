@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.offline;
+
+import java.io.File;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+
+/**
+ * Runs builds of warm projects (see {@link DependencyPrewarmer}) offline and without snapshot
+ * updates, so they neither download nor check remote metadata. If such a build still misses an
+ * artifact, a plugin resolved only at run time for instance, the fingerprint is invalidated and
+ * the build runs again online, which makes the project warm again.
+ * <p>
+ * Requests without an output handler are passed through, their failure cause cannot be read.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OfflineInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OfflineInterceptor.class);
+	private static final String OFFLINE_FAILURE = "offline mode";
+
+	/**
+	 * Runs inside retries, so that a transient failure of an offline build is retried offline, and
+	 * inside installation routing, so that the fingerprint sees the routed local repository.
+	 */
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 80;
+
+	private final ProjectFingerprinter fingerprinter;
+	private final WarmFingerprints fingerprints;
+	private final File defaultLocalRepository;
+
+	/**
+	 * @param defaultLocalRepository the local repository of requests that do not set one
+	 */
+	public OfflineInterceptor(ProjectFingerprinter fingerprinter, WarmFingerprints fingerprints,
+			File defaultLocalRepository) {
+		this.fingerprinter = fingerprinter;
+		this.fingerprints = fingerprints;
+		this.defaultLocalRepository = defaultLocalRepository;
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		File basedir = request.getBaseDirectory();
+		InvocationOutputHandler output = request.getOutputHandler(null);
+		InvocationOutputHandler error = request.getErrorHandler(null);
+		if (request.isOffline() || basedir == null || output == null) {
+			return chain.proceed(request);
+		}
+		String fingerprint = fingerprinter.fingerprint(basedir, request.getPomFileName(), request.getProfiles(),
+				request.getLocalRepositoryDirectory(defaultLocalRepository));
+		if (fingerprint == null || !fingerprints.isWarm(fingerprint)) {
+			return chain.proceed(request);
+		}
+
+		boolean updateSnapshots = request.isUpdateSnapshots();
+		boolean[] missing = new boolean[1];
+		request.setOffline(true);
+		request.setUpdateSnapshots(false);
+		request.setOutputHandler(line -> {
+			missing[0] |= line.contains(OFFLINE_FAILURE);
+			output.consumeLine(line);
+		});
+		if (error != null) {
+			request.setErrorHandler(line -> {
+				missing[0] |= line.contains(OFFLINE_FAILURE);
+				error.consumeLine(line);
+			});
+		}
+		InvocationResult result;
+		try {
+			result = chain.proceed(request);
+		} finally {
+			request.setOffline(false);
+			request.setUpdateSnapshots(updateSnapshots);
+			request.setOutputHandler(output);
+			request.setErrorHandler(error);
+		}
+		if (result.getExitCode() == 0 || !missing[0]) {
+			return result;
+		}
+		LOG.info("Offline build of {} missed artifacts, building online", basedir);
+		fingerprints.invalidate(fingerprint);
+		result = chain.proceed(request);
+		if (result.getExitCode() == 0) {
+			fingerprints.markWarm(fingerprint, basedir);
+		}
+		return result;
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
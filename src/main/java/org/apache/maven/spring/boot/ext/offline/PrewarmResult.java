@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.offline;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+
+/**
+ * The outcome of {@link DependencyPrewarmer#prewarm}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class PrewarmResult {
+
+	private final String fingerprint;
+	private final boolean warm;
+	private final InvocationResult result;
+
+	PrewarmResult(String fingerprint, boolean warm, InvocationResult result) {
+		this.fingerprint = fingerprint;
+		this.warm = warm;
+		this.result = result;
+	}
+
+	/**
+	 * @return the project fingerprint, {@code null} if the project could not be fingerprinted
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @return whether builds of the project now run offline
+	 */
+	public boolean isWarm() {
+		return warm;
+	}
+
+	/**
+	 * @return the resolving build, {@code null} if the project was warm already
+	 */
+	public InvocationResult getResult() {
+		return result;
+	}
+
+}
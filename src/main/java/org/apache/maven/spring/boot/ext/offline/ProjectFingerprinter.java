@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.offline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.spring.boot.ext.Hex;
+import org.apache.maven.spring.boot.ext.model.EffectiveModelReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Fingerprints a project by the SHA-256 of the effective POMs of its reactor, so the fingerprint
+ * changes with anything that can change what the build resolves: dependencies, plugins, parents,
+ * properties and the active profiles. The POM file name and the local repository are part of it
+ * too, a project warmed into one repository is cold in any other.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ProjectFingerprinter {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ProjectFingerprinter.class);
+
+	private final EffectiveModelReader modelReader;
+
+	public ProjectFingerprinter(EffectiveModelReader modelReader) {
+		this.modelReader = modelReader;
+	}
+
+	/**
+	 * @param basedir         the reactor root
+	 * @param pomFileName     the POM of the reactor root, {@code null} for the configured one
+	 * @param profiles        the profiles of the build, which may activate other modules or dependencies
+	 * @param localRepository the local repository the build resolves into
+	 * @return the fingerprint, or {@code null} if a POM cannot be read, a parent that is not in the
+	 *         local repository yet for instance
+	 */
+	public String fingerprint(File basedir, String pomFileName, List<String> profiles, File localRepository) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(String.valueOf(profiles).getBytes(StandardCharsets.UTF_8));
+			digest.update(String.valueOf(pomFileName).getBytes(StandardCharsets.UTF_8));
+			digest.update(String.valueOf(localRepository == null ? null : localRepository.getAbsoluteFile())
+					.getBytes(StandardCharsets.UTF_8));
+			Deque<File> pending = new ArrayDeque<File>();
+			Set<File> seen = new HashSet<File>();
+			pending.add(StringUtils.hasText(pomFileName) ? new File(basedir, pomFileName).getAbsoluteFile()
+					: basedir.getAbsoluteFile());
+			while (!pending.isEmpty()) {
+				File pom = pending.poll();
+				if (!seen.add(pom.getCanonicalFile())) {
+					continue;
+				}
+				Model model = modelReader.read(pom);
+				digest.update(basedir.toURI().relativize(pom.toURI()).getPath().getBytes(StandardCharsets.UTF_8));
+				write(model, new DigestOutputStream(NullOutputStream.INSTANCE, digest));
+				File directory = pom.isDirectory() ? pom : pom.getParentFile();
+				for (String module : model.getModules()) {
+					pending.add(new File(directory, module));
+				}
+			}
+			return Hex.encode(digest.digest());
+		} catch (IOException | ModelBuildingException e) {
+			LOG.debug("Unable to fingerprint {}", basedir, e);
+			return null;
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void write(Model model, OutputStream output) throws IOException {
+		Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+		new MavenXpp3Writer().write(writer, model);
+		writer.flush();
+	}
+
+	private static class NullOutputStream extends OutputStream {
+
+		static final NullOutputStream INSTANCE = new NullOutputStream();
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.offline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The project fingerprints whose dependencies are known to be in the local repository, one
+ * marker file per fingerprint holding the project it was taken of. Markers expire so that
+ * snapshots and version ranges are eventually resolved online again.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class WarmFingerprints {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WarmFingerprints.class);
+
+	private final File directory;
+	private final Duration expireAfter;
+
+	public WarmFingerprints(File directory, Duration expireAfter) {
+		this.directory = directory;
+		this.expireAfter = expireAfter;
+	}
+
+	public boolean isWarm(String fingerprint) {
+		File marker = marker(fingerprint);
+		long lastModified = marker.lastModified();
+		return lastModified > 0
+				&& (expireAfter == null || System.currentTimeMillis() - lastModified < expireAfter.toMillis());
+	}
+
+	public void markWarm(String fingerprint, File basedir) {
+		File marker = marker(fingerprint);
+		File temp = new File(directory, fingerprint + ".tmp");
+		try {
+			Files.createDirectories(directory.toPath());
+			Files.write(temp.toPath(), basedir.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+			Files.move(temp.toPath(), marker.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			LOG.warn("Unable to record {} as warm", basedir, e);
+			temp.delete();
+		}
+	}
+
+	public void invalidate(String fingerprint) {
+		marker(fingerprint).delete();
+	}
+
+	private File marker(String fingerprint) {
+		return new File(directory, fingerprint + ".warm");
+	}
+
+}
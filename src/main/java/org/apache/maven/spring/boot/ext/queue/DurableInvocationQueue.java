@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.queue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Queue;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.queue.QueuedInvocation.Kind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Queue of template work that survives restarts: every invocation is written to the
+ * {@link InvocationJournal} before it is accepted, and invocations that were queued or running
+ * when the process stopped run again once the queue starts. An invocation completes once, when
+ * its result is recorded; a failed build is a result too and is not run again. An invocation that
+ * throws instead, because a fork could not be started for instance, has no result: its caller
+ * gets the exception but the journal keeps it pending, so it runs again when the same work is
+ * enqueued or the queue restarts. After {@code max-attempts} starts a throwing invocation is
+ * recorded as completed and given up.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DurableInvocationQueue implements SmartLifecycle {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DurableInvocationQueue.class);
+
+	private final MavenInvokerTemplate template;
+	private final InvocationJournal journal;
+	private final int workers;
+	private final int maxAttempts;
+	private final ConcurrentMap<Long, CompletableFuture<InvocationResult>> futures = new ConcurrentHashMap<Long, CompletableFuture<InvocationResult>>();
+	private final ConcurrentMap<String, CompletableFuture<InvocationResult>> waiting = new ConcurrentHashMap<String, CompletableFuture<InvocationResult>>();
+	private final ConcurrentMap<String, QueuedInvocation> failed = new ConcurrentHashMap<String, QueuedInvocation>();
+	private ExecutorService executor;
+	private volatile boolean running;
+
+	public DurableInvocationQueue(MavenInvokerTemplate template, Queue queue, File directory) {
+		this.template = template;
+		this.journal = new InvocationJournal(directory, queue.getSyncInterval(), queue.getCompactThreshold());
+		this.workers = Math.max(1, queue.getWorkers());
+		this.maxAttempts = Math.max(1, queue.getMaxAttempts());
+	}
+
+	public CompletableFuture<InvocationResult> install(MavenResource resource) {
+		return enqueue(Kind.INSTALL, QueuedInvocation.of(resource));
+	}
+
+	public CompletableFuture<InvocationResult> deploy(MavenResource resource) {
+		return enqueue(Kind.DEPLOY, QueuedInvocation.of(resource));
+	}
+
+	public CompletableFuture<InvocationResult> execute(File basedir, String... goals) {
+		return enqueue(Kind.EXECUTE, QueuedInvocation.of(basedir, goals));
+	}
+
+	/**
+	 * Write the invocation to the journal and schedule it once the record is durable. Work equal
+	 * to an invocation still waiting to run, a replayed one for instance, joins that invocation,
+	 * and work equal to one that threw runs that invocation again.
+	 */
+	private CompletableFuture<InvocationResult> enqueue(Kind kind, Map<String, String> arguments) {
+		if (!running) {
+			throw new IllegalStateException("The invocation queue is not running");
+		}
+		String key = new QueuedInvocation(0, kind, arguments).workKey();
+		CompletableFuture<InvocationResult> result = new CompletableFuture<InvocationResult>();
+		CompletableFuture<InvocationResult> same = waiting.putIfAbsent(key, result);
+		if (same != null) {
+			return same;
+		}
+		QueuedInvocation retry = failed.remove(key);
+		if (retry != null) {
+			futures.put(retry.getId(), result);
+			try {
+				executor.execute(() -> run(retry));
+			} catch (RejectedExecutionException e) {
+				result.completeExceptionally(e);
+			}
+			return result;
+		}
+		journal.enqueue(kind, arguments).whenComplete((invocation, error) -> {
+			if (error != null) {
+				waiting.remove(key, result);
+				result.completeExceptionally(error);
+			} else {
+				futures.put(invocation.getId(), result);
+				try {
+					executor.execute(() -> run(invocation));
+				} catch (RejectedExecutionException e) {
+					result.completeExceptionally(e);
+				}
+			}
+		});
+		return result;
+	}
+
+	private void schedule(QueuedInvocation invocation) {
+		CompletableFuture<InvocationResult> result = new CompletableFuture<InvocationResult>();
+		futures.put(invocation.getId(), result);
+		waiting.putIfAbsent(invocation.workKey(), result);
+		executor.execute(() -> run(invocation));
+	}
+
+	private void run(QueuedInvocation invocation) {
+		CompletableFuture<InvocationResult> future = futures.get(invocation.getId());
+		waiting.remove(invocation.workKey(), future);
+		journal.started(invocation);
+		InvocationResult result;
+		try {
+			result = dispatch(invocation);
+		} catch (MavenInvocationException | RuntimeException e) {
+			if (!running) {
+				return;
+			}
+			if (invocation.getAttempts() < maxAttempts) {
+				// no completion record, the invocation stays pending in the journal
+				LOG.warn("Queued invocation {} failed in attempt {} of {}, it runs again when enqueued again or on restart",
+						invocation, invocation.getAttempts(), maxAttempts, e);
+				failed.put(invocation.workKey(), invocation);
+				futures.remove(invocation.getId());
+				future.completeExceptionally(e);
+				return;
+			}
+			LOG.error("Queued invocation {} failed in all {} attempts, giving up", invocation, maxAttempts, e);
+			journal.completed(invocation).whenComplete((ignored, error) -> {
+				futures.remove(invocation.getId());
+				future.completeExceptionally(e);
+			});
+			return;
+		}
+		if (!running) {
+			// interrupted by stop, the missing completion record makes it run again
+			return;
+		}
+		journal.completed(invocation).whenComplete((ignored, error) -> {
+			futures.remove(invocation.getId());
+			future.complete(result);
+		});
+	}
+
+	private InvocationResult dispatch(QueuedInvocation invocation) throws MavenInvocationException {
+		switch (invocation.getKind()) {
+		case INSTALL:
+			return template.install(invocation.toResource());
+		case DEPLOY:
+			return template.deploy(invocation.toResource());
+		default:
+			return template.execute(invocation.getBasedir(), invocation.getGoals());
+		}
+	}
+
+	/**
+	 * @return the invocations queued or running
+	 */
+	public Collection<QueuedInvocation> getPending() {
+		return journal.getPending();
+	}
+
+	@Override
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		List<QueuedInvocation> pending;
+		try {
+			pending = journal.open();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to open the invocation journal " + journal.getFile(), e);
+		}
+		AtomicInteger threads = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(workers, runnable -> {
+			Thread thread = new Thread(runnable, "maven-invoker-queue-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		running = true;
+		if (!pending.isEmpty()) {
+			LOG.info("Resuming {} queued Maven invocations from {}", pending.size(), journal.getFile());
+		}
+		for (QueuedInvocation invocation : pending) {
+			schedule(invocation);
+		}
+	}
+
+	/**
+	 * Stop taking work. Invocations still running are not awaited; without a completion record
+	 * they run again on the next start.
+	 */
+	@Override
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		executor.shutdownNow();
+		try {
+			journal.close();
+		} catch (IOException e) {
+			LOG.warn("Unable to close the invocation journal {}", journal.getFile(), e);
+		}
+		IllegalStateException stopped = new IllegalStateException(
+				"The invocation queue stopped, its pending invocations resume on the next start");
+		for (CompletableFuture<InvocationResult> future : waiting.values()) {
+			future.completeExceptionally(stopped);
+		}
+		for (CompletableFuture<InvocationResult> future : futures.values()) {
+			future.completeExceptionally(stopped);
+		}
+		waiting.clear();
+		futures.clear();
+		failed.clear();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.queue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apache.maven.spring.boot.ext.queue.QueuedInvocation.Kind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of the queue: one record per enqueue, start and completion, each framed as
+ * {@code [length][crc32][payload]}. Appends are written at once but forced to disk in groups by a
+ * flusher thread every sync interval, and their futures complete when the group is durable. On
+ * open the log is replayed and a torn or corrupt tail, left by a crash mid-append, is truncated;
+ * once more than the compact threshold of records accumulated the log is rewritten with only the
+ * pending invocations and atomically moved into place.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InvocationJournal implements Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(InvocationJournal.class);
+	private static final String FILE_NAME = "queue.log";
+	private static final int MAX_RECORD = 16 * 1024 * 1024;
+
+	private static final byte ENQUEUED = 'E';
+	private static final byte STARTED = 'S';
+	private static final byte COMPLETED = 'C';
+
+	private final File file;
+	private final long syncIntervalNanos;
+	private final int compactThreshold;
+	private final Map<Long, QueuedInvocation> pending = new LinkedHashMap<Long, QueuedInvocation>();
+	private final List<CompletableFuture<Void>> unsynced = new ArrayList<CompletableFuture<Void>>();
+	private FileChannel channel;
+	private Thread flusher;
+	private long nextId = 1;
+	private int records;
+	private volatile boolean closed;
+
+	public InvocationJournal(File directory, Duration syncInterval, int compactThreshold) {
+		this.file = new File(directory, FILE_NAME);
+		this.syncIntervalNanos = Math.max(0, syncInterval.toNanos());
+		this.compactThreshold = compactThreshold;
+	}
+
+	/**
+	 * Replay the log and start the flusher.
+	 *
+	 * @return the invocations enqueued but not completed, in enqueue order
+	 */
+	public synchronized List<QueuedInvocation> open() throws IOException {
+		Files.createDirectories(file.getParentFile().toPath());
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		long valid = replay();
+		if (valid < channel.size()) {
+			LOG.warn("Truncating {} bytes of torn records at the end of {}", channel.size() - valid, file);
+			channel.truncate(valid);
+			channel.force(true);
+		}
+		channel.position(valid);
+		closed = false;
+		flusher = new Thread(this::flushLoop, "maven-invoker-journal");
+		flusher.setDaemon(true);
+		flusher.start();
+		return new ArrayList<QueuedInvocation>(pending.values());
+	}
+
+	private long replay() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		long position = 0;
+		while (true) {
+			header.clear();
+			if (channel.read(header, position) < 8) {
+				return position;
+			}
+			header.flip();
+			int length = header.getInt();
+			int crc = header.getInt();
+			if (length <= 0 || length > MAX_RECORD || position + 8 + length > channel.size()) {
+				return position;
+			}
+			ByteBuffer payload = ByteBuffer.allocate(length);
+			channel.read(payload, position + 8);
+			if (checksum(payload.array()) != crc) {
+				return position;
+			}
+			apply(new DataInputStream(new ByteArrayInputStream(payload.array())));
+			records++;
+			position += 8 + length;
+		}
+	}
+
+	private void apply(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		long id = in.readLong();
+		nextId = Math.max(nextId, id + 1);
+		if (type == ENQUEUED) {
+			Kind kind = Kind.valueOf(in.readUTF());
+			int size = in.readInt();
+			Map<String, String> arguments = new LinkedHashMap<String, String>();
+			for (int i = 0; i < size; i++) {
+				String key = in.readUTF();
+				arguments.put(key, in.readBoolean() ? in.readUTF() : null);
+			}
+			pending.put(id, new QueuedInvocation(id, kind, arguments));
+		} else if (type == STARTED) {
+			QueuedInvocation invocation = pending.get(id);
+			if (invocation != null) {
+				invocation.started();
+			}
+		} else if (type == COMPLETED) {
+			pending.remove(id);
+		}
+	}
+
+	/**
+	 * Append a new invocation.
+	 *
+	 * @return the future of the invocation, completing when its record is on disk
+	 */
+	public synchronized CompletableFuture<QueuedInvocation> enqueue(Kind kind, Map<String, String> arguments) {
+		QueuedInvocation invocation = new QueuedInvocation(nextId++, kind, arguments);
+		pending.put(invocation.getId(), invocation);
+		return append(record(ENQUEUED, invocation)).thenApply(ignored -> invocation);
+	}
+
+	/**
+	 * Record that an invocation started. Started but not completed invocations are replayed too,
+	 * their attempts count every start, including those a restart interrupted.
+	 */
+	public synchronized CompletableFuture<Void> started(QueuedInvocation invocation) {
+		invocation.started();
+		return append(record(STARTED, invocation));
+	}
+
+	/**
+	 * Record the completion of an invocation, with its build result or given up after its last
+	 * attempt. Completing an invocation twice, or one that compaction already dropped, is harmless.
+	 */
+	public synchronized CompletableFuture<Void> completed(QueuedInvocation invocation) {
+		if (pending.remove(invocation.getId()) == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return append(record(COMPLETED, invocation));
+	}
+
+	/**
+	 * @return the invocations enqueued but not completed
+	 */
+	public synchronized Collection<QueuedInvocation> getPending() {
+		return new ArrayList<QueuedInvocation>(pending.values());
+	}
+
+	private CompletableFuture<Void> append(byte[] payload) {
+		CompletableFuture<Void> durable = new CompletableFuture<Void>();
+		if (closed || channel == null) {
+			durable.completeExceptionally(new IOException("The journal " + file + " is closed"));
+			return durable;
+		}
+		try {
+			write(channel, payload);
+			records++;
+			unsynced.add(durable);
+			if (syncIntervalNanos == 0) {
+				sync();
+			} else {
+				notifyAll();
+			}
+		} catch (IOException e) {
+			durable.completeExceptionally(e);
+		}
+		return durable;
+	}
+
+	private void flushLoop() {
+		while (!closed) {
+			try {
+				synchronized (this) {
+					while (unsynced.isEmpty() && !closed) {
+						wait();
+					}
+				}
+				// let the group fill up before forcing it
+				TimeUnit.NANOSECONDS.sleep(syncIntervalNanos);
+				synchronized (this) {
+					sync();
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	private void sync() {
+		if (unsynced.isEmpty() || channel == null) {
+			return;
+		}
+		List<CompletableFuture<Void>> group = new ArrayList<CompletableFuture<Void>>(unsynced);
+		unsynced.clear();
+		try {
+			channel.force(false);
+			for (CompletableFuture<Void> durable : group) {
+				durable.complete(null);
+			}
+		} catch (IOException e) {
+			for (CompletableFuture<Void> durable : group) {
+				durable.completeExceptionally(e);
+			}
+			return;
+		}
+		if (compactThreshold > 0 && records > compactThreshold && records > pending.size() * 2) {
+			try {
+				compact();
+			} catch (IOException e) {
+				LOG.warn("Unable to compact {}", file, e);
+			}
+		}
+	}
+
+	/**
+	 * Rewrite the log with the records of the pending invocations: the enqueue and one start per
+	 * attempt, so attempts survive compaction. The new log is forced before it replaces the old
+	 * one, so a crash leaves either of them complete.
+	 */
+	synchronized void compact() throws IOException {
+		File temp = new File(file.getParentFile(), FILE_NAME + ".compact");
+		int written = 0;
+		try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			for (QueuedInvocation invocation : pending.values()) {
+				write(out, record(ENQUEUED, invocation));
+				for (int attempt = 0; attempt < invocation.getAttempts(); attempt++) {
+					write(out, record(STARTED, invocation));
+				}
+				written += 1 + invocation.getAttempts();
+			}
+			out.force(true);
+		}
+		channel.close();
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		LOG.debug("Compacted {} from {} records to {}", file, records, written);
+		records = written;
+	}
+
+	private static void write(FileChannel channel, byte[] payload) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+		buffer.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static byte[] record(byte type, QueuedInvocation invocation) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(type);
+			out.writeLong(invocation.getId());
+			if (type == ENQUEUED) {
+				out.writeUTF(invocation.getKind().name());
+				out.writeInt(invocation.getArguments().size());
+				for (Map.Entry<String, String> argument : invocation.getArguments().entrySet()) {
+					out.writeUTF(argument.getKey());
+					out.writeBoolean(argument.getValue() != null);
+					if (argument.getValue() != null) {
+						out.writeUTF(argument.getValue());
+					}
+				}
+			}
+			out.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+		return (int) crc.getValue();
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Force what is still buffered and stop the flusher.
+	 */
+	@Override
+	public void close() throws IOException {
+		Thread thread;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			sync();
+			notifyAll();
+			thread = flusher;
+		}
+		if (thread != null) {
+			thread.interrupt();
+		}
+		synchronized (this) {
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.queue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.spring.boot.ext.MavenResource;
+
+/**
+ * A unit of template work as the journal records it: what to do and with which arguments.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class QueuedInvocation {
+
+	public enum Kind {
+		INSTALL, DEPLOY, EXECUTE
+	}
+
+	private final long id;
+	private final Kind kind;
+	private final Map<String, String> arguments;
+	private volatile int attempts;
+
+	QueuedInvocation(long id, Kind kind, Map<String, String> arguments) {
+		this.id = id;
+		this.kind = kind;
+		this.arguments = Collections.unmodifiableMap(new LinkedHashMap<String, String>(arguments));
+	}
+
+	public static Map<String, String> of(MavenResource resource) {
+		Map<String, String> arguments = new LinkedHashMap<String, String>();
+		arguments.put("filepath", resource.getFilepath());
+		arguments.put("groupId", resource.getGroupId());
+		arguments.put("artifactId", resource.getArtifactId());
+		arguments.put("extension", resource.getExtension());
+		arguments.put("classifier", resource.getClassifier());
+		arguments.put("version", resource.getVersion());
+		arguments.put("generatePom", String.valueOf(resource.isGeneratePom()));
+		arguments.put("createChecksum", String.valueOf(resource.isCreateChecksum()));
+		if (resource.getRepositoryUrl() != null) {
+			arguments.put("repositoryUrl", resource.getRepositoryUrl());
+		}
+		if (resource.getRepositoryId() != null) {
+			arguments.put("repositoryId", resource.getRepositoryId());
+		}
+		return arguments;
+	}
+
+	public static Map<String, String> of(File basedir, String... goals) {
+		Map<String, String> arguments = new LinkedHashMap<String, String>();
+		arguments.put("basedir", basedir.getAbsolutePath());
+		for (int i = 0; i < goals.length; i++) {
+			arguments.put("goal." + i, goals[i]);
+		}
+		return arguments;
+	}
+
+	MavenResource toResource() {
+		return new MavenResource.Builder().filepath(arguments.get("filepath")).groupId(arguments.get("groupId"))
+				.artifactId(arguments.get("artifactId")).extension(arguments.get("extension"))
+				.classifier(arguments.get("classifier")).version(arguments.get("version"))
+				.generatePom(Boolean.parseBoolean(arguments.get("generatePom")))
+				.createChecksum(Boolean.parseBoolean(arguments.get("createChecksum")))
+				.repositoryUrl(arguments.get("repositoryUrl")).repositoryId(arguments.get("repositoryId")).build();
+	}
+
+	File getBasedir() {
+		return new File(arguments.get("basedir"));
+	}
+
+	String[] getGoals() {
+		String[] goals = new String[arguments.size() - 1];
+		for (int i = 0; i < goals.length; i++) {
+			goals[i] = arguments.get("goal." + i);
+		}
+		return goals;
+	}
+
+	/**
+	 * @return a key equal for invocations doing the same work, install and deploy of the same
+	 *         artifact to the same place
+	 */
+	String workKey() {
+		if (kind == Kind.EXECUTE) {
+			return kind + " " + arguments.get("basedir") + " " + Arrays.toString(getGoals());
+		}
+		return kind + " " + arguments.get("groupId") + ":" + arguments.get("artifactId") + ":"
+				+ arguments.get("extension") + ":" + arguments.get("classifier") + ":" + arguments.get("version") + " "
+				+ arguments.get("filepath") + " " + arguments.get("repositoryUrl");
+	}
+
+	void started() {
+		attempts++;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public Kind getKind() {
+		return kind;
+	}
+
+	public Map<String, String> getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * @return how often the invocation started, including runs a restart interrupted
+	 */
+	public int getAttempts() {
+		return attempts;
+	}
+
+	@Override
+	public String toString() {
+		return "#" + id + " " + kind + " " + arguments;
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.container.ContainerResources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+/**
+ * Computes the {@code -T} value of requests that left it unset ({@code maven.invoker.auto-threads=true}):
+ * the reactor's maximum parallel width, capped by the CPUs of the container shared among the
+ * builds that are running at the same time. The reactor is read from the request's POM and
+ * profiles. The width is cached per reactor until any of its module POMs changes, for the
+ * {@value #MAX_CACHED} reactors used last.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AdaptiveThreadsInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	private static final Logger LOG = LoggerFactory.getLogger(AdaptiveThreadsInterceptor.class);
+
+	/**
+	 * Runs after admission control so that only admitted builds count as running.
+	 */
+	public static final int ORDER = 0;
+
+	public static final int MAX_CACHED = 64;
+
+	private final AtomicInteger running = new AtomicInteger();
+	private final Map<String, Width> widths = new LinkedHashMap<String, Width>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Width> eldest) {
+			// executeAll aggregates live in temporary directories, never to be seen again
+			return size() > MAX_CACHED;
+		}
+
+	};
+	private final String pomFilename;
+
+	/**
+	 * @param pomFilename the POM filename of requests that do not name one, {@code pom.xml} if empty
+	 */
+	public AdaptiveThreadsInterceptor(String pomFilename) {
+		this.pomFilename = StringUtils.hasText(pomFilename) ? pomFilename : "pom.xml";
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		int concurrent = running.incrementAndGet();
+		try {
+			if (!StringUtils.hasText(request.getThreads())) {
+				request.setThreads(String.valueOf(threadsFor(request, concurrent)));
+			}
+			return chain.proceed(request);
+		} finally {
+			running.decrementAndGet();
+		}
+	}
+
+	/**
+	 * @param request    the request, one without a base directory or POM file has no reactor
+	 * @param concurrent the number of builds running, this one included
+	 * @return the thread count for this build
+	 */
+	public int threadsFor(InvocationRequest request, int concurrent) {
+		File pom = pomOf(request);
+		if (pom == null) {
+			return 1;
+		}
+		int share = Math.max(1, ContainerResources.availableCpus() / Math.max(1, concurrent));
+		return Math.max(1, Math.min(widthOf(pom, request.getProfiles()), share));
+	}
+
+	private File pomOf(InvocationRequest request) {
+		if (request.getPomFile() != null) {
+			return request.getPomFile().getAbsoluteFile();
+		}
+		if (request.getBaseDirectory() == null) {
+			return null;
+		}
+		return new File(request.getBaseDirectory(),
+				StringUtils.hasText(request.getPomFileName()) ? request.getPomFileName() : pomFilename).getAbsoluteFile();
+	}
+
+	/**
+	 * @return the number of builds currently going through this interceptor
+	 */
+	public int getRunning() {
+		return running.get();
+	}
+
+	/**
+	 * @param pom      the aggregator POM of the reactor
+	 * @param profiles the profiles whose modules belong to the reactor, may be {@code null}
+	 * @return the maximum parallel width of the reactor, 1 if it cannot be read
+	 */
+	public int widthOf(File pom, List<String> profiles) {
+		String key = pom.getPath() + '|' + profiles;
+		synchronized (widths) {
+			Width cached = widths.get(key);
+			if (cached != null && cached.isCurrent()) {
+				return cached.width;
+			}
+		}
+		Map<File, Long> poms = new HashMap<File, Long>();
+		poms.put(pom, pom.lastModified());
+		int width = 1;
+		try {
+			ReactorGraph graph = ReactorGraph.read(pom.getParentFile(), pom.getName(), profiles);
+			for (ReactorModule module : graph.getModules()) {
+				poms.put(module.getPomFile(), module.getPomFile().lastModified());
+			}
+			width = graph.maxParallelWidth();
+		} catch (IOException e) {
+			LOG.debug("Unable to read the reactor of {}, building single threaded", pom, e);
+		}
+		synchronized (widths) {
+			widths.put(key, new Width(poms, width));
+		}
+		return width;
+	}
+
+	/**
+	 * @return the number of reactors whose width is cached
+	 */
+	public int getCachedWidths() {
+		synchronized (widths) {
+			return widths.size();
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	private static class Width {
+
+		private final Map<File, Long> poms;
+		private final int width;
+
+		Width(Map<File, Long> poms, int width) {
+			this.poms = poms;
+			this.width = width;
+		}
+
+		/**
+		 * @return {@code true} if none of the POMs the width was read from has changed since
+		 */
+		boolean isCurrent() {
+			for (Map.Entry<File, Long> pom : poms.entrySet()) {
+				if (pom.getKey().lastModified() != pom.getValue()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+}
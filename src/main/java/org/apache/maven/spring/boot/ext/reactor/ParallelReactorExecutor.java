@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.reactor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+
+/**
+ * Dispatch {@link ReactorBuildUnit}s over a bounded number of concurrent Maven forks.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ParallelReactorExecutor {
+
+	/**
+	 * Runs a single build unit, typically as one {@code -pl ... -am} invocation.
+	 */
+	public interface UnitInvoker {
+
+		InvocationResult invoke(ReactorBuildUnit unit) throws MavenInvocationException;
+
+	}
+
+	private final int maxForks;
+	private final boolean failFast;
+
+	/**
+	 * @param maxForks the maximum number of concurrent forks, at least 1
+	 * @param failFast {@code true} to skip units that have not started yet once a unit fails
+	 */
+	public ParallelReactorExecutor(int maxForks, boolean failFast) {
+		this.maxForks = Math.max(1, maxForks);
+		this.failFast = failFast;
+	}
+
+	public ReactorBuildResult execute(List<ReactorBuildUnit> units, final UnitInvoker invoker)
+			throws MavenInvocationException {
+		ReactorBuildResult aggregate = new ReactorBuildResult();
+		execute(units, invoker, aggregate);
+		return aggregate;
+	}
+
+	/**
+	 * Run the stages one after the other, the units of each stage in parallel. Later stages build on
+	 * what earlier ones installed, so nothing runs after a stage that failed.
+	 */
+	public ReactorBuildResult executeStages(List<List<ReactorBuildUnit>> stages, UnitInvoker invoker)
+			throws MavenInvocationException {
+		ReactorBuildResult aggregate = new ReactorBuildResult();
+		for (List<ReactorBuildUnit> stage : stages) {
+			execute(stage, invoker, aggregate);
+			if (aggregate.getExitCode() != 0) {
+				break;
+			}
+		}
+		return aggregate;
+	}
+
+	private void execute(List<ReactorBuildUnit> units, final UnitInvoker invoker, final ReactorBuildResult aggregate)
+			throws MavenInvocationException {
+		if (units.isEmpty()) {
+			return;
+		}
+		final AtomicBoolean failed = new AtomicBoolean(false);
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxForks, units.size()));
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>(units.size());
+			for (final ReactorBuildUnit unit : units) {
+				futures.add(executor.submit(() -> {
+					if (failFast && failed.get()) {
+						return null;
+					}
+					InvocationResult result = invoker.invoke(unit);
+					aggregate.add(unit, result);
+					if (result.getExitCode() != 0) {
+						failed.set(true);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof MavenInvocationException) {
+						throw (MavenInvocationException) cause;
+					}
+					throw new MavenInvocationException("Reactor unit failed: " + cause.getMessage(), cause);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MavenInvocationException("Interrupted while waiting for reactor units", e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
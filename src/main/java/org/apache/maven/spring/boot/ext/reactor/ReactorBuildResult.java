@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.reactor;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+
+/**
+ * The aggregate outcome of a reactor that was split over several forks. The exit code is the
+ * first non-zero exit code of any unit, and units that never ran (because an earlier unit failed
+ * fast, or an earlier stage failed) are absent from {@link #getResults()}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactorBuildResult implements InvocationResult {
+
+	private final Map<ReactorBuildUnit, InvocationResult> results = new LinkedHashMap<ReactorBuildUnit, InvocationResult>();
+
+	synchronized void add(ReactorBuildUnit unit, InvocationResult result) {
+		results.put(unit, result);
+	}
+
+	public synchronized Map<ReactorBuildUnit, InvocationResult> getResults() {
+		return Collections.unmodifiableMap(new LinkedHashMap<ReactorBuildUnit, InvocationResult>(results));
+	}
+
+	@Override
+	public synchronized CommandLineException getExecutionException() {
+		for (InvocationResult result : results.values()) {
+			if (result.getExecutionException() != null) {
+				return result.getExecutionException();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized int getExitCode() {
+		for (InvocationResult result : results.values()) {
+			if (result.getExitCode() != 0) {
+				return result.getExitCode();
+			}
+		}
+		return 0;
+	}
+
+}
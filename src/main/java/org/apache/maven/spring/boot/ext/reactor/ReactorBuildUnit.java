@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.reactor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of reactor projects built together in one fork with {@code -pl <projects> -am}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactorBuildUnit implements Comparable<ReactorBuildUnit> {
+
+	private final List<String> projects;
+
+	public ReactorBuildUnit(List<String> projects) {
+		this.projects = Collections.unmodifiableList(projects);
+	}
+
+	/**
+	 * @return the project selectors ({@code groupId:artifactId}) for {@code -pl}
+	 */
+	public List<String> getProjects() {
+		return projects;
+	}
+
+	@Override
+	public int compareTo(ReactorBuildUnit other) {
+		return Integer.compare(other.projects.size(), projects.size());
+	}
+
+	@Override
+	public String toString() {
+		return String.join(",", projects);
+	}
+
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.reactor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.Profile;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The inter-module dependency DAG of a Maven reactor, read from the raw module POMs with
+ * {@link MavenXpp3Reader}. Edges follow parents, dependencies, managed imports and build
+ * plugins that point at another module of the same reactor. Their coordinates may use
+ * {@code ${project.*}}, {@code ${pom.*}} and {@code ${parent.*}} expressions and the properties
+ * of the module and its parents in the reactor, which are interpolated before linking.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactorGraph {
+
+	private static final String DEFAULT_POM_FILENAME = "pom.xml";
+	private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)\\}");
+	private static final int MAX_INTERPOLATION_DEPTH = 10;
+
+	private final Map<String, ReactorModule> modules;
+
+	private ReactorGraph(Map<String, ReactorModule> modules) {
+		this.modules = modules;
+	}
+
+	/**
+	 * Read the reactor rooted at the given base directory.
+	 *
+	 * @param basedir     the directory holding the aggregator POM
+	 * @param pomFilename the (unqualified) POM filename, or {@code null} for {@code pom.xml}
+	 * @param profiles    the profiles whose {@code <modules>} should be included, may be {@code null}
+	 * @return the reactor graph
+	 * @throws IOException if a module POM cannot be read or parsed
+	 */
+	public static ReactorGraph read(File basedir, String pomFilename, List<String> profiles) throws IOException {
+		String filename = StringUtils.hasText(pomFilename) ? pomFilename : DEFAULT_POM_FILENAME;
+		MavenXpp3Reader reader = new MavenXpp3Reader();
+		Map<String, ReactorModule> modules = new LinkedHashMap<String, ReactorModule>();
+		Set<File> visited = new LinkedHashSet<File>();
+		collect(reader, new File(basedir, filename).getAbsoluteFile(), filename, profiles, modules, visited);
+		link(modules);
+		return new ReactorGraph(modules);
+	}
+
+	private static void collect(MavenXpp3Reader reader, File pomFile, String filename, List<String> profiles,
+			Map<String, ReactorModule> modules, Set<File> visited) throws IOException {
+		File canonical = pomFile.getCanonicalFile();
+		if (!visited.add(canonical)) {
+			return;
+		}
+		Model model = readModel(reader, canonical);
+		String id = idOf(model);
+		modules.put(id, new ReactorModule(id, canonical, model));
+
+		List<String> children = new ArrayList<String>(model.getModules());
+		if (!CollectionUtils.isEmpty(profiles)) {
+			for (Profile profile : model.getProfiles()) {
+				if (profiles.contains(profile.getId())) {
+					children.addAll(profile.getModules());
+				}
+			}
+		}
+		for (String child : children) {
+			File childFile = new File(canonical.getParentFile(), child);
+			if (childFile.isDirectory()) {
+				childFile = new File(childFile, filename);
+			}
+			collect(reader, childFile, filename, profiles, modules, visited);
+		}
+	}
+
+	private static Model readModel(MavenXpp3Reader reader, File pomFile) throws IOException {
+		try (InputStream input = Files.newInputStream(pomFile.toPath())) {
+			return reader.read(input);
+		} catch (XmlPullParserException e) {
+			throw new IOException("Unable to parse " + pomFile + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static void link(Map<String, ReactorModule> modules) {
+		for (ReactorModule module : modules.values()) {
+			Model model = module.getModel();
+			Properties values = valuesOf(module, modules);
+			Parent parent = model.getParent();
+			if (parent != null) {
+				linkIfPresent(modules, module, values, parent.getGroupId(), parent.getArtifactId());
+			}
+			for (Dependency dependency : model.getDependencies()) {
+				linkIfPresent(modules, module, values, dependency.getGroupId(), dependency.getArtifactId());
+			}
+			if (model.getDependencyManagement() != null) {
+				for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+					if ("import".equals(dependency.getScope())) {
+						linkIfPresent(modules, module, values, dependency.getGroupId(), dependency.getArtifactId());
+					}
+				}
+			}
+			if (model.getBuild() != null) {
+				for (Plugin plugin : model.getBuild().getPlugins()) {
+					linkIfPresent(modules, module, values, plugin.getGroupId(), plugin.getArtifactId());
+					for (Dependency dependency : plugin.getDependencies()) {
+						linkIfPresent(modules, module, values, dependency.getGroupId(), dependency.getArtifactId());
+					}
+				}
+			}
+		}
+	}
+
+	private static void linkIfPresent(Map<String, ReactorModule> modules, ReactorModule module, Properties values,
+			String groupId, String artifactId) {
+		String id = interpolate(groupId, values) + ":" + interpolate(artifactId, values);
+		if (modules.containsKey(id)) {
+			module.addUpstream(id);
+		}
+	}
+
+	/**
+	 * The values a module's coordinates can refer to: the properties of its parents in the reactor,
+	 * overridden by its own, and its {@code project.*}, {@code pom.*} and {@code parent.*} coordinates.
+	 */
+	private static Properties valuesOf(ReactorModule module, Map<String, ReactorModule> modules) {
+		List<Model> lineage = new ArrayList<Model>();
+		Set<String> seen = new LinkedHashSet<String>();
+		for (ReactorModule current = module; current != null && seen.add(current.getId());) {
+			lineage.add(0, current.getModel());
+			Parent parent = current.getModel().getParent();
+			current = parent == null ? null : modules.get(parent.getGroupId() + ":" + parent.getArtifactId());
+		}
+		Properties values = new Properties();
+		for (Model model : lineage) {
+			values.putAll(model.getProperties());
+		}
+		Model model = module.getModel();
+		Parent parent = model.getParent();
+		String groupId = model.getGroupId() != null ? model.getGroupId() : parent != null ? parent.getGroupId() : null;
+		String version = model.getVersion() != null ? model.getVersion() : parent != null ? parent.getVersion() : null;
+		for (String prefix : new String[] { "project.", "pom." }) {
+			putIfPresent(values, prefix + "groupId", groupId);
+			putIfPresent(values, prefix + "artifactId", model.getArtifactId());
+			putIfPresent(values, prefix + "version", version);
+		}
+		if (parent != null) {
+			for (String prefix : new String[] { "project.parent.", "pom.parent.", "parent." }) {
+				putIfPresent(values, prefix + "groupId", parent.getGroupId());
+				putIfPresent(values, prefix + "artifactId", parent.getArtifactId());
+				putIfPresent(values, prefix + "version", parent.getVersion());
+			}
+		}
+		return values;
+	}
+
+	private static void putIfPresent(Properties values, String key, String value) {
+		if (value != null) {
+			values.setProperty(key, value);
+		}
+	}
+
+	/**
+	 * Replace the {@code ${...}} expressions that resolve, including expressions in their values.
+	 */
+	static String interpolate(String value, Properties values) {
+		if (value == null || value.indexOf("${") < 0) {
+			return value;
+		}
+		String result = value;
+		for (int depth = 0; depth < MAX_INTERPOLATION_DEPTH && result.indexOf("${") >= 0; depth++) {
+			Matcher matcher = EXPRESSION.matcher(result);
+			StringBuffer interpolated = new StringBuffer();
+			boolean replaced = false;
+			while (matcher.find()) {
+				String resolved = values.getProperty(matcher.group(1));
+				replaced |= resolved != null;
+				matcher.appendReplacement(interpolated, Matcher.quoteReplacement(resolved != null ? resolved : matcher.group()));
+			}
+			matcher.appendTail(interpolated);
+			result = interpolated.toString();
+			if (!replaced) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	static String idOf(Model model) {
+		String groupId = model.getGroupId();
+		if (groupId == null && model.getParent() != null) {
+			groupId = model.getParent().getGroupId();
+		}
+		return groupId + ":" + model.getArtifactId();
+	}
+
+	public Collection<ReactorModule> getModules() {
+		return Collections.unmodifiableCollection(modules.values());
+	}
+
+	public ReactorModule getModule(String id) {
+		return modules.get(id);
+	}
+
+	public int size() {
+		return modules.size();
+	}
+
+	/**
+	 * The maximum number of modules that can be built at the same time, i.e. the size of the widest
+	 * layer when every module is placed one layer after its deepest upstream module.
+	 *
+	 * @return the maximum parallel width, at least 1
+	 */
+	public int maxParallelWidth() {
+		Map<String, Integer> depths = new HashMap<String, Integer>();
+		Map<Integer, Integer> widths = new HashMap<Integer, Integer>();
+		int max = 1;
+		for (ReactorModule module : modules.values()) {
+			int depth = depthOf(module.getId(), depths, new LinkedHashSet<String>());
+			Integer width = widths.get(depth);
+			width = width == null ? 1 : width + 1;
+			widths.put(depth, width);
+			max = Math.max(max, width);
+		}
+		return max;
+	}
+
+	private int depthOf(String id, Map<String, Integer> depths, Set<String> path) {
+		Integer known = depths.get(id);
+		if (known != null) {
+			return known;
+		}
+		int depth = 0;
+		// a cycle is rejected by Maven itself, just stop descending here
+		if (path.add(id)) {
+			for (String upstream : modules.get(id).getUpstreams()) {
+				depth = Math.max(depth, depthOf(upstream, depths, path) + 1);
+			}
+			path.remove(id);
+		}
+		depths.put(id, depth);
+		return depth;
+	}
+
+	/**
+	 * Split the reactor into stages of build units, for forks that resolve the modules of earlier
+	 * stages from the local repository (so they must install them) and build without {@code -am}.
+	 * Every module lands one stage after the latest stage of its upstream modules, so a shared
+	 * {@code core} is built once, before all its dependants fan out in parallel. A module whose only
+	 * unfinished upstream has no other dependant joins that upstream's unit instead of costing a
+	 * fork of its own, which keeps chains together.
+	 *
+	 * @return the stages in build order, each holding the units it can build at the same time, largest first
+	 */
+	public List<List<ReactorBuildUnit>> stages() {
+		Map<String, Integer> downstreams = new HashMap<String, Integer>();
+		for (ReactorModule module : modules.values()) {
+			for (String upstream : module.getUpstreams()) {
+				Integer count = downstreams.get(upstream);
+				downstreams.put(upstream, count == null ? 1 : count + 1);
+			}
+		}
+		Map<String, Integer> depths = new HashMap<String, Integer>();
+		List<ReactorModule> ordered = new ArrayList<ReactorModule>(modules.values());
+		for (ReactorModule module : ordered) {
+			depthOf(module.getId(), depths, new LinkedHashSet<String>());
+		}
+		ordered.sort((a, b) -> Integer.compare(depths.get(a.getId()), depths.get(b.getId())));
+
+		Map<String, String> heads = new HashMap<String, String>();
+		Map<String, List<String>> members = new LinkedHashMap<String, List<String>>();
+		Map<String, Integer> stageOf = new HashMap<String, Integer>();
+		for (ReactorModule module : ordered) {
+			String id = module.getId();
+			String head = null;
+			int stage = 0;
+			for (String upstream : module.getUpstreams()) {
+				String upstreamHead = heads.get(upstream);
+				if (upstreamHead == null) {
+					// only on a cycle, which Maven rejects anyway
+					continue;
+				}
+				stage = Math.max(stage, stageOf.get(upstreamHead) + 1);
+				if (head == null && downstreams.get(upstream) == 1) {
+					head = upstreamHead;
+				}
+			}
+			// joining the upstream's unit only works if everything else it needs is built before that unit
+			if (head != null && stage == stageOf.get(head) + 1) {
+				for (String upstream : module.getUpstreams()) {
+					String upstreamHead = heads.get(upstream);
+					if (upstreamHead != null && !upstreamHead.equals(head) && stageOf.get(upstreamHead) >= stageOf.get(head)) {
+						head = null;
+						break;
+					}
+				}
+			} else {
+				head = null;
+			}
+			if (head == null) {
+				head = id;
+				members.put(head, new ArrayList<String>());
+				stageOf.put(head, stage);
+			}
+			heads.put(id, head);
+			members.get(head).add(id);
+		}
+
+		List<List<ReactorBuildUnit>> stages = new ArrayList<List<ReactorBuildUnit>>();
+		for (Map.Entry<String, List<String>> unit : members.entrySet()) {
+			int stage = stageOf.get(unit.getKey());
+			while (stages.size() <= stage) {
+				stages.add(new ArrayList<ReactorBuildUnit>());
+			}
+			stages.get(stage).add(new ReactorBuildUnit(unit.getValue()));
+		}
+		for (List<ReactorBuildUnit> stage : stages) {
+			Collections.sort(stage);
+		}
+		stages.removeIf(List::isEmpty);
+		return stages;
+	}
+
+	/**
+	 * Split the reactor into independent build units, for forks that build their upstream modules
+	 * themselves with {@code -am}. Modules that share no edge (other than a common POM-only parent or
+	 * aggregator, which {@code -am} pulls into every unit anyway) end up in different units and can be
+	 * built in separate forks at the same time. Modules sharing an upstream must stay in one unit, or
+	 * two forks would build that upstream into the same directory at once; {@link #stages()} avoids
+	 * that when the goals install.
+	 *
+	 * @return the build units, largest first
+	 */
+	public List<ReactorBuildUnit> partition() {
+		Map<String, String> roots = new HashMap<String, String>();
+		for (ReactorModule module : modules.values()) {
+			if (!module.isPomOnly()) {
+				roots.put(module.getId(), module.getId());
+			}
+		}
+		for (ReactorModule module : modules.values()) {
+			if (module.isPomOnly()) {
+				continue;
+			}
+			for (String upstream : module.getUpstreams()) {
+				if (roots.containsKey(upstream)) {
+					union(roots, module.getId(), upstream);
+				}
+			}
+		}
+
+		Map<String, List<String>> components = new LinkedHashMap<String, List<String>>();
+		for (ReactorModule module : modules.values()) {
+			if (!module.isPomOnly()) {
+				String root = find(roots, module.getId());
+				List<String> members = components.get(root);
+				if (members == null) {
+					members = new ArrayList<String>();
+					components.put(root, members);
+				}
+				members.add(module.getId());
+			}
+		}
+
+		// POM-only modules that no unit reaches through -am still need a build of their own
+		Set<String> reachable = new LinkedHashSet<String>();
+		for (List<String> members : components.values()) {
+			for (String member : members) {
+				collectUpstreams(member, reachable);
+			}
+		}
+		List<String> orphans = new ArrayList<String>();
+		for (ReactorModule module : modules.values()) {
+			if (module.isPomOnly() && !reachable.contains(module.getId())) {
+				orphans.add(module.getId());
+			}
+		}
+
+		List<ReactorBuildUnit> units = new ArrayList<ReactorBuildUnit>();
+		for (List<String> members : components.values()) {
+			units.add(new ReactorBuildUnit(members));
+		}
+		if (!orphans.isEmpty()) {
+			units.add(new ReactorBuildUnit(orphans));
+		}
+		Collections.sort(units);
+		return units;
+	}
+
+	private void collectUpstreams(String id, Set<String> collected) {
+		ReactorModule module = modules.get(id);
+		if (module == null) {
+			return;
+		}
+		for (String upstream : module.getUpstreams()) {
+			if (collected.add(upstream)) {
+				collectUpstreams(upstream, collected);
+			}
+		}
+	}
+
+	private static String find(Map<String, String> roots, String id) {
+		String root = id;
+		while (!root.equals(roots.get(root))) {
+			root = roots.get(root);
+		}
+		// path compression
+		String current = id;
+		while (!current.equals(root)) {
+			String next = roots.get(current);
+			roots.put(current, root);
+			current = next;
+		}
+		return root;
+	}
+
+	private static void union(Map<String, String> roots, String a, String b) {
+		String rootA = find(roots, a);
+		String rootB = find(roots, b);
+		if (!rootA.equals(rootB)) {
+			roots.put(rootB, rootA);
+		}
+	}
+
+}
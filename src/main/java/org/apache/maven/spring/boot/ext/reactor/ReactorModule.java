@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.reactor;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+
+/**
+ * A single project of a Maven reactor, identified by {@code groupId:artifactId}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReactorModule {
+
+	private final String id;
+	private final File pomFile;
+	private final Model model;
+	/**
+	 * Ids of the reactor modules this module depends on (dependencies, plugins and parent).
+	 */
+	private final Set<String> upstreams = new LinkedHashSet<String>();
+
+	ReactorModule(String id, File pomFile, Model model) {
+		this.id = id;
+		this.pomFile = pomFile;
+		this.model = model;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public File getPomFile() {
+		return pomFile;
+	}
+
+	public File getBasedir() {
+		return pomFile.getParentFile();
+	}
+
+	public Model getModel() {
+		return model;
+	}
+
+	public String getPackaging() {
+		return model.getPackaging() == null ? "jar" : model.getPackaging();
+	}
+
+	/**
+	 * @return {@code true} if this module only carries a POM (parents, aggregators and BOMs)
+	 */
+	public boolean isPomOnly() {
+		return "pom".equals(getPackaging());
+	}
+
+	public Set<String> getUpstreams() {
+		return Collections.unmodifiableSet(upstreams);
+	}
+
+	void addUpstream(String upstream) {
+		if (!id.equals(upstream)) {
+			upstreams.add(upstream);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return id;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.maven.spring.boot.ext.MavenResource;
+
+/**
+ * Write locks on the paths of a local repository: one per version directory, held for a whole
+ * install, and one per artifact directory, held while its {@code maven-metadata-local.xml} is
+ * rewritten. Within this JVM a lock is one of a fixed number of {@link ReentrantLock} stripes
+ * chosen by the path's hash; across processes it is a {@link FileLock} on
+ * {@code .locks/<groupId>/<artifactId>/<version>.lock} or {@code .locks/<groupId>/<artifactId>.lock}
+ * in the repository, taken while holding the stripe so that the same file is never
+ * locked twice by this JVM. Different coordinates only wait for each other on a stripe collision.
+ * <p>
+ * Always take the version lock before the artifact lock. The two use separate stripes, and
+ * artifact locks are never held while taking another lock, so this order cannot deadlock.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ArtifactLocks {
+
+	private final File directory;
+	private final ReentrantLock[] versionStripes;
+	private final ReentrantLock[] artifactStripes;
+	private final Set<File> locked = ConcurrentHashMap.newKeySet();
+
+	public ArtifactLocks(File repository, int stripes) {
+		this.directory = new File(repository, ".locks");
+		this.versionStripes = stripes(stripes);
+		this.artifactStripes = stripes(stripes);
+	}
+
+	private static ReentrantLock[] stripes(int count) {
+		ReentrantLock[] stripes = new ReentrantLock[Math.max(1, count)];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		return stripes;
+	}
+
+	/**
+	 * Lock the version directory of the resource, {@code <groupId path>/<artifactId>/<version>}.
+	 */
+	public Lock lockVersion(MavenResource resource) throws IOException {
+		return lockVersion(resource.getGroupId(), resource.getArtifactId(), resource.getVersion());
+	}
+
+	public Lock lockVersion(String groupId, String artifactId, String version) throws IOException {
+		String path = groupId + File.separator + artifactId + File.separator + version;
+		return lock(versionStripes, path, new File(directory, path + ".lock"));
+	}
+
+	/**
+	 * Lock the artifact directory of the resource, {@code <groupId path>/<artifactId>}.
+	 */
+	public Lock lockArtifact(MavenResource resource) throws IOException {
+		return lockArtifact(resource.getGroupId(), resource.getArtifactId());
+	}
+
+	public Lock lockArtifact(String groupId, String artifactId) throws IOException {
+		String path = groupId + File.separator + artifactId;
+		return lock(artifactStripes, path, new File(directory, path + ".lock"));
+	}
+
+	private Lock lock(ReentrantLock[] stripes, String path, File file) throws IOException {
+		ReentrantLock stripe = stripes[(path.hashCode() & Integer.MAX_VALUE) % stripes.length];
+		try {
+			stripe.lockInterruptibly();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the lock on " + path);
+		}
+		if (!locked.add(file)) {
+			// a nested acquisition by the thread holding the file lock, which cannot be taken twice
+			return new Lock(stripe, null, null, null);
+		}
+		FileChannel channel = null;
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			return new Lock(stripe, channel, channel.lock(), () -> locked.remove(file));
+		} catch (IOException | RuntimeException e) {
+			if (channel != null) {
+				channel.close();
+			}
+			locked.remove(file);
+			stripe.unlock();
+			throw e;
+		}
+	}
+
+	/**
+	 * A held lock, released on {@link #close()}.
+	 */
+	public static class Lock implements Closeable {
+
+		private final ReentrantLock stripe;
+		private final FileChannel channel;
+		private final FileLock fileLock;
+		private final Runnable released;
+
+		Lock(ReentrantLock stripe, FileChannel channel, FileLock fileLock, Runnable released) {
+			this.stripe = stripe;
+			this.channel = channel;
+			this.fileLock = fileLock;
+			this.released = released;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				if (fileLock != null) {
+					fileLock.release();
+				}
+				if (channel != null) {
+					channel.close();
+				}
+			} finally {
+				if (released != null) {
+					released.run();
+				}
+				stripe.unlock();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.File;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * An artifact file found in the local repository.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalArtifact {
+
+	private final String groupId;
+	private final String artifactId;
+	private final String version;
+	private final String classifier;
+	private final String extension;
+	private final long size;
+	private final long lastModified;
+	private final String sha1;
+	private final File file;
+
+	public LocalArtifact(String groupId, String artifactId, String version, String classifier, String extension,
+			long size, long lastModified, String sha1, File file) {
+		this.groupId = groupId;
+		this.artifactId = artifactId;
+		this.version = version;
+		this.classifier = classifier == null ? "" : classifier;
+		this.extension = extension;
+		this.size = size;
+		this.lastModified = lastModified;
+		this.sha1 = sha1;
+		this.file = file;
+	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public String getClassifier() {
+		return classifier;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * @return the lower case hex SHA-1 of the file content, or {@code null} if unknown
+	 */
+	public String getSha1() {
+		return sha1;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * @return the coordinates as &lt;groupId&gt;:&lt;artifactId&gt;:&lt;extension&gt;[:&lt;classifier&gt;]:&lt;version&gt;,
+	 *         the format understood by {@code MavenResource#parse}
+	 */
+	public String getCoordinates() {
+		return StringUtils.hasLength(classifier)
+				? String.format("%s:%s:%s:%s:%s", groupId, artifactId, extension, classifier, version)
+				: String.format("%s:%s:%s:%s", groupId, artifactId, extension, version);
+	}
+
+	@Override
+	public String toString() {
+		return getCoordinates();
+	}
+
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Cleanup;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Garbage collector of a local repository. A parallel scan records the size and last use of
+ * every version directory and finds download leftovers; the retention policies then pick what
+ * goes: leftovers older than {@code leftover-age}, snapshot builds beyond the newest
+ * {@code keep-snapshots}, versions unused for {@code unused-for} and, while the repository is
+ * larger than {@code max-size}, the least recently used versions.
+ * <p>
+ * Removals run in batches, each under the exclusive {@link RepositoryLock}, so running forks
+ * finish first and waiting forks start between batches. A version used since the scan is kept.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalRepositoryCleaner implements DisposableBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LocalRepositoryCleaner.class);
+	private static final String[] LEFTOVER_SUFFIXES = { ".lastUpdated", ".part", ".part.lock", ".tmp" };
+	private static final String LOCAL_METADATA = "maven-metadata-local.xml";
+	/**
+	 * Orders snapshot builds ({@code yyyyMMdd.HHmmss-buildNumber}) by time, then build number.
+	 */
+	private static final Comparator<String> BUILD_ORDER = Comparator
+			.comparing((String build) -> build.substring(0, build.indexOf('-')))
+			.thenComparingInt(build -> Integer.parseInt(build.substring(build.indexOf('-') + 1)));
+
+	private final File repository;
+	private final Cleanup cleanup;
+	private final RepositoryLock lock;
+	private final LocalRepositoryIndex index;
+	private ArtifactLocks artifactLocks;
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param index the index to keep up to date, or {@code null}
+	 */
+	public LocalRepositoryCleaner(Cleanup cleanup, RepositoryLock lock, LocalRepositoryIndex index) {
+		this.repository = lock.getRepository();
+		this.cleanup = cleanup;
+		this.lock = lock;
+		this.index = index;
+	}
+
+	/**
+	 * @param artifactLocks the locks of in-process installs, taken while rewriting their metadata
+	 */
+	public void setArtifactLocks(ArtifactLocks artifactLocks) {
+		this.artifactLocks = artifactLocks;
+	}
+
+	/**
+	 * Scan the repository and report what {@link #clean()} would remove, without removing it.
+	 */
+	public RepositoryCleanupResult plan() {
+		return run(true);
+	}
+
+	public synchronized RepositoryCleanupResult clean() {
+		return run(false);
+	}
+
+	/**
+	 * Clean the repository every {@code interval}, starting one interval from now.
+	 */
+	public synchronized void schedule(Duration interval) {
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "maven-repository-cleaner");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				LOG.info("Cleaned the local repository {}: {}", repository, clean());
+			} catch (RuntimeException e) {
+				LOG.warn("Unable to clean the local repository {}", repository, e);
+			}
+		}, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private RepositoryCleanupResult run(boolean dryRun) {
+		long start = System.currentTimeMillis();
+		ForkJoinPool pool = new ForkJoinPool(
+				cleanup.getParallelism() > 0 ? cleanup.getParallelism() : Runtime.getRuntime().availableProcessors());
+		try {
+			Scan scan = new Scan(start - cleanup.getLeftoverAge().toMillis());
+			if (repository.isDirectory()) {
+				pool.invoke(new ScanTask(repository, Collections.<String>emptyList(), scan));
+			}
+			List<Removal> removals = select(scan, start);
+			List<Removal> done = dryRun ? removals : remove(removals, pool);
+			List<File> removed = new ArrayList<File>();
+			int[] counts = new int[Reason.values().length];
+			long freed = 0;
+			for (Removal removal : done) {
+				removed.addAll(removal.targets);
+				counts[removal.reason.ordinal()] += 1;
+				freed += removal.bytes;
+			}
+			return new RepositoryCleanupResult(dryRun, scan.size.get(), counts[Reason.LEFTOVER.ordinal()],
+					counts[Reason.SNAPSHOT.ordinal()], counts[Reason.VERSION.ordinal()], freed,
+					removals.size() - done.size(), removed, System.currentTimeMillis() - start);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Apply the retention policies to the scan.
+	 */
+	List<Removal> select(Scan scan, long now) {
+		List<Removal> removals = new ArrayList<Removal>(scan.leftovers);
+		List<VersionUsage> kept = new ArrayList<VersionUsage>();
+		for (VersionUsage version : scan.versions) {
+			if (cleanup.getUnusedFor() != null && version.lastUsed < now - cleanup.getUnusedFor().toMillis()) {
+				removals.add(version.removal());
+			} else {
+				kept.add(version);
+			}
+		}
+
+		Map<VersionUsage, List<Removal>> pruned = new HashMap<VersionUsage, List<Removal>>();
+		if (cleanup.getKeepSnapshots() > 0) {
+			for (VersionUsage version : kept) {
+				List<String> builds = new ArrayList<String>(version.builds.keySet());
+				if (builds.size() <= cleanup.getKeepSnapshots()) {
+					continue;
+				}
+				builds.sort(BUILD_ORDER.reversed());
+				List<Removal> old = new ArrayList<Removal>();
+				for (String build : builds.subList(cleanup.getKeepSnapshots(), builds.size())) {
+					List<File> files = version.builds.get(build);
+					long bytes = 0;
+					for (File file : files) {
+						bytes += file.length();
+					}
+					old.add(new Removal(Reason.SNAPSHOT, files, bytes, version.lastUsed, version));
+				}
+				pruned.put(version, old);
+				removals.addAll(old);
+			}
+		}
+
+		if (cleanup.getMaxSize() != null) {
+			long size = scan.size.get();
+			for (Removal removal : removals) {
+				size -= removal.bytes;
+			}
+			kept.sort(Comparator.comparingLong(version -> version.lastUsed));
+			for (VersionUsage version : kept) {
+				if (size <= cleanup.getMaxSize().toBytes()) {
+					break;
+				}
+				long prunedBytes = 0;
+				List<Removal> old = pruned.remove(version);
+				if (old != null) {
+					removals.removeAll(old);
+					for (Removal removal : old) {
+						prunedBytes += removal.bytes;
+					}
+				}
+				removals.add(version.removal());
+				size -= version.size - prunedBytes;
+			}
+		}
+		return removals;
+	}
+
+	/**
+	 * @return the removals carried out
+	 */
+	private List<Removal> remove(List<Removal> removals, ForkJoinPool pool) {
+		List<Removal> done = new ArrayList<Removal>();
+		Set<VersionUsage> touched = new LinkedHashSet<VersionUsage>();
+		int batchSize = Math.max(1, cleanup.getBatchSize());
+		for (int from = 0; from < removals.size(); from += batchSize) {
+			List<Removal> batch = removals.subList(from, Math.min(removals.size(), from + batchSize));
+			try {
+				if (!lock.tryLockExclusive(cleanup.getLockTimeout())) {
+					LOG.warn("Forks held {} for more than {}, skipping {} removals", repository,
+							cleanup.getLockTimeout(), removals.size() - from);
+					break;
+				}
+			} catch (IOException e) {
+				LOG.warn("Unable to lock {}, skipping {} removals", repository, removals.size() - from, e);
+				break;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			try {
+				List<Removal> removed = pool.submit(() -> batch.parallelStream().filter(this::remove)
+						.collect(Collectors.toList())).get();
+				for (Removal removal : removed) {
+					pruneEmptyParents(removal.targets.get(0).getParentFile());
+					if (removal.version != null) {
+						touched.add(removal.version);
+					}
+				}
+				done.addAll(removed);
+			} catch (ExecutionException e) {
+				LOG.warn("Unable to clean {}", repository, e.getCause());
+				break;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			} finally {
+				lock.unlockExclusive();
+			}
+		}
+		if (index != null) {
+			for (VersionUsage version : touched) {
+				index.update(version.groupId, version.artifactId, version.version);
+			}
+		}
+		return done;
+	}
+
+	private boolean remove(Removal removal) {
+		if (removal.reason == Reason.VERSION) {
+			VersionUsage version = removal.version;
+			try (ArtifactLocks.Lock lock = artifactLocks != null
+					? artifactLocks.lockVersion(version.groupId, version.artifactId, version.version)
+					: null) {
+				if (lastUsed(version.directory) > removal.lastUsed) {
+					LOG.debug("Keeping {}, it was used since the scan", version.directory);
+					return false;
+				}
+				if (!FileSystemUtils.deleteRecursively(version.directory)) {
+					return false;
+				}
+				dropFromLocalMetadata(version);
+				return true;
+			} catch (IOException e) {
+				LOG.debug("Unable to remove {}", version.directory, e);
+				return false;
+			}
+		}
+		boolean removed = false;
+		for (File file : removal.targets) {
+			try {
+				removed |= Files.deleteIfExists(file.toPath());
+			} catch (IOException e) {
+				LOG.debug("Unable to delete {}", file, e);
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Remove a deleted version from {@code maven-metadata-local.xml}, so that Maven does not pick it
+	 * for a version range.
+	 */
+	private void dropFromLocalMetadata(VersionUsage version) {
+		File file = new File(version.directory.getParentFile(), LOCAL_METADATA);
+		if (!file.isFile()) {
+			return;
+		}
+		try (ArtifactLocks.Lock lock = artifactLocks != null ? artifactLocks.lockArtifact(version.groupId, version.artifactId)
+				: null) {
+			Metadata metadata;
+			try (InputStream input = Files.newInputStream(file.toPath())) {
+				metadata = new MetadataXpp3Reader().read(new InputStreamReader(input, StandardCharsets.UTF_8), false);
+			}
+			if (metadata.getVersioning() == null) {
+				return;
+			}
+			metadata.getVersioning().removeVersion(version.version);
+			if (version.version.equals(metadata.getVersioning().getLatest())) {
+				metadata.getVersioning().setLatest(null);
+			}
+			if (version.version.equals(metadata.getVersioning().getRelease())) {
+				metadata.getVersioning().setRelease(null);
+			}
+			if (metadata.getVersioning().getVersions().isEmpty()) {
+				Files.delete(file.toPath());
+			} else {
+				Files.write(file.toPath(), RepositoryFiles.writeMetadata(metadata));
+			}
+		} catch (IOException | XmlPullParserException e) {
+			LOG.debug("Unable to update {}", file, e);
+		}
+	}
+
+	private void pruneEmptyParents(File directory) {
+		File current = directory;
+		while (current != null && !current.equals(repository) && current.delete()) {
+			current = current.getParentFile();
+		}
+	}
+
+	private static long lastUsed(File directory) {
+		long lastUsed = 0;
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				try {
+					lastUsed = Math.max(lastUsed, lastUsed(Files.readAttributes(file.toPath(), BasicFileAttributes.class)));
+				} catch (IOException e) {
+					// gone meanwhile
+				}
+			}
+		}
+		return lastUsed;
+	}
+
+	private static long lastUsed(BasicFileAttributes attributes) {
+		return Math.max(attributes.lastModifiedTime().toMillis(), attributes.lastAccessTime().toMillis());
+	}
+
+	static boolean isLeftover(String name) {
+		for (String suffix : LEFTOVER_SUFFIXES) {
+			if (name.endsWith(suffix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	enum Reason {
+		LEFTOVER, SNAPSHOT, VERSION
+	}
+
+	static class Removal {
+
+		final Reason reason;
+		final List<File> targets;
+		final long bytes;
+		final long lastUsed;
+		final VersionUsage version;
+
+		Removal(Reason reason, List<File> targets, long bytes, long lastUsed, VersionUsage version) {
+			this.reason = reason;
+			this.targets = targets;
+			this.bytes = bytes;
+			this.lastUsed = lastUsed;
+			this.version = version;
+		}
+
+	}
+
+	/**
+	 * Size and last use of a version directory, with its snapshot builds by timestamp.
+	 */
+	static class VersionUsage {
+
+		final String groupId;
+		final String artifactId;
+		final String version;
+		final File directory;
+		final Map<String, List<File>> builds = new TreeMap<String, List<File>>();
+		long size;
+		long lastUsed;
+
+		VersionUsage(String groupId, String artifactId, String version, File directory) {
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.version = version;
+			this.directory = directory;
+		}
+
+		Removal removal() {
+			return new Removal(Reason.VERSION, Collections.singletonList(directory), size, lastUsed, this);
+		}
+
+	}
+
+	static class Scan {
+
+		final long leftoverBefore;
+		final AtomicLong size = new AtomicLong();
+		final Queue<Removal> leftovers = new ConcurrentLinkedQueue<Removal>();
+		final Queue<VersionUsage> versions = new ConcurrentLinkedQueue<VersionUsage>();
+
+		Scan(long leftoverBefore) {
+			this.leftoverBefore = leftoverBefore;
+		}
+
+	}
+
+	private static class ScanTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final File directory;
+		private final List<String> segments;
+		private final transient Scan scan;
+
+		ScanTask(File directory, List<String> segments, Scan scan) {
+			this.directory = directory;
+			this.segments = segments;
+			this.scan = scan;
+		}
+
+		@Override
+		protected void compute() {
+			File[] children = directory.listFiles();
+			if (children == null) {
+				return;
+			}
+			VersionUsage usage = null;
+			boolean artifacts = false;
+			String buildPrefix = null;
+			if (segments.size() >= 3) {
+				String version = segments.get(segments.size() - 1);
+				String artifactId = segments.get(segments.size() - 2);
+				usage = new VersionUsage(String.join(".", segments.subList(0, segments.size() - 2)), artifactId,
+						version, directory);
+				if (version.endsWith("-SNAPSHOT")) {
+					buildPrefix = artifactId + "-" + version.substring(0, version.length() - "SNAPSHOT".length());
+				}
+			}
+			List<ScanTask> tasks = new ArrayList<ScanTask>();
+			for (File child : children) {
+				String name = child.getName();
+				if (name.startsWith(".")) {
+					continue;
+				}
+				BasicFileAttributes attributes;
+				try {
+					attributes = Files.readAttributes(child.toPath(), BasicFileAttributes.class);
+				} catch (IOException e) {
+					continue;
+				}
+				if (attributes.isDirectory()) {
+					List<String> childSegments = new ArrayList<String>(segments);
+					childSegments.add(name);
+					tasks.add(new ScanTask(child, childSegments, scan));
+					continue;
+				}
+				scan.size.addAndGet(attributes.size());
+				if (usage != null) {
+					usage.lastUsed = Math.max(usage.lastUsed, lastUsed(attributes));
+				}
+				if (isLeftover(name)) {
+					if (attributes.lastModifiedTime().toMillis() < scan.leftoverBefore) {
+						scan.leftovers.add(new Removal(Reason.LEFTOVER, Collections.singletonList(child),
+								attributes.size(), 0, null));
+					}
+					continue;
+				}
+				if (usage == null) {
+					continue;
+				}
+				usage.size += attributes.size();
+				artifacts |= LocalRepositoryScanner.parse(child, usage.artifactId, usage.version) != null;
+				if (buildPrefix != null && name.startsWith(buildPrefix)) {
+					Matcher matcher = LocalRepositoryScanner.SNAPSHOT_TIMESTAMP.matcher(name);
+					matcher.region(buildPrefix.length(), name.length());
+					if (matcher.lookingAt()) {
+						usage.builds.computeIfAbsent(matcher.group(), build -> new ArrayList<File>()).add(child);
+					}
+				}
+			}
+			if (artifacts) {
+				scan.versions.add(usage);
+			}
+			invokeAll(tasks);
+		}
+
+	}
+
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Index;
+import org.apache.maven.spring.boot.ext.Hex;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.MavenResourceListener;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryScanner.ArtifactFile;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryScanner.VersionDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * A catalog of the artifacts in the local repository, answering GAV, groupId prefix and SHA-1
+ * lookups from memory instead of walking the repository.
+ * <p>
+ * The catalog is built by one parallel scan and persisted as a compact snapshot (a string table
+ * followed by fixed size records) that is memory-mapped when loaded. Installs through the
+ * template rescan only the installed version directory and append the change to a delta log,
+ * which is replayed on load and folded into the snapshot once it grows.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalRepositoryIndex implements MavenResourceListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LocalRepositoryIndex.class);
+	private static final int MAGIC = 0x4D564958;
+	private static final int FORMAT = 1;
+	private static final int COMPACT_THRESHOLD = 1000;
+	private static final String SNAPSHOT_FILE = "index.bin";
+	private static final String LOG_FILE = "index.log";
+
+	private final File repository;
+	private final File directory;
+	private final Index index;
+	private volatile NavigableMap<String, LocalArtifact> artifacts = new ConcurrentSkipListMap<String, LocalArtifact>();
+	private volatile ConcurrentMap<String, Set<LocalArtifact>> bySha1 = new ConcurrentHashMap<String, Set<LocalArtifact>>();
+	private volatile boolean loaded;
+	private int logEntries;
+
+	public LocalRepositoryIndex(MavenInvokerProperties properties) {
+		this.repository = properties.resolveLocalRepository();
+		this.index = properties.getIndex();
+		this.directory = StringUtils.hasText(index.getDirectory()) ? new File(index.getDirectory())
+				: new File(repository.getParentFile(), "invoker-index");
+	}
+
+	/**
+	 * @return the artifacts of the version, empty if it is not installed
+	 */
+	public List<LocalArtifact> find(String groupId, String artifactId, String version) {
+		String prefix = groupId + ':' + artifactId + ':' + version;
+		return new ArrayList<LocalArtifact>(range(prefix + ':').values());
+	}
+
+	/**
+	 * @return the installed versions of the artifact, in lexical order
+	 */
+	public Set<String> versions(String groupId, String artifactId) {
+		Set<String> versions = new TreeSet<String>();
+		for (LocalArtifact artifact : range(groupId + ':' + artifactId + ':').values()) {
+			versions.add(artifact.getFile().getParentFile().getName());
+		}
+		return versions;
+	}
+
+	/**
+	 * @param groupPrefix a groupId such as {@code org.apache}, which also matches {@code org.apache.maven}
+	 * @return the artifacts of all matching groups
+	 */
+	public List<LocalArtifact> findByGroupPrefix(String groupPrefix) {
+		List<LocalArtifact> found = new ArrayList<LocalArtifact>(range(groupPrefix + ':').values());
+		found.addAll(range(groupPrefix + '.').values());
+		return found;
+	}
+
+	/**
+	 * @param sha1 the hex SHA-1 of the file content
+	 * @return the artifacts with that content, empty if none
+	 */
+	public List<LocalArtifact> findBySha1(String sha1) {
+		ensureLoaded();
+		Set<LocalArtifact> found = bySha1.get(sha1.toLowerCase());
+		return found == null ? Collections.<LocalArtifact>emptyList() : new ArrayList<LocalArtifact>(found);
+	}
+
+	public int size() {
+		ensureLoaded();
+		return artifacts.size();
+	}
+
+	private NavigableMap<String, LocalArtifact> range(String prefix) {
+		ensureLoaded();
+		return artifacts.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+	}
+
+	@Override
+	public void installed(MavenResource resource) {
+		update(resource.getGroupId(), resource.getArtifactId(), resource.getVersion());
+	}
+
+	/**
+	 * Installs routed to an installation's own local repository do not touch this one.
+	 */
+	@Override
+	public void installed(MavenResource resource, File localRepository) {
+		if (repository.getAbsoluteFile().equals(localRepository.getAbsoluteFile())) {
+			installed(resource);
+		}
+	}
+
+	/**
+	 * Rescan one version directory and record the change in the delta log.
+	 */
+	public synchronized void update(String groupId, String artifactId, String version) {
+		ensureLoaded();
+		File versionDirectory = new File(repository,
+				groupId.replace('.', File.separatorChar) + File.separator + artifactId + File.separator + version);
+		VersionDirectory scanned = LocalRepositoryScanner.read(groupId, artifactId, version, versionDirectory);
+		List<LocalArtifact> current = new ArrayList<LocalArtifact>();
+		if (scanned != null) {
+			for (ArtifactFile file : scanned.getFiles()) {
+				current.add(toArtifact(scanned, file));
+			}
+		}
+		replace(groupId, artifactId, version, current);
+		try {
+			appendLog(groupId, artifactId, version, current);
+			if (++logEntries >= COMPACT_THRESHOLD) {
+				compact();
+			}
+		} catch (IOException e) {
+			LOG.warn("Unable to persist the index update of {}:{}:{}", groupId, artifactId, version, e);
+		}
+	}
+
+	/**
+	 * Scan the whole local repository and replace the persisted index.
+	 */
+	public synchronized void rebuild() {
+		long start = System.currentTimeMillis();
+		NavigableMap<String, LocalArtifact> scanned = new ConcurrentSkipListMap<String, LocalArtifact>();
+		if (repository.isDirectory()) {
+			LocalRepositoryScanner scanner = new LocalRepositoryScanner(index.getParallelism());
+			try {
+				scanner.scan(repository, repository, versionDirectory -> {
+					for (ArtifactFile file : versionDirectory.getFiles()) {
+						LocalArtifact artifact = toArtifact(versionDirectory, file);
+						scanned.put(key(artifact), artifact);
+					}
+				});
+			} finally {
+				scanner.shutdown();
+			}
+		}
+		ConcurrentMap<String, Set<LocalArtifact>> sha1s = new ConcurrentHashMap<String, Set<LocalArtifact>>();
+		for (LocalArtifact artifact : scanned.values()) {
+			addSha1(sha1s, artifact);
+		}
+		this.artifacts = scanned;
+		this.bySha1 = sha1s;
+		this.loaded = true;
+		LOG.info("Indexed {} artifacts of {} in {} ms", scanned.size(), repository, System.currentTimeMillis() - start);
+		try {
+			compact();
+		} catch (IOException e) {
+			LOG.warn("Unable to persist the local repository index to {}", directory, e);
+		}
+	}
+
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		synchronized (this) {
+			if (loaded) {
+				return;
+			}
+			try {
+				if (load()) {
+					loaded = true;
+					return;
+				}
+			} catch (IOException | RuntimeException e) {
+				LOG.warn("Discarding the unreadable local repository index in {}", directory, e);
+			}
+			rebuild();
+		}
+	}
+
+	private void replace(String groupId, String artifactId, String version, Collection<LocalArtifact> current) {
+		NavigableMap<String, LocalArtifact> previous = artifacts.subMap(groupId + ':' + artifactId + ':' + version + ':',
+				true, groupId + ':' + artifactId + ':' + version + ':' + Character.MAX_VALUE, false);
+		for (LocalArtifact artifact : previous.values()) {
+			if (artifact.getSha1() != null) {
+				Set<LocalArtifact> same = bySha1.get(artifact.getSha1());
+				if (same != null) {
+					same.remove(artifact);
+				}
+			}
+		}
+		previous.clear();
+		for (LocalArtifact artifact : current) {
+			artifacts.put(key(artifact), artifact);
+			addSha1(bySha1, artifact);
+		}
+	}
+
+	private static void addSha1(ConcurrentMap<String, Set<LocalArtifact>> sha1s, LocalArtifact artifact) {
+		if (artifact.getSha1() != null) {
+			sha1s.computeIfAbsent(artifact.getSha1(), sha1 -> ConcurrentHashMap.newKeySet()).add(artifact);
+		}
+	}
+
+	private static String key(LocalArtifact artifact) {
+		return artifact.getGroupId() + ':' + artifact.getArtifactId() + ':'
+				+ artifact.getFile().getParentFile().getName() + ':' + artifact.getFile().getName();
+	}
+
+	private LocalArtifact toArtifact(VersionDirectory versionDirectory, ArtifactFile file) {
+		File content = file.getFile();
+		return new LocalArtifact(versionDirectory.getGroupId(), versionDirectory.getArtifactId(), file.getVersion(),
+				file.getClassifier(), file.getExtension(), content.length(), content.lastModified(), sha1Of(content),
+				content);
+	}
+
+	/**
+	 * The SHA-1 from the {@code .sha1} file Maven writes next to downloaded artifacts, or computed.
+	 * A sidecar that holds no SHA-1 is treated like a missing one.
+	 */
+	private String sha1Of(File file) {
+		File sidecar = new File(file.getPath() + ".sha1");
+		if (sidecar.isFile()) {
+			try {
+				String content = new String(Files.readAllBytes(sidecar.toPath()), StandardCharsets.US_ASCII).trim();
+				int end = content.indexOf(' ');
+				String sha1 = (end > 0 ? content.substring(0, end) : content).toLowerCase();
+				if (RepositoryFiles.isSha1(sha1)) {
+					return sha1;
+				}
+				LOG.debug("Ignoring {}, it holds no SHA-1", sidecar);
+			} catch (IOException e) {
+				LOG.debug("Unable to read {}", sidecar, e);
+			}
+		}
+		if (!index.isHashMissing()) {
+			return null;
+		}
+		try {
+			return RepositoryFiles.sha1(file);
+		} catch (IOException e) {
+			LOG.debug("Unable to hash {}", file, e);
+			return null;
+		}
+	}
+
+	/*
+	 * Persistence. The snapshot is: magic, format, repository path, string count, strings (length +
+	 * UTF-8), record count, records. A record is seven string references (groupId, artifactId,
+	 * directory version, file name, file version, classifier, extension), size, last modified and
+	 * a flag followed by the 20 byte SHA-1 if it is known.
+	 */
+
+	private boolean load() throws IOException {
+		File snapshot = new File(directory, SNAPSHOT_FILE);
+		if (!snapshot.isFile()) {
+			return false;
+		}
+		NavigableMap<String, LocalArtifact> loadedArtifacts = new ConcurrentSkipListMap<String, LocalArtifact>();
+		try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+				return false;
+			}
+			if (!repository.getAbsolutePath().equals(readString(buffer))) {
+				return false;
+			}
+			String[] strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = readString(buffer);
+			}
+			int records = buffer.getInt();
+			byte[] sha1 = new byte[20];
+			for (int i = 0; i < records; i++) {
+				String groupId = strings[buffer.getInt()];
+				String artifactId = strings[buffer.getInt()];
+				String directoryVersion = strings[buffer.getInt()];
+				String name = strings[buffer.getInt()];
+				String version = strings[buffer.getInt()];
+				String classifier = strings[buffer.getInt()];
+				String extension = strings[buffer.getInt()];
+				long size = buffer.getLong();
+				long lastModified = buffer.getLong();
+				String hex = null;
+				if (buffer.get() != 0) {
+					buffer.get(sha1);
+					hex = Hex.encode(sha1);
+				}
+				File file = new File(repository, groupId.replace('.', File.separatorChar) + File.separator + artifactId
+						+ File.separator + directoryVersion + File.separator + name);
+				LocalArtifact artifact = new LocalArtifact(groupId, artifactId, version, classifier, extension, size,
+						lastModified, hex, file);
+				loadedArtifacts.put(key(artifact), artifact);
+			}
+		}
+		ConcurrentMap<String, Set<LocalArtifact>> sha1s = new ConcurrentHashMap<String, Set<LocalArtifact>>();
+		for (LocalArtifact artifact : loadedArtifacts.values()) {
+			addSha1(sha1s, artifact);
+		}
+		this.artifacts = loadedArtifacts;
+		this.bySha1 = sha1s;
+		this.logEntries = replayLog();
+		LOG.debug("Loaded {} indexed artifacts from {}", loadedArtifacts.size(), directory);
+		return true;
+	}
+
+	private int replayLog() throws IOException {
+		File log = new File(directory, LOG_FILE);
+		if (!log.isFile()) {
+			return 0;
+		}
+		int entries = 0;
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(log)))) {
+			while (true) {
+				String groupId;
+				try {
+					groupId = input.readUTF();
+				} catch (EOFException e) {
+					break;
+				}
+				String artifactId = input.readUTF();
+				String version = input.readUTF();
+				int count = input.readInt();
+				List<LocalArtifact> current = new ArrayList<LocalArtifact>(count);
+				for (int i = 0; i < count; i++) {
+					String name = input.readUTF();
+					String fileVersion = input.readUTF();
+					String classifier = input.readUTF();
+					String extension = input.readUTF();
+					long size = input.readLong();
+					long lastModified = input.readLong();
+					String sha1 = input.readUTF();
+					File file = new File(repository, groupId.replace('.', File.separatorChar) + File.separator
+							+ artifactId + File.separator + version + File.separator + name);
+					current.add(new LocalArtifact(groupId, artifactId, fileVersion, classifier, extension, size,
+							lastModified, RepositoryFiles.isSha1(sha1) ? sha1 : null, file));
+				}
+				replace(groupId, artifactId, version, current);
+				entries++;
+			}
+		} catch (EOFException e) {
+			// an update interrupted while being written, everything before it is intact
+			LOG.debug("Ignoring the truncated tail of {}", log);
+		}
+		return entries;
+	}
+
+	private void appendLog(String groupId, String artifactId, String version, List<LocalArtifact> current)
+			throws IOException {
+		Files.createDirectories(directory.toPath());
+		try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(new File(directory, LOG_FILE), true)))) {
+			output.writeUTF(groupId);
+			output.writeUTF(artifactId);
+			output.writeUTF(version);
+			output.writeInt(current.size());
+			for (LocalArtifact artifact : current) {
+				output.writeUTF(artifact.getFile().getName());
+				output.writeUTF(artifact.getVersion());
+				output.writeUTF(artifact.getClassifier());
+				output.writeUTF(artifact.getExtension());
+				output.writeLong(artifact.getSize());
+				output.writeLong(artifact.getLastModified());
+				output.writeUTF(artifact.getSha1() == null ? "" : artifact.getSha1());
+			}
+		}
+	}
+
+	/**
+	 * Write the in-memory catalog as a new snapshot and drop the delta log.
+	 */
+	private void compact() throws IOException {
+		Files.createDirectories(directory.toPath());
+		Map<String, Integer> strings = new LinkedHashMap<String, Integer>();
+		Collection<LocalArtifact> values = artifacts.values();
+		for (LocalArtifact artifact : values) {
+			for (String value : fields(artifact)) {
+				strings.putIfAbsent(value, strings.size());
+			}
+		}
+		File snapshot = new File(directory, SNAPSHOT_FILE);
+		File temp = new File(directory, SNAPSHOT_FILE + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 64 * 1024))) {
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT);
+			writeString(output, repository.getAbsolutePath());
+			output.writeInt(strings.size());
+			for (String value : strings.keySet()) {
+				writeString(output, value);
+			}
+			List<LocalArtifact> records = new ArrayList<LocalArtifact>(values);
+			output.writeInt(records.size());
+			for (LocalArtifact artifact : records) {
+				for (String value : fields(artifact)) {
+					output.writeInt(strings.get(value));
+				}
+				output.writeLong(artifact.getSize());
+				output.writeLong(artifact.getLastModified());
+				if (artifact.getSha1() != null) {
+					output.writeByte(1);
+					output.write(Hex.decode(artifact.getSha1()));
+				} else {
+					output.writeByte(0);
+				}
+			}
+		}
+		Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		new File(directory, LOG_FILE).delete();
+		logEntries = 0;
+	}
+
+	private static String[] fields(LocalArtifact artifact) {
+		File file = artifact.getFile();
+		return new String[] { artifact.getGroupId(), artifact.getArtifactId(), file.getParentFile().getName(),
+				file.getName(), artifact.getVersion(), artifact.getClassifier(), artifact.getExtension() };
+	}
+
+	private static void writeString(DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(MappedByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Walks a local repository (or a subtree of one) in parallel with a {@link ForkJoinPool} and
+ * reports every version directory, i.e. {@code <groupId path>/<artifactId>/<version>}, with the
+ * artifact files it holds. Checksums, signatures, metadata and download leftovers are skipped.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalRepositoryScanner {
+
+	static final Pattern SNAPSHOT_TIMESTAMP = Pattern.compile("\\d{8}\\.\\d{6}-\\d+");
+	private static final String[] IGNORED_SUFFIXES = { ".sha1", ".md5", ".sha256", ".sha512", ".asc", ".lastUpdated",
+			".part", ".tmp", ".lock" };
+
+	/**
+	 * A {@code <groupId path>/<artifactId>/<version>} directory.
+	 */
+	public static class VersionDirectory {
+
+		private final String groupId;
+		private final String artifactId;
+		private final String version;
+		private final File directory;
+		private final List<ArtifactFile> files;
+
+		VersionDirectory(String groupId, String artifactId, String version, File directory, List<ArtifactFile> files) {
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.version = version;
+			this.directory = directory;
+			this.files = Collections.unmodifiableList(files);
+		}
+
+		public String getGroupId() {
+			return groupId;
+		}
+
+		public String getArtifactId() {
+			return artifactId;
+		}
+
+		public String getVersion() {
+			return version;
+		}
+
+		public File getDirectory() {
+			return directory;
+		}
+
+		public List<ArtifactFile> getFiles() {
+			return files;
+		}
+
+	}
+
+	/**
+	 * An artifact file of a version directory. For snapshots {@link #getVersion()} is the
+	 * timestamped version if the file carries one.
+	 */
+	public static class ArtifactFile {
+
+		private final File file;
+		private final String version;
+		private final String classifier;
+		private final String extension;
+
+		ArtifactFile(File file, String version, String classifier, String extension) {
+			this.file = file;
+			this.version = version;
+			this.classifier = classifier;
+			this.extension = extension;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public String getVersion() {
+			return version;
+		}
+
+		public String getClassifier() {
+			return classifier;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+
+	}
+
+	private final ForkJoinPool pool;
+
+	/**
+	 * @param parallelism the number of scanning threads, values below 1 mean the number of CPUs
+	 */
+	public LocalRepositoryScanner(int parallelism) {
+		this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Scan the repository below {@code root}. The consumer is called concurrently from the scanning threads.
+	 *
+	 * @param repository the local repository root
+	 * @param root       the directory to scan, the repository itself or a group/artifact directory below it
+	 */
+	public void scan(File repository, File root, Consumer<VersionDirectory> consumer) {
+		String relative = repository.toURI().relativize(root.toURI()).getPath();
+		List<String> segments = new ArrayList<String>();
+		for (String segment : relative.split("/")) {
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		pool.invoke(new ScanTask(root, segments, consumer));
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Read one version directory, or return {@code null} if {@code directory} is none.
+	 */
+	public static VersionDirectory read(String groupId, String artifactId, String version, File directory) {
+		File[] children = directory.listFiles();
+		if (children == null) {
+			return null;
+		}
+		List<ArtifactFile> files = new ArrayList<ArtifactFile>();
+		for (File child : children) {
+			if (child.isFile()) {
+				ArtifactFile file = parse(child, artifactId, version);
+				if (file != null) {
+					files.add(file);
+				}
+			}
+		}
+		return files.isEmpty() ? null : new VersionDirectory(groupId, artifactId, version, directory, files);
+	}
+
+	static ArtifactFile parse(File file, String artifactId, String version) {
+		String name = file.getName();
+		if (isIgnored(name) || !name.startsWith(artifactId + "-")) {
+			return null;
+		}
+		String rest = name.substring(artifactId.length() + 1);
+		String fileVersion = version;
+		if (rest.startsWith(version)) {
+			rest = rest.substring(version.length());
+		} else if (version.endsWith("-SNAPSHOT")) {
+			String base = version.substring(0, version.length() - "SNAPSHOT".length());
+			if (!rest.startsWith(base)) {
+				return null;
+			}
+			Matcher matcher = SNAPSHOT_TIMESTAMP.matcher(rest);
+			matcher.region(base.length(), rest.length());
+			if (!matcher.lookingAt()) {
+				return null;
+			}
+			String timestamp = matcher.group();
+			fileVersion = base + timestamp;
+			rest = rest.substring(base.length() + timestamp.length());
+		} else {
+			return null;
+		}
+		String classifier = "";
+		if (rest.startsWith("-")) {
+			int dot = rest.indexOf('.');
+			if (dot < 0) {
+				return null;
+			}
+			classifier = rest.substring(1, dot);
+			rest = rest.substring(dot);
+		}
+		if (!rest.startsWith(".") || rest.length() < 2) {
+			return null;
+		}
+		return new ArtifactFile(file, fileVersion, classifier, rest.substring(1));
+	}
+
+	static boolean isIgnored(String name) {
+		if (name.startsWith("maven-metadata") || name.startsWith("_") || name.equals("resolver-status.properties")) {
+			return true;
+		}
+		for (String suffix : IGNORED_SUFFIXES) {
+			if (name.endsWith(suffix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class ScanTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final File directory;
+		private final List<String> segments;
+		private final transient Consumer<VersionDirectory> consumer;
+
+		ScanTask(File directory, List<String> segments, Consumer<VersionDirectory> consumer) {
+			this.directory = directory;
+			this.segments = segments;
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void compute() {
+			File[] children = directory.listFiles();
+			if (children == null) {
+				return;
+			}
+			if (segments.size() >= 3) {
+				String version = segments.get(segments.size() - 1);
+				String artifactId = segments.get(segments.size() - 2);
+				String groupId = String.join(".", segments.subList(0, segments.size() - 2));
+				VersionDirectory versionDirectory = read(groupId, artifactId, version, directory);
+				if (versionDirectory != null) {
+					consumer.accept(versionDirectory);
+				}
+			}
+			List<ScanTask> tasks = new ArrayList<ScanTask>();
+			for (File child : children) {
+				if (child.isDirectory() && !child.getName().startsWith(".")) {
+					List<String> childSegments = new ArrayList<String>(segments);
+					childSegments.add(child.getName());
+					tasks.add(new ScanTask(child, childSegments, consumer));
+				}
+			}
+			invokeAll(tasks);
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a run of the {@link LocalRepositoryCleaner} removed, or would remove for a dry run.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RepositoryCleanupResult {
+
+	private final boolean dryRun;
+	private final long repositorySize;
+	private final int leftovers;
+	private final int snapshotBuilds;
+	private final int versions;
+	private final long freedBytes;
+	private final int skipped;
+	private final List<File> removed;
+	private final long durationMillis;
+
+	RepositoryCleanupResult(boolean dryRun, long repositorySize, int leftovers, int snapshotBuilds, int versions,
+			long freedBytes, int skipped, List<File> removed, long durationMillis) {
+		this.dryRun = dryRun;
+		this.repositorySize = repositorySize;
+		this.leftovers = leftovers;
+		this.snapshotBuilds = snapshotBuilds;
+		this.versions = versions;
+		this.freedBytes = freedBytes;
+		this.skipped = skipped;
+		this.removed = Collections.unmodifiableList(removed);
+		this.durationMillis = durationMillis;
+	}
+
+	public boolean isDryRun() {
+		return dryRun;
+	}
+
+	/**
+	 * @return the size of the repository before the run
+	 */
+	public long getRepositorySize() {
+		return repositorySize;
+	}
+
+	/**
+	 * @return the {@code *.lastUpdated} files and partial downloads removed
+	 */
+	public int getLeftovers() {
+		return leftovers;
+	}
+
+	/**
+	 * @return the timestamped snapshot builds removed
+	 */
+	public int getSnapshotBuilds() {
+		return snapshotBuilds;
+	}
+
+	/**
+	 * @return the version directories removed for being unused or over the size cap
+	 */
+	public int getVersions() {
+		return versions;
+	}
+
+	public long getFreedBytes() {
+		return freedBytes;
+	}
+
+	/**
+	 * @return the removals skipped, because their files changed since the scan or the
+	 *         repository could not be locked in time
+	 */
+	public int getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * @return the files and version directories removed
+	 */
+	public List<File> getRemoved() {
+		return removed;
+	}
+
+	public long getDurationMillis() {
+		return durationMillis;
+	}
+
+	@Override
+	public String toString() {
+		return (dryRun ? "would remove " : "removed ") + leftovers + " leftovers, " + snapshotBuilds
+				+ " snapshot builds and " + versions + " versions, " + freedBytes + " of " + repositorySize
+				+ " bytes in " + durationMillis + " ms" + (skipped > 0 ? ", skipped " + skipped : "");
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.spring.boot.ext.Hex;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * The POM and {@code maven-metadata.xml} files that accompany an artifact in a repository, as
+ * written by {@code install:install-file} and {@code deploy:deploy-file}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public abstract class RepositoryFiles {
+
+	/**
+	 * @return the file name of the resource's POM
+	 */
+	public static String pomName(MavenResource resource) {
+		return resource.getArtifactId() + "-" + resource.getVersion() + ".pom";
+	}
+
+	/**
+	 * The POM embedded by Maven in the jar, or a minimal one if {@code generatePom} is set.
+	 *
+	 * @param artifact the artifact content, which may have moved from the resource's file path
+	 * @return the POM, or {@code null} if there is none to write
+	 */
+	public static byte[] pom(MavenResource resource, File artifact) throws IOException {
+		if (!resource.isGeneratePom()) {
+			return embeddedPom(resource, artifact);
+		}
+		Model model = new Model();
+		model.setModelVersion("4.0.0");
+		model.setGroupId(resource.getGroupId());
+		model.setArtifactId(resource.getArtifactId());
+		model.setVersion(resource.getVersion());
+		model.setPackaging(resource.getExtension());
+		model.setDescription("POM was created from install:install-file");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+			new MavenXpp3Writer().write(writer, model);
+		}
+		return output.toByteArray();
+	}
+
+	private static byte[] embeddedPom(MavenResource resource, File jar) {
+		String name = "META-INF/maven/" + resource.getGroupId() + "/" + resource.getArtifactId() + "/pom.xml";
+		try (ZipFile zip = new ZipFile(jar)) {
+			ZipEntry entry = zip.getEntry(name);
+			if (entry == null) {
+				return null;
+			}
+			try (InputStream input = zip.getInputStream(entry)) {
+				ByteArrayOutputStream output = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = input.read(buffer)) > 0) {
+					output.write(buffer, 0, read);
+				}
+				return output.toByteArray();
+			}
+		} catch (IOException e) {
+			// not a zip archive
+			return null;
+		}
+	}
+
+	/**
+	 * Read artifact level metadata, or start new metadata for the resource if {@code input} is
+	 * {@code null} or unreadable.
+	 */
+	public static Metadata readMetadata(MavenResource resource, InputStream input) throws IOException {
+		Metadata metadata = null;
+		if (input != null) {
+			try {
+				metadata = new MetadataXpp3Reader().read(new InputStreamReader(input, StandardCharsets.UTF_8), false);
+			} catch (XmlPullParserException e) {
+				metadata = null;
+			}
+		}
+		if (metadata == null) {
+			metadata = new Metadata();
+			metadata.setGroupId(resource.getGroupId());
+			metadata.setArtifactId(resource.getArtifactId());
+		}
+		return metadata;
+	}
+
+	/**
+	 * Add the resource's version to the metadata and make it the latest (and release) version.
+	 */
+	public static Metadata addVersion(Metadata metadata, MavenResource resource) {
+		Versioning versioning = metadata.getVersioning() != null ? metadata.getVersioning() : new Versioning();
+		if (!versioning.getVersions().contains(resource.getVersion())) {
+			versioning.addVersion(resource.getVersion());
+		}
+		if (!resource.getVersion().endsWith("-SNAPSHOT")) {
+			versioning.setRelease(resource.getVersion());
+		}
+		versioning.setLatest(resource.getVersion());
+		SimpleDateFormat format = new SimpleDateFormat("yyyyMMddHHmmss");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		versioning.setLastUpdated(format.format(new Date()));
+		metadata.setVersioning(versioning);
+		return metadata;
+	}
+
+	public static byte[] writeMetadata(Metadata metadata) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8)) {
+			new MetadataXpp3Writer().write(writer, metadata);
+		}
+		return output.toByteArray();
+	}
+
+	/**
+	 * @return the lower case hex SHA-1 of the file's content, what its {@code .sha1} sidecar holds
+	 */
+	public static String sha1(File file) throws IOException {
+		try (InputStream input = new FileInputStream(file)) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] buffer = new byte[64 * 1024];
+			int read;
+			while ((read = input.read(buffer)) > 0) {
+				digest.update(buffer, 0, read);
+			}
+			return Hex.encode(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the value is a hex SHA-1, 40 hexadecimal digits
+	 */
+	public static boolean isSha1(String value) {
+		if (value == null || value.length() != 40) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (Character.digit(value.charAt(i), 16) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Readers-writer lock on a local repository, shared by running forks and exclusive for the
+ * cleaner. Across processes it is a {@link FileLock} on {@code .locks/repository.lock} in the
+ * repository; within this JVM, where file locks cannot overlap, the holders of the shared lock
+ * are counted behind a fair {@link ReentrantReadWriteLock}, so a waiting cleaner holds back new
+ * forks instead of starving.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RepositoryLock {
+
+	private static final long POLL_MILLIS = 100;
+
+	private final File repository;
+	private final File file;
+	private final ReentrantReadWriteLock local = new ReentrantReadWriteLock(true);
+	private FileChannel channel;
+	private FileLock sharedLock;
+	private int sharedHolders;
+	private FileLock exclusiveLock;
+
+	public RepositoryLock(File repository) {
+		this.repository = repository;
+		this.file = new File(repository, ".locks" + File.separator + "repository.lock");
+	}
+
+	/**
+	 * Block until no cleaner holds the repository.
+	 */
+	public void lockShared() throws IOException {
+		local.readLock().lock();
+		try {
+			synchronized (this) {
+				if (sharedHolders == 0) {
+					sharedLock = channel().lock(0, Long.MAX_VALUE, true);
+				}
+				sharedHolders++;
+			}
+		} catch (IOException | RuntimeException e) {
+			local.readLock().unlock();
+			throw e;
+		}
+	}
+
+	public void unlockShared() {
+		try {
+			synchronized (this) {
+				if (--sharedHolders == 0) {
+					release(sharedLock);
+					sharedLock = null;
+				}
+			}
+		} finally {
+			local.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Wait for the running forks, here and in other processes, to finish.
+	 *
+	 * @return {@code false} if they did not within the timeout
+	 */
+	public boolean tryLockExclusive(Duration timeout) throws IOException, InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		if (!local.writeLock().tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+			return false;
+		}
+		try {
+			while (true) {
+				FileLock lock;
+				synchronized (this) {
+					lock = channel().tryLock(0, Long.MAX_VALUE, false);
+					if (lock != null) {
+						exclusiveLock = lock;
+						return true;
+					}
+				}
+				if (System.nanoTime() > deadline) {
+					local.writeLock().unlock();
+					return false;
+				}
+				TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+			}
+		} catch (IOException | InterruptedException | RuntimeException e) {
+			local.writeLock().unlock();
+			throw e;
+		}
+	}
+
+	public void unlockExclusive() {
+		try {
+			synchronized (this) {
+				release(exclusiveLock);
+				exclusiveLock = null;
+			}
+		} finally {
+			local.writeLock().unlock();
+		}
+	}
+
+	private FileChannel channel() throws IOException {
+		if (channel == null || !channel.isOpen()) {
+			Files.createDirectories(file.getParentFile().toPath());
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE);
+		}
+		return channel;
+	}
+
+	private static void release(FileLock lock) {
+		if (lock != null && lock.isValid()) {
+			try {
+				lock.release();
+			} catch (IOException e) {
+				// the channel is gone, and the lock with it
+			}
+		}
+	}
+
+	/**
+	 * @return the repository this lock guards
+	 */
+	public File getRepository() {
+		return repository;
+	}
+
+}
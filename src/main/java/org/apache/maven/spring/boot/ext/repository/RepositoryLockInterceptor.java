@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.repository;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+
+/**
+ * Holds the shared {@link RepositoryLock} while a fork using the guarded local repository runs,
+ * so that the {@link LocalRepositoryCleaner} never deletes from under it.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RepositoryLockInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RepositoryLockInterceptor.class);
+
+	/**
+	 * Runs after admission control so that forks waiting for a slot do not hold the repository.
+	 */
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 150;
+
+	private final RepositoryLock lock;
+
+	public RepositoryLockInterceptor(RepositoryLock lock) {
+		this.lock = lock;
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		if (!guards(request.getLocalRepositoryDirectory(null))) {
+			return chain.proceed(request);
+		}
+		try {
+			lock.lockShared();
+		} catch (IOException e) {
+			LOG.debug("Unable to lock {}, running unguarded", lock.getRepository(), e);
+			return chain.proceed(request);
+		}
+		try {
+			return chain.proceed(request);
+		} finally {
+			lock.unlockShared();
+		}
+	}
+
+	private boolean guards(File localRepository) {
+		return localRepository == null
+				|| localRepository.getAbsoluteFile().equals(lock.getRepository().getAbsoluteFile());
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+}
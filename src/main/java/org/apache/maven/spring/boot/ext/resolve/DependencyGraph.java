@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.resolve;
+
+import java.util.List;
+
+/**
+ * The resolved dependency graph of a POM or an artifact.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DependencyGraph {
+
+	private final String key;
+	private final DependencyGraphNode root;
+	private boolean cached;
+
+	public DependencyGraph(String key, DependencyGraphNode root) {
+		this.key = key;
+		this.root = root;
+	}
+
+	/**
+	 * @return the hash of the effective dependency set this graph was resolved from
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	public DependencyGraphNode getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return all dependencies of the root, depth first, without the root itself
+	 */
+	public List<DependencyGraphNode> getDependencies() {
+		List<DependencyGraphNode> nodes = root.flatten();
+		return nodes.subList(1, nodes.size());
+	}
+
+	/**
+	 * @return {@code true} if this graph was loaded from the resolution cache
+	 */
+	public boolean isCached() {
+		return cached;
+	}
+
+	void setCached(boolean cached) {
+		this.cached = cached;
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.resolve;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * One node of a resolved dependency graph.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DependencyGraphNode {
+
+	private final String groupId;
+	private final String artifactId;
+	private final String extension;
+	private final String classifier;
+	private final String version;
+	private final String scope;
+	private final boolean optional;
+	private final String file;
+	private final List<DependencyGraphNode> children = new ArrayList<DependencyGraphNode>();
+
+	public DependencyGraphNode(String groupId, String artifactId, String extension, String classifier, String version,
+			String scope, boolean optional, String file) {
+		this.groupId = groupId;
+		this.artifactId = artifactId;
+		this.extension = extension;
+		this.classifier = classifier == null ? "" : classifier;
+		this.version = version;
+		this.scope = scope == null ? "" : scope;
+		this.optional = optional;
+		this.file = file;
+	}
+
+	public String getGroupId() {
+		return groupId;
+	}
+
+	public String getArtifactId() {
+		return artifactId;
+	}
+
+	public String getExtension() {
+		return extension;
+	}
+
+	public String getClassifier() {
+		return classifier;
+	}
+
+	public String getVersion() {
+		return version;
+	}
+
+	public String getScope() {
+		return scope;
+	}
+
+	public boolean isOptional() {
+		return optional;
+	}
+
+	/**
+	 * @return the path of the artifact in the local repository, or {@code null} if it was not resolved
+	 */
+	public String getFile() {
+		return file;
+	}
+
+	public List<DependencyGraphNode> getChildren() {
+		return Collections.unmodifiableList(children);
+	}
+
+	void addChild(DependencyGraphNode child) {
+		children.add(child);
+	}
+
+	/**
+	 * @return this node and all its descendants, depth first
+	 */
+	public List<DependencyGraphNode> flatten() {
+		List<DependencyGraphNode> nodes = new ArrayList<DependencyGraphNode>();
+		flatten(this, nodes);
+		return nodes;
+	}
+
+	private static void flatten(DependencyGraphNode node, List<DependencyGraphNode> nodes) {
+		nodes.add(node);
+		for (DependencyGraphNode child : node.children) {
+			flatten(child, nodes);
+		}
+	}
+
+	/**
+	 * @return the coordinates as &lt;groupId&gt;:&lt;artifactId&gt;:&lt;extension&gt;[:&lt;classifier&gt;]:&lt;version&gt;
+	 */
+	@Override
+	public String toString() {
+		return StringUtils.hasLength(classifier)
+				? String.format("%s:%s:%s:%s:%s", groupId, artifactId, extension, classifier, version)
+				: String.format("%s:%s:%s:%s", groupId, artifactId, extension, version);
+	}
+
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.resolve;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
+import org.apache.maven.spring.boot.MavenInvokerProperties;
+import org.apache.maven.spring.boot.ext.Hex;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.ArtifactType;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.artifact.DefaultArtifactType;
+import org.eclipse.aether.collection.CollectRequest;
+import org.eclipse.aether.connector.basic.BasicRepositoryConnectorFactory;
+import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.DependencyNode;
+import org.eclipse.aether.graph.Exclusion;
+import org.eclipse.aether.impl.DefaultServiceLocator;
+import org.eclipse.aether.repository.LocalRepository;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.DependencyRequest;
+import org.eclipse.aether.resolution.DependencyResolutionException;
+import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.transport.file.FileTransporterFactory;
+import org.eclipse.aether.transport.http.HttpTransporterFactory;
+import org.eclipse.aether.version.VersionConstraint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolves dependency graphs in-process with Maven Resolver against the configured
+ * {@code localRepository} and {@code mavenRepositorys}, instead of forking {@code dependency:tree}
+ * and scraping its output. Honours {@code offline}, so a pre-populated local repository is enough.
+ * <p>
+ * Resolved graphs are cached on disk, keyed by a hash of the effective dependency set (root,
+ * dependencies, exclusions, dependencyManagement and repositories). A cached graph is only reused
+ * while all its files are still in the local repository; graphs with a snapshot or a version range
+ * anywhere, transitive dependencies included, are never cached. Entries are written in a format
+ * of their own (see {@link #writeCache}), the cache directory may be shared, and nothing read from
+ * it is deserialized into arbitrary classes. Mirrors and credentials from {@code settings.xml} are
+ * not applied.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DependencyGraphResolver {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DependencyGraphResolver.class);
+	private static final String CENTRAL = "https://repo.maven.apache.org/maven2/";
+	private static final int MAGIC = 0x4D564447;
+	private static final int FORMAT = 1;
+
+	private final MavenInvokerProperties properties;
+	private final DefaultRepositoryCache repositoryCache = new DefaultRepositoryCache();
+	private volatile RepositorySystem repositorySystem;
+
+	public DependencyGraphResolver(MavenInvokerProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Resolve the dependencies declared by an effective model.
+	 */
+	public DependencyGraph resolve(Model model) throws DependencyResolutionException {
+		DefaultRepositorySystemSession session = newSession();
+		CollectRequest request = new CollectRequest();
+		request.setRootArtifact(new DefaultArtifact(model.getGroupId(), model.getArtifactId(), "pom", model.getVersion()));
+		for (org.apache.maven.model.Dependency dependency : model.getDependencies()) {
+			request.addDependency(toDependency(session, dependency));
+		}
+		if (model.getDependencyManagement() != null) {
+			for (org.apache.maven.model.Dependency dependency : model.getDependencyManagement().getDependencies()) {
+				request.addManagedDependency(toDependency(session, dependency));
+			}
+		}
+		request.setRepositories(repositories(model.getRepositories()));
+		return resolve(session, request, request.getRootArtifact().toString());
+	}
+
+	/**
+	 * Resolve an artifact and its transitive dependencies.
+	 */
+	public DependencyGraph resolve(MavenResource resource) throws DependencyResolutionException {
+		DefaultRepositorySystemSession session = newSession();
+		CollectRequest request = new CollectRequest();
+		request.setRoot(new Dependency(new DefaultArtifact(resource.getGroupId(), resource.getArtifactId(),
+				resource.getClassifier(), resource.getExtension(), resource.getVersion()), "compile"));
+		request.setRepositories(repositories(null));
+		return resolve(session, request, resource.toString());
+	}
+
+	private DependencyGraph resolve(DefaultRepositorySystemSession session, CollectRequest request, String root)
+			throws DependencyResolutionException {
+		String key = keyOf(request, root);
+		File cacheFile = cacheFile(key);
+		DependencyGraph cached = readCache(cacheFile);
+		if (cached != null) {
+			return cached;
+		}
+		DependencyNode node = system().resolveDependencies(session, new DependencyRequest(request, null)).getRoot();
+		DependencyGraph graph = new DependencyGraph(key, toGraphNode(node));
+		if (cacheFile != null && isCacheable(node)) {
+			writeCache(cacheFile, graph);
+		}
+		return graph;
+	}
+
+	private DefaultRepositorySystemSession newSession() {
+		DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
+		session.setLocalRepositoryManager(system().newLocalRepositoryManager(session,
+				new LocalRepository(properties.resolveLocalRepository())));
+		session.setOffline(properties.isOffline());
+		session.setCache(repositoryCache);
+		session.setSystemProperties(System.getProperties());
+		if (properties.getProperties() != null) {
+			session.setUserProperties(properties.getProperties());
+		}
+		return session;
+	}
+
+	private RepositorySystem system() {
+		RepositorySystem system = repositorySystem;
+		if (system == null) {
+			synchronized (this) {
+				system = repositorySystem;
+				if (system == null) {
+					DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
+					locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
+					locator.addService(TransporterFactory.class, FileTransporterFactory.class);
+					locator.addService(TransporterFactory.class, HttpTransporterFactory.class);
+					system = locator.getService(RepositorySystem.class);
+					repositorySystem = system;
+				}
+			}
+		}
+		return system;
+	}
+
+	private List<RemoteRepository> repositories(List<org.apache.maven.model.Repository> declared) {
+		List<RemoteRepository> repositories = new ArrayList<RemoteRepository>();
+		for (Map.Entry<String, String> entry : properties.getMavenRepositorys().entrySet()) {
+			repositories.add(new RemoteRepository.Builder(entry.getKey(), "default", entry.getValue()).build());
+		}
+		if (declared != null) {
+			for (org.apache.maven.model.Repository repository : declared) {
+				repositories.add(new RemoteRepository.Builder(repository.getId(), "default", repository.getUrl()).build());
+			}
+		}
+		if (repositories.isEmpty()) {
+			repositories.add(new RemoteRepository.Builder("central", "default", CENTRAL).build());
+		}
+		return repositories;
+	}
+
+	private static Dependency toDependency(DefaultRepositorySystemSession session,
+			org.apache.maven.model.Dependency dependency) {
+		ArtifactType stereotype = session.getArtifactTypeRegistry().get(dependency.getType());
+		if (stereotype == null) {
+			stereotype = new DefaultArtifactType(dependency.getType());
+		}
+		Artifact artifact = new DefaultArtifact(dependency.getGroupId(), dependency.getArtifactId(),
+				dependency.getClassifier(), null, dependency.getVersion(), stereotype);
+		List<Exclusion> exclusions = new ArrayList<Exclusion>();
+		for (org.apache.maven.model.Exclusion exclusion : dependency.getExclusions()) {
+			exclusions.add(new Exclusion(exclusion.getGroupId(), exclusion.getArtifactId(), "*", "*"));
+		}
+		return new Dependency(artifact, dependency.getScope(), dependency.isOptional(), exclusions);
+	}
+
+	private static DependencyGraphNode toGraphNode(DependencyNode node) {
+		Artifact artifact = node.getArtifact();
+		Dependency dependency = node.getDependency();
+		DependencyGraphNode graphNode = new DependencyGraphNode(artifact.getGroupId(), artifact.getArtifactId(),
+				artifact.getExtension(), artifact.getClassifier(), artifact.getVersion(),
+				dependency != null ? dependency.getScope() : null, dependency != null && dependency.isOptional(),
+				artifact.getFile() != null ? artifact.getFile().getAbsolutePath() : null);
+		for (DependencyNode child : node.getChildren()) {
+			graphNode.addChild(toGraphNode(child));
+		}
+		return graphNode;
+	}
+
+	static String keyOf(CollectRequest request, String root) {
+		StringBuilder key = new StringBuilder(root).append('\n');
+		if (request.getRoot() != null) {
+			key.append(request.getRoot()).append('\n');
+		}
+		for (Dependency dependency : request.getDependencies()) {
+			key.append(dependency).append(dependency.getExclusions()).append('\n');
+		}
+		key.append("--\n");
+		for (Dependency dependency : request.getManagedDependencies()) {
+			key.append(dependency).append(dependency.getExclusions()).append('\n');
+		}
+		key.append("--\n");
+		for (RemoteRepository repository : request.getRepositories()) {
+			key.append(repository.getUrl()).append('\n');
+		}
+		try {
+			return Hex.encode(MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @return {@code false} if any dependency below the root was asked for by a version range or
+	 *         resolved to a snapshot, either may resolve differently tomorrow
+	 */
+	private static boolean isCacheable(DependencyNode root) {
+		for (DependencyNode node : root.getChildren()) {
+			VersionConstraint constraint = node.getVersionConstraint();
+			if (constraint != null && constraint.getRange() != null) {
+				return false;
+			}
+			if (node.getArtifact().isSnapshot() || !isCacheable(node)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private File cacheFile(String key) {
+		if (!properties.getResolver().isCacheEnabled()) {
+			return null;
+		}
+		String directory = properties.getResolver().getCacheDirectory();
+		File root = StringUtils.hasText(directory) ? new File(directory)
+				: new File(properties.resolveLocalRepository().getParentFile(), "invoker-resolution-cache");
+		return new File(new File(root, key.substring(0, 2)), key + ".graph");
+	}
+
+	private static DependencyGraph readCache(File cacheFile) {
+		if (cacheFile == null || !cacheFile.isFile()) {
+			return null;
+		}
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile.toPath())))) {
+			if (input.readInt() != MAGIC || input.readInt() != FORMAT) {
+				return null;
+			}
+			DependencyGraph graph = new DependencyGraph(input.readUTF(), readNodes(input));
+			for (DependencyGraphNode node : graph.getDependencies()) {
+				if (node.getFile() == null || !new File(node.getFile()).isFile()) {
+					return null;
+				}
+			}
+			graph.setCached(true);
+			return graph;
+		} catch (IOException e) {
+			LOG.debug("Ignoring unreadable resolution cache entry {}", cacheFile, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the nodes written by {@link #writeNode} without recursing, however deep the graph.
+	 */
+	private static DependencyGraphNode readNodes(DataInput input) throws IOException {
+		Deque<DependencyGraphNode> parents = new ArrayDeque<DependencyGraphNode>();
+		Deque<Integer> remaining = new ArrayDeque<Integer>();
+		DependencyGraphNode root = null;
+		do {
+			DependencyGraphNode node = new DependencyGraphNode(input.readUTF(), input.readUTF(), input.readUTF(),
+					input.readUTF(), input.readUTF(), input.readUTF(), input.readBoolean(),
+					input.readBoolean() ? input.readUTF() : null);
+			int children = input.readInt();
+			if (children < 0) {
+				throw new IOException("Negative child count");
+			}
+			if (root == null) {
+				root = node;
+			} else {
+				parents.peek().addChild(node);
+				remaining.push(remaining.pop() - 1);
+			}
+			parents.push(node);
+			remaining.push(children);
+			while (!remaining.isEmpty() && remaining.peek() == 0) {
+				parents.pop();
+				remaining.pop();
+			}
+		} while (!remaining.isEmpty());
+		return root;
+	}
+
+	/**
+	 * Writes a node and, depth first, its descendants: groupId, artifactId, extension, classifier,
+	 * version and scope as modified UTF-8, the optional flag, a flag followed by the file if it is
+	 * known, and the number of children.
+	 */
+	private static void writeNode(DataOutput output, DependencyGraphNode node) throws IOException {
+		output.writeUTF(node.getGroupId());
+		output.writeUTF(node.getArtifactId());
+		output.writeUTF(node.getExtension());
+		output.writeUTF(node.getClassifier());
+		output.writeUTF(node.getVersion());
+		output.writeUTF(node.getScope());
+		output.writeBoolean(node.isOptional());
+		output.writeBoolean(node.getFile() != null);
+		if (node.getFile() != null) {
+			output.writeUTF(node.getFile());
+		}
+		output.writeInt(node.getChildren().size());
+		for (DependencyGraphNode child : node.getChildren()) {
+			writeNode(output, child);
+		}
+	}
+
+	/**
+	 * An entry is a magic number, the format version, the key and the nodes, see {@link #writeNode}.
+	 */
+	private static void writeCache(File cacheFile, DependencyGraph graph) {
+		try {
+			Files.createDirectories(cacheFile.getParentFile().toPath());
+			File temp = File.createTempFile(graph.getKey(), ".tmp", cacheFile.getParentFile());
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT);
+				output.writeUTF(graph.getKey());
+				writeNode(output, graph.getRoot());
+			}
+			Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			LOG.debug("Unable to write resolution cache entry {}", cacheFile, e);
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.retry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Retry;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.event.BuildEvent;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Status;
+import org.apache.maven.spring.boot.ext.event.BuildEventListener;
+import org.apache.maven.spring.boot.ext.event.BuildEventParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+
+/**
+ * Re-runs builds whose failure the {@link TransientFailureClassifier} deems transient, with an
+ * exponential backoff. Re-runs resume the reactor ({@code -rf}) at the module that failed, as
+ * suggested by Maven's own "resume the build" hint, so modules that already succeeded are not
+ * built again. Running outside admission control, a build waiting for its re-run holds no fork slot.
+ * <p>
+ * Builds with failing tests are never re-run: the error lines of a test report carry whatever the
+ * tests printed, a "Connection refused" of an integration test is no reason to build again.
+ * <p>
+ * Requests without an output handler are passed through, their output cannot be read.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RetryInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	private static final Logger LOG = LoggerFactory.getLogger(RetryInterceptor.class);
+	private static final Pattern RESUME_FROM = Pattern.compile("\\s-rf (\\S+)");
+	private static final String TEST_FAILURES = "There are test failures";
+
+	public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 50;
+
+	private final Retry retry;
+	private final TransientFailureClassifier classifier;
+
+	public RetryInterceptor(Retry retry, TransientFailureClassifier classifier) {
+		this.retry = retry;
+		this.classifier = classifier;
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		InvocationOutputHandler output = request.getOutputHandler(null);
+		InvocationOutputHandler error = request.getErrorHandler(null);
+		if (output == null) {
+			return chain.proceed(request);
+		}
+		String resumeFrom = request.getResumeFrom();
+		try {
+			for (int attempt = 0;; attempt++) {
+				Failure failure = new Failure();
+				BuildEventParser parser = new BuildEventParser(failure);
+				request.setOutputHandler(line -> {
+					parser.consumeLine(line);
+					output.consumeLine(line);
+				});
+				if (error != null) {
+					request.setErrorHandler(line -> {
+						parser.consumeLine(line);
+						error.consumeLine(line);
+					});
+				}
+
+				InvocationResult result = chain.proceed(request);
+				if (result.getExitCode() == 0 || result.getExecutionException() != null
+						|| attempt >= retry.getMaxRetries() || !failure.isTransient()) {
+					return result;
+				}
+				long backoff = backoffMillis(attempt);
+				String module = retry.isResume() ? failure.getResumeFrom() : null;
+				LOG.warn("Maven build in {} failed for a transient reason ({}), retrying in {} ms{}",
+						request.getBaseDirectory(), failure.getCause(), backoff, module == null ? "" : " from " + module);
+				Thread.sleep(backoff);
+				if (module != null) {
+					request.setResumeFrom(module);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MavenInvocationException("Interrupted while waiting to retry a Maven build", e);
+		} finally {
+			request.setOutputHandler(output);
+			request.setErrorHandler(error);
+			request.setResumeFrom(resumeFrom);
+		}
+	}
+
+	/**
+	 * @param attempt the attempt that failed, {@code 0} for the first run
+	 * @return the pause before the next attempt
+	 */
+	public long backoffMillis(int attempt) {
+		double backoff = retry.getBackoff().toMillis() * Math.pow(Math.max(1.0, retry.getMultiplier()), attempt);
+		return (long) Math.min(backoff, retry.getMaxBackoff().toMillis());
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	/**
+	 * What the output tells about the failure: whether it is transient and where to resume.
+	 */
+	class Failure implements BuildEventListener {
+
+		private final Map<String, String> artifactIds = new HashMap<String, String>();
+		private String cause;
+		private String resumeFrom;
+		private String failedModule;
+		private boolean testFailures;
+
+		@Override
+		public void onEvent(BuildEvent event) {
+			switch (event.getType()) {
+			case MODULE_STARTED:
+				if (event.getArtifactId() != null) {
+					artifactIds.put(event.getModule(), event.getArtifactId());
+				}
+				break;
+			case MODULE_FINISHED:
+				if (failedModule == null && event.getStatus() == Status.FAILURE) {
+					failedModule = artifactIds.get(event.getModule());
+				}
+				break;
+			case TESTS:
+				testFailures |= event.getFailures() > 0 || event.getErrors() > 0;
+				break;
+			case ERROR:
+				testFailures |= event.getMessage().contains(TEST_FAILURES);
+				if (cause == null && classifier.isTransient(event.getMessage())) {
+					cause = event.getMessage().trim();
+				}
+				Matcher matcher = RESUME_FROM.matcher(event.getMessage());
+				if (matcher.find()) {
+					resumeFrom = matcher.group(1);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		boolean isTransient() {
+			return cause != null && !testFailures;
+		}
+
+		String getCause() {
+			return cause;
+		}
+
+		/**
+		 * @return the {@code -rf} Maven suggested, or else the first failed module, {@code null} if neither is known
+		 */
+		String getResumeFrom() {
+			if (resumeFrom != null) {
+				return resumeFrom;
+			}
+			return failedModule != null ? ":" + failedModule : null;
+		}
+
+	}
+
+}
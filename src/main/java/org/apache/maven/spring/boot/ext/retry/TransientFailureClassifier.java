@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Tells transient failures (network, repository manager hiccups) from those a re-run would only
+ * repeat, by looking for known patterns in the error lines of a build. Lines that also match a
+ * permanent pattern, a 4xx status of the repository manager for instance, are not transient.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TransientFailureClassifier {
+
+	private final List<Pattern> patterns;
+	private final List<Pattern> permanentPatterns;
+
+	/**
+	 * @param patterns          regular expressions, one of which an error line must contain
+	 * @param permanentPatterns regular expressions, none of which an error line may contain
+	 */
+	public TransientFailureClassifier(List<String> patterns, List<String> permanentPatterns) {
+		this.patterns = compile(patterns);
+		this.permanentPatterns = compile(permanentPatterns);
+	}
+
+	private static List<Pattern> compile(List<String> patterns) {
+		List<Pattern> compiled = new ArrayList<Pattern>();
+		if (patterns != null) {
+			for (String pattern : patterns) {
+				compiled.add(Pattern.compile(pattern));
+			}
+		}
+		return compiled;
+	}
+
+	/**
+	 * @param errorLine an {@code [ERROR]} line of the build output, without its prefix
+	 * @return {@code true} if the line points at a transient cause
+	 */
+	public boolean isTransient(String errorLine) {
+		return matches(patterns, errorLine) && !matches(permanentPatterns, errorLine);
+	}
+
+	private static boolean matches(List<Pattern> patterns, String line) {
+		for (Pattern pattern : patterns) {
+			if (pattern.matcher(line).find()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
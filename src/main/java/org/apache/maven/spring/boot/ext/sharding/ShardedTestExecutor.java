@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.sharding;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Runs the tests of a single-module project in several concurrent surefire forks. The project is
+ * compiled once ({@code test-compile}), then each {@link TestShard} runs {@code surefire:test}
+ * with a {@code -Dtest} filter against the compiled classes. All shards write to the usual
+ * {@code target/surefire-reports}, every class to its own file, which together form the merged
+ * report; the durations found there balance the next run.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ShardedTestExecutor {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ShardedTestExecutor.class);
+
+	/**
+	 * Forks Maven in the project directory.
+	 */
+	@FunctionalInterface
+	public interface Fork {
+
+		InvocationResult execute(List<String> goals) throws MavenInvocationException;
+
+	}
+
+	private final TestDurationStore durations;
+
+	public ShardedTestExecutor(TestDurationStore durations) {
+		this.durations = durations;
+	}
+
+	public ShardedTestResult execute(File basedir, int shards, Fork fork) throws MavenInvocationException {
+		List<String> classes;
+		Map<String, Long> known;
+		try {
+			classes = TestShardPlanner.discover(new File(basedir, "src/test/java").toPath());
+			known = durations.load(basedir);
+		} catch (IOException e) {
+			throw new MavenInvocationException("Unable to plan the test shards of " + basedir, e);
+		}
+
+		ShardedTestResult result = new ShardedTestResult(fork.execute(Arrays.asList("test-compile")));
+		if (result.getCompile().getExitCode() != 0 || classes.isEmpty()) {
+			return result;
+		}
+		File reports = new File(basedir, "target" + File.separator + "surefire-reports");
+		FileSystemUtils.deleteRecursively(reports);
+
+		List<TestShard> plan = TestShardPlanner.plan(classes, known, shards);
+		LOG.debug("Running the tests of {} in {}", basedir, plan);
+		long start = System.nanoTime();
+		ExecutorService executor = Executors.newFixedThreadPool(plan.size());
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>(plan.size());
+			for (TestShard shard : plan) {
+				futures.add(executor.submit(() -> {
+					result.add(shard, fork.execute(Arrays.asList("surefire:test", "-Dtest=" + shard.testFilter(),
+							"-DfailIfNoTests=false", "-Dsurefire.failIfNoSpecifiedTests=false")));
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof MavenInvocationException) {
+				throw (MavenInvocationException) cause;
+			}
+			throw new MavenInvocationException("Test shard failed: " + cause.getMessage(), cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MavenInvocationException("Interrupted while waiting for test shards", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		result.setWallMillis((System.nanoTime() - start) / 1000000);
+
+		try {
+			Map<String, TestClassReport> classReports = TestClassReport.readAll(reports);
+			result.setReports(classReports);
+			Map<String, Long> measured = new HashMap<String, Long>();
+			for (TestClassReport report : classReports.values()) {
+				measured.put(report.getName(), report.getMillis());
+			}
+			durations.record(basedir, measured);
+		} catch (IOException e) {
+			LOG.warn("Unable to read or record the test reports of {}", basedir, e);
+		}
+		return result;
+	}
+
+}
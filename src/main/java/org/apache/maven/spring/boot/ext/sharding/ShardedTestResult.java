@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.sharding;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+
+/**
+ * The merged outcome of a sharded test run: the compile fork, every shard's fork and the test
+ * reports of all shards. The exit code is the first non-zero one of any fork.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ShardedTestResult implements InvocationResult {
+
+	private final InvocationResult compile;
+	private final Map<TestShard, InvocationResult> shards = new LinkedHashMap<TestShard, InvocationResult>();
+	private final Map<String, TestClassReport> reports = new LinkedHashMap<String, TestClassReport>();
+	private long wallMillis;
+
+	ShardedTestResult(InvocationResult compile) {
+		this.compile = compile;
+	}
+
+	synchronized void add(TestShard shard, InvocationResult result) {
+		shards.put(shard, result);
+	}
+
+	void setReports(Map<String, TestClassReport> reports) {
+		this.reports.putAll(reports);
+	}
+
+	void setWallMillis(long wallMillis) {
+		this.wallMillis = wallMillis;
+	}
+
+	public InvocationResult getCompile() {
+		return compile;
+	}
+
+	public synchronized Map<TestShard, InvocationResult> getShards() {
+		return Collections.unmodifiableMap(new LinkedHashMap<TestShard, InvocationResult>(shards));
+	}
+
+	/**
+	 * @return the report of every test class that ran, by class
+	 */
+	public Map<String, TestClassReport> getReports() {
+		return Collections.unmodifiableMap(reports);
+	}
+
+	public int getTests() {
+		return reports.values().stream().mapToInt(TestClassReport::getTests).sum();
+	}
+
+	public int getFailures() {
+		return reports.values().stream().mapToInt(TestClassReport::getFailures).sum();
+	}
+
+	public int getErrors() {
+		return reports.values().stream().mapToInt(TestClassReport::getErrors).sum();
+	}
+
+	public int getSkipped() {
+		return reports.values().stream().mapToInt(TestClassReport::getSkipped).sum();
+	}
+
+	/**
+	 * @return the time the test classes took in total, what a single fork would roughly need
+	 */
+	public long getTestMillis() {
+		return reports.values().stream().mapToLong(TestClassReport::getMillis).sum();
+	}
+
+	/**
+	 * @return the time from the first shard's start to the last shard's end
+	 */
+	public long getWallMillis() {
+		return wallMillis;
+	}
+
+	@Override
+	public synchronized CommandLineException getExecutionException() {
+		if (compile.getExecutionException() != null) {
+			return compile.getExecutionException();
+		}
+		for (InvocationResult result : shards.values()) {
+			if (result.getExecutionException() != null) {
+				return result.getExecutionException();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public synchronized int getExitCode() {
+		if (compile.getExitCode() != 0) {
+			return compile.getExitCode();
+		}
+		for (InvocationResult result : shards.values()) {
+			if (result.getExitCode() != 0) {
+				return result.getExitCode();
+			}
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.sharding;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The outcome of one test class, read from the {@code <testsuite>} element of its surefire XML report.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TestClassReport {
+
+	private static final XMLInputFactory XML = XMLInputFactory.newInstance();
+
+	private final String name;
+	private final int tests;
+	private final int failures;
+	private final int errors;
+	private final int skipped;
+	private final long millis;
+
+	TestClassReport(String name, int tests, int failures, int errors, int skipped, long millis) {
+		this.name = name;
+		this.tests = tests;
+		this.failures = failures;
+		this.errors = errors;
+		this.skipped = skipped;
+		this.millis = millis;
+	}
+
+	/**
+	 * Read the {@code TEST-*.xml} reports of a directory.
+	 *
+	 * @return the reports by test class
+	 */
+	public static Map<String, TestClassReport> readAll(File reportsDirectory) throws IOException {
+		Map<String, TestClassReport> reports = new LinkedHashMap<String, TestClassReport>();
+		File[] files = reportsDirectory.listFiles((dir, name) -> name.startsWith("TEST-") && name.endsWith(".xml"));
+		if (files == null) {
+			return reports;
+		}
+		for (File file : files) {
+			TestClassReport report = read(file);
+			if (report != null) {
+				reports.put(report.getName(), report);
+			}
+		}
+		return reports;
+	}
+
+	static TestClassReport read(File file) throws IOException {
+		try (InputStream input = Files.newInputStream(file.toPath())) {
+			XMLStreamReader reader = XML.createXMLStreamReader(input);
+			try {
+				while (reader.hasNext()) {
+					if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+						if (!"testsuite".equals(reader.getLocalName())) {
+							return null;
+						}
+						// the root element is all we need, the test cases are not read
+						return new TestClassReport(reader.getAttributeValue(null, "name"), count(reader, "tests"),
+								count(reader, "failures"), count(reader, "errors"), count(reader, "skipped"),
+								Math.round(seconds(reader.getAttributeValue(null, "time")) * 1000));
+					}
+				}
+				return null;
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException("Unable to read the test report " + file, e);
+		}
+	}
+
+	private static int count(XMLStreamReader reader, String attribute) {
+		String value = reader.getAttributeValue(null, attribute);
+		return value == null || value.isEmpty() ? 0 : Integer.parseInt(value.trim());
+	}
+
+	/**
+	 * surefire writes times like {@code 1,234.5} in some locales.
+	 */
+	private static double seconds(String value) {
+		return value == null || value.isEmpty() ? 0 : Double.parseDouble(value.replace(",", ""));
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getTests() {
+		return tests;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	public int getErrors() {
+		return errors;
+	}
+
+	public int getSkipped() {
+		return skipped;
+	}
+
+	public long getMillis() {
+		return millis;
+	}
+
+}
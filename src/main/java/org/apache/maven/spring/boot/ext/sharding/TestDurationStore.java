@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.sharding;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The last known duration of each test class, one properties file per project.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TestDurationStore {
+
+	private final File directory;
+
+	public TestDurationStore(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * @return the durations in milliseconds by test class, empty for a project never run sharded
+	 */
+	public synchronized Map<String, Long> load(File basedir) throws IOException {
+		Map<String, Long> durations = new HashMap<String, Long>();
+		File file = fileOf(basedir);
+		if (!file.isFile()) {
+			return durations;
+		}
+		Properties properties = new Properties();
+		try (InputStream input = Files.newInputStream(file.toPath())) {
+			properties.load(input);
+		}
+		for (String name : properties.stringPropertyNames()) {
+			try {
+				durations.put(name, Long.parseLong(properties.getProperty(name)));
+			} catch (NumberFormatException e) {
+				// a damaged entry only costs balance
+			}
+		}
+		return durations;
+	}
+
+	/**
+	 * Merge new durations into the project's file, replacing older values of the same classes.
+	 */
+	public synchronized void record(File basedir, Map<String, Long> durations) throws IOException {
+		Map<String, Long> merged = load(basedir);
+		merged.putAll(durations);
+		Properties properties = new Properties();
+		for (Map.Entry<String, Long> entry : merged.entrySet()) {
+			properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+		}
+		File file = fileOf(basedir);
+		Files.createDirectories(directory.toPath());
+		File temp = new File(directory, file.getName() + ".tmp");
+		try (OutputStream output = Files.newOutputStream(temp.toPath())) {
+			properties.store(output, basedir.getCanonicalPath());
+		}
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private File fileOf(File basedir) throws IOException {
+		File canonical = basedir.getCanonicalFile();
+		return new File(directory, canonical.getName().replaceAll("[^\\w.-]", "_") + '-'
+				+ Integer.toHexString(canonical.getPath().hashCode()) + ".properties");
+	}
+
+}
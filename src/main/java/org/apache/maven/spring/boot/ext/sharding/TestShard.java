@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The test classes one surefire fork runs.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TestShard {
+
+	private final int index;
+	private final List<String> classes = new ArrayList<String>();
+	private long estimatedMillis;
+
+	TestShard(int index) {
+		this.index = index;
+	}
+
+	void add(String testClass, long millis) {
+		classes.add(testClass);
+		estimatedMillis += millis;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the fully qualified names of the test classes
+	 */
+	public List<String> getClasses() {
+		return Collections.unmodifiableList(classes);
+	}
+
+	/**
+	 * @return the sum of the recorded (or assumed) durations of the classes
+	 */
+	public long getEstimatedMillis() {
+		return estimatedMillis;
+	}
+
+	/**
+	 * @return the value of surefire's {@code -Dtest}
+	 */
+	public String testFilter() {
+		return String.join(",", classes);
+	}
+
+	@Override
+	public String toString() {
+		return "shard " + index + " (" + classes.size() + " classes, ~" + estimatedMillis + " ms)";
+	}
+
+}
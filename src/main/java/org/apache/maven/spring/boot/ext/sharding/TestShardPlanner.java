@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.sharding;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds the test classes of a project and spreads them over shards of about equal duration,
+ * using the longest-processing-time-first heuristic: classes are dealt out slowest first, each to
+ * the shard with the least work so far. Classes without a recorded duration count as the median
+ * of the known ones.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TestShardPlanner {
+
+	/**
+	 * surefire's default includes: {@code **}{@code /Test*.java}, {@code *Test.java}, {@code *Tests.java}, {@code *TestCase.java}
+	 */
+	private static final Pattern TEST_CLASS = Pattern.compile("^(Test\\w*|\\w*Test|\\w*Tests|\\w*TestCase)\\.java$");
+	private static final Pattern ABSTRACT_CLASS = Pattern.compile("\\babstract\\s+class\\s+");
+	private static final long UNKNOWN_MILLIS = 1000;
+
+	/**
+	 * @param testSourceDirectory the test sources, {@code src/test/java}
+	 * @return the fully qualified names of the concrete test classes, sorted
+	 */
+	public static List<String> discover(Path testSourceDirectory) throws IOException {
+		if (!Files.isDirectory(testSourceDirectory)) {
+			return new ArrayList<String>();
+		}
+		try (Stream<Path> files = Files.walk(testSourceDirectory)) {
+			List<String> classes = new ArrayList<String>();
+			for (Path file : files.filter(path -> TEST_CLASS.matcher(path.getFileName().toString()).matches())
+					.collect(Collectors.toList())) {
+				String source = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+				if (ABSTRACT_CLASS.matcher(source).find()) {
+					continue;
+				}
+				String name = testSourceDirectory.relativize(file).toString();
+				classes.add(name.substring(0, name.length() - ".java".length()).replace(file.getFileSystem().getSeparator(), "."));
+			}
+			classes.sort(null);
+			return classes;
+		}
+	}
+
+	/**
+	 * @param classes   the test classes
+	 * @param durations recorded durations in milliseconds by class
+	 * @param shards    the number of shards wanted
+	 * @return at most {@code shards} non-empty shards
+	 */
+	public static List<TestShard> plan(Collection<String> classes, Map<String, Long> durations, int shards) {
+		long unknown = median(durations.values());
+		List<String> ordered = new ArrayList<String>(classes);
+		ordered.sort(Comparator.<String>comparingLong(name -> durations.getOrDefault(name, unknown)).reversed()
+				.thenComparing(Comparator.naturalOrder()));
+
+		PriorityQueue<TestShard> lightest = new PriorityQueue<TestShard>(
+				Comparator.comparingLong(TestShard::getEstimatedMillis).thenComparingInt(TestShard::getIndex));
+		for (int i = 0; i < Math.max(1, Math.min(shards, ordered.size())); i++) {
+			lightest.add(new TestShard(i));
+		}
+		for (String name : ordered) {
+			TestShard shard = lightest.poll();
+			shard.add(name, durations.getOrDefault(name, unknown));
+			lightest.add(shard);
+		}
+		List<TestShard> plan = new ArrayList<TestShard>();
+		for (TestShard shard : lightest) {
+			if (!shard.getClasses().isEmpty()) {
+				plan.add(shard);
+			}
+		}
+		plan.sort(Comparator.comparingInt(TestShard::getIndex));
+		return plan;
+	}
+
+	private static long median(Collection<Long> values) {
+		if (values.isEmpty()) {
+			return UNKNOWN_MILLIS;
+		}
+		List<Long> sorted = new ArrayList<Long>(values);
+		sorted.sort(null);
+		return Math.max(1, sorted.get(sorted.size() / 2));
+	}
+
+}
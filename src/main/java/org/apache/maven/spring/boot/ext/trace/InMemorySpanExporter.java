@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps ended spans in memory, for tests and diagnostics.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+	private final List<InvocationSpan> spans = new ArrayList<InvocationSpan>();
+
+	@Override
+	public synchronized void export(InvocationSpan span) {
+		spans.add(span);
+	}
+
+	/**
+	 * @return the ended spans, in the order they ended
+	 */
+	public synchronized List<InvocationSpan> getFinishedSpans() {
+		return new ArrayList<InvocationSpan>(spans);
+	}
+
+	public synchronized void reset() {
+		spans.clear();
+	}
+
+}
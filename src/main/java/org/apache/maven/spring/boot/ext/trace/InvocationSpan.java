@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.maven.spring.boot.ext.Hex;
+
+/**
+ * A timed operation of a trace, identified like a W3C Trace Context span: a 16 byte trace id
+ * shared by the whole trace and an 8 byte span id. Spans are handed to the tracer's
+ * {@link SpanExporter}s when they {@link #end()}.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InvocationSpan {
+
+	private final InvocationTracer tracer;
+	private final String traceId;
+	private final String spanId;
+	private final InvocationSpan parent;
+	private final String name;
+	private final long startEpochMillis;
+	private final long startNanos;
+	private final Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+	private volatile long durationNanos = -1;
+	private volatile long lastChildEndNanos;
+	private volatile boolean error;
+
+	InvocationSpan(InvocationTracer tracer, String name, InvocationSpan parent) {
+		this.tracer = tracer;
+		this.name = name;
+		this.traceId = parent != null ? parent.traceId : randomHex(16);
+		this.spanId = randomHex(8);
+		this.parent = parent;
+		this.startEpochMillis = System.currentTimeMillis();
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Start a span nested in this one.
+	 */
+	public InvocationSpan child(String name) {
+		return new InvocationSpan(tracer, name, this);
+	}
+
+	public InvocationSpan setAttribute(String key, Object value) {
+		if (value != null) {
+			synchronized (attributes) {
+				attributes.put(key, value);
+			}
+		}
+		return this;
+	}
+
+	public InvocationSpan setError(boolean error) {
+		this.error = error;
+		return this;
+	}
+
+	/**
+	 * End the span and export it, later calls do nothing.
+	 */
+	public void end() {
+		synchronized (this) {
+			if (durationNanos >= 0) {
+				return;
+			}
+			durationNanos = System.nanoTime() - startNanos;
+		}
+		if (parent != null) {
+			parent.lastChildEndNanos = startNanos + durationNanos;
+		}
+		tracer.export(this);
+	}
+
+	/**
+	 * @return the value of a W3C {@code traceparent} header naming this span as the parent
+	 */
+	public String traceparent() {
+		return "00-" + traceId + "-" + spanId + "-01";
+	}
+
+	/**
+	 * @return the nanoseconds since this span started
+	 */
+	public long elapsedNanos() {
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * @return the nanoseconds since this span started or, if one of its children has ended since,
+	 *         since the last child ended
+	 */
+	public long idleNanos() {
+		long since = lastChildEndNanos;
+		return System.nanoTime() - (since != 0 && since - startNanos > 0 ? since : startNanos);
+	}
+
+	public String getTraceId() {
+		return traceId;
+	}
+
+	public String getSpanId() {
+		return spanId;
+	}
+
+	/**
+	 * @return the parent's span id, {@code null} for the root of a trace
+	 */
+	public String getParentSpanId() {
+		return parent != null ? parent.spanId : null;
+	}
+
+	InvocationSpan getParent() {
+		return parent;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getStartEpochMillis() {
+		return startEpochMillis;
+	}
+
+	/**
+	 * @return the duration, {@code -1} while the span has not ended
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	public boolean isEnded() {
+		return durationNanos >= 0;
+	}
+
+	public boolean isError() {
+		return error;
+	}
+
+	public Map<String, Object> getAttributes() {
+		synchronized (attributes) {
+			return Collections.unmodifiableMap(new LinkedHashMap<String, Object>(attributes));
+		}
+	}
+
+	public Object getAttribute(String key) {
+		synchronized (attributes) {
+			return attributes.get(key);
+		}
+	}
+
+	private static String randomHex(int bytes) {
+		byte[] random = new byte[bytes];
+		ThreadLocalRandom.current().nextBytes(random);
+		return Hex.encode(random);
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + traceparent();
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts the spans of {@code MavenInvokerTemplate} operations and keeps the one running on each
+ * thread, so that forks, nested operations and output derived spans find their parent.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InvocationTracer {
+
+	private static final Logger LOG = LoggerFactory.getLogger(InvocationTracer.class);
+
+	private final ThreadLocal<InvocationSpan> current = new ThreadLocal<InvocationSpan>();
+	private final List<SpanExporter> exporters;
+
+	public InvocationTracer(List<SpanExporter> exporters) {
+		this.exporters = new ArrayList<SpanExporter>(exporters);
+	}
+
+	/**
+	 * Start a span as a child of the current one and make it current until it is {@link #finish finished}.
+	 */
+	public InvocationSpan start(String name) {
+		InvocationSpan parent = current.get();
+		InvocationSpan span = new InvocationSpan(this, name, parent);
+		current.set(span);
+		return span;
+	}
+
+	/**
+	 * End a span started with {@link #start(String)} and make its parent current again.
+	 */
+	public void finish(InvocationSpan span) {
+		span.end();
+		if (current.get() == span) {
+			if (span.getParent() != null) {
+				current.set(span.getParent());
+			} else {
+				current.remove();
+			}
+		}
+	}
+
+	/**
+	 * @return the span running on this thread, or {@code null}
+	 */
+	public InvocationSpan current() {
+		return current.get();
+	}
+
+	void export(InvocationSpan span) {
+		for (SpanExporter exporter : exporters) {
+			try {
+				exporter.export(span);
+			} catch (RuntimeException e) {
+				LOG.warn("Span exporter {} failed", exporter, e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.trace;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.shared.invoker.InvocationOutputHandler;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvocationChain;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.event.BuildEvent;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Status;
+import org.apache.maven.spring.boot.ext.event.BuildEventListener;
+import org.apache.maven.spring.boot.ext.event.BuildEventParser;
+import org.springframework.core.Ordered;
+
+/**
+ * Traces the fork itself. Running last, right before Maven starts, it opens a {@code maven fork}
+ * span below the current operation, one per fork, as retries and fallbacks fork more than once.
+ * The span records how long the fork queued in the interceptors before it (since the operation
+ * started or its previous fork ended) and the fork's exit code, passes the trace to the forked JVM
+ * in the {@code TRACEPARENT} environment variable (read by the OpenTelemetry Maven extension), and
+ * derives a child span for every reactor module and, below it, every mojo execution from the output.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TracingInterceptor implements MavenInvocationInterceptor, Ordered {
+
+	/**
+	 * Runs after the CDS archive interceptor, so the fork span covers the request as it is forked.
+	 */
+	public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 50;
+
+	public static final String TRACEPARENT = "TRACEPARENT";
+
+	private final InvocationTracer tracer;
+
+	public TracingInterceptor(InvocationTracer tracer) {
+		this.tracer = tracer;
+	}
+
+	@Override
+	public InvocationResult intercept(InvocationRequest request, MavenInvocationChain chain)
+			throws MavenInvocationException {
+		InvocationSpan operation = tracer.current();
+		long queueWait = operation != null ? operation.idleNanos() : 0;
+		InvocationSpan span = tracer.start("maven fork");
+		span.setAttribute("maven.queue_wait_ms", TimeUnit.NANOSECONDS.toMillis(queueWait));
+		span.setAttribute("maven.goals", request.getGoals() == null ? null : String.join(" ", request.getGoals()));
+		span.setAttribute("maven.basedir", request.getBaseDirectory() == null ? null : request.getBaseDirectory().getPath());
+		request.addShellEnvironment(TRACEPARENT, span.traceparent());
+
+		OutputSpans spans = new OutputSpans(span);
+		BuildEventParser parser = new BuildEventParser(spans);
+		InvocationOutputHandler output = request.getOutputHandler(null);
+		if (output != null) {
+			request.setOutputHandler(line -> {
+				parser.consumeLine(line);
+				output.consumeLine(line);
+			});
+		}
+		try {
+			InvocationResult result = chain.proceed(request);
+			span.setAttribute("maven.exit_code", result.getExitCode());
+			span.setError(result.getExitCode() != 0);
+			return result;
+		} catch (MavenInvocationException | RuntimeException e) {
+			span.setError(true);
+			throw e;
+		} finally {
+			if (output != null) {
+				request.setOutputHandler(output);
+			}
+			spans.endAll();
+			tracer.finish(span);
+		}
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	/**
+	 * Opens and closes module and mojo spans on build events.
+	 */
+	static class OutputSpans implements BuildEventListener {
+
+		private final InvocationSpan parent;
+		private final Map<String, InvocationSpan> modulesByName = new LinkedHashMap<String, InvocationSpan>();
+		private final Map<String, InvocationSpan> modulesByArtifactId = new LinkedHashMap<String, InvocationSpan>();
+		private final Map<String, InvocationSpan> mojos = new LinkedHashMap<String, InvocationSpan>();
+
+		OutputSpans(InvocationSpan parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		public synchronized void onEvent(BuildEvent event) {
+			switch (event.getType()) {
+			case MODULE_STARTED:
+				InvocationSpan module = parent.child("maven module " + event.getModule())
+						.setAttribute("maven.module", event.getModule())
+						.setAttribute("maven.artifact_id", event.getArtifactId());
+				modulesByName.put(event.getModule(), module);
+				if (event.getArtifactId() != null) {
+					modulesByArtifactId.put(event.getArtifactId(), module);
+				}
+				break;
+			case MODULE_FINISHED:
+				InvocationSpan finished = modulesByName.remove(event.getModule());
+				if (finished != null) {
+					modulesByArtifactId.values().remove(finished);
+					finished.setAttribute("maven.status", event.getStatus());
+					finished.setError(event.getStatus() == Status.FAILURE);
+					finished.end();
+				}
+				break;
+			case MOJO_STARTED:
+				InvocationSpan owner = modulesByArtifactId.get(event.getArtifactId());
+				mojos.put(event.getArtifactId(), (owner != null ? owner : parent).child("maven mojo " + event.getMojo())
+						.setAttribute("maven.mojo", event.getMojo()).setAttribute("maven.artifact_id", event.getArtifactId()));
+				break;
+			case MOJO_FINISHED:
+				InvocationSpan mojo = mojos.remove(event.getArtifactId());
+				if (mojo != null) {
+					mojo.end();
+				}
+				break;
+			default:
+				break;
+			}
+		}
+
+		synchronized void endAll() {
+			for (Iterator<InvocationSpan> iterator = mojos.values().iterator(); iterator.hasNext();) {
+				iterator.next().end();
+				iterator.remove();
+			}
+			for (Iterator<InvocationSpan> iterator = modulesByName.values().iterator(); iterator.hasNext();) {
+				iterator.next().end();
+				iterator.remove();
+			}
+			modulesByArtifactId.clear();
+		}
+
+	}
+
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.workflow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.springframework.util.Assert;
+
+/**
+ * Runs items through a DAG of stages, pipelined: every stage has its own pool of
+ * {@code concurrency} threads, so while one item deploys the next one installs and the one
+ * after is parsed. A stage runs for an item once all the stages it comes after succeeded for
+ * that item; a failure skips the item's remaining stages and leaves the other items alone.
+ *
+ * <pre>
+ * Workflow&lt;MavenResource&gt; workflow = new Workflow.Builder&lt;MavenResource&gt;()
+ * 		.stage("install", 2, item -&gt; template.install(item.getPayload()))
+ * 		.stage("verify", 4, item -&gt; template.execute(verifier, "verify"), "install")
+ * 		.stage("deploy", 1, item -&gt; template.deploy(item.getPayload()), "verify")
+ * 		.build();
+ * WorkflowResult&lt;MavenResource&gt; result = workflow.execute(resources);
+ * </pre>
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class Workflow<T> {
+
+	private final List<Stage<T>> stages;
+	private final int maxInFlight;
+
+	private Workflow(List<Stage<T>> stages, int maxInFlight) {
+		this.stages = stages;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Run all items through the workflow and wait for them. Items are admitted as earlier ones
+	 * complete, so at most {@code maxInFlight} of them are held at once.
+	 */
+	public WorkflowResult<T> execute(Iterable<T> payloads) throws InterruptedException {
+		Map<String, ExecutorService> executors = new HashMap<String, ExecutorService>();
+		for (Stage<T> stage : stages) {
+			executors.put(stage.name, Executors.newFixedThreadPool(stage.concurrency, runnable -> {
+				Thread thread = new Thread(runnable, "maven-workflow-" + stage.name);
+				thread.setDaemon(true);
+				return thread;
+			}));
+		}
+		List<WorkflowItem<T>> items = new ArrayList<WorkflowItem<T>>();
+		List<CompletableFuture<Void>> completions = new ArrayList<CompletableFuture<Void>>();
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		try {
+			for (T payload : payloads) {
+				inFlight.acquire();
+				WorkflowItem<T> item = new WorkflowItem<T>(payload, items.size());
+				items.add(item);
+				CompletableFuture<Void> completion = submit(item, executors);
+				completion.whenComplete((result, failure) -> inFlight.release());
+				completions.add(completion);
+			}
+			for (CompletableFuture<Void> completion : completions) {
+				completion.handle((result, failure) -> null).join();
+			}
+		} finally {
+			for (ExecutorService executor : executors.values()) {
+				executor.shutdownNow();
+			}
+		}
+		return new WorkflowResult<T>(items);
+	}
+
+	private CompletableFuture<Void> submit(WorkflowItem<T> item, Map<String, ExecutorService> executors) {
+		Map<String, CompletableFuture<Void>> done = new HashMap<String, CompletableFuture<Void>>();
+		for (Stage<T> stage : stages) {
+			CompletableFuture<?>[] after = new CompletableFuture<?>[stage.after.size()];
+			for (int i = 0; i < after.length; i++) {
+				after[i] = done.get(stage.after.get(i));
+			}
+			CompletableFuture<Void> future = new CompletableFuture<Void>();
+			CompletableFuture.allOf(after).whenComplete((ready, failure) -> {
+				if (failure != null) {
+					item.skipped(stage.name);
+					future.completeExceptionally(failure);
+					return;
+				}
+				executors.get(stage.name).execute(() -> run(stage, item, future));
+			});
+			done.put(stage.name, future);
+		}
+		return CompletableFuture.allOf(done.values().toArray(new CompletableFuture<?>[0]));
+	}
+
+	private void run(Stage<T> stage, WorkflowItem<T> item, CompletableFuture<Void> future) {
+		try {
+			Object result = stage.step.apply(item);
+			if (result instanceof InvocationResult && ((InvocationResult) result).getExitCode() != 0) {
+				InvocationResult invocation = (InvocationResult) result;
+				throw new IllegalStateException("Maven exited with " + invocation.getExitCode(),
+						invocation.getExecutionException());
+			}
+			item.succeeded(stage.name, result);
+			future.complete(null);
+		} catch (Throwable e) {
+			item.failed(stage.name, e);
+			future.completeExceptionally(e);
+		}
+	}
+
+	/**
+	 * @return the stage names in execution order
+	 */
+	public List<String> getStages() {
+		List<String> names = new ArrayList<String>();
+		for (Stage<T> stage : stages) {
+			names.add(stage.name);
+		}
+		return names;
+	}
+
+	private static class Stage<T> {
+
+		private final String name;
+		private final int concurrency;
+		private final WorkflowStep<T> step;
+		private final List<String> after;
+
+		Stage(String name, int concurrency, WorkflowStep<T> step, List<String> after) {
+			this.name = name;
+			this.concurrency = concurrency;
+			this.step = step;
+			this.after = after;
+		}
+
+	}
+
+	public static class Builder<T> {
+
+		private final Map<String, Stage<T>> stages = new LinkedHashMap<String, Stage<T>>();
+		private int maxInFlight = 64;
+
+		public Builder() {
+		}
+
+		/**
+		 * @param name        the stage name, the key of its results
+		 * @param concurrency the number of items the stage works on at once
+		 * @param after       the stages that must succeed for an item before this one runs
+		 */
+		public Builder<T> stage(String name, int concurrency, WorkflowStep<T> step, String... after) {
+			Assert.hasText(name, "name must not be blank");
+			Assert.isTrue(concurrency > 0, "concurrency must be positive");
+			Assert.isTrue(!stages.containsKey(name), "Duplicate stage " + name);
+			stages.put(name, new Stage<T>(name, concurrency, step, Collections.unmodifiableList(Arrays.asList(after))));
+			return this;
+		}
+
+		/**
+		 * @param maxInFlight the number of items admitted before the first one completes
+		 */
+		public Builder<T> maxInFlight(int maxInFlight) {
+			Assert.isTrue(maxInFlight > 0, "maxInFlight must be positive");
+			this.maxInFlight = maxInFlight;
+			return this;
+		}
+
+		/**
+		 * @throws IllegalArgumentException if a stage comes after an unknown stage or the stages form a cycle
+		 */
+		public Workflow<T> build() {
+			List<Stage<T>> ordered = new ArrayList<Stage<T>>();
+			Map<String, Boolean> visiting = new HashMap<String, Boolean>();
+			for (Stage<T> stage : stages.values()) {
+				visit(stage, visiting, ordered);
+			}
+			return new Workflow<T>(ordered, maxInFlight);
+		}
+
+		private void visit(Stage<T> stage, Map<String, Boolean> visiting, List<Stage<T>> ordered) {
+			Boolean state = visiting.get(stage.name);
+			if (Boolean.FALSE.equals(state)) {
+				return;
+			}
+			if (Boolean.TRUE.equals(state)) {
+				throw new IllegalArgumentException("Workflow stages form a cycle through " + stage.name);
+			}
+			visiting.put(stage.name, Boolean.TRUE);
+			for (String after : stage.after) {
+				Stage<T> previous = stages.get(after);
+				if (previous == null) {
+					throw new IllegalArgumentException("Stage " + stage.name + " comes after unknown stage " + after);
+				}
+				visit(previous, visiting, ordered);
+			}
+			visiting.put(stage.name, Boolean.FALSE);
+			ordered.add(stage);
+		}
+
+	}
+
+}
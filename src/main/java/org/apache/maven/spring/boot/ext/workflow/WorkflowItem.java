@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.workflow;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An item going through a {@link Workflow} and what each stage did with it.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class WorkflowItem<T> {
+
+	public enum Status {
+
+		SUCCEEDED,
+		FAILED,
+		/**
+		 * A stage it runs after failed for this item.
+		 */
+		SKIPPED
+
+	}
+
+	private final T payload;
+	private final int index;
+	private final Map<String, Status> statuses = new ConcurrentHashMap<String, Status>();
+	private final Map<String, Object> results = new ConcurrentHashMap<String, Object>();
+	private volatile String failedStage;
+	private volatile Throwable failure;
+
+	WorkflowItem(T payload, int index) {
+		this.payload = payload;
+		this.index = index;
+	}
+
+	public T getPayload() {
+		return payload;
+	}
+
+	/**
+	 * @return the position of the item in the input
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * @return the stage's result, {@code null} if it returned none or has not run
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> R getResult(String stage) {
+		return (R) results.get(stage);
+	}
+
+	/**
+	 * @return the stage's status, {@code null} while it has not finished
+	 */
+	public Status getStatus(String stage) {
+		return statuses.get(stage);
+	}
+
+	public String getFailedStage() {
+		return failedStage;
+	}
+
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	public boolean isSucceeded() {
+		return failure == null;
+	}
+
+	void succeeded(String stage, Object result) {
+		if (result != null) {
+			results.put(stage, result);
+		}
+		statuses.put(stage, Status.SUCCEEDED);
+	}
+
+	synchronized void failed(String stage, Throwable cause) {
+		statuses.put(stage, Status.FAILED);
+		if (failure == null) {
+			failedStage = stage;
+			failure = cause;
+		}
+	}
+
+	void skipped(String stage) {
+		statuses.put(stage, Status.SKIPPED);
+	}
+
+	@Override
+	public String toString() {
+		return "#" + index + " " + payload + (failure != null ? " failed in " + failedStage + ": " + failure : "");
+	}
+
+}
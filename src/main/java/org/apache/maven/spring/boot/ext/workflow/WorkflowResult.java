@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.workflow;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The items of a {@link Workflow} run, in input order.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class WorkflowResult<T> {
+
+	private final List<WorkflowItem<T>> items;
+
+	WorkflowResult(List<WorkflowItem<T>> items) {
+		this.items = Collections.unmodifiableList(items);
+	}
+
+	public List<WorkflowItem<T>> getItems() {
+		return items;
+	}
+
+	public List<WorkflowItem<T>> getFailed() {
+		return items.stream().filter(item -> !item.isSucceeded()).collect(Collectors.toList());
+	}
+
+	public boolean isSuccess() {
+		return items.stream().allMatch(WorkflowItem::isSucceeded);
+	}
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot.ext.workflow;
+
+/**
+ * One stage of a {@link Workflow}, applied to one item at a time.
+ *
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface WorkflowStep<T> {
+
+	/**
+	 * @param item the item, holding the results of the stages this one runs after
+	 * @return the stage's result for the item, available to later stages through
+	 *         {@link WorkflowItem#getResult(String)}. An {@code InvocationResult} with a non-zero
+	 *         exit code fails the item like a thrown exception.
+	 */
+	Object apply(WorkflowItem<T> item) throws Exception;
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.spring.boot.ext.container.ContainerResources;
+import org.apache.maven.spring.boot.ext.reactor.AdaptiveThreadsInterceptor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AdaptiveThreads_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final AdaptiveThreadsInterceptor interceptor = new AdaptiveThreadsInterceptor(null);
+
+	private void pom(File file, String artifactId, String packaging, String modules, String dependencies)
+			throws IOException {
+		file.getParentFile().mkdirs();
+		String xml = "<project><modelVersion>4.0.0</modelVersion>" + ("pom".equals(packaging) ? "<groupId>demo</groupId>"
+				: "<parent><groupId>demo</groupId><artifactId>root</artifactId><version>1</version></parent>") + "<artifactId>" + artifactId
+				+ "</artifactId><version>1</version><packaging>" + packaging + "</packaging><modules>" + modules
+				+ "</modules><dependencies>" + dependencies + "</dependencies></project>";
+		Files.write(file.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private File reactor(String aggregator) throws IOException {
+		File root = folder.getRoot();
+		pom(new File(root, aggregator), "root", "pom",
+				"<module>a</module><module>b</module><module>c</module><module>d</module>", "");
+		for (String module : Arrays.asList("a", "b", "c", "d")) {
+			pom(new File(root, module + "/" + aggregator), module, "jar", "", "");
+		}
+		return root;
+	}
+
+	@Test
+	public void testCpuShare() throws IOException {
+		InvocationRequest request = new DefaultInvocationRequest();
+		request.setBaseDirectory(reactor("pom.xml"));
+		assertEquals(Math.min(4, ContainerResources.availableCpus()), interceptor.threadsFor(request, 1));
+		// more builds running than CPUs, each gets one thread
+		assertEquals(1, interceptor.threadsFor(request, ContainerResources.availableCpus() + 1));
+	}
+
+	@Test
+	public void testRequestPom() throws IOException {
+		InvocationRequest request = new DefaultInvocationRequest();
+		request.setBaseDirectory(reactor("aggregator.xml"));
+		// no pom.xml at the root, the configured name does not lead to the reactor
+		assertEquals(1, interceptor.widthOf(new File(folder.getRoot(), "pom.xml"), null));
+		request.setPomFileName("aggregator.xml");
+		assertEquals(Math.min(4, ContainerResources.availableCpus()), interceptor.threadsFor(request, 1));
+		assertEquals(4, interceptor.widthOf(new File(folder.getRoot(), "aggregator.xml"), null));
+	}
+
+	@Test
+	public void testNoBasedir() {
+		assertEquals(1, interceptor.threadsFor(new DefaultInvocationRequest(), 1));
+	}
+
+	@Test
+	public void testModulePomChange() throws IOException {
+		File pom = new File(reactor("pom.xml"), "pom.xml");
+		assertEquals(4, interceptor.widthOf(pom, null));
+
+		File module = new File(folder.getRoot(), "d/pom.xml");
+		pom(module, "d", "jar", "", "<dependency><groupId>demo</groupId><artifactId>c</artifactId><version>1</version></dependency>");
+		module.setLastModified(module.lastModified() + 2000);
+		assertEquals(3, interceptor.widthOf(pom, null));
+	}
+
+	@Test
+	public void testCacheIsBounded() {
+		for (int i = 0; i < AdaptiveThreadsInterceptor.MAX_CACHED + 10; i++) {
+			interceptor.widthOf(new File(folder.getRoot(), "aggregate-" + i + "/pom.xml"), null);
+		}
+		assertTrue(interceptor.getCachedWidths() <= AdaptiveThreadsInterceptor.MAX_CACHED);
+	}
+
+}
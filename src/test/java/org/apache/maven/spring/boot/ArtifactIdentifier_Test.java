@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+
+import org.apache.maven.spring.boot.ext.identify.ArtifactIdentifier;
+import org.apache.maven.spring.boot.ext.identify.Identification;
+import org.apache.maven.spring.boot.ext.identify.Identification.Source;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryIndex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArtifactIdentifier_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File jar(File file, Manifest manifest, String... pomProperties) throws IOException {
+		file.getParentFile().mkdirs();
+		try (JarOutputStream output = manifest == null ? new JarOutputStream(new FileOutputStream(file))
+				: new JarOutputStream(new FileOutputStream(file), manifest)) {
+			for (String gav : pomProperties) {
+				String[] parts = gav.split(":");
+				output.putNextEntry(new ZipEntry("META-INF/maven/" + parts[0] + "/" + parts[1] + "/pom.properties"));
+				output.write(("groupId=" + parts[0] + "\nartifactId=" + parts[1] + "\nversion=" + parts[2] + "\n")
+						.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		return file;
+	}
+
+	@Test
+	public void testIdentify() throws Exception {
+		File repository = folder.newFolder("repository");
+		File installed = jar(new File(repository, "org/known/known/2.0/known-2.0.jar"), null);
+		File drop = folder.newFolder("drop");
+		Files.copy(installed.toPath(), new File(drop, "renamed.jar").toPath());
+		jar(new File(drop, "shaded-1.0.jar"), null, "org.other:dep:3.1", "org.acme:shaded:1.0");
+
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().putValue("Implementation-Vendor-Id", "com.vendor");
+		manifest.getMainAttributes().putValue("Implementation-Version", "4.2");
+		jar(new File(drop, "vendor-lib-4.2.jar"), manifest);
+		Files.write(new File(drop, "broken.jar").toPath(), new byte[] { 1, 2, 3 });
+		// a malformed escape makes Properties#load throw an IllegalArgumentException
+		try (JarOutputStream output = new JarOutputStream(new FileOutputStream(new File(drop, "corrupt.jar")))) {
+			output.putNextEntry(new ZipEntry("META-INF/maven/org.corrupt/corrupt/pom.properties"));
+			output.write("groupId=\\uZZZZ\n".getBytes(StandardCharsets.UTF_8));
+		}
+
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(repository.getAbsolutePath());
+		properties.getIndex().setDirectory(folder.newFolder("index").getAbsolutePath());
+		ArtifactIdentifier identifier = new ArtifactIdentifier(new LocalRepositoryIndex(properties), 2);
+
+		List<Identification> results = new ArrayList<Identification>();
+		identifier.identifyAll(Arrays.asList(drop.listFiles()), results::add);
+		assertEquals(5, results.size());
+		for (Identification identification : results) {
+			switch (identification.getFile().getName()) {
+			case "renamed.jar":
+				assertEquals(Source.REPOSITORY_INDEX, identification.getSource());
+				assertEquals("org.known:known:jar:2.0", identification.getResource().getDescription());
+				break;
+			case "shaded-1.0.jar":
+				assertEquals(Source.POM_PROPERTIES, identification.getSource());
+				assertEquals("org.acme:shaded:jar:1.0", identification.getResource().getDescription());
+				break;
+			case "vendor-lib-4.2.jar":
+				assertEquals(Source.MANIFEST, identification.getSource());
+				assertEquals("com.vendor:vendor-lib:jar:4.2", identification.getResource().getDescription());
+				break;
+			case "corrupt.jar":
+				assertFalse(identification.isIdentified());
+				assertTrue(identification.getCause() instanceof IllegalArgumentException);
+				break;
+			default:
+				assertFalse(identification.isIdentified());
+				assertNotNull(identification.getCause());
+			}
+		}
+	}
+
+	@Test
+	public void testManifestEdgeCases() throws Exception {
+		ArtifactIdentifier identifier = new ArtifactIdentifier(null, 1);
+
+		// no extension, the whole name is the base name
+		Identification bare = identifier.identify(jar(new File(folder.getRoot(), "mylib-10"),
+				manifest("Implementation-Vendor-Id", "com.vendor", "Bundle-Version", "10")));
+		assertEquals(Source.MANIFEST, bare.getSource());
+		assertEquals("com.vendor:mylib:jar:10", bare.getResource().getDescription());
+		Identification tiny = identifier.identify(jar(new File(folder.getRoot(), "ab"),
+				manifest("Implementation-Vendor-Id", "com.vendor", "Bundle-Version", "1.0", "Bundle-SymbolicName", "ab")));
+		assertEquals("com.vendor:ab:jar:1.0", tiny.getResource().getDescription());
+
+		// a symbolic name without a package yields no groupId
+		Identification undotted = identifier.identify(jar(new File(folder.getRoot(), "plain.jar"),
+				manifest("Bundle-SymbolicName", "plain;singleton:=true", "Bundle-Version", "2.0")));
+		assertFalse(undotted.isIdentified());
+		assertEquals(Source.NONE, undotted.getSource());
+
+		// nothing but directives
+		Identification directives = identifier.identify(jar(new File(folder.getRoot(), "directives.jar"),
+				manifest("Implementation-Vendor-Id", "com.vendor", "Bundle-Version", "3.0", "Bundle-SymbolicName", ";")));
+		assertFalse(directives.isIdentified());
+
+		Identification dotted = identifier.identify(jar(new File(folder.getRoot(), "bundle.jar"),
+				manifest("Bundle-SymbolicName", "org.acme.bundle;singleton:=true", "Bundle-Version", "4.0")));
+		assertEquals("org.acme:bundle:jar:4.0", dotted.getResource().getDescription());
+	}
+
+	private static Manifest manifest(String... attributes) {
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		for (int i = 0; i < attributes.length; i += 2) {
+			manifest.getMainAttributes().putValue(attributes[i], attributes[i + 1]);
+		}
+		return manifest;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.repository.ArtifactLocks;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+
+public class ArtifactLocks_Test {
+
+	@Test
+	public void testSameCoordinatesSerialize() throws Exception {
+		Path repository = Files.createTempDirectory("repository");
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ArtifactLocks locks = new ArtifactLocks(repository.toFile(), 16);
+			MavenResource resource = MavenResource.parse("/tmp/core.jar", "org.demo:core:1.0");
+			AtomicInteger inside = new AtomicInteger();
+			AtomicInteger maxInside = new AtomicInteger();
+			CountDownLatch done = new CountDownLatch(8);
+			for (int i = 0; i < 8; i++) {
+				executor.execute(() -> {
+					try (ArtifactLocks.Lock lock = locks.lockVersion(resource)) {
+						// nested metadata update of the same artifact
+						try (ArtifactLocks.Lock metadata = locks.lockArtifact(resource)) {
+							maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+							Thread.sleep(5);
+							inside.decrementAndGet();
+						}
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+			assertEquals(1, maxInside.get());
+			assertTrue(Files.isRegularFile(repository.resolve(".locks/org.demo/core/1.0.lock")));
+		} finally {
+			executor.shutdownNow();
+			FileSystemUtils.deleteRecursively(repository);
+		}
+	}
+
+	@Test
+	public void testOtherCoordinatesProceed() throws Exception {
+		Path repository = Files.createTempDirectory("repository");
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ArtifactLocks locks = new ArtifactLocks(repository.toFile(), 1024);
+			try (ArtifactLocks.Lock lock = locks.lockVersion(MavenResource.parse("/tmp/core.jar", "org.demo:core:1.0"))) {
+				// another version of the same artifact, on another thread
+				assertTrue(executor.submit(() -> {
+					try (ArtifactLocks.Lock other = locks.lockVersion(MavenResource.parse("/tmp/core.jar", "org.demo:core:2.0"))) {
+						return true;
+					}
+				}).get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+			FileSystemUtils.deleteRecursively(repository);
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.spring.boot.ext.event.BuildEvent;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Status;
+import org.apache.maven.spring.boot.ext.event.BuildEvent.Type;
+import org.apache.maven.spring.boot.ext.event.BuildEventParser;
+import org.apache.maven.spring.boot.ext.event.BuildEventSummary;
+import org.junit.Test;
+
+public class BuildEventParser_Test {
+
+	private static final String[] REACTOR = {
+			"[INFO] Scanning for projects...",
+			"[INFO] ------------------------------------------------------------------------",
+			"[INFO] Reactor Build Order:",
+			"[INFO] ",
+			"[INFO] --------------------------< demo:core >---------------------------",
+			"[INFO] Building core 1.0                                                  [1/2]",
+			"[INFO] --------------------------------[ jar ]---------------------------------",
+			"[INFO] Downloading from central: https://repo.maven.apache.org/maven2/junit/junit/4.13/junit-4.13.pom",
+			"[INFO] Downloaded from central: https://repo.maven.apache.org/maven2/junit/junit/4.13/junit-4.13.pom (25 kB at 120 kB/s)",
+			"[INFO] Downloaded from central: https://repo.maven.apache.org/maven2/junit/junit/4.13/junit-4.13.jar (1.5 MB at 3.2 MB/s)",
+			"[INFO] ",
+			"[INFO] --- maven-compiler-plugin:3.8.1:compile (default-compile) @ core ---",
+			"[WARNING] \u001B[1;33mdeprecated API used\u001B[m",
+			"[INFO] --- maven-surefire-plugin:2.22.2:test (default-test) @ core ---",
+			"[INFO] Tests run: 3, Failures: 0, Errors: 0, Skipped: 1, Time elapsed: 0.12 s - in demo.CoreTest",
+			"[ERROR] Tests run: 2, Failures: 1, Errors: 0, Skipped: 0, Time elapsed: 0.05 s <<< FAILURE! - in demo.OtherTest",
+			"[INFO] Results:",
+			"[ERROR] Tests run: 5, Failures: 1, Errors: 0, Skipped: 1",
+			"[INFO] Building jar: /work/core/target/core-1.0.jar",
+			"[INFO] ---------------------------< demo:app >----------------------------",
+			"[INFO] Building Demo App 1.0                                              [2/2]",
+			"[INFO] Reactor Summary for demo 1.0:",
+			"[INFO] ",
+			"[INFO] core 1.0 ........................................... FAILURE [  2.345 s]",
+			"[INFO] Demo App 1.0 ....................................... SKIPPED",
+			"[INFO] ------------------------------------------------------------------------",
+			"[INFO] BUILD FAILURE",
+			"[INFO] ------------------------------------------------------------------------",
+			"[INFO] Total time:  01:02 min",
+			"[ERROR] Failed to execute goal org.apache.maven.plugins:maven-surefire-plugin:2.22.2:test",
+	};
+
+	private List<BuildEvent> parse(BuildEventSummary summary, String... lines) {
+		List<BuildEvent> events = new ArrayList<BuildEvent>();
+		BuildEventParser parser = new BuildEventParser(events::add, summary);
+		for (String line : lines) {
+			parser.consumeLine(line);
+		}
+		return events;
+	}
+
+	private static List<BuildEvent> ofType(List<BuildEvent> events, Type type) {
+		List<BuildEvent> matching = new ArrayList<BuildEvent>();
+		for (BuildEvent event : events) {
+			if (event.getType() == type) {
+				matching.add(event);
+			}
+		}
+		return matching;
+	}
+
+	@Test
+	public void testReactor() {
+		BuildEventSummary summary = new BuildEventSummary();
+		List<BuildEvent> events = parse(summary, REACTOR);
+
+		List<BuildEvent> started = ofType(events, Type.MODULE_STARTED);
+		assertEquals(2, started.size());
+		assertEquals("core", started.get(0).getModule());
+		assertEquals("core", started.get(0).getArtifactId());
+		assertEquals(1, started.get(0).getIndex());
+		assertEquals(2, started.get(0).getTotal());
+		assertEquals("Demo App", started.get(1).getModule());
+		assertEquals("app", started.get(1).getArtifactId());
+
+		List<BuildEvent> mojos = ofType(events, Type.MOJO_STARTED);
+		assertEquals(2, mojos.size());
+		assertEquals("maven-compiler-plugin:3.8.1:compile (default-compile)", mojos.get(0).getMojo());
+		assertEquals(2, ofType(events, Type.MOJO_FINISHED).size());
+
+		assertEquals(Status.FAILURE, summary.getModule("core").getStatus());
+		assertEquals(2345, summary.getModule("core").getDurationMillis());
+		assertEquals(Status.SKIPPED, summary.getModule("Demo App").getStatus());
+		assertEquals(-1, summary.getModule("Demo App").getDurationMillis());
+
+		assertEquals(Status.FAILURE, summary.getStatus());
+		assertEquals(62000, summary.getDurationMillis());
+		assertEquals(2, summary.getDownloads());
+		assertEquals(25000 + 1500000, summary.getDownloadedBytes());
+		assertEquals(5, summary.getTestsRun());
+		assertEquals(1, summary.getTestFailures());
+		assertEquals(1, summary.getTestsSkipped());
+		assertEquals("demo.OtherTest", ofType(events, Type.TESTS).get(1).getMessage());
+		assertEquals(1, summary.getWarnings());
+		assertEquals("deprecated API used", ofType(events, Type.WARNING).get(0).getMessage());
+		assertEquals(1, summary.getErrors());
+		assertEquals(2, summary.getSlowestMojos().size());
+	}
+
+	@Test
+	public void testSingleProject() {
+		BuildEventSummary summary = new BuildEventSummary();
+		List<BuildEvent> events = parse(summary,
+				"[INFO] -----------------------------< demo:lib >------------------------------",
+				"[INFO] Building lib 2.0",
+				"[INFO] --- maven-resources-plugin:3.2.0:resources (default-resources) @ lib ---",
+				"[INFO] BUILD SUCCESS",
+				"[INFO] Total time:  0.812 s");
+
+		assertEquals(Status.SUCCESS, summary.getModule("lib").getStatus());
+		assertEquals(812, summary.getDurationMillis());
+		assertEquals(Type.BUILD_FINISHED, events.get(events.size() - 1).getType());
+	}
+
+	@Test
+	public void testConstantMemory() {
+		BuildEventSummary summary = new BuildEventSummary();
+		BuildEventParser parser = new BuildEventParser(summary);
+		for (int i = 0; i < 200000; i++) {
+			parser.consumeLine("[INFO] --- maven-antrun-plugin:3.0.0:run (step-" + (i % 50) + ") @ core ---");
+			parser.consumeLine("[INFO] Downloaded: https://repo/x-" + i + ".jar (2 KB at 1.0 KB/sec)");
+			parser.consumeLine("     [echo] plain output");
+		}
+		assertEquals(200000, summary.getDownloads());
+		assertEquals(200000L * 2048, summary.getDownloadedBytes());
+		assertEquals(10, summary.getSlowestMojos().size());
+		assertNull(summary.getStatus());
+	}
+
+}
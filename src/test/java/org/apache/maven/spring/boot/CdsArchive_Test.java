@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.cds.CdsArchiveInterceptor;
+import org.apache.maven.spring.boot.ext.cds.CdsArchiveManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CdsArchive_Test {
+
+	private static final Pattern ARCHIVE_AT_EXIT = Pattern.compile("-XX:ArchiveClassesAtExit=(\\S+)");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<String> mavenOpts = new CopyOnWriteArrayList<String>();
+	private final List<String> warmUps = new CopyOnWriteArrayList<String>();
+
+	/**
+	 * Stands in for Maven: a warm-up writes the archive the JVM would dump at exit.
+	 */
+	private final DefaultInvoker invoker = new DefaultInvoker() {
+
+		@Override
+		public InvocationResult execute(InvocationRequest request) {
+			String opts = request.getMavenOpts() == null ? "" : request.getMavenOpts();
+			Matcher matcher = ARCHIVE_AT_EXIT.matcher(opts);
+			if (matcher.find()) {
+				warmUps.add(matcher.group(1));
+				try {
+					Files.write(new File(matcher.group(1)).toPath(), "archive".getBytes(StandardCharsets.UTF_8));
+				} catch (IOException e) {
+					throw new IllegalStateException(e);
+				}
+			} else {
+				mavenOpts.add(opts);
+			}
+			return new InvocationResult() {
+
+				@Override
+				public CommandLineException getExecutionException() {
+					return null;
+				}
+
+				@Override
+				public int getExitCode() {
+					return 0;
+				}
+
+			};
+		}
+
+	};
+
+	private File mavenHome;
+	private MavenInvokerProperties properties;
+	private CdsArchiveManager manager;
+
+	@Before
+	public void setUp() throws IOException {
+		mavenHome = folder.newFolder("maven");
+		write(new File(mavenHome, "lib/maven-core.jar"), "core");
+		write(new File(mavenHome, "boot/plexus-classworlds.jar"), "classworlds");
+		File javaHome = folder.newFolder("jdk");
+		write(new File(javaHome, "release"), "JAVA_VERSION=\"17.0.2\"\n");
+
+		properties = new MavenInvokerProperties();
+		properties.setMavenHome(mavenHome.getAbsolutePath());
+		properties.setJavaHome(javaHome.getAbsolutePath());
+		properties.setLocalRepository(folder.newFolder("repository").getAbsolutePath());
+		properties.getCds().setEnabled(true);
+		properties.getCds().setArchiveDirectory(new File(folder.getRoot(), "cds").getAbsolutePath());
+		manager = new CdsArchiveManager(invoker, properties);
+	}
+
+	@After
+	public void tearDown() {
+		manager.destroy();
+	}
+
+	@Test
+	public void testKeyIsStable() {
+		File archive = manager.warmUp();
+		assertNotNull(archive);
+		assertEquals(archive, manager.warmUp());
+		assertEquals(archive, new CdsArchiveManager(invoker, properties).warmUp());
+		assertEquals(1, warmUps.size());
+	}
+
+	@Test
+	public void testJarReplacedInPlace() throws IOException {
+		File lib = new File(mavenHome, "lib");
+		File archive = manager.warmUp();
+		long libModified = lib.lastModified();
+
+		File jar = new File(lib, "maven-core.jar");
+		write(jar, "core, patched");
+		jar.setLastModified(jar.lastModified() + 2000);
+		// the directory's own timestamp does not tell
+		lib.setLastModified(libModified);
+
+		File regenerated = manager.warmUp();
+		assertNotNull(regenerated);
+		assertNotEquals(archive, regenerated);
+		assertFalse(archive.exists());
+		assertEquals(2, warmUps.size());
+	}
+
+	@Test
+	public void testInterceptorSwitchesToTheArchive() throws Exception {
+		File project = folder.newFolder("project");
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker, properties);
+		template.setInterceptors(Arrays.<MavenInvocationInterceptor>asList(new CdsArchiveInterceptor(manager)));
+
+		template.execute(project, "verify");
+		// the first fork runs without an archive while one is generated in the background
+		assertFalse(mavenOpts.get(0).contains("-XX:SharedArchiveFile"));
+		long deadline = System.currentTimeMillis() + 10000;
+		while (warmUps.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		File archive = manager.warmUp();
+		assertNotNull(archive);
+
+		template.execute(project, "verify");
+		assertTrue(mavenOpts.get(1).contains("-XX:SharedArchiveFile=" + archive.getAbsolutePath()));
+		assertTrue(mavenOpts.get(1).contains("-Xshare:auto"));
+		assertEquals(1, warmUps.size());
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
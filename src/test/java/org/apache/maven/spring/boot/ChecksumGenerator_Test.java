@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties.Checksum;
+import org.apache.maven.spring.boot.ext.Hex;
+import org.apache.maven.spring.boot.ext.checksum.ChecksumGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.unit.DataSize;
+
+public class ChecksumGenerator_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testParallelAcrossWindows() throws Exception {
+		// larger than one 64MB mapping window, and above the parallel threshold
+		File file = random(folder.newFile("large.zip"), 64 * 1024 * 1024 + 123457);
+		Checksum checksum = new Checksum();
+		checksum.setParallelThreshold(DataSize.ofMegabytes(1));
+		try (ChecksumGenerator generator = new ChecksumGenerator(checksum)) {
+			assertEquals(expected(file, checksum), generator.compute(file));
+			generator.close();
+			// a closed generator starts new threads when needed again
+			assertEquals(expected(file, checksum), generator.compute(file));
+		}
+	}
+
+	@Test
+	public void testSequential() throws Exception {
+		File file = random(folder.newFile("small.jar"), 100 * 1024);
+		Checksum checksum = new Checksum();
+		try (ChecksumGenerator generator = new ChecksumGenerator(checksum)) {
+			assertEquals(expected(file, checksum), generator.compute(file));
+			byte[] content = Files.readAllBytes(file.toPath());
+			assertEquals(expected(file, checksum), generator.compute(content));
+		}
+		File empty = folder.newFile("empty.pom");
+		try (ChecksumGenerator generator = new ChecksumGenerator(checksum)) {
+			assertEquals(expected(empty, checksum), generator.compute(empty));
+		}
+	}
+
+	@Test
+	public void testSidecars() throws Exception {
+		File file = random(folder.newFile("core-1.0.jar"), 4096);
+		Checksum checksum = new Checksum();
+		checksum.setAlgorithms(Arrays.asList("SHA-1", "SHA-256"));
+		try (ChecksumGenerator generator = new ChecksumGenerator(checksum)) {
+			Map<String, String> checksums = generator.generate(file);
+			assertEquals(Arrays.asList("SHA-1", "SHA-256"), Arrays.asList(checksums.keySet().toArray()));
+			assertEquals(checksums.get("SHA-1"), read(new File(file.getPath() + ".sha1")));
+			assertEquals(checksums.get("SHA-256"), read(new File(file.getPath() + ".sha256")));
+		}
+		assertFalse(new File(file.getPath() + ".md5").exists());
+		assertFalse(new File(file.getPath() + ".sha1.tmp").exists());
+		assertEquals("sha256", ChecksumGenerator.extension("SHA-256"));
+		assertEquals("sha1", ChecksumGenerator.extension("SHA-1"));
+		assertEquals("md5", ChecksumGenerator.extension("MD5"));
+	}
+
+	private static File random(File file, int size) throws Exception {
+		Random random = new Random(size);
+		byte[] buffer = new byte[1024 * 1024];
+		try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+			for (int written = 0; written < size; written += buffer.length) {
+				random.nextBytes(buffer);
+				output.write(buffer, 0, Math.min(buffer.length, size - written));
+			}
+		}
+		return file;
+	}
+
+	private static Map<String, String> expected(File file, Checksum checksum) throws Exception {
+		Map<String, String> expected = new LinkedHashMap<String, String>();
+		for (String algorithm : checksum.getAlgorithms()) {
+			MessageDigest digest = MessageDigest.getInstance(algorithm);
+			try (InputStream input = new FileInputStream(file)) {
+				byte[] buffer = new byte[64 * 1024];
+				int read;
+				while ((read = input.read(buffer)) > 0) {
+					digest.update(buffer, 0, read);
+				}
+			}
+			expected.put(algorithm, Hex.encode(digest.digest()));
+		}
+		return expected;
+	}
+
+	private static String read(File file) throws Exception {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII);
+	}
+
+}
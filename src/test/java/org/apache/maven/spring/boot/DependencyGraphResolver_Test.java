@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.spring.boot.ext.resolve.DependencyGraph;
+import org.apache.maven.spring.boot.ext.resolve.DependencyGraphResolver;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DependencyGraphResolver_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File remote;
+	private File cache;
+	private DependencyGraphResolver resolver;
+
+	@Before
+	public void setUp() throws IOException {
+		remote = folder.newFolder("remote");
+		cache = folder.newFolder("cache");
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(folder.newFolder("repository").getAbsolutePath());
+		properties.setMavenRepositorys(Collections.singletonMap("remote", remote.toURI().toString()));
+		properties.getResolver().setCacheDirectory(cache.getAbsolutePath());
+		resolver = new DependencyGraphResolver(properties);
+
+		deploy("fixed", "1.0", "<dependency><groupId>org.demo</groupId><artifactId>leaf</artifactId><version>1.0</version></dependency>");
+		deploy("ranged", "1.0", "<dependency><groupId>org.demo</groupId><artifactId>leaf</artifactId><version>[1.0,2.0)</version></dependency>");
+		deploy("snapshot", "1.0", "<dependency><groupId>org.demo</groupId><artifactId>leaf</artifactId><version>1.1-SNAPSHOT</version></dependency>");
+		deploy("leaf", "1.0", "");
+		deploy("leaf", "1.1-SNAPSHOT", "");
+		write(new File(remote, "org/demo/leaf/maven-metadata.xml"), "<metadata><groupId>org.demo</groupId>"
+				+ "<artifactId>leaf</artifactId><versioning><versions><version>1.0</version></versions></versioning></metadata>");
+	}
+
+	@Test
+	public void testFixedGraphIsCached() throws Exception {
+		DependencyGraph graph = resolver.resolve(project("fixed"));
+		assertFalse(graph.isCached());
+		DependencyGraph cached = resolver.resolve(project("fixed"));
+		assertTrue(cached.isCached());
+		assertEquals(graph.getKey(), cached.getKey());
+		assertEquals(graph.getRoot().flatten().toString(), cached.getRoot().flatten().toString());
+		assertEquals("[org.demo:fixed:jar:1.0, org.demo:leaf:jar:1.0]", cached.getDependencies().toString());
+	}
+
+	@Test
+	public void testTransitiveRangeIsNotCached() throws Exception {
+		assertEquals("[org.demo:ranged:jar:1.0, org.demo:leaf:jar:1.0]",
+				resolver.resolve(project("ranged")).getDependencies().toString());
+		assertFalse(resolver.resolve(project("ranged")).isCached());
+	}
+
+	@Test
+	public void testTransitiveSnapshotIsNotCached() throws Exception {
+		assertEquals("[org.demo:snapshot:jar:1.0, org.demo:leaf:jar:1.1-SNAPSHOT]",
+				resolver.resolve(project("snapshot")).getDependencies().toString());
+		assertFalse(resolver.resolve(project("snapshot")).isCached());
+	}
+
+	@Test
+	public void testSerializedEntriesAreIgnored() throws Exception {
+		String key = resolver.resolve(project("fixed")).getKey();
+		File entry = new File(new File(cache, key.substring(0, 2)), key + ".graph");
+		assertTrue(entry.isFile());
+		try (OutputStream output = Files.newOutputStream(entry.toPath());
+				ObjectOutputStream objects = new ObjectOutputStream(output)) {
+			objects.writeObject(new ArrayList<String>());
+		}
+		assertFalse(resolver.resolve(project("fixed")).isCached());
+		// the fresh resolution replaced the entry
+		assertTrue(resolver.resolve(project("fixed")).isCached());
+	}
+
+	private static Model project(String dependency) {
+		Model model = new Model();
+		model.setGroupId("org.demo");
+		model.setArtifactId("app");
+		model.setVersion("1.0");
+		Dependency declared = new Dependency();
+		declared.setGroupId("org.demo");
+		declared.setArtifactId(dependency);
+		declared.setVersion("1.0");
+		model.addDependency(declared);
+		return model;
+	}
+
+	private void deploy(String artifactId, String version, String dependencies) throws IOException {
+		File directory = new File(remote, "org/demo/" + artifactId + "/" + version);
+		write(new File(directory, artifactId + "-" + version + ".pom"), "<project><modelVersion>4.0.0</modelVersion>"
+				+ "<groupId>org.demo</groupId><artifactId>" + artifactId + "</artifactId><version>" + version
+				+ "</version><dependencies>" + dependencies + "</dependencies></project>");
+		write(new File(directory, artifactId + "-" + version + ".jar"), artifactId);
+	}
+
+	private static void write(File file, String content) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
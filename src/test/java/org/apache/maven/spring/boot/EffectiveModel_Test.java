@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.spring.boot.ext.model.EffectiveModelReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EffectiveModel_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private void write(File file, String xml) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testEvaluate() throws Exception {
+		File root = folder.getRoot();
+		write(new File(root, "pom.xml"), "<project><modelVersion>4.0.0</modelVersion>"
+				+ "<groupId>demo</groupId><artifactId>parent</artifactId><version>1.2.0</version><packaging>pom</packaging>"
+				+ "<properties><lib.version>3.0</lib.version></properties>"
+				+ "<dependencyManagement><dependencies><dependency><groupId>demo</groupId><artifactId>lib</artifactId>"
+				+ "<version>${lib.version}</version></dependency></dependencies></dependencyManagement>"
+				+ "<profiles><profile><id>fast</id><properties><mode>fast</mode></properties></profile></profiles></project>");
+		write(new File(root, "child/pom.xml"), "<project><modelVersion>4.0.0</modelVersion>"
+				+ "<parent><groupId>demo</groupId><artifactId>parent</artifactId><version>1.2.0</version></parent>"
+				+ "<artifactId>child</artifactId><build><finalName>${project.artifactId}-${project.version}</finalName></build>"
+				+ "<dependencies><dependency><groupId>demo</groupId><artifactId>lib</artifactId></dependency></dependencies></project>");
+
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(folder.newFolder("repository").getAbsolutePath());
+		properties.setProfiles(Arrays.asList("fast"));
+		EffectiveModelReader reader = new EffectiveModelReader(properties);
+
+		File child = new File(root, "child");
+		assertEquals("1.2.0", reader.evaluate(child, "project.version"));
+		assertEquals("child-1.2.0", reader.evaluate(child, "project.build.finalName"));
+		assertEquals("3.0", reader.evaluate(child, "project.properties.lib.version"));
+		assertEquals("fast", reader.evaluate(child, "mode"));
+
+		Model model = reader.read(child);
+		assertEquals("3.0", model.getDependencies().get(0).getVersion());
+		assertSame(model, reader.read(child));
+	}
+
+	@Test
+	public void testReinstalledSnapshotParent() throws Exception {
+		File repository = folder.newFolder("repository");
+		File parent = new File(repository, "demo/parent/1.0-SNAPSHOT/parent-1.0-SNAPSHOT.pom");
+		write(parent, parentPom("3.0"));
+		File project = new File(folder.getRoot(), "project");
+		write(new File(project, "pom.xml"), "<project><modelVersion>4.0.0</modelVersion>"
+				+ "<parent><groupId>demo</groupId><artifactId>parent</artifactId><version>1.0-SNAPSHOT</version>"
+				+ "<relativePath/></parent><artifactId>app</artifactId></project>");
+
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(repository.getAbsolutePath());
+		EffectiveModelReader reader = new EffectiveModelReader(properties);
+		Model model = reader.read(project);
+		assertEquals("3.0", reader.evaluate(project, "lib.version"));
+		assertSame(model, reader.read(project));
+
+		// the parent snapshot is installed again
+		write(parent, parentPom("3.1"));
+		parent.setLastModified(parent.lastModified() + 2000);
+		assertNotSame(model, reader.read(project));
+		assertEquals("3.1", reader.evaluate(project, "lib.version"));
+	}
+
+	private static String parentPom(String libVersion) {
+		return "<project><modelVersion>4.0.0</modelVersion><groupId>demo</groupId><artifactId>parent</artifactId>"
+				+ "<version>1.0-SNAPSHOT</version><packaging>pom</packaging>"
+				+ "<properties><lib.version>" + libVersion + "</lib.version></properties></project>";
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Admission;
+import org.apache.maven.spring.boot.ext.container.ContainerResources;
+import org.apache.maven.spring.boot.ext.container.ForkAdmissionController;
+import org.junit.Test;
+import org.springframework.util.unit.DataSize;
+
+public class ForkAdmission_Test {
+
+	private static final long GB = 1024L * 1024 * 1024;
+
+	@Test
+	public void testWorkingSetExcludesInactivePageCache() {
+		// cgroup v2 memory.stat
+		String v2 = "anon 1073741824\nfile 6442450944\nactive_file 1073741824\ninactive_file 5368709120\n";
+		assertEquals(3 * GB, ContainerResources.workingSet(8 * GB, v2));
+		// cgroup v1 prefers the hierarchical total
+		String v1 = "cache 6442450944\ninactive_file 1\ntotal_inactive_file 5368709120\n";
+		assertEquals(3 * GB, ContainerResources.workingSet(8 * GB, v1));
+		assertEquals(8 * GB, ContainerResources.workingSet(8 * GB, null));
+	}
+
+	@Test
+	public void testPressureDecision() {
+		Admission admission = new Admission();
+		ForkAdmissionController controller = new ForkAdmissionController(admission);
+		long limit = 8 * GB;
+		String stat = "inactive_file " + (5 * GB) + "\n";
+		// 95% charged, but mostly page cache: no pressure
+		assertFalse(controller.underPressure(ContainerResources.workingSet(limit * 95 / 100, stat), limit, 0.5, 4));
+		assertTrue(controller.underPressure(limit * 95 / 100, limit, 0.5, 4));
+		assertTrue(controller.underPressure(GB, limit, 7.0, 4));
+		assertFalse(controller.underPressure(GB, limit, -1, 4));
+	}
+
+	@Test
+	public void testCapacityLimitsForks() throws Exception {
+		Admission admission = new Admission();
+		admission.setMaxForks(1);
+		admission.setForkMemory(DataSize.ofMegabytes(1));
+		admission.setReservedMemory(DataSize.ofBytes(0));
+		admission.setTimeout(Duration.ofMillis(50));
+		ForkAdmissionController controller = new ForkAdmissionController(admission);
+		controller.acquire();
+		assertEquals(1, controller.getCapacity());
+		assertEquals(1, controller.getAdmitted());
+		try {
+			controller.acquire();
+			fail("A second fork exceeds the capacity");
+		} catch (MavenInvocationException e) {
+			assertTrue(e.getMessage().startsWith("Timed out"));
+		}
+		controller.release();
+		assertEquals(0, controller.getAdmitted());
+		controller.acquire();
+		controller.release();
+	}
+
+}
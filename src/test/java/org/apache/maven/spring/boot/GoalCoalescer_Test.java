@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.coalesce.CoalescedInvocationResult;
+import org.apache.maven.spring.boot.ext.coalesce.GoalCoalescer;
+import org.junit.Test;
+
+public class GoalCoalescer_Test {
+
+	private final File basedir = new File("target/coalesce");
+	private final List<List<String>> forks = Collections.synchronizedList(new ArrayList<List<String>>());
+
+	@Test
+	public void testLoneCallDoesNotWaitForTheWindow() throws Exception {
+		GoalCoalescer coalescer = new GoalCoalescer(Duration.ofSeconds(5));
+		long start = System.nanoTime();
+		InvocationResult result = coalescer.execute(basedir, Arrays.asList("compile"), (dir, goals) -> {
+			forks.add(goals);
+			return result(0);
+		});
+		assertEquals(0, result.getExitCode());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+		assertEquals(1, forks.size());
+	}
+
+	@Test
+	public void testQueuedCallsMerge() throws Exception {
+		GoalCoalescer coalescer = new GoalCoalescer(Duration.ofMillis(50));
+		CountDownLatch release = new CountDownLatch(1);
+		GoalCoalescer.GoalExecutor executor = (dir, goals) -> {
+			forks.add(goals);
+			await(release);
+			return result(0);
+		};
+		CompletableFuture<InvocationResult> clean = coalescer.submit(basedir, Arrays.asList("clean"), executor);
+		CompletableFuture<InvocationResult> compile = coalescer.submit(basedir, Arrays.asList("compile"), executor);
+		CompletableFuture<InvocationResult> test = coalescer.submit(basedir, Arrays.asList("test"), executor);
+		release.countDown();
+
+		assertEquals(0, clean.get(5, TimeUnit.SECONDS).getExitCode());
+		CoalescedInvocationResult merged = (CoalescedInvocationResult) test.get(5, TimeUnit.SECONDS);
+		assertTrue(merged.isMerged());
+		assertEquals(Arrays.asList("test"), merged.getGoals());
+		assertEquals(0, compile.get(5, TimeUnit.SECONDS).getExitCode());
+		assertEquals(Arrays.asList(Arrays.asList("clean"), Arrays.asList("compile", "test")), forks);
+	}
+
+	@Test
+	public void testMergedFailureIsNotRunAgain() throws Exception {
+		GoalCoalescer coalescer = new GoalCoalescer(Duration.ofMillis(50));
+		CountDownLatch release = new CountDownLatch(1);
+		GoalCoalescer.GoalExecutor executor = (dir, goals) -> {
+			forks.add(goals);
+			await(release);
+			return result(goals.contains("deploy") ? 1 : 0);
+		};
+		coalescer.submit(basedir, Arrays.asList("clean"), executor);
+		CompletableFuture<InvocationResult> install = coalescer.submit(basedir, Arrays.asList("install"), executor);
+		CompletableFuture<InvocationResult> deploy = coalescer.submit(basedir, Arrays.asList("deploy"), executor);
+		release.countDown();
+
+		assertEquals(1, install.get(5, TimeUnit.SECONDS).getExitCode());
+		assertEquals(1, deploy.get(5, TimeUnit.SECONDS).getExitCode());
+		assertTrue(((CoalescedInvocationResult) install.get()).isMerged());
+		// install already ran in the merged fork and must not run a second time
+		assertEquals(2, forks.size());
+	}
+
+	@Test
+	public void testOptionsWithValuesAreNotMerged() throws Exception {
+		GoalCoalescer coalescer = new GoalCoalescer(Duration.ofMillis(50));
+		CountDownLatch release = new CountDownLatch(1);
+		GoalCoalescer.GoalExecutor executor = (dir, goals) -> {
+			forks.add(goals);
+			await(release);
+			return result(0);
+		};
+		coalescer.submit(basedir, Arrays.asList("clean"), executor);
+		CompletableFuture<InvocationResult> a = coalescer.submit(basedir, Arrays.asList("-pl", "a", "install"), executor);
+		CompletableFuture<InvocationResult> b = coalescer.submit(basedir, Arrays.asList("-pl", "b", "install"), executor);
+		release.countDown();
+
+		assertFalse(((CoalescedInvocationResult) a.get(5, TimeUnit.SECONDS)).isMerged());
+		assertFalse(((CoalescedInvocationResult) b.get(5, TimeUnit.SECONDS)).isMerged());
+		assertEquals(Arrays.asList(Arrays.asList("clean"), Arrays.asList("-pl", "a", "install"),
+				Arrays.asList("-pl", "b", "install")), forks);
+	}
+
+	@Test
+	public void testDifferentOptionsRunSerially() throws Exception {
+		GoalCoalescer coalescer = new GoalCoalescer(Duration.ofMillis(50));
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		GoalCoalescer.GoalExecutor executor = (dir, goals) -> {
+			if (running.incrementAndGet() > 1) {
+				overlaps.incrementAndGet();
+			}
+			forks.add(goals);
+			await(release);
+			running.decrementAndGet();
+			return result(0);
+		};
+		CompletableFuture<InvocationResult> clean = coalescer.submit(basedir, Arrays.asList("clean"), executor);
+		CompletableFuture<InvocationResult> skip = coalescer.submit(basedir, Arrays.asList("install", "-DskipTests"), executor);
+		CompletableFuture<InvocationResult> packaged = coalescer.submit(basedir, Arrays.asList("package", "-Prelease"), executor);
+		CompletableFuture<InvocationResult> verify = coalescer.submit(basedir, Arrays.asList("verify", "-Prelease"), executor);
+		Thread.sleep(200);
+		// nothing but the first fork may run while it holds the basedir
+		assertEquals(1, forks.size());
+		release.countDown();
+
+		clean.get(5, TimeUnit.SECONDS);
+		skip.get(5, TimeUnit.SECONDS);
+		assertTrue(((CoalescedInvocationResult) verify.get(5, TimeUnit.SECONDS)).isMerged());
+		packaged.get(5, TimeUnit.SECONDS);
+		assertEquals(0, overlaps.get());
+		assertEquals(Arrays.asList(Arrays.asList("clean"), Arrays.asList("install", "-DskipTests"),
+				Arrays.asList("package", "verify", "-Prelease")), forks);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static InvocationResult result(int exitCode) {
+		return new InvocationResult() {
+
+			@Override
+			public CommandLineException getExecutionException() {
+				return null;
+			}
+
+			@Override
+			public int getExitCode() {
+				return exitCode;
+			}
+
+		};
+	}
+
+}
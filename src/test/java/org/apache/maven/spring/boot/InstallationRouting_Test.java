@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.shared.invoker.DefaultInvocationRequest;
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Installation;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Routing;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.MavenResourceListener;
+import org.apache.maven.spring.boot.ext.installation.InstallationRoutingInterceptor;
+import org.apache.maven.spring.boot.ext.installation.InstallationSelector;
+import org.apache.maven.spring.boot.ext.installation.MavenInstallation;
+import org.apache.maven.spring.boot.ext.installation.MavenInstallationRegistry;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InstallationRouting_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<String> routed = new CopyOnWriteArrayList<String>();
+	private volatile CountDownLatch blocker;
+	private MavenInstallationRegistry registry;
+
+	private final DefaultInvoker invoker = new DefaultInvoker() {
+
+		@Override
+		public InvocationResult execute(InvocationRequest request) {
+			routed.add(request.getMavenHome().getName() + " " + request.getLocalRepositoryDirectory(null).getName());
+			if (request.getGoals().contains("install:install-file")) {
+				installFile(request);
+			}
+			CountDownLatch latch = blocker;
+			if (latch != null) {
+				try {
+					latch.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return new InvocationResult() {
+
+				@Override
+				public CommandLineException getExecutionException() {
+					return null;
+				}
+
+				@Override
+				public int getExitCode() {
+					return 0;
+				}
+
+			};
+		}
+
+	};
+
+	@Before
+	public void setUp() throws IOException {
+		Routing routing = new Routing();
+		routing.getInstallations().put("m35", installation("m35", "3.5.4", null, 0));
+		routing.getInstallations().put("m386", installation("m386", "3.8.6", "repository-386", 1));
+		routing.getInstallations().put("m391", installation("m391", "3.9.1", null, 0));
+		routing.setDefaultInstallation("m35");
+		registry = new MavenInstallationRegistry(routing);
+	}
+
+	@Test
+	public void testFindByVersion() {
+		assertEquals("m386", registry.findByVersion("3.8.6").getName());
+		assertEquals("m386", registry.findByVersion("3.8").getName());
+		// 3.8.4 is not registered, the latest 3.8 release stands in
+		assertEquals("m386", registry.findByVersion("3.8.4").getName());
+		assertEquals("m391", registry.findByVersion("3").getName());
+		assertNull(registry.findByVersion("3.6.3"));
+		assertNull(registry.findByVersion("4.0.0"));
+	}
+
+	@Test
+	public void testFindAtLeast() {
+		// the default wins while it is recent enough
+		assertEquals("m35", registry.findAtLeast("3.5.0").getName());
+		assertEquals("m386", registry.findAtLeast("3.6.0").getName());
+		assertEquals("m391", registry.findAtLeast("3.9").getName());
+		assertNull(registry.findAtLeast("3.9.5"));
+	}
+
+	@Test
+	public void testRouting() throws Exception {
+		File wrapped = project("wrapped", "3.8.4", null);
+		File prerequisite = project("prerequisite", null, "3.9");
+		File plain = project("plain", null, null);
+		File selected = project("selected", "3.8.4", null);
+		InstallationSelector selector = request -> request.getBaseDirectory().getName().equals("selected") ? "m391" : null;
+		InstallationRoutingInterceptor interceptor = new InstallationRoutingInterceptor(registry,
+				Arrays.asList(selector), null);
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(folder.newFolder("repository").getAbsolutePath());
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker, properties);
+		template.setInterceptors(Arrays.<MavenInvocationInterceptor>asList(interceptor));
+
+		template.execute(wrapped, "verify");
+		template.execute(prerequisite, "verify");
+		template.execute(plain, "verify");
+		template.execute(selected, "verify");
+		assertEquals(Arrays.asList("m386 repository-386", "m391 repository", "m35 repository", "m391 repository"), routed);
+
+		InvocationRequest request = new DefaultInvocationRequest();
+		request.setBaseDirectory(wrapped);
+		assertEquals("repository-386", interceptor.localRepository(request, properties.resolveLocalRepository()).getName());
+		request.setBaseDirectory(plain);
+		assertEquals(properties.resolveLocalRepository(), interceptor.localRepository(request, properties.resolveLocalRepository()));
+	}
+
+	@Test
+	public void testSlots() throws Exception {
+		File wrapped = project("wrapped", "3.8.6", null);
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker, properties);
+		template.setInterceptors(Arrays.<MavenInvocationInterceptor>asList(
+				new InstallationRoutingInterceptor(registry, Collections.<InstallationSelector>emptyList(), null)));
+		MavenInstallation installation = registry.get("m386");
+		assertEquals(1, installation.getLimit());
+
+		blocker = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<InvocationResult> first = executor.submit(() -> template.execute(wrapped, "verify"));
+			Future<InvocationResult> second = executor.submit(() -> template.execute(wrapped, "verify"));
+			long deadline = System.currentTimeMillis() + 10000;
+			while ((installation.getRunning() != 1 || installation.getWaiting() != 1)
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			// one fork runs, the other waits for the single slot
+			assertEquals(1, installation.getRunning());
+			assertEquals(1, installation.getWaiting());
+			assertEquals(1, routed.size());
+
+			blocker.countDown();
+			assertEquals(0, first.get(10, TimeUnit.SECONDS).getExitCode());
+			assertEquals(0, second.get(10, TimeUnit.SECONDS).getExitCode());
+		} finally {
+			blocker.countDown();
+			executor.shutdownNow();
+		}
+		assertEquals(0, installation.getRunning());
+		assertEquals(0, installation.getWaiting());
+		assertEquals(2, installation.getInvocations());
+		assertTrue(installation.getBusyMillis() >= 0);
+		assertEquals(0, registry.get("m35").getInvocations());
+	}
+
+	@Test
+	public void testRoutedInstall() throws Exception {
+		InstallationSelector selector = request -> request.getGoals().contains("install:install-file") ? "m386" : null;
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		File repository = folder.newFolder("repository");
+		properties.setLocalRepository(repository.getAbsolutePath());
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker, properties);
+		template.setInterceptors(Arrays.<MavenInvocationInterceptor>asList(
+				new InstallationRoutingInterceptor(registry, Arrays.asList(selector), null)));
+		List<File> repositories = new CopyOnWriteArrayList<File>();
+		template.setListeners(Arrays.<MavenResourceListener>asList(new MavenResourceListener() {
+
+			@Override
+			public void installed(MavenResource resource, File localRepository) {
+				repositories.add(localRepository);
+			}
+
+		}));
+
+		File jar = folder.newFile("core-1.0.jar");
+		Files.write(jar.toPath(), "core".getBytes(StandardCharsets.UTF_8));
+		MavenResource resource = new MavenResource.Builder().filepath(jar.getAbsolutePath()).groupId("org.demo")
+				.artifactId("core").version("1.0").extension("jar").createChecksum(true).build();
+		assertEquals(0, template.install(resource).getExitCode());
+
+		File own = new File(registry.get("m386").getLocalRepository(), resource.getRepositoryPath());
+		assertEquals(Arrays.asList("m386 repository-386"), routed);
+		assertTrue(own.isFile());
+		assertTrue(new File(own.getPath() + ".sha1").isFile());
+		assertFalse(new File(repository, resource.getRepositoryPath() + ".sha1").exists());
+		assertEquals(Arrays.asList(registry.get("m386").getLocalRepository()), repositories);
+		// the locks of the routed install live in the installation's repository
+		assertFalse(new File(repository, ".locks").exists());
+		assertTrue(new File(registry.get("m386").getLocalRepository(), ".locks").isDirectory());
+	}
+
+	private static void installFile(InvocationRequest request) {
+		String file = null;
+		String path = null;
+		for (String goal : request.getGoals()) {
+			if (goal.startsWith("-Dfile=")) {
+				file = goal.substring(7);
+			}
+		}
+		try {
+			MavenResource resource = MavenResource.parse(file, value(request, "groupId") + ":" + value(request, "artifactId")
+					+ ":" + value(request, "version"));
+			path = resource.getRepositoryPath();
+			File target = new File(request.getLocalRepositoryDirectory(null), path);
+			target.getParentFile().mkdirs();
+			Files.copy(new File(file).toPath(), target.toPath());
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to install " + path, e);
+		}
+	}
+
+	private static String value(InvocationRequest request, String property) {
+		for (String goal : request.getGoals()) {
+			if (goal.startsWith("-D" + property + "=")) {
+				return goal.substring(property.length() + 3);
+			}
+		}
+		return null;
+	}
+
+	private Installation installation(String name, String version, String localRepository, int maxConcurrent)
+			throws IOException {
+		Installation installation = new Installation();
+		installation.setMavenHome(folder.newFolder(name).getAbsolutePath());
+		installation.setVersion(version);
+		if (localRepository != null) {
+			installation.setLocalRepository(folder.newFolder(localRepository).getAbsolutePath());
+		}
+		installation.setMaxConcurrent(maxConcurrent);
+		return installation;
+	}
+
+	private File project(String name, String wrapperVersion, String prerequisite) throws IOException {
+		File project = folder.newFolder(name);
+		if (wrapperVersion != null) {
+			File wrapper = new File(project, ".mvn/wrapper/maven-wrapper.properties");
+			wrapper.getParentFile().mkdirs();
+			Files.write(wrapper.toPath(), ("distributionUrl=https://repo.maven.apache.org/maven2/org/apache/maven/"
+					+ "apache-maven/" + wrapperVersion + "/apache-maven-" + wrapperVersion + "-bin.zip\n")
+					.getBytes(StandardCharsets.UTF_8));
+		}
+		Files.write(new File(project, "pom.xml").toPath(), ("<project><modelVersion>4.0.0</modelVersion>"
+				+ "<groupId>demo</groupId><artifactId>" + name + "</artifactId><version>1.0</version>"
+				+ (prerequisite != null ? "<prerequisites><maven>" + prerequisite + "</maven></prerequisites>" : "")
+				+ "</project>").getBytes(StandardCharsets.UTF_8));
+		return project;
+	}
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Queue;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.queue.DurableInvocationQueue;
+import org.apache.maven.spring.boot.ext.queue.InvocationJournal;
+import org.apache.maven.spring.boot.ext.queue.QueuedInvocation;
+import org.apache.maven.spring.boot.ext.queue.QueuedInvocation.Kind;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+
+public class InvocationJournal_Test {
+
+	@Test
+	public void testReplayAndTornTail() throws Exception {
+		Path directory = Files.createTempDirectory("journal");
+		try {
+			InvocationJournal journal = new InvocationJournal(directory.toFile(), Duration.ofMillis(5), 0);
+			journal.open();
+			MavenResource resource = MavenResource.parse("/tmp/demo.jar", "org.demo:demo:1.0");
+			QueuedInvocation install = journal.enqueue(Kind.INSTALL, QueuedInvocation.of(resource)).get();
+			QueuedInvocation done = journal.enqueue(Kind.EXECUTE, QueuedInvocation.of(new File("/tmp/demo"), "verify")).get();
+			journal.started(install).get();
+			journal.started(done).get();
+			journal.completed(done).get();
+			journal.close();
+
+			// a crash in the middle of an append
+			Files.write(journal.getFile().toPath(), new byte[] { 0, 0, 0, 42, 1, 2 }, StandardOpenOption.APPEND);
+			long torn = journal.getFile().length();
+
+			journal = new InvocationJournal(directory.toFile(), Duration.ofMillis(5), 0);
+			List<QueuedInvocation> pending = journal.open();
+			assertEquals(torn - 6, journal.getFile().length());
+			assertEquals(1, pending.size());
+			QueuedInvocation replayed = pending.get(0);
+			assertEquals(install.getId(), replayed.getId());
+			assertEquals(1, replayed.getAttempts());
+			assertEquals("org.demo", replayed.getArguments().get("groupId"));
+			assertEquals(QueuedInvocation.of(resource), replayed.getArguments());
+			// ids are not reused after a replay
+			assertEquals(done.getId() + 1, journal.enqueue(Kind.EXECUTE, QueuedInvocation.of(new File("/tmp/demo"), "verify")).get().getId());
+			journal.close();
+		} finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		Path directory = Files.createTempDirectory("journal");
+		try {
+			InvocationJournal journal = new InvocationJournal(directory.toFile(), Duration.ZERO, 4);
+			journal.open();
+			List<QueuedInvocation> invocations = new ArrayList<QueuedInvocation>();
+			for (int i = 0; i < 5; i++) {
+				invocations.add(journal.enqueue(Kind.EXECUTE, QueuedInvocation.of(new File("/tmp/demo"), "verify")).get());
+			}
+			long oneRecord = journal.getFile().length() / 5;
+			for (int i = 0; i < 4; i++) {
+				journal.completed(invocations.get(i)).get();
+				// completing twice is harmless
+				journal.completed(invocations.get(i)).get();
+			}
+			journal.close();
+			assertEquals(1, journal.getPending().size());
+
+			journal = new InvocationJournal(directory.toFile(), Duration.ZERO, 4);
+			List<QueuedInvocation> pending = journal.open();
+			assertEquals(1, pending.size());
+			assertEquals(invocations.get(4).getId(), pending.get(0).getId());
+			assertEquals(oneRecord, journal.getFile().length());
+			journal.close();
+		} finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void testCompactionKeepsAttempts() throws Exception {
+		Path directory = Files.createTempDirectory("journal");
+		try {
+			InvocationJournal journal = new InvocationJournal(directory.toFile(), Duration.ZERO, 4);
+			journal.open();
+			QueuedInvocation retried = journal.enqueue(Kind.EXECUTE, QueuedInvocation.of(new File("/tmp/demo"), "verify")).get();
+			journal.started(retried).get();
+			journal.started(retried).get();
+			for (int i = 0; i < 4; i++) {
+				journal.completed(journal.enqueue(Kind.EXECUTE, QueuedInvocation.of(new File("/tmp/other"), "verify")).get()).get();
+			}
+			journal.close();
+
+			journal = new InvocationJournal(directory.toFile(), Duration.ZERO, 4);
+			List<QueuedInvocation> pending = journal.open();
+			assertEquals(1, pending.size());
+			assertEquals(2, pending.get(0).getAttempts());
+			journal.close();
+		} finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	@Test
+	public void testThrowingInvocationIsRetried() throws Exception {
+		Path directory = Files.createTempDirectory("queue");
+		try {
+			AtomicInteger throwing = new AtomicInteger(1);
+			AtomicInteger runs = new AtomicInteger();
+			MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, new DefaultInvoker(),
+					new MavenInvokerProperties()) {
+
+				@Override
+				public InvocationResult execute(File basedir, String... goals) throws MavenInvocationException {
+					runs.incrementAndGet();
+					if (throwing.getAndDecrement() > 0) {
+						throw new MavenInvocationException("Unable to start the fork");
+					}
+					return new InvocationResult() {
+
+						@Override
+						public CommandLineException getExecutionException() {
+							return null;
+						}
+
+						@Override
+						public int getExitCode() {
+							return 0;
+						}
+
+					};
+				}
+
+			};
+			Queue properties = new Queue();
+			properties.setMaxAttempts(2);
+			DurableInvocationQueue queue = new DurableInvocationQueue(template, properties, directory.toFile());
+			queue.start();
+			try {
+				queue.execute(new File("/tmp/demo"), "verify").get(5, TimeUnit.SECONDS);
+				fail("The invocation threw");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof MavenInvocationException);
+			}
+			// no result, so it is still pending and enqueueing the same work runs it again
+			assertEquals(1, queue.getPending().size());
+
+			assertEquals(0, queue.execute(new File("/tmp/demo"), "verify").get(5, TimeUnit.SECONDS).getExitCode());
+			assertTrue(queue.getPending().isEmpty());
+			assertEquals(2, runs.get());
+
+			// an invocation that keeps throwing is resumed after a restart and given up after its last attempt
+			throwing.set(10);
+			try {
+				queue.execute(new File("/tmp/demo"), "install").get(5, TimeUnit.SECONDS);
+				fail("The invocation threw");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof MavenInvocationException);
+			}
+			queue.stop();
+			queue = new DurableInvocationQueue(template, properties, directory.toFile());
+			queue.start();
+			long deadline = System.currentTimeMillis() + 5000;
+			while (!queue.getPending().isEmpty() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertTrue(queue.getPending().isEmpty());
+			assertEquals(4, runs.get());
+			queue.stop();
+		} finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties.Install.Placement;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.install.LocalInstallResult;
+import org.apache.maven.spring.boot.ext.install.LocalInstaller;
+import org.apache.maven.spring.boot.ext.repository.ArtifactLocks;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalInstaller_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File repository;
+	private MavenInvokerProperties properties;
+	private LocalInstaller installer;
+
+	@Before
+	public void setUp() throws Exception {
+		repository = folder.newFolder("repository");
+		properties = new MavenInvokerProperties();
+		properties.setLocalRepository(repository.getAbsolutePath());
+		installer = new LocalInstaller(properties, new ArtifactLocks(repository, 16));
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		properties.getInstall().setPlacement(Placement.COPY);
+		File source = source("lib-1.0.jar", "content");
+		LocalInstallResult result = installer.install(resource(source, "1.0"));
+
+		assertEquals(Placement.COPY, result.getPlacement());
+		assertEquals(0, result.getExitCode());
+		File target = new File(repository, "org/demo/lib/1.0/lib-1.0.jar");
+		assertEquals(target, result.getFile());
+		assertArrayEquals(Files.readAllBytes(source.toPath()), Files.readAllBytes(target.toPath()));
+		assertTrue(source.isFile());
+		assertTrue(read(new File(repository, "org/demo/lib/1.0/lib-1.0.pom")).contains("<artifactId>lib</artifactId>"));
+		String remote = read(new File(repository, "org/demo/lib/1.0/_remote.repositories"));
+		assertTrue(remote.contains("lib-1.0.jar>=\n"));
+		assertTrue(remote.contains("lib-1.0.pom>=\n"));
+		// no temporary files are left behind
+		assertEquals(3, target.getParentFile().list().length);
+	}
+
+	@Test
+	public void testHardlink() throws Exception {
+		properties.getInstall().setPlacement(Placement.HARDLINK);
+		File source = source("lib-1.0.jar", "content");
+		LocalInstallResult result = installer.install(resource(source, "1.0"));
+
+		// the temporary folder and the repository share a file system
+		assertEquals(Placement.HARDLINK, result.getPlacement());
+		assertTrue(Files.isSameFile(source.toPath(), result.getFile().toPath()));
+	}
+
+	@Test
+	public void testMove() throws Exception {
+		properties.getInstall().setPlacement(Placement.MOVE);
+		File source = source("lib-1.0.jar", "content");
+		LocalInstallResult result = installer.install(resource(source, "1.0"));
+
+		assertEquals(Placement.MOVE, result.getPlacement());
+		assertFalse(source.exists());
+		assertEquals("content", read(result.getFile()));
+	}
+
+	@Test
+	public void testReinstallAndMetadata() throws Exception {
+		properties.getInstall().setPlacement(Placement.AUTO);
+		installer.install(resource(source("lib-1.0.jar", "first"), "1.0"));
+		installer.install(resource(source("lib-1.0-again.jar", "second"), "1.0"));
+		installer.install(resource(source("lib-1.1.jar", "other"), "1.1"));
+
+		assertEquals("second", read(new File(repository, "org/demo/lib/1.0/lib-1.0.jar")));
+		String remote = read(new File(repository, "org/demo/lib/1.0/_remote.repositories"));
+		assertEquals(remote.indexOf("lib-1.0.jar>="), remote.lastIndexOf("lib-1.0.jar>="));
+		String metadata = read(new File(repository, "org/demo/lib/maven-metadata-local.xml"));
+		assertTrue(metadata.contains("<version>1.0</version>"));
+		assertTrue(metadata.contains("<version>1.1</version>"));
+	}
+
+	private File source(String name, String content) throws Exception {
+		File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static MavenResource resource(File file, String version) {
+		return new MavenResource.Builder().groupId("org.demo").artifactId("lib").version(version).generatePom(true)
+				.filepath(file.getAbsolutePath()).build();
+	}
+
+	private static String read(File file) throws Exception {
+		return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.spring.boot.MavenInvokerProperties.Cleanup;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryCleaner;
+import org.apache.maven.spring.boot.ext.repository.RepositoryCleanupResult;
+import org.apache.maven.spring.boot.ext.repository.RepositoryLock;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+
+public class LocalRepositoryCleaner_Test {
+
+	private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+	@Test
+	public void testRetention() throws Exception {
+		Path repository = Files.createTempDirectory("repository");
+		try {
+			long now = System.currentTimeMillis();
+			Path snapshots = repository.resolve("org/demo/core/1.0-SNAPSHOT");
+			for (int build = 1; build <= 4; build++) {
+				write(snapshots.resolve("core-1.0-20240101.12000" + build + "-" + build + ".jar"), now);
+				write(snapshots.resolve("core-1.0-20240101.12000" + build + "-" + build + ".jar.sha1"), now);
+			}
+			write(snapshots.resolve("core-1.0-SNAPSHOT.jar"), now);
+			Path unused = repository.resolve("org/demo/core/0.9");
+			write(unused.resolve("core-0.9.jar"), now - 100 * DAY);
+			write(unused.resolve("core-0.9.pom"), now - 100 * DAY);
+			write(repository.resolve("org/demo/core/maven-metadata-local.xml"), now, "<metadata><groupId>org.demo</groupId>"
+					+ "<artifactId>core</artifactId><versioning><versions><version>0.9</version>"
+					+ "<version>1.0-SNAPSHOT</version></versions></versioning></metadata>");
+			Path failed = repository.resolve("org/demo/missing/2.0");
+			write(failed.resolve("missing-2.0.jar.lastUpdated"), now - DAY);
+			write(snapshots.resolve("core-1.0-SNAPSHOT.pom.part"), now);
+
+			Cleanup cleanup = new Cleanup();
+			cleanup.setKeepSnapshots(2);
+			cleanup.setUnusedFor(Duration.ofDays(30));
+			cleanup.setBatchSize(2);
+			LocalRepositoryCleaner cleaner = new LocalRepositoryCleaner(cleanup, new RepositoryLock(repository.toFile()), null);
+
+			RepositoryCleanupResult plan = cleaner.plan();
+			assertTrue(plan.isDryRun());
+			assertEquals(2, plan.getSnapshotBuilds());
+			assertTrue(Files.exists(unused));
+
+			RepositoryCleanupResult result = cleaner.clean();
+			assertEquals(1, result.getLeftovers());
+			assertEquals(2, result.getSnapshotBuilds());
+			assertEquals(1, result.getVersions());
+			assertFalse(Files.exists(snapshots.resolve("core-1.0-20240101.120002-2.jar.sha1")));
+			assertTrue(Files.exists(snapshots.resolve("core-1.0-20240101.120003-3.jar")));
+			assertTrue(Files.exists(snapshots.resolve("core-1.0-SNAPSHOT.jar")));
+			// a fresh partial download may be in progress
+			assertTrue(Files.exists(snapshots.resolve("core-1.0-SNAPSHOT.pom.part")));
+			assertFalse(Files.exists(unused));
+			assertFalse(Files.exists(repository.resolve("org/demo/missing")));
+			String metadata = new String(Files.readAllBytes(repository.resolve("org/demo/core/maven-metadata-local.xml")),
+					StandardCharsets.UTF_8);
+			assertFalse(metadata.contains("<version>0.9</version>"));
+		} finally {
+			FileSystemUtils.deleteRecursively(repository);
+		}
+	}
+
+	@Test
+	public void testWaitsForForks() throws Exception {
+		Path repository = Files.createTempDirectory("repository");
+		try {
+			write(repository.resolve("org/demo/app/1.0/app-1.0.jar"), 0);
+			Cleanup cleanup = new Cleanup();
+			cleanup.setUnusedFor(Duration.ofDays(1));
+			cleanup.setLockTimeout(Duration.ofMillis(200));
+			RepositoryLock lock = new RepositoryLock(repository.toFile());
+			LocalRepositoryCleaner cleaner = new LocalRepositoryCleaner(cleanup, lock, null);
+
+			lock.lockShared();
+			try {
+				RepositoryCleanupResult result = cleaner.clean();
+				assertEquals(0, result.getVersions());
+				assertEquals(1, result.getSkipped());
+			} finally {
+				lock.unlockShared();
+			}
+			assertEquals(1, cleaner.clean().getVersions());
+		} finally {
+			FileSystemUtils.deleteRecursively(repository);
+		}
+	}
+
+	private static void write(Path file, long lastModified) throws Exception {
+		write(file, lastModified, file.getFileName().toString());
+	}
+
+	private static void write(Path file, long lastModified, String content) throws Exception {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+		Files.setAttribute(file, "lastAccessTime", FileTime.fromMillis(lastModified));
+	}
+
+}
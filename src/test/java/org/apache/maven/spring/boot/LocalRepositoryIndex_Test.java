@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.spring.boot.ext.repository.LocalArtifact;
+import org.apache.maven.spring.boot.ext.repository.LocalRepositoryIndex;
+import org.apache.maven.spring.boot.ext.repository.RepositoryFiles;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+
+public class LocalRepositoryIndex_Test {
+
+	private Path work;
+	private Path repository;
+	private MavenInvokerProperties properties;
+
+	@Before
+	public void setUp() throws Exception {
+		work = Files.createTempDirectory("index");
+		repository = work.resolve("repository");
+		properties = new MavenInvokerProperties();
+		properties.setLocalRepository(repository.toString());
+		properties.getIndex().setDirectory(work.resolve("invoker-index").toString());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileSystemUtils.deleteRecursively(work);
+	}
+
+	@Test
+	public void testRebuildAndFind() throws Exception {
+		File core = write("org/demo/core/1.0/core-1.0.jar", "core");
+		write("org/demo/core/1.0/core-1.0.pom", "<project/>");
+		write("org/demo/core/1.1/core-1.1.jar", "core 1.1");
+		write("org/demo/core/1.0/core-1.0.jar.sha1", "0123456789abcdef0123456789abcdef01234567  core-1.0.jar");
+
+		LocalRepositoryIndex index = new LocalRepositoryIndex(properties);
+		index.rebuild();
+
+		assertEquals(3, index.size());
+		assertEquals(2, index.find("org.demo", "core", "1.0").size());
+		assertEquals(Arrays.asList("1.0", "1.1"), new ArrayList<String>(index.versions("org.demo", "core")));
+		List<LocalArtifact> found = index.findBySha1("0123456789ABCDEF0123456789ABCDEF01234567");
+		assertEquals(1, found.size());
+		assertEquals(core, found.get(0).getFile());
+		assertEquals(1, index.findBySha1(RepositoryFiles.sha1(repository.resolve("org/demo/core/1.1/core-1.1.jar").toFile())).size());
+	}
+
+	@Test
+	public void testInvalidSidecarIsHashed() throws Exception {
+		File jar = write("org/demo/core/1.0/core-1.0.jar", "core");
+		// the right length but not hex, as left behind by a broken download
+		write("org/demo/core/1.0/core-1.0.jar.sha1", "<html><body>404-not-found</body></html>x");
+
+		LocalRepositoryIndex index = new LocalRepositoryIndex(properties);
+		index.rebuild();
+
+		LocalArtifact artifact = index.find("org.demo", "core", "1.0").get(0);
+		assertEquals(RepositoryFiles.sha1(jar), artifact.getSha1());
+		assertTrue(new File(properties.getIndex().getDirectory(), "index.bin").isFile());
+
+		properties.getIndex().setHashMissing(false);
+		index = new LocalRepositoryIndex(properties);
+		index.rebuild();
+		assertNull(index.find("org.demo", "core", "1.0").get(0).getSha1());
+	}
+
+	@Test
+	public void testReopenLoadsSnapshotAndReplaysLog() throws Exception {
+		write("org/demo/core/1.0/core-1.0.jar", "core");
+		LocalRepositoryIndex index = new LocalRepositoryIndex(properties);
+		index.rebuild();
+		File directory = new File(properties.getIndex().getDirectory());
+		assertTrue(new File(directory, "index.bin").isFile());
+		assertFalse(new File(directory, "index.log").exists());
+
+		File api = write("org/demo/api/2.0/api-2.0.jar", "api");
+		index.update("org.demo", "api", "2.0");
+		assertTrue(new File(directory, "index.log").isFile());
+
+		// a jar the reopened index must not see, it reads the persisted state instead of scanning
+		write("org/demo/other/1.0/other-1.0.jar", "other");
+		LocalRepositoryIndex reopened = new LocalRepositoryIndex(properties);
+		assertEquals(2, reopened.size());
+		assertEquals(1, reopened.find("org.demo", "core", "1.0").size());
+		LocalArtifact replayed = reopened.find("org.demo", "api", "2.0").get(0);
+		assertEquals(api, replayed.getFile());
+		assertEquals(RepositoryFiles.sha1(api), replayed.getSha1());
+		assertTrue(reopened.find("org.demo", "other", "1.0").isEmpty());
+
+		// a rebuild compacts the log into a new snapshot
+		reopened.rebuild();
+		assertEquals(3, reopened.size());
+		assertFalse(new File(directory, "index.log").exists());
+		assertEquals(3, new LocalRepositoryIndex(properties).size());
+	}
+
+	private File write(String path, String content) throws Exception {
+		Path file = repository.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file.toFile();
+	}
+
+}
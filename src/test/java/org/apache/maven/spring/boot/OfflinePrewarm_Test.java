@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.model.EffectiveModelReader;
+import org.apache.maven.spring.boot.ext.offline.DependencyPrewarmer;
+import org.apache.maven.spring.boot.ext.offline.OfflineInterceptor;
+import org.apache.maven.spring.boot.ext.offline.PrewarmResult;
+import org.apache.maven.spring.boot.ext.offline.ProjectFingerprinter;
+import org.apache.maven.spring.boot.ext.offline.WarmFingerprints;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+
+public class OfflinePrewarm_Test {
+
+	private final List<String> runs = new ArrayList<String>();
+	private boolean missOffline;
+
+	private final DefaultInvoker invoker = new DefaultInvoker() {
+
+		@Override
+		public InvocationResult execute(InvocationRequest request) {
+			runs.add(String.join(" ", request.getGoals()) + (request.isOffline() ? " offline" : " online"));
+			boolean failed = request.isOffline() && missOffline;
+			if (failed) {
+				try {
+					request.getOutputHandler(null).consumeLine("[ERROR] Plugin org.demo:late:1.0 or one of its "
+							+ "dependencies could not be resolved: Cannot access central in offline mode");
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return new InvocationResult() {
+
+				@Override
+				public CommandLineException getExecutionException() {
+					return null;
+				}
+
+				@Override
+				public int getExitCode() {
+					return failed ? 1 : 0;
+				}
+
+			};
+		}
+
+	};
+
+	@Test
+	public void testWarmProjectsBuildOffline() throws Exception {
+		Path project = Files.createTempDirectory("prewarm");
+		try {
+			writePom(project, "1.0");
+			MavenInvokerProperties properties = new MavenInvokerProperties();
+			ProjectFingerprinter fingerprinter = new ProjectFingerprinter(new EffectiveModelReader(properties));
+			WarmFingerprints fingerprints = new WarmFingerprints(project.resolve("warm").toFile(), Duration.ofDays(1));
+			MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker, properties);
+			template.setInterceptors(Arrays.asList(new OfflineInterceptor(fingerprinter, fingerprints,
+					properties.resolveLocalRepository())));
+			template.setPrewarmer(new DependencyPrewarmer(fingerprinter, fingerprints, Arrays.asList("dependency:go-offline")));
+
+			template.execute(project.toFile(), "verify");
+			PrewarmResult prewarm = template.prewarm(project.toFile());
+			assertTrue(prewarm.isWarm());
+			// warm already, nothing to resolve
+			assertNull(template.prewarm(project.toFile()).getResult());
+			template.execute(project.toFile(), "verify");
+			assertEquals(Arrays.asList("verify online", "dependency:go-offline online", "verify offline"), runs);
+
+			// another local repository is another fingerprint
+			assertNotEquals(prewarm.getFingerprint(), fingerprinter.fingerprint(project.toFile(),
+					properties.getPomFilename(), null, project.resolve("repository").toFile()));
+
+			// a changed POM is another fingerprint
+			writePom(project, "1.1");
+			assertNotEquals(prewarm.getFingerprint(), fingerprinter.fingerprint(project.toFile(),
+					properties.getPomFilename(), null, properties.resolveLocalRepository()));
+			runs.clear();
+			template.execute(project.toFile(), "verify");
+			assertEquals(Arrays.asList("verify online"), runs);
+
+			// an offline build missing an artifact runs online and warms the project again
+			String fingerprint = template.prewarm(project.toFile()).getFingerprint();
+			missOffline = true;
+			runs.clear();
+			assertEquals(0, template.execute(project.toFile(), "verify").getExitCode());
+			assertEquals(Arrays.asList("verify offline", "verify online"), runs);
+			assertTrue(fingerprints.isWarm(fingerprint));
+		} finally {
+			FileSystemUtils.deleteRecursively(project);
+		}
+	}
+
+	private static void writePom(Path project, String version) throws IOException {
+		Files.write(project.resolve("pom.xml"), ("<project><modelVersion>4.0.0</modelVersion><groupId>demo</groupId>"
+				+ "<artifactId>demo</artifactId><version>" + version + "</version><dependencies><dependency>"
+				+ "<groupId>org.demo</groupId><artifactId>lib</artifactId><version>2.0</version></dependency>"
+				+ "</dependencies></project>").getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.aggregate.AggregatedProjectResult;
+import org.apache.maven.spring.boot.ext.aggregate.ProjectAggregator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProjectAggregator_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File project(String artifactId, String modules) throws IOException {
+		File dir = folder.newFolder(artifactId);
+		String xml = "<project><modelVersion>4.0.0</modelVersion><groupId>demo</groupId><artifactId>" + artifactId
+				+ "</artifactId><version>1</version><modules>" + modules + "</modules></project>";
+		Files.write(new File(dir, "pom.xml").toPath(), xml.getBytes(StandardCharsets.UTF_8));
+		return dir;
+	}
+
+	@Test
+	public void testSplitBackAndReactorsOnTheirOwn() throws Exception {
+		File a = project("a", "");
+		File b = project("b", "");
+		File c = project("c", "");
+		File multi = project("multi", "<module>core</module>");
+		List<String> goals = Arrays.asList("verify");
+		Map<File, List<String>> projects = new LinkedHashMap<File, List<String>>();
+		projects.put(a, goals);
+		projects.put(b, goals);
+		projects.put(c, goals);
+		projects.put(multi, goals);
+
+		List<File> forks = new ArrayList<File>();
+		Map<File, InvocationResult> results = new ProjectAggregator(null).execute(projects,
+				(basedir, pomFile, requested, output) -> {
+					forks.add(basedir);
+					if (output == null) {
+						return result(basedir.equals(c) ? 0 : 1);
+					}
+					// c is missing from the summary and must be built again on its own
+					for (String line : new String[] { "[INFO] Reactor Summary for aggregate 1:", "[INFO] ",
+							"[INFO] a .................................................. SUCCESS [  1.000 s]",
+							"[INFO] b .................................................. FAILURE [  2.000 s]",
+							"[INFO] BUILD FAILURE", "[INFO] Total time:  3.000 s" }) {
+						try {
+							output.consumeLine(line);
+						} catch (IOException e) {
+							throw new IllegalStateException(e);
+						}
+					}
+					return result(1);
+				});
+
+		assertEquals(Arrays.asList(a, b, c, multi), new ArrayList<File>(results.keySet()));
+		assertEquals(0, results.get(a).getExitCode());
+		assertEquals(1, results.get(b).getExitCode());
+		assertEquals(1000, ((AggregatedProjectResult) results.get(a)).getDurationMillis());
+		assertEquals(0, results.get(c).getExitCode());
+		// the reactor was never aggregated, its own fork reported the failure
+		assertEquals(1, results.get(multi).getExitCode());
+		assertEquals(3, forks.size());
+		assertTrue(forks.contains(c) && forks.contains(multi));
+	}
+
+	private static InvocationResult result(int exitCode) {
+		return new InvocationResult() {
+
+			@Override
+			public CommandLineException getExecutionException() {
+				return null;
+			}
+
+			@Override
+			public int getExitCode() {
+				return exitCode;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.maven.spring.boot.ext.reactor.ReactorBuildUnit;
+import org.apache.maven.spring.boot.ext.reactor.ReactorGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReactorGraph_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private void pom(File dir, String artifactId, String packaging, String modules, String dependencies) throws IOException {
+		dir.mkdirs();
+		String xml = "<project><modelVersion>4.0.0</modelVersion>"
+				+ (dir.equals(folder.getRoot()) ? "<groupId>demo</groupId>"
+						: "<parent><groupId>demo</groupId><artifactId>root</artifactId><version>1</version></parent>")
+				+ "<artifactId>" + artifactId + "</artifactId><version>1</version><packaging>" + packaging + "</packaging>"
+				+ "<modules>" + modules + "</modules><dependencies>" + dependencies + "</dependencies></project>";
+		Files.write(new File(dir, "pom.xml").toPath(), xml.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String dependency(String artifactId) {
+		return "<dependency><groupId>demo</groupId><artifactId>" + artifactId + "</artifactId><version>1</version></dependency>";
+	}
+
+	@Test
+	public void testPartition() throws IOException {
+		File root = folder.getRoot();
+		pom(root, "root", "pom", "<module>a</module><module>b</module><module>c</module><module>d</module>", "");
+		pom(new File(root, "a"), "a", "jar", "", "");
+		pom(new File(root, "b"), "b", "jar", "", dependency("a"));
+		pom(new File(root, "c"), "c", "jar", "", "");
+		pom(new File(root, "d"), "d", "jar", "", dependency("c"));
+
+		ReactorGraph graph = ReactorGraph.read(root, null, null);
+		assertEquals(5, graph.size());
+		assertTrue(graph.getModule("demo:b").getUpstreams().contains("demo:a"));
+		assertTrue(graph.getModule("demo:b").getUpstreams().contains("demo:root"));
+
+		List<ReactorBuildUnit> units = graph.partition();
+		assertEquals(2, units.size());
+		assertEquals("demo:a,demo:b", units.get(0).toString());
+		assertEquals("demo:c,demo:d", units.get(1).toString());
+
+		assertEquals(2, graph.maxParallelWidth());
+	}
+
+	@Test
+	public void testSharedCoreStages() throws IOException {
+		File root = folder.getRoot();
+		pom(root, "root", "pom", "<module>core</module><module>a</module><module>b</module><module>app</module>", "");
+		pom(new File(root, "core"), "core", "jar", "", "");
+		pom(new File(root, "a"), "a", "jar", "", dependency("core"));
+		pom(new File(root, "b"), "b", "jar", "", dependency("core"));
+		pom(new File(root, "app"), "app", "jar", "", dependency("a"));
+
+		ReactorGraph graph = ReactorGraph.read(root, null, null);
+		// everything shares core, so -am units cannot be split
+		assertEquals(1, graph.partition().size());
+
+		List<List<ReactorBuildUnit>> stages = graph.stages();
+		assertEquals(3, stages.size());
+		assertEquals("[demo:root]", stages.get(0).toString());
+		assertEquals("[demo:core]", stages.get(1).toString());
+		// a and b build in parallel, app only needs a and stays in its fork
+		assertEquals("[demo:a,demo:app, demo:b]", stages.get(2).toString());
+	}
+
+	@Test
+	public void testPropertyCoordinates() throws IOException {
+		File root = folder.getRoot();
+		Files.write(new File(root, "pom.xml").toPath(), ("<project><modelVersion>4.0.0</modelVersion>"
+				+ "<groupId>demo</groupId><artifactId>root</artifactId><version>1</version><packaging>pom</packaging>"
+				+ "<properties><core.id>core</core.id><core.artifactId>${core.id}</core.artifactId></properties>"
+				+ "<modules><module>core</module><module>a</module><module>b</module></modules></project>")
+						.getBytes(StandardCharsets.UTF_8));
+		pom(new File(root, "core"), "core", "jar", "", "");
+		pom(new File(root, "a"), "a", "jar", "",
+				"<dependency><groupId>${project.groupId}</groupId><artifactId>core</artifactId><version>${project.version}</version></dependency>");
+		pom(new File(root, "b"), "b", "jar", "",
+				"<dependency><groupId>${parent.groupId}</groupId><artifactId>${core.artifactId}</artifactId><version>1</version></dependency>");
+
+		ReactorGraph graph = ReactorGraph.read(root, null, null);
+		assertTrue(graph.getModule("demo:a").getUpstreams().contains("demo:core"));
+		assertTrue(graph.getModule("demo:b").getUpstreams().contains("demo:core"));
+		// a and b share core, so -am units cannot be split, and core builds a stage before them
+		assertEquals(1, graph.partition().size());
+		List<List<ReactorBuildUnit>> stages = graph.stages();
+		assertEquals("[demo:core]", stages.get(1).toString());
+		assertEquals("[demo:a, demo:b]", stages.get(2).toString());
+	}
+
+}
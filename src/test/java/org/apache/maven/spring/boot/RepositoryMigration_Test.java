@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.migrate.MigrationReport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class RepositoryMigration_Test {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+	private final Map<String, byte[]> files = new ConcurrentHashMap<String, byte[]>();
+	private final AtomicInteger puts = new AtomicInteger();
+	private volatile String failing;
+
+	private File repository;
+	private MavenInvokerTemplate template;
+	private String url;
+
+	/**
+	 * A repository stand-in storing whole PUTs, failing those of one path on demand.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/releases";
+
+		repository = folder.newFolder("repository");
+		artifact("org/demo/lib/1.0", "lib-1.0");
+		artifact("org/demo/lib/1.1", "lib-1.1");
+		artifact("org/demo/snap/1.0-SNAPSHOT", "snap-1.0-SNAPSHOT");
+
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(repository.getAbsolutePath());
+		properties.getMigration().setManifestDirectory(folder.newFolder("manifests").getAbsolutePath());
+		template = new MavenInvokerTemplate(null, null, null, properties);
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		byte[] body = read(exchange.getRequestBody());
+		byte[] stored = files.get(path);
+		switch (exchange.getRequestMethod()) {
+		case "GET":
+		case "HEAD":
+			if (stored == null) {
+				exchange.sendResponseHeaders(404, -1);
+			} else if (exchange.getRequestMethod().equals("HEAD")) {
+				exchange.sendResponseHeaders(200, -1);
+			} else {
+				exchange.sendResponseHeaders(200, stored.length);
+				exchange.getResponseBody().write(stored);
+			}
+			break;
+		default:
+			if (path.equals(failing)) {
+				exchange.sendResponseHeaders(500, -1);
+				break;
+			}
+			puts.incrementAndGet();
+			files.put(path, body);
+			exchange.sendResponseHeaders(201, -1);
+		}
+		exchange.close();
+	}
+
+	@Test
+	public void testMigrate() throws Exception {
+		MigrationReport report = template.migrate(repository, url, "releases");
+		assertTrue(report.isSuccess());
+		// a jar and a POM per release, the snapshot is skipped
+		assertEquals(4, report.getPushed());
+		assertEquals(2, report.getSkipped());
+		assertEquals("lib-1.0.jar", new String(files.get("/releases/org/demo/lib/1.0/lib-1.0.jar"), StandardCharsets.UTF_8));
+		assertTrue(files.containsKey("/releases/org/demo/lib/1.1/lib-1.1.pom"));
+		assertTrue(files.containsKey("/releases/org/demo/lib/1.0/lib-1.0.jar.sha1"));
+		assertFalse(files.containsKey("/releases/org/demo/snap/1.0-SNAPSHOT/snap-1.0-SNAPSHOT.jar"));
+		String metadata = new String(files.get("/releases/org/demo/lib/maven-metadata.xml"), StandardCharsets.UTF_8);
+		assertTrue(metadata.contains("<version>1.0</version>"));
+		assertTrue(metadata.contains("<version>1.1</version>"));
+
+		// the manifest makes a rerun push nothing
+		int before = puts.get();
+		report = template.migrate(repository, url, "releases");
+		assertEquals(0, report.getPushed());
+		assertEquals(6, report.getSkipped());
+		assertEquals(before, puts.get());
+	}
+
+	@Test
+	public void testRerunAfterFailure() throws Exception {
+		failing = "/releases/org/demo/lib/1.1/lib-1.1.jar";
+		MigrationReport report = template.migrate(new File(repository, "org/demo/lib"), url, "releases");
+		assertFalse(report.isSuccess());
+		assertTrue(report.getFailures().containsKey("org/demo/lib/1.1/lib-1.1.jar"));
+		assertEquals(3, report.getPushed());
+		// the metadata only lists complete versions
+		String metadata = new String(files.get("/releases/org/demo/lib/maven-metadata.xml"), StandardCharsets.UTF_8);
+		assertFalse(metadata.contains("<version>1.1</version>"));
+
+		failing = null;
+		report = template.migrate(new File(repository, "org/demo/lib"), url, "releases");
+		assertTrue(report.isSuccess());
+		assertEquals(1, report.getPushed());
+		assertEquals(3, report.getSkipped());
+		metadata = new String(files.get("/releases/org/demo/lib/maven-metadata.xml"), StandardCharsets.UTF_8);
+		assertTrue(metadata.contains("<version>1.1</version>"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutsideRepository() throws Exception {
+		template.migrate(folder.newFolder("elsewhere"), url, "releases");
+	}
+
+	private void artifact(String directory, String name) throws IOException {
+		File version = new File(repository, directory);
+		version.mkdirs();
+		Files.write(new File(version, name + ".jar").toPath(), (name + ".jar").getBytes(StandardCharsets.UTF_8));
+		Files.write(new File(version, name + ".pom").toPath(), (name + ".pom").getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] read(InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = input.read(buffer)) > 0) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.MavenInvocationException;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.MavenResource;
+import org.apache.maven.spring.boot.ext.deploy.RemoteDeployResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.unit.DataSize;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class ResumableDeploy_Test {
+
+	private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\*|(\\d+)-(\\d+))/(\\d+)");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private HttpServer server;
+	private final Map<String, ByteArrayOutputStream> files = new ConcurrentHashMap<String, ByteArrayOutputStream>();
+	private final AtomicInteger chunksBeforeFailure = new AtomicInteger(Integer.MAX_VALUE);
+	private volatile boolean ranges = true;
+
+	/**
+	 * A repository stand-in accepting ranged PUTs, answering 308 until the last chunk.
+	 */
+	@Before
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		byte[] body = read(exchange.getRequestBody());
+		ByteArrayOutputStream stored = files.get(path);
+		switch (exchange.getRequestMethod()) {
+		case "GET":
+			if (stored == null) {
+				exchange.sendResponseHeaders(404, -1);
+			} else {
+				exchange.sendResponseHeaders(200, stored.size());
+				exchange.getResponseBody().write(stored.toByteArray());
+			}
+			break;
+		case "HEAD":
+			if (stored == null) {
+				exchange.sendResponseHeaders(404, -1);
+			} else {
+				exchange.getResponseHeaders().set("X-Checksum-Sha1", sha1(stored.toByteArray()));
+				exchange.getResponseHeaders().set("Content-Length", String.valueOf(stored.size()));
+				exchange.sendResponseHeaders(200, -1);
+			}
+			break;
+		default:
+			String range = exchange.getRequestHeaders().getFirst("Content-Range");
+			if (range == null || !ranges) {
+				ByteArrayOutputStream whole = new ByteArrayOutputStream();
+				whole.write(body);
+				files.put(path, whole);
+				exchange.sendResponseHeaders(201, -1);
+				break;
+			}
+			Matcher matcher = CONTENT_RANGE.matcher(range);
+			matcher.matches();
+			long total = Long.parseLong(matcher.group(4));
+			if (stored == null) {
+				stored = new ByteArrayOutputStream();
+				files.put(path, stored);
+			}
+			if (matcher.group(2) != null) {
+				if (chunksBeforeFailure.getAndDecrement() <= 0) {
+					exchange.sendResponseHeaders(500, -1);
+					break;
+				}
+				if (Long.parseLong(matcher.group(2)) == stored.size()) {
+					stored.write(body);
+				}
+			}
+			if (stored.size() == total) {
+				exchange.sendResponseHeaders(201, -1);
+			} else {
+				if (stored.size() > 0) {
+					exchange.getResponseHeaders().set("Range", "bytes=0-" + (stored.size() - 1));
+				}
+				exchange.sendResponseHeaders(308, -1);
+			}
+		}
+		exchange.close();
+	}
+
+	@Test
+	public void testResume() throws Exception {
+		byte[] content = new byte[300 * 1024];
+		new Random(7).nextBytes(content);
+		File file = folder.newFile("image-1.0.tgz");
+		Files.write(file.toPath(), content);
+
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(folder.newFolder("repository").getAbsolutePath());
+		properties.getDeploy().setResumable(true);
+		properties.getDeploy().setResumableThreshold(DataSize.ofBytes(0));
+		properties.getDeploy().setChunked(true);
+		properties.getDeploy().setChunkSize(DataSize.ofKilobytes(64));
+		properties.getDeploy().setJournalDirectory(folder.newFolder("journal").getAbsolutePath());
+		MavenInvokerTemplate template = new MavenInvokerTemplate(null, null, null, properties);
+
+		MavenResource resource = new MavenResource.Builder().filepath(file.getAbsolutePath()).groupId("org.acme")
+				.artifactId("image").extension("tgz").version("1.0").generatePom(true)
+				.repositoryUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/releases")
+				.repositoryId("releases").build();
+
+		chunksBeforeFailure.set(2);
+		try {
+			template.deploy(resource);
+			fail("the third chunk fails");
+		} catch (MavenInvocationException e) {
+			// interrupted upload
+		}
+		chunksBeforeFailure.set(Integer.MAX_VALUE);
+		RemoteDeployResult result = (RemoteDeployResult) template.deploy(resource);
+
+		assertEquals(content.length - 2 * 64 * 1024, result.getBytesSent());
+		assertArrayEquals(content, files.get("/releases/org/acme/image/1.0/image-1.0.tgz").toByteArray());
+		assertEquals(sha1(content), files.get("/releases/org/acme/image/1.0/image-1.0.tgz.sha1").toString("US-ASCII"));
+		assertTrue(files.containsKey("/releases/org/acme/image/1.0/image-1.0.pom"));
+		assertTrue(files.get("/releases/org/acme/image/maven-metadata.xml").toString("UTF-8").contains("<release>1.0</release>"));
+		assertEquals(0, new File(properties.getDeploy().getJournalDirectory()).list().length);
+	}
+
+	@Test
+	public void testProbeOfRepositoryWithoutRanges() throws Exception {
+		byte[] content = new byte[300 * 1024];
+		new Random(11).nextBytes(content);
+		File file = folder.newFile("image-1.0.tgz");
+		Files.write(file.toPath(), content);
+
+		MavenInvokerProperties properties = new MavenInvokerProperties();
+		properties.setLocalRepository(folder.newFolder("repository").getAbsolutePath());
+		properties.getDeploy().setResumable(true);
+		properties.getDeploy().setResumableThreshold(DataSize.ofBytes(0));
+		properties.getDeploy().setChunked(true);
+		properties.getDeploy().setChunkSize(DataSize.ofKilobytes(64));
+		properties.getDeploy().setVerify(false);
+		properties.getDeploy().setJournalDirectory(folder.newFolder("journal").getAbsolutePath());
+		MavenInvokerTemplate template = new MavenInvokerTemplate(null, null, null, properties);
+
+		MavenResource resource = new MavenResource.Builder().filepath(file.getAbsolutePath()).groupId("org.acme")
+				.artifactId("image").extension("tgz").version("1.0").generatePom(true)
+				.repositoryUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/releases")
+				.repositoryId("releases").build();
+
+		chunksBeforeFailure.set(2);
+		try {
+			template.deploy(resource);
+			fail("the third chunk fails");
+		} catch (MavenInvocationException e) {
+			// interrupted upload, the journal holds an offset
+		}
+		chunksBeforeFailure.set(Integer.MAX_VALUE);
+		// the repository behind the URL no longer does ranges: the probe stores an empty file and answers 201
+		ranges = false;
+		RemoteDeployResult result = (RemoteDeployResult) template.deploy(resource);
+
+		assertArrayEquals(content, files.get("/releases/org/acme/image/1.0/image-1.0.tgz").toByteArray());
+		// the rejected first chunk is not counted, the whole upload is
+		assertEquals(content.length, result.getBytesSent());
+	}
+
+	private static byte[] read(InputStream input) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = input.read(buffer)) > 0) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+	private static String sha1(byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest.digest(content)) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.MavenInvokerProperties.Retry;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.retry.RetryInterceptor;
+import org.apache.maven.spring.boot.ext.retry.TransientFailureClassifier;
+import org.junit.Test;
+
+public class Retry_Test {
+
+	private static final String[] SUCCESS = {
+			"[INFO] BUILD SUCCESS",
+			"[INFO] Total time:  0.100 s",
+	};
+
+	private final Queue<String[]> outputs = new LinkedList<String[]>();
+	private final List<String> resumedFrom = new ArrayList<String>();
+
+	private final DefaultInvoker invoker = new DefaultInvoker() {
+
+		@Override
+		public InvocationResult execute(InvocationRequest request) {
+			resumedFrom.add(request.getResumeFrom());
+			String[] output = outputs.isEmpty() ? SUCCESS : outputs.poll();
+			try {
+				for (String line : output) {
+					request.getOutputHandler(null).consumeLine(line);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			boolean failed = Arrays.asList(output).contains("[INFO] BUILD FAILURE");
+			return new InvocationResult() {
+
+				@Override
+				public CommandLineException getExecutionException() {
+					return null;
+				}
+
+				@Override
+				public int getExitCode() {
+					return failed ? 1 : 0;
+				}
+
+			};
+		}
+
+	};
+
+	@Test
+	public void testClassifier() {
+		Retry retry = new Retry();
+		TransientFailureClassifier classifier = new TransientFailureClassifier(retry.getTransientPatterns(),
+				retry.getPermanentPatterns());
+
+		assertTrue(classifier.isTransient("Could not transfer artifact org.demo:lib:jar:2.0 from/to central "
+				+ "(https://repo.maven.apache.org/maven2): Connection reset"));
+		assertTrue(classifier.isTransient("Could not transfer metadata org.demo:lib/maven-metadata.xml from/to "
+				+ "central (https://repo.maven.apache.org/maven2): Read timed out"));
+		assertTrue(classifier.isTransient("Failed to deploy artifacts: Could not transfer artifact "
+				+ "org.demo:lib:jar:2.0 from/to releases (https://repo.example.org): Failed to transfer file "
+				+ "https://repo.example.org/lib-2.0.jar with status code: 502, reason phrase: Bad Gateway (502)"));
+
+		// client errors repeat on every run
+		assertFalse(classifier.isTransient("Could not transfer artifact org.demo:lib:jar:2.0 from/to private "
+				+ "(https://repo.example.org): Transfer failed for https://repo.example.org/lib-2.0.jar 401 Unauthorized"));
+		assertFalse(classifier.isTransient("Failed to deploy artifacts: Could not transfer artifact "
+				+ "org.demo:lib:jar:2.0 from/to releases (https://repo.example.org): Failed to transfer file "
+				+ "https://repo.example.org/lib-2.0.jar with status code: 403, reason phrase: Forbidden (403)"));
+		assertFalse(classifier.isTransient("Could not transfer artifact org.demo:lib:pom:2.0 from/to private "
+				+ "(https://repo.example.org): Authorization failed for https://repo.example.org/lib-2.0.pom 403 Forbidden"));
+		assertFalse(classifier.isTransient("Compilation failure: cannot find symbol"));
+	}
+
+	@Test
+	public void testBackoff() {
+		Retry retry = new Retry();
+		retry.setBackoff(Duration.ofMillis(100));
+		retry.setMultiplier(2.0);
+		retry.setMaxBackoff(Duration.ofMillis(300));
+		RetryInterceptor interceptor = interceptor(retry);
+		assertEquals(100, interceptor.backoffMillis(0));
+		assertEquals(200, interceptor.backoffMillis(1));
+		assertEquals(300, interceptor.backoffMillis(2));
+		assertEquals(300, interceptor.backoffMillis(5));
+
+		// a multiplier below one does not shorten the pause
+		retry.setMultiplier(0.5);
+		assertEquals(100, interceptor.backoffMillis(3));
+	}
+
+	@Test
+	public void testResumeFromMavenHint() throws Exception {
+		outputs.add(failure("[ERROR] Failed to execute goal on project app: Could not resolve dependencies for "
+				+ "project demo:app:jar:1.0: Could not transfer artifact org.demo:lib:jar:2.0 from/to central "
+				+ "(https://repo.maven.apache.org/maven2): Connection reset",
+				"[ERROR] After correcting the problems, you can resume the build with the command",
+				"[ERROR]   mvn <args> -rf :app-hinted"));
+
+		assertEquals(0, execute(new Retry()).getExitCode());
+		assertEquals(Arrays.asList(null, ":app-hinted"), resumedFrom);
+	}
+
+	@Test
+	public void testResumeFromFailedModule() throws Exception {
+		outputs.add(failure("[ERROR] Failed to execute goal on project app: Could not transfer artifact "
+				+ "org.demo:lib:jar:2.0 from/to central (https://repo.maven.apache.org/maven2): Connect timed out"));
+
+		assertEquals(0, execute(new Retry()).getExitCode());
+		assertEquals(Arrays.asList(null, ":app"), resumedFrom);
+	}
+
+	@Test
+	public void testResumeDisabled() throws Exception {
+		outputs.add(failure("[ERROR] Could not transfer artifact org.demo:lib:jar:2.0 from/to central "
+				+ "(https://repo.maven.apache.org/maven2): Connection refused"));
+		Retry retry = new Retry();
+		retry.setResume(false);
+
+		assertEquals(0, execute(retry).getExitCode());
+		assertEquals(Arrays.asList(null, null), resumedFrom);
+	}
+
+	@Test
+	public void testGivesUpAfterMaxRetries() throws Exception {
+		String[] failure = failure("[ERROR] Could not transfer artifact org.demo:lib:jar:2.0 from/to central "
+				+ "(https://repo.maven.apache.org/maven2): Connection reset");
+		outputs.addAll(Arrays.asList(failure, failure, failure, failure));
+
+		assertEquals(1, execute(new Retry()).getExitCode());
+		assertEquals(3, resumedFrom.size());
+	}
+
+	@Test
+	public void testPermanentFailuresAreNotRetried() throws Exception {
+		outputs.add(failure("[ERROR] Failed to execute goal on project app: Could not transfer artifact "
+				+ "org.demo:lib:jar:2.0 from/to private (https://repo.example.org): Transfer failed for "
+				+ "https://repo.example.org/lib-2.0.jar 404 Not Found"));
+
+		assertEquals(1, execute(new Retry()).getExitCode());
+		assertEquals(1, resumedFrom.size());
+	}
+
+	@Test
+	public void testTestFailuresAreNotRetried() throws Exception {
+		outputs.add(failure("[ERROR] Tests run: 3, Failures: 1, Errors: 0, Skipped: 0",
+				"[ERROR] Failures: ",
+				"[ERROR]   ClientIT.testConnect:23 java.net.ConnectException: Connection refused",
+				"[ERROR] Failed to execute goal org.apache.maven.plugins:maven-failsafe-plugin:2.22.2:verify "
+						+ "(default) on project app: There are test failures."));
+
+		assertEquals(1, execute(new Retry()).getExitCode());
+		assertEquals(1, resumedFrom.size());
+	}
+
+	private InvocationResult execute(Retry retry) throws Exception {
+		retry.setBackoff(Duration.ZERO);
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker,
+				new MavenInvokerProperties());
+		template.setInterceptors(Arrays.<MavenInvocationInterceptor>asList(interceptor(retry)));
+		return template.execute(new File("."), "install");
+	}
+
+	private static RetryInterceptor interceptor(Retry retry) {
+		return new RetryInterceptor(retry,
+				new TransientFailureClassifier(retry.getTransientPatterns(), retry.getPermanentPatterns()));
+	}
+
+	private static String[] failure(String... errors) {
+		List<String> output = new ArrayList<String>(Arrays.asList(
+				"[INFO] --------------------------< demo:core >---------------------------",
+				"[INFO] Building core 1.0                                                  [1/2]",
+				"[INFO] ---------------------------< demo:app >----------------------------",
+				"[INFO] Building app 1.0                                                   [2/2]"));
+		output.addAll(Arrays.asList(errors));
+		output.addAll(Arrays.asList(
+				"[INFO] Reactor Summary for demo 1.0:",
+				"[INFO] core 1.0 ........................................... SUCCESS [  0.500 s]",
+				"[INFO] app 1.0 ............................................ FAILURE [  0.100 s]",
+				"[INFO] BUILD FAILURE",
+				"[INFO] Total time:  0.700 s"));
+		return output.toArray(new String[output.size()]);
+	}
+
+}
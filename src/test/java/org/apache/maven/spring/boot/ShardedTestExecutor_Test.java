@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.sharding.ShardedTestExecutor;
+import org.apache.maven.spring.boot.ext.sharding.ShardedTestExecutor.Fork;
+import org.apache.maven.spring.boot.ext.sharding.ShardedTestResult;
+import org.apache.maven.spring.boot.ext.sharding.TestDurationStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ShardedTestExecutor_Test {
+
+	private static final List<String> CLASSES = Arrays.asList("demo.AlphaTest", "demo.BetaTest", "demo.GammaTest",
+			"demo.DeltaTest");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<List<String>> forks = new CopyOnWriteArrayList<List<String>>();
+	private File project;
+	private File reports;
+	private TestDurationStore durations;
+	private int compileExitCode;
+
+	/**
+	 * Stands in for Maven: compiles nothing and writes a surefire report for every class of the
+	 * {@code -Dtest} filter, failing {@code GammaTest}.
+	 */
+	private final Fork fork = goals -> {
+		forks.add(goals);
+		if (goals.contains("test-compile")) {
+			return result(compileExitCode);
+		}
+		String filter = goals.get(1).substring("-Dtest=".length());
+		boolean failed = false;
+		try {
+			Files.createDirectories(reports.toPath());
+			for (String name : filter.split(",")) {
+				int failures = name.equals("demo.GammaTest") ? 1 : 0;
+				failed |= failures > 0;
+				Files.write(new File(reports, "TEST-" + name + ".xml").toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+						+ "<testsuite name=\"" + name + "\" time=\"" + (name.length() / 10.0) + "\" tests=\"2\" errors=\"0\" skipped=\"0\""
+						+ " failures=\"" + failures + "\"/>").getBytes(StandardCharsets.UTF_8));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return result(failed ? 1 : 0);
+	};
+
+	@Before
+	public void setUp() throws IOException {
+		project = folder.newFolder("project");
+		for (String name : CLASSES) {
+			File source = new File(project, "src/test/java/" + name.replace('.', '/') + ".java");
+			source.getParentFile().mkdirs();
+			Files.write(source.toPath(), ("package demo; public class " + name.substring(5) + " {}").getBytes(StandardCharsets.UTF_8));
+		}
+		reports = new File(project, "target/surefire-reports");
+		durations = new TestDurationStore(folder.newFolder("durations"));
+	}
+
+	@Test
+	public void testForkAndMerge() throws Exception {
+		// a report of an earlier run must not leak into the merged result
+		reports.mkdirs();
+		Files.write(new File(reports, "TEST-demo.RemovedTest.xml").toPath(), "<testsuite name=\"demo.RemovedTest\" tests=\"9\"/>"
+				.getBytes(StandardCharsets.UTF_8));
+
+		ShardedTestResult result = new ShardedTestExecutor(durations).execute(project, 2, fork);
+
+		assertEquals(Arrays.asList("test-compile"), forks.get(0));
+		assertEquals(3, forks.size());
+		assertEquals(2, result.getShards().size());
+		List<String> run = new ArrayList<String>();
+		for (List<String> goals : forks.subList(1, forks.size())) {
+			assertEquals("surefire:test", goals.get(0));
+			assertTrue(goals.contains("-DfailIfNoTests=false"));
+			run.addAll(Arrays.asList(goals.get(1).substring("-Dtest=".length()).split(",")));
+		}
+		Collections.sort(run);
+		List<String> expected = new ArrayList<String>(CLASSES);
+		Collections.sort(expected);
+		assertEquals(expected, run);
+
+		assertEquals(expected, new ArrayList<String>(new TreeSet<String>(result.getReports().keySet())));
+		assertEquals(8, result.getTests());
+		assertEquals(1, result.getFailures());
+		// the shard with GammaTest failed
+		assertEquals(1, result.getExitCode());
+
+		Map<String, Long> recorded = durations.load(project);
+		assertEquals(4, recorded.size());
+		assertEquals(Long.valueOf(1400), recorded.get("demo.AlphaTest"));
+	}
+
+	@Test
+	public void testCompileFailure() throws Exception {
+		compileExitCode = 1;
+		ShardedTestResult result = new ShardedTestExecutor(durations).execute(project, 2, fork);
+
+		assertEquals(1, forks.size());
+		assertTrue(result.getShards().isEmpty());
+		assertEquals(1, result.getExitCode());
+		assertFalse(reports.exists());
+	}
+
+	private static InvocationResult result(int exitCode) {
+		return new InvocationResult() {
+
+			@Override
+			public CommandLineException getExecutionException() {
+				return null;
+			}
+
+			@Override
+			public int getExitCode() {
+				return exitCode;
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.shared.invoker.Invoker;
+import org.junit.Test;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+public class StartupMetadata_Test {
+
+	private static final String HINTS = "META-INF/native-image/com.github.hiwepy/maven-invoker-spring-boot-starter/";
+
+	@Test
+	public void testAutoConfigureMetadataMatchesConditions() throws Exception {
+		Properties metadata = new Properties();
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream("META-INF/spring-autoconfigure-metadata.properties")) {
+			metadata.load(in);
+		}
+		String name = MavenInvokerAutoConfiguration.class.getName();
+		assertTrue(metadata.containsKey(name));
+		ConditionalOnClass condition = MavenInvokerAutoConfiguration.class.getAnnotation(ConditionalOnClass.class);
+		Set<String> classes = new HashSet<String>();
+		for (Class<?> type : condition.value()) {
+			classes.add(type.getName());
+		}
+		classes.addAll(Arrays.asList(condition.name()));
+		assertEquals(classes, new HashSet<String>(Arrays.asList(metadata.getProperty(name + ".ConditionalOnClass").split(","))));
+	}
+
+	@Test
+	public void testReflectionHintsCoverProperties() throws Exception {
+		String json;
+		try (InputStream in = getClass().getClassLoader().getResourceAsStream(HINTS + "reflect-config.json")) {
+			json = StreamUtils.copyToString(in, StandardCharsets.UTF_8);
+		}
+		Set<String> names = new HashSet<String>();
+		Matcher matcher = Pattern.compile("\"name\"\\s*:\\s*\"([^\"]+)\"").matcher(json);
+		while (matcher.find()) {
+			// every hinted class must exist, or native-image fails on it
+			Class.forName(matcher.group(1), false, getClass().getClassLoader());
+			names.add(matcher.group(1));
+		}
+		for (Class<?> type : MavenInvokerProperties.class.getDeclaredClasses()) {
+			assertTrue(type.getName() + " is not hinted", names.contains(type.getName()));
+		}
+		assertNotNull(getClass().getClassLoader().getResource("org/apache/maven/model/pom-4.0.0.xml"));
+	}
+
+	@Test
+	public void testInvokerDoesNotTouchLocalRepository() throws Exception {
+		Path parent = Files.createTempDirectory("startup");
+		try {
+			File repository = new File(parent.toFile(), "missing/repository");
+			MavenInvokerProperties properties = new MavenInvokerProperties();
+			properties.setLocalRepository(repository.getAbsolutePath());
+			Invoker invoker = new MavenInvokerAutoConfiguration().mavenInvoker(line -> { }, line -> { }, null, properties);
+			assertEquals(repository, invoker.getLocalRepositoryDirectory());
+			assertFalse(repository.exists());
+
+			properties.newRequest();
+			assertTrue(repository.isDirectory());
+		} finally {
+			FileSystemUtils.deleteRecursively(parent);
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.spring.boot.ext.sharding.TestClassReport;
+import org.apache.maven.spring.boot.ext.sharding.TestDurationStore;
+import org.apache.maven.spring.boot.ext.sharding.TestShard;
+import org.apache.maven.spring.boot.ext.sharding.TestShardPlanner;
+import org.junit.Test;
+import org.springframework.util.FileSystemUtils;
+
+public class TestShardPlanner_Test {
+
+	@Test
+	public void testBalancedPlan() {
+		Map<String, Long> durations = new HashMap<String, Long>();
+		durations.put("a.SlowTest", 9000L);
+		durations.put("a.MediumTest", 5000L);
+		durations.put("a.OtherMediumTest", 4000L);
+		durations.put("a.FastTest", 1000L);
+		List<String> classes = Arrays.asList("a.FastTest", "a.MediumTest", "a.OtherMediumTest", "a.SlowTest", "a.NewTest");
+
+		List<TestShard> plan = TestShardPlanner.plan(classes, durations, 2);
+		assertEquals(2, plan.size());
+		// the new class counts as the median (5000 ms): 9000 + 4000 against 5000 + 5000 + 1000
+		assertEquals(Arrays.asList("a.SlowTest", "a.OtherMediumTest"), plan.get(0).getClasses());
+		assertEquals(13000, plan.get(0).getEstimatedMillis());
+		assertEquals(Arrays.asList("a.MediumTest", "a.NewTest", "a.FastTest"), plan.get(1).getClasses());
+		assertEquals(11000, plan.get(1).getEstimatedMillis());
+
+		assertEquals(1, TestShardPlanner.plan(Arrays.asList("a.OnlyTest"), durations, 8).size());
+	}
+
+	@Test
+	public void testDiscoverAndRecord() throws Exception {
+		Path project = Files.createTempDirectory("sharding");
+		try {
+			Path sources = project.resolve("src/test/java/demo");
+			Files.createDirectories(sources);
+			Files.write(sources.resolve("CoreTest.java"), "public class CoreTest {}".getBytes(StandardCharsets.UTF_8));
+			Files.write(sources.resolve("AbstractBaseTest.java"), "public abstract class AbstractBaseTest {}".getBytes(StandardCharsets.UTF_8));
+			Files.write(sources.resolve("Helper.java"), "class Helper {}".getBytes(StandardCharsets.UTF_8));
+			assertEquals(Arrays.asList("demo.CoreTest"), TestShardPlanner.discover(project.resolve("src/test/java")));
+
+			Path reports = project.resolve("target/surefire-reports");
+			Files.createDirectories(reports);
+			Files.write(reports.resolve("TEST-demo.CoreTest.xml"), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+					+ "<testsuite name=\"demo.CoreTest\" time=\"1,234.5\" tests=\"4\" errors=\"0\" skipped=\"1\" failures=\"1\">"
+					+ "<testcase name=\"a\" time=\"0.1\"/></testsuite>").getBytes(StandardCharsets.UTF_8));
+			Map<String, TestClassReport> read = TestClassReport.readAll(reports.toFile());
+			TestClassReport report = read.get("demo.CoreTest");
+			assertEquals(4, report.getTests());
+			assertEquals(1, report.getFailures());
+			assertEquals(1234500, report.getMillis());
+
+			TestDurationStore store = new TestDurationStore(project.resolve("durations").toFile());
+			File basedir = project.toFile();
+			assertTrue(store.load(basedir).isEmpty());
+			Map<String, Long> measured = new HashMap<String, Long>();
+			measured.put(report.getName(), report.getMillis());
+			store.record(basedir, measured);
+			assertEquals(Long.valueOf(1234500), store.load(basedir).get("demo.CoreTest"));
+		} finally {
+			FileSystemUtils.deleteRecursively(project);
+		}
+	}
+
+}
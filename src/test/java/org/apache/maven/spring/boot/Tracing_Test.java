@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.shared.invoker.DefaultInvoker;
+import org.apache.maven.shared.invoker.InvocationRequest;
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.MavenInvocationInterceptor;
+import org.apache.maven.spring.boot.ext.MavenInvokerTemplate;
+import org.apache.maven.spring.boot.ext.trace.InMemorySpanExporter;
+import org.apache.maven.spring.boot.ext.trace.InvocationSpan;
+import org.apache.maven.spring.boot.ext.trace.InvocationTracer;
+import org.apache.maven.spring.boot.ext.trace.TracingInterceptor;
+import org.junit.Test;
+
+public class Tracing_Test {
+
+	private static final String[] OUTPUT = {
+			"[INFO] --------------------------< demo:core >---------------------------",
+			"[INFO] Building core 1.0                                                  [1/2]",
+			"[INFO] --- maven-compiler-plugin:3.8.1:compile (default-compile) @ core ---",
+			"[INFO] --- maven-surefire-plugin:2.22.2:test (default-test) @ core ---",
+			"[INFO] ---------------------------< demo:app >----------------------------",
+			"[INFO] Building app 1.0                                                   [2/2]",
+			"[INFO] --- maven-compiler-plugin:3.8.1:compile (default-compile) @ app ---",
+			"[INFO] Reactor Summary for demo 1.0:",
+			"[INFO] core 1.0 ........................................... SUCCESS [  0.500 s]",
+			"[INFO] app 1.0 ............................................ FAILURE [  0.100 s]",
+			"[INFO] BUILD FAILURE",
+			"[INFO] Total time:  0.700 s",
+	};
+
+	private final Map<String, String> environment = new HashMap<String, String>();
+
+	private final DefaultInvoker invoker = new DefaultInvoker() {
+
+		@Override
+		public InvocationResult execute(InvocationRequest request) {
+			environment.putAll(request.getShellEnvironments());
+			try {
+				for (String line : OUTPUT) {
+					request.getOutputHandler(null).consumeLine(line);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return new InvocationResult() {
+
+				@Override
+				public CommandLineException getExecutionException() {
+					return null;
+				}
+
+				@Override
+				public int getExitCode() {
+					return 1;
+				}
+
+			};
+		}
+
+	};
+
+	@Test
+	public void testExecuteSpans() throws Exception {
+		InMemorySpanExporter exporter = new InMemorySpanExporter();
+		InvocationTracer tracer = new InvocationTracer(Arrays.asList(exporter));
+		MavenInvocationInterceptor queue = (request, chain) -> {
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return chain.proceed(request);
+		};
+
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker,
+				new MavenInvokerProperties());
+		template.setInterceptors(Arrays.asList(queue, new TracingInterceptor(tracer)));
+		template.setTracer(tracer);
+
+		assertEquals(1, template.execute(new File("."), "clean", "verify").getExitCode());
+		assertNull(tracer.current());
+
+		List<InvocationSpan> spans = exporter.getFinishedSpans();
+		InvocationSpan root = find(spans, "maven execute");
+		assertNull(root.getParentSpanId());
+		assertEquals("clean verify", root.getAttribute("maven.goals"));
+		assertEquals(1, root.getAttribute("maven.exit_code"));
+		assertTrue(root.isError());
+
+		InvocationSpan fork = find(spans, "maven fork");
+		assertEquals(root.getSpanId(), fork.getParentSpanId());
+		assertEquals(1, fork.getAttribute("maven.exit_code"));
+		assertTrue((Long) fork.getAttribute("maven.queue_wait_ms") >= 50);
+		assertEquals(fork.traceparent(), environment.get(TracingInterceptor.TRACEPARENT));
+
+		InvocationSpan core = find(spans, "maven module core");
+		InvocationSpan app = find(spans, "maven module app");
+		assertEquals(fork.getSpanId(), core.getParentSpanId());
+		assertFalse(core.isError());
+		assertTrue(app.isError());
+
+		InvocationSpan compile = find(spans, "maven mojo maven-surefire-plugin:2.22.2:test (default-test)");
+		assertEquals(core.getSpanId(), compile.getParentSpanId());
+		assertEquals(root.getTraceId(), compile.getTraceId());
+		// two modules, three mojos, the fork and the operation
+		assertEquals(7, spans.size());
+		for (InvocationSpan span : spans) {
+			assertTrue(span.isEnded());
+		}
+	}
+
+	@Test
+	public void testSpanPerFork() throws Exception {
+		InMemorySpanExporter exporter = new InMemorySpanExporter();
+		InvocationTracer tracer = new InvocationTracer(Arrays.asList(exporter));
+		// forks twice, like a retry, pausing in between
+		MavenInvocationInterceptor retry = (request, chain) -> {
+			chain.proceed(request);
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return chain.proceed(request);
+		};
+
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker,
+				new MavenInvokerProperties());
+		template.setInterceptors(Arrays.asList(retry, new TracingInterceptor(tracer)));
+		template.setTracer(tracer);
+		template.execute(new File("."), "verify");
+
+		InvocationSpan root = find(exporter.getFinishedSpans(), "maven execute");
+		List<InvocationSpan> forks = new ArrayList<InvocationSpan>();
+		for (InvocationSpan span : exporter.getFinishedSpans()) {
+			if (span.getName().equals("maven fork")) {
+				forks.add(span);
+			}
+		}
+		assertEquals(2, forks.size());
+		for (InvocationSpan fork : forks) {
+			assertEquals(root.getSpanId(), fork.getParentSpanId());
+			assertEquals(1, fork.getAttribute("maven.exit_code"));
+		}
+		assertTrue((Long) forks.get(0).getAttribute("maven.queue_wait_ms") < 50);
+		assertTrue((Long) forks.get(1).getAttribute("maven.queue_wait_ms") >= 50);
+		assertNull(root.getAttribute("maven.queue_wait_ms"));
+	}
+
+	@Test
+	public void testForkWithoutOperation() throws Exception {
+		InMemorySpanExporter exporter = new InMemorySpanExporter();
+		InvocationTracer tracer = new InvocationTracer(Arrays.asList(exporter));
+		MavenInvokerTemplate template = new MavenInvokerTemplate(line -> { }, line -> { }, invoker,
+				new MavenInvokerProperties());
+		template.setInterceptors(Arrays.<MavenInvocationInterceptor>asList(new TracingInterceptor(tracer)));
+
+		template.execute(new File("."), "verify");
+		assertEquals(find(exporter.getFinishedSpans(), "maven fork").traceparent(),
+				environment.get(TracingInterceptor.TRACEPARENT));
+	}
+
+	private static InvocationSpan find(List<InvocationSpan> spans, String name) {
+		for (InvocationSpan span : spans) {
+			if (span.getName().equals(name)) {
+				return span;
+			}
+		}
+		throw new AssertionError("No span " + name + " in " + spans);
+	}
+
+}
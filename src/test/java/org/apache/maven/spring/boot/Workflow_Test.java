@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.maven.spring.boot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.shared.invoker.InvocationResult;
+import org.apache.maven.shared.utils.cli.CommandLineException;
+import org.apache.maven.spring.boot.ext.workflow.Workflow;
+import org.apache.maven.spring.boot.ext.workflow.WorkflowItem;
+import org.apache.maven.spring.boot.ext.workflow.WorkflowItem.Status;
+import org.apache.maven.spring.boot.ext.workflow.WorkflowResult;
+import org.apache.maven.spring.boot.ext.workflow.WorkflowStep;
+import org.junit.Test;
+
+public class Workflow_Test {
+
+	private final Map<String, AtomicInteger> running = new ConcurrentHashMap<String, AtomicInteger>();
+	private final Map<String, AtomicInteger> peak = new ConcurrentHashMap<String, AtomicInteger>();
+
+	private WorkflowStep<Integer> step(String stage, WorkflowStep<Integer> work) {
+		running.put(stage, new AtomicInteger());
+		peak.put(stage, new AtomicInteger());
+		return item -> {
+			int now = running.get(stage).incrementAndGet();
+			peak.get(stage).accumulateAndGet(now, Math::max);
+			try {
+				Thread.sleep(5);
+				return work.apply(item);
+			} finally {
+				running.get(stage).decrementAndGet();
+			}
+		};
+	}
+
+	private static InvocationResult exitCode(int exitCode) {
+		return new InvocationResult() {
+
+			@Override
+			public CommandLineException getExecutionException() {
+				return null;
+			}
+
+			@Override
+			public int getExitCode() {
+				return exitCode;
+			}
+
+		};
+	}
+
+	@Test
+	public void testPipeline() throws Exception {
+		Workflow<Integer> workflow = new Workflow.Builder<Integer>()
+				.stage("deploy", 1, step("deploy", item -> exitCode(0)), "install", "verify")
+				.stage("parse", 3, step("parse", item -> "model-" + item.getPayload()))
+				.stage("install", 2, step("install", item -> {
+					if (item.getPayload() == 3) {
+						throw new IllegalStateException("disk full");
+					}
+					return exitCode(0);
+				}), "parse")
+				.stage("verify", 2, step("verify", item -> exitCode(item.getPayload() == 5 ? 1 : 0)), "install")
+				.maxInFlight(4)
+				.build();
+		assertEquals("[parse, install, verify, deploy]", workflow.getStages().toString());
+
+		List<Integer> payloads = new ArrayList<Integer>();
+		for (int i = 0; i < 20; i++) {
+			payloads.add(i);
+		}
+		WorkflowResult<Integer> result = workflow.execute(payloads);
+
+		assertEquals(20, result.getItems().size());
+		assertEquals(2, result.getFailed().size());
+		WorkflowItem<Integer> failedInstall = result.getItems().get(3);
+		assertEquals("install", failedInstall.getFailedStage());
+		assertEquals(Status.SKIPPED, failedInstall.getStatus("verify"));
+		assertEquals(Status.SKIPPED, failedInstall.getStatus("deploy"));
+		assertEquals("verify", result.getItems().get(5).getFailedStage());
+		assertEquals(Status.SUCCEEDED, result.getItems().get(5).getStatus("install"));
+
+		WorkflowItem<Integer> other = result.getItems().get(4);
+		assertTrue(other.isSucceeded());
+		assertEquals("model-4", other.getResult("parse"));
+		assertEquals(Status.SUCCEEDED, other.getStatus("deploy"));
+
+		assertTrue(peak.get("parse").get() <= 3);
+		assertTrue(peak.get("install").get() <= 2);
+		assertEquals(1, peak.get("deploy").get());
+		assertFalse(result.isSuccess());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCycle() {
+		new Workflow.Builder<Integer>().stage("a", 1, item -> null, "b").stage("b", 1, item -> null, "a").build();
+	}
+
+}